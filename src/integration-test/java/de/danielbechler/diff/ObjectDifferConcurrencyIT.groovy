@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff
+
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.differ.Differ
+import de.danielbechler.diff.differ.DifferDispatcher
+import de.danielbechler.diff.differ.DifferFactory
+import de.danielbechler.diff.mock.ObjectWithCircularReference
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import de.danielbechler.diff.path.NodePath
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class ObjectDifferConcurrencyIT extends Specification {
+
+	static final int THREADS = 8
+	static final int ITERATIONS = 200
+
+	def 'one ObjectDiffer can be used by many threads at the same time'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.buildDefault()
+		  def expected = describe(objectDiffer.compare(ring('working', 5), ring('base', 5)))
+		and:
+		  def executor = Executors.newFixedThreadPool(THREADS)
+		  def startSignal = new CountDownLatch(1)
+		  def tasks = (1..THREADS).collect {
+			  new Callable<List<String>>() {
+				  List<String> call() {
+					  startSignal.await()
+					  def results = []
+					  ITERATIONS.times {
+						  results << describe(objectDiffer.compare(ring('working', 5), ring('base', 5)))
+					  }
+					  return results
+				  }
+			  }
+		  }
+		when:
+		  def futures = tasks.collect { executor.submit(it) }
+		  startSignal.countDown()
+		  def results = futures.collectMany { it.get(1, TimeUnit.MINUTES) }
+		then:
+		  results.size() == THREADS * ITERATIONS
+		  results.every { it == expected }
+		cleanup:
+		  executor?.shutdownNow()
+	}
+
+	def 'comparisons can be nested within other comparisons'() {
+		given:
+		  ObjectDiffer objectDiffer
+		  def nestedResults = []
+		  objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().register(new DifferFactory() {
+			  Differ createDiffer(DifferDispatcher differDispatcher, NodeQueryService nodeQueryService) {
+				  return new NestingDiffer(callback: {
+					  nestedResults << describe(objectDiffer.compare(ring('nested-working', 3), ring('nested-base', 3)))
+				  })
+			  }
+		  })
+				  .build()
+		and:
+		  def expected = describe(ObjectDifferBuilder.buildDefault().compare(ring('working', 3), ring('base', 3)))
+		when:
+		  def node = objectDiffer.compare(new Holder(nesting: new Nesting(value: 'a'), ring: ring('working', 3)),
+				  new Holder(nesting: new Nesting(value: 'b'), ring: ring('base', 3)))
+		then:
+		  nestedResults.size() == 1
+		  nestedResults[0] == describe(ObjectDifferBuilder.buildDefault().compare(ring('nested-working', 3), ring('nested-base', 3)))
+		and: 'the outer comparison is not affected by the nested one'
+		  node.getChild('nesting').changed
+		  describe(node.getChild('ring')).size() == expected.size()
+		  node.getChild('ring').getChild(NodePath.with('ring', 'reference', 'reference', 'reference')).circular
+	}
+
+	def 'parallel comparison yields the same result as sequential comparison'() {
+		given:
+		  def executor = Executors.newFixedThreadPool(threads)
+		  def parallelObjectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInParallel(executor, 2)
+				  .build()
+		  def working = tree('working', 4, 3)
+		  def base = tree('base', 4, 3)
+		and:
+		  def expected = describe(ObjectDifferBuilder.buildDefault().compare(working, base))
+		expect:
+		  expected.any { it.endsWith('CIRCULAR') }
+		  describe(parallelObjectDiffer.compare(working, base)) == expected
+		cleanup:
+		  executor?.shutdownNow()
+		where:
+		  threads << [1, 4]
+	}
+
+	private static Tree tree(String prefix, int depth, int width) {
+		def node = new Tree(value: prefix + depth)
+		if (depth > 1) {
+			width.times { i ->
+				def child = tree(prefix + '-' + i, depth - 1, width)
+				child.parent = node
+				node.children << child
+				node.index[String.valueOf(i)] = child
+			}
+		}
+		return node
+	}
+
+	private static ObjectWithCircularReference ring(String prefix, int size) {
+		def first = new ObjectWithCircularReference(prefix + '-0')
+		def current = first
+		for (int i = 1; i < size; i++) {
+			current.reference = new ObjectWithCircularReference(prefix + '-' + i)
+			current = current.reference
+		}
+		current.reference = first
+		return first
+	}
+
+	private static List<String> describe(DiffNode node) {
+		def lines = []
+		node.visit(new DiffNode.Visitor() {
+			void node(DiffNode visitedNode, Visit visit) {
+				lines << (visitedNode.path.toString() + ' ' + visitedNode.state)
+			}
+		})
+		return lines
+	}
+
+	static class Holder {
+		Nesting nesting
+		ObjectWithCircularReference ring
+	}
+
+	static class Tree {
+		String value
+		Tree parent
+		List<Tree> children = []
+		Map<String, Tree> index = [:]
+	}
+
+	static class Nesting {
+		String value
+	}
+
+	/**
+	 * A differ that is not aware of the DiffContext and triggers another comparison while it is running.
+	 */
+	static class NestingDiffer implements Differ {
+		Closure callback
+
+		boolean accepts(Class<?> type) {
+			return type == Nesting
+		}
+
+		DiffNode compare(DiffNode parentNode, Instances instances) {
+			callback.call()
+			def node = new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+			if (!instances.areEqual()) {
+				node.state = DiffNode.State.CHANGED
+			}
+			return node
+		}
+	}
+}
@@ -17,12 +17,15 @@
 package de.danielbechler.diff
 
 import de.danielbechler.diff.mock.*
+import de.danielbechler.diff.node.DiffListener
 import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
 import de.danielbechler.diff.path.NodePath
 import de.danielbechler.diff.selector.CollectionItemElementSelector
 import de.danielbechler.diff.selector.MapKeyElementSelector
 import spock.lang.Ignore
 import spock.lang.Specification
+import spock.lang.Unroll
 
 public class ObjectDifferIT extends Specification {
 
@@ -360,4 +363,122 @@ public class ObjectDifferIT extends Specification {
 		  node.changed
 		  node.getChild('map').changed
 	}
-}
+
+	@Unroll
+	def 'hasDifferences(#a, #b) should be #expected'() {
+		expect:
+		  objectDiffer.hasDifferences(a, b) == expected
+		  objectDiffer.compare(a, b).hasChanges() == expected
+		where:
+		  a                                           | b                                        || expected
+		  'foo'                                       | 'foo'                                    || false
+		  'foo'                                       | 'bar'                                    || true
+		  null                                        | 'bar'                                    || true
+		  ['a', 'b', 'c']                             | ['a', 'b', 'c']                          || false
+		  ['a', 'b', 'c']                             | ['a', 'c']                               || true
+		  [a: '1', b: '2']                            | [a: '1', b: '2']                         || false
+		  [a: '1', b: '2']                            | [a: '1', b: '3']                         || true
+		  new ObjectWithString('foo')                 | new ObjectWithString('foo')              || false
+		  new ObjectWithString('foo')                 | new ObjectWithString('bar')              || true
+	}
+
+	def 'hasDifferences should not compare any further entries once it found a difference'() {
+		given:
+		  def working = [a: 'changed', b: new AccessTrackingBean(value: 'foo')]
+		  def base = [a: 'unchanged', b: new AccessTrackingBean(value: 'foo')]
+		expect:
+		  objectDiffer.hasDifferences(working, base)
+		  !working.b.accessed
+		  !base.b.accessed
+		and:
+		  objectDiffer.compare(working, base).hasChanges()
+		  working.b.accessed
+	}
+
+	def 'hasDifferences should respect nodes omitted by the filtering configuration'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .filtering().omitNodesWithState(DiffNode.State.CHANGED).and()
+				  .build()
+		and:
+		  def working = new ObjectWithNestedObject('1', new ObjectWithNestedObject('2'))
+		  def base = new ObjectWithNestedObject('1', new ObjectWithNestedObject('3'))
+		expect:
+		  !objectDiffer.compare(working, base).hasChanges()
+		  !objectDiffer.hasDifferences(working, base)
+	}
+
+	def 'compare with listener should pass on the same nodes as the tree contains, children first'() {
+		given:
+		  def working = new ObjectWithNestedObject('1', new ObjectWithNestedObject('2', new ObjectWithNestedObject('foo')))
+		  def base = new ObjectWithNestedObject('1', new ObjectWithNestedObject('2', new ObjectWithNestedObject('bar')))
+		and:
+		  def expected = []
+		  objectDiffer.compare(working, base).visit({ DiffNode node, Visit visit ->
+			  expected << [node.path, node.state]
+		  } as DiffNode.Visitor)
+		when:
+		  def events = []
+		  objectDiffer.compare(working, base, { DiffNode node, Object workingValue, Object baseValue ->
+			  events << [node.path, node.state, workingValue, baseValue]
+			  assert !node.hasChildren()
+		  } as DiffListener)
+		then:
+		  events.collect { it[0..1] } as Set == expected as Set
+		  events*.getAt(0) == [
+				  NodePath.with('object', 'object', 'id'),
+				  NodePath.with('object', 'object'),
+				  NodePath.with('object'),
+				  NodePath.withRoot()
+		  ]
+		  events[0][2] == 'foo'
+		  events[0][3] == 'bar'
+		  events[3][2].is(working)
+		  events[3][3].is(base)
+	}
+
+	def 'compare with listener should not pass on anything when nothing changed'() {
+		given:
+		  def listener = Mock(DiffListener)
+		when:
+		  objectDiffer.compare(['a', 'b'], ['a', 'b'], listener)
+		then:
+		  0 * listener._
+	}
+
+	def 'compare with listener should pass on the changed ranges of arrays'() {
+		given:
+		  def events = []
+		when:
+		  objectDiffer.compare([1, 9, 3, 9] as int[], [1, 2, 3, 4] as int[], { DiffNode node, Object workingValue, Object baseValue ->
+			  events << [node.path.toString(), node.state, workingValue, baseValue]
+			  assert !node.hasChildren()
+		  } as DiffListener)
+		then:
+		  events == [
+				  ['/[1]', DiffNode.State.CHANGED, [9] as int[], [2] as int[]],
+				  ['/[3]', DiffNode.State.CHANGED, [9] as int[], [4] as int[]],
+				  ['/', DiffNode.State.CHANGED, [1, 9, 3, 9] as int[], [1, 2, 3, 4] as int[]]
+		  ]
+	}
+
+	def 'arrays with changed ranges have differences'() {
+		expect:
+		  objectDiffer.hasDifferences([1, 9, 3] as int[], [1, 2, 3] as int[])
+		  !objectDiffer.hasDifferences([1, 2, 3] as int[], [1, 2, 3] as int[])
+	}
+
+	static class AccessTrackingBean {
+		public boolean accessed
+		private String value
+
+		String getValue() {
+			accessed = true
+			return value
+		}
+
+		void setValue(String value) {
+			this.value = value
+		}
+	}
+}
\ No newline at end of file
@@ -40,6 +40,21 @@ class CategoriesTestIT extends Specification {
 		  node.getChild("secondString").getCategories() == ["cat1", "catAnnotation"] as Set
 	}
 
+	def "should return the categories of an untouched root node"() {
+		setup:
+		  def differ = ObjectDifferBuilder.startBuilding()
+				  .categories()
+				  .ofType(MyObject).toBe("typeCategory")
+				  .ofNode(NodePath.withRoot()).toBe("rootCategory")
+				  .and()
+				  .build()
+		  def node = differ.compare(new MyObject("aaa", "aaa"), new MyObject("aaa", "aaa"))
+
+		expect:
+		  node.untouched
+		  node.getCategories() == ["typeCategory", "rootCategory"] as Set
+	}
+
 	@SuppressWarnings("GroovyUnusedDeclaration")
 	class MyObject {
 		def firstString
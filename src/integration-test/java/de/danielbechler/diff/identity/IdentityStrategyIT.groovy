@@ -21,6 +21,7 @@ import de.danielbechler.diff.ObjectDifferBuilder
 import de.danielbechler.diff.access.CollectionItemAccessor
 import de.danielbechler.diff.differ.CollectionDiffer
 import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
 import de.danielbechler.diff.path.NodePath
 import de.danielbechler.diff.selector.CollectionItemElementSelector
 import de.danielbechler.diff.selector.ElementSelector
@@ -127,6 +128,25 @@ class IdentityStrategyIT extends Specification {
 		  node.getChild(itemPath).canonicalGet(target) == null
 	}
 
+	def 'should match items via subclasses of the EqualsIdentityStrategy that loosen equals'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .identity().ofCollectionItems(NodePath.withRoot()).via(new CaseInsensitiveIdentityStrategy())
+				  .and().build()
+		  def changes = [:]
+
+		when:
+		  def node = objectDiffer.compare(['A'], ['a'])
+		  node.visitChildren(new DiffNode.Visitor() {
+			  void node(DiffNode child, Visit visit) {
+				  changes[child.path.toString()] = child.state
+			  }
+		  })
+
+		then:
+		  changes == ['/[a]': DiffNode.State.CHANGED]
+	}
+
 	@AutoClone
 	@EqualsAndHashCode(includes = ['id'])
 	@ToString(includePackage = false)
@@ -135,6 +155,13 @@ class IdentityStrategyIT extends Specification {
 		String code
 	}
 
+	public static class CaseInsensitiveIdentityStrategy extends EqualsIdentityStrategy {
+		@Override
+		boolean equals(final Object working, final Object base) {
+			return ((String) working).equalsIgnoreCase((String) base)
+		}
+	}
+
 	public static class CodeIdentityStrategy implements IdentityStrategy {
 		@Override
 		boolean equals(final Object working, final Object base) {
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.integration
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import de.danielbechler.diff.selector.ArrayRangeElementSelector
+import spock.lang.Specification
+
+class ArrayIT extends Specification {
+
+	def 'reports changed ranges of arrays'() {
+		given:
+		  def working = [1, 2, 3, 4, 5, 6] as long[]
+		  def base = [1, 0, 0, 4, 5] as long[]
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(working, base)
+		then:
+		  node.changed
+		  statesOfChildren(node) == [
+				  '/[1..2]': DiffNode.State.CHANGED,
+				  '/[5]'   : DiffNode.State.ADDED
+		  ]
+		and:
+		  node.getChild(new ArrayRangeElementSelector(1, 3)).canonicalGet(working) == [2, 3] as long[]
+	}
+
+	def 'compares arrays nested in other objects'() {
+		given:
+		  def working = [payload: [1, 2, 3] as byte[]]
+		  def base = [payload: [1, 2, 4] as byte[]]
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(working, base)
+		then:
+		  statesOfChildren(node) == [
+				  '/{payload}'     : DiffNode.State.CHANGED,
+				  '/{payload}/[2]' : DiffNode.State.CHANGED
+		  ]
+	}
+
+	def 'equal arrays are untouched'() {
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(['a', 'b'] as String[], ['a', 'b'] as String[])
+		then:
+		  node.untouched
+	}
+
+	private static Map<String, DiffNode.State> statesOfChildren(DiffNode node) {
+		def states = [:]
+		node.visitChildren(new DiffNode.Visitor() {
+			void node(DiffNode child, Visit visit) {
+				states[child.path.toString()] = child.state
+			}
+		})
+		return states
+	}
+}
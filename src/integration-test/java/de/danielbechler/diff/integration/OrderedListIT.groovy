@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.integration
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.identity.IdentityStrategy
+import de.danielbechler.diff.mock.ObjectWithCollection
+import de.danielbechler.diff.mock.ObjectWithIdentityAndValue
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import de.danielbechler.diff.path.NodePath
+import de.danielbechler.diff.selector.CollectionItemElementSelector
+import de.danielbechler.diff.selector.ListItemElementSelector
+import spock.lang.Specification
+
+class OrderedListIT extends Specification {
+
+	def 'reports moved, added and removed items of lists compared in order'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(List)
+				  .build()
+		when:
+		  def node = objectDiffer.compare(['c', 'a', 'b', 'd'], ['a', 'b', 'c', 'e'])
+		then:
+		  node.changed
+		  statesOfChildren(node) == [
+				  '[c]': DiffNode.State.MOVED,
+				  '[d]': DiffNode.State.ADDED,
+				  '[e]': DiffNode.State.REMOVED
+		  ]
+	}
+
+	def 'treats lists as bags by default'() {
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(['c', 'a', 'b'], ['a', 'b', 'c'])
+		then:
+		  node.untouched
+	}
+
+	def 'compares lists of different types in order'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(List)
+				  .build()
+		when:
+		  def node = objectDiffer.compare(
+				  new ObjectWithCollection(new LinkedList(['b', 'a'])),
+				  new ObjectWithCollection(new ArrayList(['a', 'b'])))
+		then:
+		  statesOfChildren(node.getChild('collection')).values() as List == [DiffNode.State.MOVED]
+	}
+
+	def 'resolves lists of different types to Collection, unless they are compared in order'() {
+		given:
+		  def working = new ObjectWithCollection(new LinkedList(['a']))
+		  def base = new ObjectWithCollection(new ArrayList(['b']))
+		expect:
+		  ObjectDifferBuilder.buildDefault().compare(working, base).getChild('collection').valueType == Collection
+	}
+
+	def 'compares only the lists at the configured path in order'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(NodePath.with('collection'))
+				  .build()
+		when:
+		  def orderedNode = objectDiffer.compare(
+				  new ObjectWithCollection(['b', 'a']),
+				  new ObjectWithCollection(['a', 'b']))
+		then:
+		  statesOfChildren(orderedNode.getChild('collection')).values() as List == [DiffNode.State.MOVED]
+		when:
+		  def unorderedNode = objectDiffer.compare(['b', 'a'], ['a', 'b'])
+		then:
+		  unorderedNode.untouched
+	}
+
+	def 'compares matched items recursively'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(List)
+				  .build()
+		and:
+		  def base = [new ObjectWithIdentityAndValue('a', '1'), new ObjectWithIdentityAndValue('b', '2')]
+		  def working = [new ObjectWithIdentityAndValue('b', '3'), new ObjectWithIdentityAndValue('a', '1')]
+		when:
+		  def node = objectDiffer.compare(working, base)
+		then: 'items that have been moved and changed are reported as changed'
+		  def movedItem = node.getChild(new CollectionItemElementSelector(new ObjectWithIdentityAndValue('b')))
+		  movedItem.changed
+		  movedItem.getChild('value').changed
+		and: 'they are still reported as moved'
+		  movedItem.moved
+		  movedItem.baseIndex == 1
+		  movedItem.workingIndex == 0
+		and: 'the other item only shifted its position'
+		  node.childCount() == 1
+	}
+
+	def 'keeps a node for every occurrence of duplicate items'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(List)
+				  .build()
+		when:
+		  def node = objectDiffer.compare(['a', 'b', 'a'], ['a', 'a', 'b'])
+		then:
+		  statesOfChildren(node) == ['[a]#1': DiffNode.State.MOVED]
+		and:
+		  def movedItem = node.getChild(new ListItemElementSelector(new CollectionItemElementSelector('a'), 1))
+		  movedItem.moved
+		  movedItem.baseIndex == 1
+		  movedItem.workingIndex == 2
+	}
+
+	def 'reports added and removed copies of duplicate items'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(List)
+				  .build()
+		when:
+		  def node = objectDiffer.compare(['x', 'a', 'x'], ['a', 'a'])
+		then:
+		  statesOfChildren(node) == [
+				  '[x]'  : DiffNode.State.ADDED,
+				  '[x]#1': DiffNode.State.ADDED,
+				  '[a]#1': DiffNode.State.REMOVED
+		  ]
+		and:
+		  node.getChild(new CollectionItemElementSelector('x')).workingIndex == 0
+		  node.getChild(new ListItemElementSelector(new CollectionItemElementSelector('x'), 1)).workingIndex == 2
+		  node.getChild(new ListItemElementSelector(new CollectionItemElementSelector('a'), 1)).baseIndex == 0
+	}
+
+	def 'applies configuration for collection items to the items of lists compared in order'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(List)
+				  .inclusion().exclude().node(NodePath.startBuilding().collectionItem('b').build()).and()
+				  .build()
+		when:
+		  def node = objectDiffer.compare(['b', 'a', 'c', 'b'], ['a', 'b'])
+		then: 'the configuration applies to every occurrence of the item'
+		  statesOfChildren(node) == ['[c]': DiffNode.State.ADDED]
+	}
+
+	def 'finds items by the identity strategy of their list'() {
+		given:
+		  def identityStrategy = [equals: { working, base -> working.equalsIgnoreCase(base) }] as IdentityStrategy
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(List)
+				  .identity().ofCollectionItems(NodePath.withRoot()).via(identityStrategy).and()
+				  .build()
+		when:
+		  def node = objectDiffer.compare(['B', 'a'], ['a', 'b'])
+		then:
+		  node.getChild(new CollectionItemElementSelector('b')).moved
+	}
+
+	def 'leaves collections that are no lists alone'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .differs().compareInOrder(List)
+				  .build()
+		when:
+		  def node = objectDiffer.compare(['a', 'b'] as Set, ['b', 'c'] as Set)
+		then:
+		  node.getChild(new CollectionItemElementSelector('a')).added
+		  node.getChild(new CollectionItemElementSelector('c')).removed
+	}
+
+	def 'rejects types that are no lists'() {
+		when:
+		  ObjectDifferBuilder.startBuilding().differs().compareInOrder(Set)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	private static Map<String, DiffNode.State> statesOfChildren(DiffNode node) {
+		def states = [:]
+		node.visitChildren(new DiffNode.Visitor() {
+			void node(DiffNode child, Visit visit) {
+				states[child.elementSelector.toHumanReadableString()] = child.state
+			}
+		})
+		return states
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.diff.integration
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
+import spock.lang.Specification
+
+class SortedCollectionIT extends Specification {
+
+	def 'finds changed items of sorted lists whose ordering disagrees with equals'() {
+		given:
+		  def working = [new Event(id: 'a', time: 1), new Event(id: 'b', time: 5)]
+		  def base = [new Event(id: 'a', time: 1), new Event(id: 'b', time: 3)]
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(working, base)
+		then:
+		  statesOf(node) == [
+				  '/[b]'     : DiffNode.State.CHANGED,
+				  '/[b]/time': DiffNode.State.CHANGED
+		  ]
+	}
+
+	def 'finds changed items of sorted sets whose comparator disagrees with equals'() {
+		given:
+		  def byTime = { Event a, Event b -> a.time <=> b.time } as Comparator
+		  def working = new TreeSet(byTime)
+		  working.addAll([new Event(id: 'a', time: 1), new Event(id: 'b', time: 5)])
+		  def base = new TreeSet(byTime)
+		  base.addAll([new Event(id: 'a', time: 1), new Event(id: 'b', time: 3)])
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(working, base)
+		then:
+		  statesOf(node) == [
+				  '/[b]'     : DiffNode.State.CHANGED,
+				  '/[b]/time': DiffNode.State.CHANGED
+		  ]
+	}
+
+	private static Map<String, DiffNode.State> statesOf(DiffNode node) {
+		def states = [:]
+		node.visit(new DiffNode.Visitor() {
+			void node(DiffNode child, Visit visit) {
+				if (!child.rootNode) {
+					states[child.path.toString()] = child.state
+				}
+			}
+		})
+		return states
+	}
+
+	/**
+	 * Sorted by time, but equal by id.
+	 */
+	static class Event implements Comparable<Event> {
+		String id
+		int time
+
+		int compareTo(Event other) {
+			return time <=> other.time
+		}
+
+		boolean equals(Object o) {
+			return o instanceof Event && id == o.id
+		}
+
+		int hashCode() {
+			return id.hashCode()
+		}
+
+		String toString() {
+			return id
+		}
+	}
+}
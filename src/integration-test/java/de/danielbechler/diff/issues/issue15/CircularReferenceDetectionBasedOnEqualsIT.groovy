@@ -18,8 +18,10 @@ package de.danielbechler.diff.issues.issue15
 
 import de.danielbechler.diff.ObjectDiffer
 import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.circular.CircularReferenceDetectionMode
 import de.danielbechler.diff.mock.ObjectWithNestedObject
 import spock.lang.Specification
+import spock.lang.Unroll
 
 import static de.danielbechler.diff.circular.CircularReferenceMatchingMode.EQUALS_METHOD
 
@@ -28,31 +30,36 @@ import static de.danielbechler.diff.circular.CircularReferenceMatchingMode.EQUAL
  */
 public class CircularReferenceDetectionBasedOnEqualsIT extends Specification {
 
-	ObjectDiffer objectDiffer
-
-	def setup() {
-		objectDiffer = ObjectDifferBuilder.startBuilding()
-				.circularReferenceHandling()
-				.matchCircularReferencesUsing(EQUALS_METHOD).and()
-				.build()
-	}
-
-	def 'detects circular reference when encountering same object twice'() {
+	@Unroll
+	def 'detects circular reference when encountering same object twice (#detectionMode)'() {
 		given:
 		  def object = new ObjectWithNestedObject('foo')
 		  object.object = object
 		when:
-		  def node = objectDiffer.compare(object, null)
+		  def node = objectDifferUsing(detectionMode).compare(object, null)
 		then:
 		  node.getChild('object').isCircular()
+		where:
+		  detectionMode << CircularReferenceDetectionMode.values()
 	}
 
-	def 'detects circular reference when encountering different but equal objects twice'() {
+	@Unroll
+	def 'detects circular reference when encountering different but equal objects twice (#detectionMode)'() {
 		given:
 		  def object = new ObjectWithNestedObject('foo', new ObjectWithNestedObject('foo'))
 		when:
-		  def node = objectDiffer.compare(object, null)
+		  def node = objectDifferUsing(detectionMode).compare(object, null)
 		then:
 		  node.getChild('object').isCircular()
+		where:
+		  detectionMode << CircularReferenceDetectionMode.values()
+	}
+
+	private static ObjectDiffer objectDifferUsing(CircularReferenceDetectionMode detectionMode) {
+		return ObjectDifferBuilder.startBuilding()
+				.circularReferenceHandling()
+				.matchCircularReferencesUsing(EQUALS_METHOD)
+				.detectCircularReferencesUsing(detectionMode).and()
+				.build()
 	}
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares small DTOs, the way a service diffing requests would. Every comparison needs a fresh instance of the
+ * root type, so this measures how much creating it costs, once with a cheap and once with an expensive default
+ * constructor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FreshInstanceBenchmark
+{
+	@Param({"false", "true"})
+	private boolean reuseFreshInstances;
+
+	private ObjectDiffer objectDiffer;
+	private CheapDto cheapWorking;
+	private CheapDto cheapBase;
+	private ExpensiveDto expensiveWorking;
+	private ExpensiveDto expensiveBase;
+
+	@Setup
+	public void setUp()
+	{
+		final ObjectDifferBuilder objectDifferBuilder = ObjectDifferBuilder.startBuilding();
+		if (reuseFreshInstances)
+		{
+			objectDifferBuilder.differs().reuseFreshInstances();
+		}
+		objectDiffer = objectDifferBuilder.build();
+		cheapWorking = new CheapDto("foo", 2);
+		cheapBase = new CheapDto("foo", 1);
+		expensiveWorking = new ExpensiveDto("foo", 2);
+		expensiveBase = new ExpensiveDto("foo", 1);
+	}
+
+	@Benchmark
+	public Object compareCheapDto()
+	{
+		return objectDiffer.compare(cheapWorking, cheapBase);
+	}
+
+	@Benchmark
+	public Object compareExpensiveDto()
+	{
+		return objectDiffer.compare(expensiveWorking, expensiveBase);
+	}
+
+	public static class CheapDto
+	{
+		private String name;
+		private int count;
+
+		public CheapDto()
+		{
+		}
+
+		public CheapDto(final String name, final int count)
+		{
+			this.name = name;
+			this.count = count;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public void setName(final String name)
+		{
+			this.name = name;
+		}
+
+		public int getCount()
+		{
+			return count;
+		}
+
+		public void setCount(final int count)
+		{
+			this.count = count;
+		}
+	}
+
+	/**
+	 * Assigns a random id in its default constructor, like many entities and DTOs do.
+	 */
+	public static class ExpensiveDto extends CheapDto
+	{
+		private final String requestId = UUID.randomUUID().toString();
+
+		public ExpensiveDto()
+		{
+		}
+
+		public ExpensiveDto(final String name, final int count)
+		{
+			super(name, count);
+		}
+
+		public String getRequestId()
+		{
+			return requestId;
+		}
+	}
+}
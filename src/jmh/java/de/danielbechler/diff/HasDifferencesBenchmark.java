@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static de.danielbechler.diff.ObjectDifferBenchmark.Item;
+
+/**
+ * Compares {@link ObjectDiffer#hasDifferences(Object, Object)} with checking the result of a full {@link
+ * ObjectDiffer#compare(Object, Object)} for a list of beans that either contains changes or doesn't.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HasDifferencesBenchmark
+{
+	@Param({"1000"})
+	public int size;
+
+	@Param({"true", "false"})
+	public boolean changed;
+
+	private ObjectDiffer objectDiffer;
+	private List<Item> working;
+	private List<Item> base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		base = Item.newItems(size, 0);
+		working = Item.newItems(size, changed ? 1 : 0);
+	}
+
+	@Benchmark
+	public boolean compareAndCheckForChanges()
+	{
+		return objectDiffer.compare(working, base).hasChanges();
+	}
+
+	@Benchmark
+	public boolean hasDifferences()
+	{
+		return objectDiffer.hasDifferences(working, base);
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff;
+
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ObjectDiffer#compare(Object, Object)} for large lists, (sorted) sets and (sorted) maps. In every case about
+ * one in ten items has been changed, one has been removed and one has been added. Run it via the <code>jmh</code>
+ * Gradle task to also see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ObjectDifferBenchmark
+{
+	@Param({"100", "10000"})
+	public int size;
+
+	private ObjectDiffer objectDiffer;
+	private List<Item> workingList;
+	private List<Item> baseList;
+	private Set<Item> workingSet;
+	private Set<Item> baseSet;
+	private SortedSet<Item> workingSortedSet;
+	private SortedSet<Item> baseSortedSet;
+	private Map<String, Item> workingMap;
+	private Map<String, Item> baseMap;
+	private SortedMap<String, Item> workingSortedMap;
+	private SortedMap<String, Item> baseSortedMap;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		baseList = Item.newItems(size, 0);
+		workingList = Item.newItems(size, 1);
+		baseSet = new HashSet<Item>(baseList);
+		workingSet = new HashSet<Item>(workingList);
+		baseSortedSet = new TreeSet<Item>(Item.BY_ID);
+		baseSortedSet.addAll(baseList);
+		workingSortedSet = new TreeSet<Item>(Item.BY_ID);
+		workingSortedSet.addAll(workingList);
+		baseMap = Item.toMap(baseList);
+		workingMap = Item.toMap(workingList);
+		baseSortedMap = new TreeMap<String, Item>(baseMap);
+		workingSortedMap = new TreeMap<String, Item>(workingMap);
+	}
+
+	@Benchmark
+	public DiffNode compareList()
+	{
+		return objectDiffer.compare(workingList, baseList);
+	}
+
+	@Benchmark
+	public DiffNode compareSet()
+	{
+		return objectDiffer.compare(workingSet, baseSet);
+	}
+
+	@Benchmark
+	public DiffNode compareSortedSet()
+	{
+		return objectDiffer.compare(workingSortedSet, baseSortedSet);
+	}
+
+	@Benchmark
+	public DiffNode compareMap()
+	{
+		return objectDiffer.compare(workingMap, baseMap);
+	}
+
+	@Benchmark
+	public DiffNode compareSortedMap()
+	{
+		return objectDiffer.compare(workingSortedMap, baseSortedMap);
+	}
+
+	/**
+	 * A simple bean that is identified by its id.
+	 */
+	public static class Item
+	{
+		public static final Comparator<Item> BY_ID = new Comparator<Item>()
+		{
+			public int compare(final Item o1, final Item o2)
+			{
+				return o1.getId().compareTo(o2.getId());
+			}
+		};
+
+		private String id;
+		private int value;
+		private String description;
+
+		/**
+		 * @param offset Items with an offset other than 0 have every tenth value changed, the first item removed
+		 *               and a new item at the end.
+		 */
+		public static List<Item> newItems(final int size, final int offset)
+		{
+			final List<Item> items = new ArrayList<Item>(size);
+			for (int i = offset; i < size + offset; i++)
+			{
+				final Item item = new Item();
+				item.setId("item-" + i);
+				item.setValue(offset != 0 && i % 10 == 0 ? -i : i);
+				item.setDescription("Item number " + i);
+				items.add(item);
+			}
+			return items;
+		}
+
+		public static Map<String, Item> toMap(final List<Item> items)
+		{
+			final Map<String, Item> map = new HashMap<String, Item>(items.size() * 2);
+			for (final Item item : items)
+			{
+				map.put(item.getId(), item);
+			}
+			return map;
+		}
+
+		public String getId()
+		{
+			return id;
+		}
+
+		public void setId(final String id)
+		{
+			this.id = id;
+		}
+
+		public int getValue()
+		{
+			return value;
+		}
+
+		public void setValue(final int value)
+		{
+			this.value = value;
+		}
+
+		public String getDescription()
+		{
+			return description;
+		}
+
+		public void setDescription(final String description)
+		{
+			this.description = description;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (o == null || getClass() != o.getClass())
+			{
+				return false;
+			}
+			return id.equals(((Item) o).id);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return id.hashCode();
+		}
+	}
+}
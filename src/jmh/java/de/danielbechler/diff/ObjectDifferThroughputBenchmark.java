@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff;
+
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of a single {@link ObjectDiffer} shared by all benchmark threads. Run it with different
+ * thread counts (e.g. <code>-t 1</code> and <code>-t 4</code>) to see how well it scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ObjectDifferThroughputBenchmark
+{
+	@Param({"10"})
+	public int size;
+
+	private ObjectDiffer objectDiffer;
+	private RingNode working;
+	private RingNode base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		working = RingNode.newRing(size, "working");
+		base = RingNode.newRing(size, "base");
+	}
+
+	@Benchmark
+	public DiffNode compareCyclicGraph()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	public static class RingNode
+	{
+		private String value;
+		private RingNode next;
+
+		public static RingNode newRing(final int size, final String value)
+		{
+			final RingNode first = new RingNode();
+			first.setValue(value + 0);
+			RingNode current = first;
+			for (int i = 1; i < size; i++)
+			{
+				final RingNode node = new RingNode();
+				node.setValue(value + i);
+				current.setNext(node);
+				current = node;
+			}
+			current.setNext(first);
+			return first;
+		}
+
+		public String getValue()
+		{
+			return value;
+		}
+
+		public void setValue(final String value)
+		{
+			this.value = value;
+		}
+
+		public RingNode getNext()
+		{
+			return next;
+		}
+
+		public void setNext(final RingNode next)
+		{
+			this.next = next;
+		}
+	}
+}
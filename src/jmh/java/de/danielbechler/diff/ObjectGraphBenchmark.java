@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff;
+
+import de.danielbechler.diff.introspection.BeanGraphNode;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ObjectDiffer#compare(Object, Object)} for single beans, deep object graphs and cyclic object
+ * graphs. Run it via the <code>jmh</code> Gradle task to also see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ObjectGraphBenchmark
+{
+	/**
+	 * The depth of the binary bean tree, the length of the chain and the size of the cycle.
+	 */
+	@Param({"4", "8"})
+	public int size;
+
+	private ObjectDiffer objectDiffer;
+	private BeanGraphNode workingBean;
+	private BeanGraphNode baseBean;
+	private BeanGraphNode workingTree;
+	private BeanGraphNode baseTree;
+	private BeanGraphNode equalTree;
+	private ChainNode workingChain;
+	private ChainNode baseChain;
+	private ChainNode workingCycle;
+	private ChainNode baseCycle;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		workingBean = BeanGraphNode.newGraph(1, "working");
+		baseBean = BeanGraphNode.newGraph(1, "base");
+		workingTree = BeanGraphNode.newGraph(size, "working");
+		baseTree = BeanGraphNode.newGraph(size, "base");
+		equalTree = BeanGraphNode.newGraph(size, "working");
+		workingChain = ChainNode.newChain(size * 10, "working", false);
+		baseChain = ChainNode.newChain(size * 10, "base", false);
+		workingCycle = ChainNode.newChain(size * 10, "working", true);
+		baseCycle = ChainNode.newChain(size * 10, "base", true);
+	}
+
+	/**
+	 * A single bean with 30 properties, independent of the size parameter.
+	 */
+	@Benchmark
+	public DiffNode compareBean()
+	{
+		return objectDiffer.compare(workingBean, baseBean);
+	}
+
+	/**
+	 * A complete binary tree of beans, so the number of nodes grows exponentially with the size.
+	 */
+	@Benchmark
+	public DiffNode compareBeanTree()
+	{
+		return objectDiffer.compare(workingTree, baseTree);
+	}
+
+	/**
+	 * Like {@link #compareBeanTree()}, but both trees are equal, so almost all nodes get filtered out.
+	 */
+	@Benchmark
+	public DiffNode compareUnchangedBeanTree()
+	{
+		return objectDiffer.compare(workingTree, equalTree);
+	}
+
+	@Benchmark
+	public DiffNode compareDeepChain()
+	{
+		return objectDiffer.compare(workingChain, baseChain);
+	}
+
+	/**
+	 * Like {@link #compareDeepChain()}, but the last node refers back to the first one.
+	 */
+	@Benchmark
+	public DiffNode compareCyclicChain()
+	{
+		return objectDiffer.compare(workingCycle, baseCycle);
+	}
+
+	public static class ChainNode
+	{
+		private String value;
+		private ChainNode next;
+
+		public static ChainNode newChain(final int length, final String value, final boolean cyclic)
+		{
+			final ChainNode first = new ChainNode();
+			first.setValue(value + 0);
+			ChainNode last = first;
+			for (int i = 1; i < length; i++)
+			{
+				final ChainNode node = new ChainNode();
+				node.setValue(value + i);
+				last.setNext(node);
+				last = node;
+			}
+			if (cyclic)
+			{
+				last.setNext(first);
+			}
+			return first;
+		}
+
+		public String getValue()
+		{
+			return value;
+		}
+
+		public void setValue(final String value)
+		{
+			this.value = value;
+		}
+
+		public ChainNode getNext()
+		{
+			return next;
+		}
+
+		public void setNext(final ChainNode next)
+		{
+			this.next = next;
+		}
+	}
+}
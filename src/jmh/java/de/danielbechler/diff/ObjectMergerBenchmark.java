@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff;
+
+import de.danielbechler.diff.introspection.BeanGraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ObjectMerger#merge(Object, Object, Object)} for a binary tree of beans. Merging the same changes
+ * into the same head over and over again always does the same amount of work, so the head doesn't need to be reset
+ * between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ObjectMergerBenchmark
+{
+	@Param({"4", "8"})
+	public int depth;
+
+	private ObjectMerger objectMerger;
+	private BeanGraphNode modified;
+	private BeanGraphNode base;
+	private BeanGraphNode head;
+
+	@Setup
+	public void setUp()
+	{
+		objectMerger = new ObjectMerger(ObjectDifferBuilder.buildDefault());
+		modified = BeanGraphNode.newGraph(depth, "modified");
+		base = BeanGraphNode.newGraph(depth, "base");
+		head = BeanGraphNode.newGraph(depth, "head");
+	}
+
+	@Benchmark
+	public BeanGraphNode merge()
+	{
+		return objectMerger.merge(modified, base, head);
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff;
+
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the comparison of a list of polymorphic beans, in which every other item has been replaced by an item of
+ * a different subtype. Resolving the type of such items requires finding their most specific shared type. Run it
+ * via the <code>jmh</code> Gradle task to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PolymorphicCollectionBenchmark
+{
+	@Param({"1000"})
+	public int size;
+
+	private ObjectDiffer objectDiffer;
+	private List<Animal> working;
+	private List<Animal> base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		working = new ArrayList<Animal>(size);
+		base = new ArrayList<Animal>(size);
+		for (int i = 0; i < size; i++)
+		{
+			base.add(new Cat(i, "Animal " + i));
+			working.add(i % 2 == 0 ? new Dog(i, "Animal " + i) : new Cat(i, "Animal " + i));
+		}
+	}
+
+	@Benchmark
+	public DiffNode compareList()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	public abstract static class Animal
+	{
+		private final int id;
+		private final String name;
+
+		protected Animal(final int id, final String name)
+		{
+			this.id = id;
+			this.name = name;
+		}
+
+		public int getId()
+		{
+			return id;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			return o instanceof Animal && ((Animal) o).id == id;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return id;
+		}
+	}
+
+	public static class Cat extends Animal
+	{
+		public Cat(final int id, final String name)
+		{
+			super(id, name);
+		}
+
+		public int getLives()
+		{
+			return 9;
+		}
+	}
+
+	public static class Dog extends Animal
+	{
+		public Dog(final int id, final String name)
+		{
+			super(id, name);
+		}
+
+		public boolean isGood()
+		{
+			return true;
+		}
+	}
+}
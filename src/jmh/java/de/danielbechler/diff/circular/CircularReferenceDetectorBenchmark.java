@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.circular;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.path.NodePath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link CircularReferenceDetectionMode CircularReferenceDetectionModes} on deep object graphs, in
+ * which every node refers back to its parent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CircularReferenceDetectorBenchmark
+{
+	@Param({"10", "50", "200"})
+	public int depth;
+
+	@Param({"STACK", "HASH_INDEX"})
+	public CircularReferenceDetectionMode detectionMode;
+
+	private ObjectDiffer objectDiffer;
+	private CircularReferenceDetector circularReferenceDetector;
+	private Object[] instances;
+	private LinkedNode working;
+	private LinkedNode base;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.startBuilding()
+				.circularReferenceHandling()
+				.detectCircularReferencesUsing(detectionMode)
+				.handleCircularReferenceExceptionsUsing(new CircularReferenceExceptionHandler()
+				{
+					public void onCircularReferenceException(final DiffNode node)
+					{
+					}
+				})
+				.and()
+				.build();
+		circularReferenceDetector = newCircularReferenceDetector();
+		instances = new Object[depth];
+		for (int i = 0; i < depth; i++)
+		{
+			instances[i] = new Object();
+		}
+		working = LinkedNode.newChain(depth, "working");
+		base = LinkedNode.newChain(depth, "base");
+	}
+
+	private CircularReferenceDetector newCircularReferenceDetector()
+	{
+		if (detectionMode == CircularReferenceDetectionMode.HASH_INDEX)
+		{
+			return new HashingCircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR);
+		}
+		return new CircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR);
+	}
+
+	/**
+	 * Pushes a path of the given depth onto the detector and removes it again, like the dispatcher does while
+	 * descending into and returning from a deep object graph.
+	 */
+	@Benchmark
+	public int pushAndRemovePath()
+	{
+		final NodePath nodePath = NodePath.withRoot();
+		for (final Object instance : instances)
+		{
+			circularReferenceDetector.push(instance, nodePath);
+		}
+		final int size = circularReferenceDetector.size();
+		for (int i = instances.length - 1; i >= 0; i--)
+		{
+			circularReferenceDetector.remove(instances[i]);
+		}
+		return size;
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	public static class LinkedNode
+	{
+		private String value;
+		private LinkedNode parent;
+		private LinkedNode child;
+
+		public static LinkedNode newChain(final int depth, final String value)
+		{
+			final LinkedNode root = new LinkedNode();
+			root.setValue(value);
+			LinkedNode current = root;
+			for (int i = 1; i < depth; i++)
+			{
+				final LinkedNode child = new LinkedNode();
+				child.setValue(value + i);
+				child.setParent(current);
+				current.setChild(child);
+				current = child;
+			}
+			return root;
+		}
+
+		public String getValue()
+		{
+			return value;
+		}
+
+		public void setValue(final String value)
+		{
+			this.value = value;
+		}
+
+		public LinkedNode getParent()
+		{
+			return parent;
+		}
+
+		public void setParent(final LinkedNode parent)
+		{
+			this.parent = parent;
+		}
+
+		public LinkedNode getChild()
+		{
+			return child;
+		}
+
+		public void setChild(final LinkedNode child)
+		{
+			this.child = child;
+		}
+	}
+}
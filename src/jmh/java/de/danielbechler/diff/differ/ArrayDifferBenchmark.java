@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the comparison of large arrays, that differ in a few short runs of elements. As reference, the plain
+ * equality check of two equal arrays via {@link Arrays} is measured, since the differ needs to scan the whole arrays
+ * just like that.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArrayDifferBenchmark
+{
+	@Param({"1000000"})
+	public int length;
+
+	@Param({"BYTE", "LONG", "OBJECT"})
+	public ComponentType componentType;
+
+	private ObjectDiffer objectDiffer;
+	private Object working;
+	private Object base;
+	private Object baseCopy;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		working = componentType.newArray(length);
+		base = componentType.newArray(length);
+		baseCopy = componentType.newArray(length);
+		// one in ten thousand elements starts a run of up to ten changed elements
+		final Random random = new Random(42);
+		for (int i = 0; i < length / 10000; i++)
+		{
+			final int fromIndex = random.nextInt(length - 10);
+			final int runLength = 1 + random.nextInt(10);
+			for (int j = fromIndex; j < fromIndex + runLength; j++)
+			{
+				componentType.change(working, j);
+			}
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	@Benchmark
+	public boolean arraysEquals()
+	{
+		return componentType.equals(baseCopy, base);
+	}
+
+	public enum ComponentType
+	{
+		BYTE
+				{
+					Object newArray(final int length)
+					{
+						return new byte[length];
+					}
+
+					void change(final Object array, final int index)
+					{
+						((byte[]) array)[index] = 1;
+					}
+
+					boolean equals(final Object a, final Object b)
+					{
+						return Arrays.equals((byte[]) a, (byte[]) b);
+					}
+				},
+		LONG
+				{
+					Object newArray(final int length)
+					{
+						return new long[length];
+					}
+
+					void change(final Object array, final int index)
+					{
+						((long[]) array)[index] = 1;
+					}
+
+					boolean equals(final Object a, final Object b)
+					{
+						return Arrays.equals((long[]) a, (long[]) b);
+					}
+				},
+		OBJECT
+				{
+					Object newArray(final int length)
+					{
+						final String[] array = new String[length];
+						for (int i = 0; i < length; i++)
+						{
+							array[i] = String.valueOf(i % 1000);
+						}
+						return array;
+					}
+
+					void change(final Object array, final int index)
+					{
+						((String[]) array)[index] = "changed";
+					}
+
+					boolean equals(final Object a, final Object b)
+					{
+						return Arrays.equals((Object[]) a, (Object[]) b);
+					}
+				};
+
+		abstract Object newArray(int length);
+
+		abstract void change(Object array, int index);
+
+		abstract boolean equals(Object a, Object b);
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Objects;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hash based matching of collection items with the linear scan, that is still used for identity
+ * strategies that don't implement {@link de.danielbechler.diff.identity.HashingIdentityStrategy}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollectionDifferBenchmark
+{
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	@Param({"HASHING", "SCANNING"})
+	public Matching matching;
+
+	private ObjectDiffer objectDiffer;
+	private List<String> working;
+	private List<String> base;
+
+	@Setup
+	public void setUp()
+	{
+		final ObjectDifferBuilder objectDifferBuilder = ObjectDifferBuilder.startBuilding();
+		if (matching == Matching.SCANNING)
+		{
+			objectDifferBuilder.identity().setDefaultCollectionItemIdentityStrategy(new ScanningIdentityStrategy());
+		}
+		objectDiffer = objectDifferBuilder.build();
+		base = new ArrayList<String>(size);
+		working = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++)
+		{
+			base.add("item-" + i);
+			// every tenth item gets replaced to produce some added and removed items
+			working.add(i % 10 == 0 ? "replaced-item-" + i : "item-" + i);
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	public enum Matching
+	{
+		HASHING,
+		SCANNING
+	}
+
+	/**
+	 * Same semantics as the default strategy, but without the ability to compute hash codes.
+	 */
+	private static class ScanningIdentityStrategy implements IdentityStrategy
+	{
+		public boolean equals(final Object working, final Object base)
+		{
+			return Objects.isEqual(working, base);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the comparison of lists in order (see {@link DifferConfigurer#compareInOrder(Class)}) for nearly sorted
+ * lists, that only differ in a few items, and for shuffled lists, which are the worst case for the edit script. The
+ * unordered comparison of the same lists is measured as reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ListDifferBenchmark
+{
+	@Param({"1000", "100000"})
+	public int size;
+
+	@Param({"NEARLY_SORTED", "SHUFFLED"})
+	public Input input;
+
+	@Param({"ORDERED", "UNORDERED"})
+	public Comparison comparison;
+
+	private ObjectDiffer objectDiffer;
+	private List<Integer> working;
+	private List<Integer> base;
+
+	@Setup
+	public void setUp()
+	{
+		final ObjectDifferBuilder objectDifferBuilder = ObjectDifferBuilder.startBuilding();
+		if (comparison == Comparison.ORDERED)
+		{
+			objectDifferBuilder.differs().compareInOrder(List.class);
+		}
+		objectDiffer = objectDifferBuilder.build();
+		final Random random = new Random(42);
+		base = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++)
+		{
+			base.add(i);
+		}
+		working = new ArrayList<Integer>(base);
+		if (input == Input.SHUFFLED)
+		{
+			Collections.shuffle(working, random);
+		}
+		else
+		{
+			// one in a hundred items gets removed, added or moved somewhere else
+			for (int i = 0; i < size / 100; i++)
+			{
+				working.remove(random.nextInt(working.size()));
+				working.add(random.nextInt(working.size()), size + i);
+				working.add(random.nextInt(working.size()), working.remove(random.nextInt(working.size())));
+			}
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	public enum Input
+	{
+		NEARLY_SORTED,
+		SHUFFLED
+	}
+
+	public enum Comparison
+	{
+		ORDERED,
+		UNORDERED
+	}
+}
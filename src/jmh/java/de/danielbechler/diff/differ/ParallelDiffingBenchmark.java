@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.introspection.BeanGraphNode;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and parallel comparison of a large bean graph. A thread count of <code>0</code> means
+ * sequential comparison, otherwise the siblings of each bean are compared on a pool of the given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelDiffingBenchmark
+{
+	@Param({"0", "4"})
+	public int threads;
+
+	@Param({"10"})
+	public int depth;
+
+	@Param({"16"})
+	public int threshold;
+
+	private ExecutorService executor;
+	private ObjectDiffer objectDiffer;
+	private BeanGraphNode working;
+	private BeanGraphNode base;
+
+	@Setup
+	public void setUp()
+	{
+		if (threads > 0)
+		{
+			executor = Executors.newFixedThreadPool(threads);
+			objectDiffer = ObjectDifferBuilder.startBuilding()
+					.differs().compareInParallel(executor, threshold)
+					.build();
+		}
+		else
+		{
+			objectDiffer = ObjectDifferBuilder.buildDefault();
+		}
+		working = BeanGraphNode.newGraph(depth, "working");
+		base = BeanGraphNode.newGraph(depth, "base");
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		if (executor != null)
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+}
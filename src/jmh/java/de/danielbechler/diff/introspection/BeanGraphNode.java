@@ -0,0 +1,372 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+/**
+ * A bean with 30 properties, two of which reference further nodes, so it can be used to build graphs of arbitrary
+ * depth.
+ */
+public class BeanGraphNode
+{
+	private String property01;
+	private int property02;
+	private String property03;
+	private int property04;
+	private String property05;
+	private int property06;
+	private String property07;
+	private int property08;
+	private String property09;
+	private int property10;
+	private String property11;
+	private int property12;
+	private String property13;
+	private int property14;
+	private String property15;
+	private int property16;
+	private String property17;
+	private int property18;
+	private String property19;
+	private int property20;
+	private String property21;
+	private int property22;
+	private String property23;
+	private int property24;
+	private String property25;
+	private int property26;
+	private String property27;
+	private int property28;
+	private BeanGraphNode left;
+	private BeanGraphNode right;
+
+	/**
+	 * Creates a complete binary tree of the given depth, with a few properties set to the given value.
+	 */
+	public static BeanGraphNode newGraph(final int depth, final String value)
+	{
+		final BeanGraphNode node = new BeanGraphNode();
+		node.setProperty01(value);
+		node.setProperty02(depth);
+		node.setProperty27(value);
+		if (depth > 1)
+		{
+			node.setLeft(newGraph(depth - 1, value));
+			node.setRight(newGraph(depth - 1, value));
+		}
+		return node;
+	}
+
+	public String getProperty01()
+	{
+		return property01;
+	}
+
+	public void setProperty01(final String property01)
+	{
+		this.property01 = property01;
+	}
+
+	public int getProperty02()
+	{
+		return property02;
+	}
+
+	public void setProperty02(final int property02)
+	{
+		this.property02 = property02;
+	}
+
+	public String getProperty03()
+	{
+		return property03;
+	}
+
+	public void setProperty03(final String property03)
+	{
+		this.property03 = property03;
+	}
+
+	public int getProperty04()
+	{
+		return property04;
+	}
+
+	public void setProperty04(final int property04)
+	{
+		this.property04 = property04;
+	}
+
+	public String getProperty05()
+	{
+		return property05;
+	}
+
+	public void setProperty05(final String property05)
+	{
+		this.property05 = property05;
+	}
+
+	public int getProperty06()
+	{
+		return property06;
+	}
+
+	public void setProperty06(final int property06)
+	{
+		this.property06 = property06;
+	}
+
+	public String getProperty07()
+	{
+		return property07;
+	}
+
+	public void setProperty07(final String property07)
+	{
+		this.property07 = property07;
+	}
+
+	public int getProperty08()
+	{
+		return property08;
+	}
+
+	public void setProperty08(final int property08)
+	{
+		this.property08 = property08;
+	}
+
+	public String getProperty09()
+	{
+		return property09;
+	}
+
+	public void setProperty09(final String property09)
+	{
+		this.property09 = property09;
+	}
+
+	public int getProperty10()
+	{
+		return property10;
+	}
+
+	public void setProperty10(final int property10)
+	{
+		this.property10 = property10;
+	}
+
+	public String getProperty11()
+	{
+		return property11;
+	}
+
+	public void setProperty11(final String property11)
+	{
+		this.property11 = property11;
+	}
+
+	public int getProperty12()
+	{
+		return property12;
+	}
+
+	public void setProperty12(final int property12)
+	{
+		this.property12 = property12;
+	}
+
+	public String getProperty13()
+	{
+		return property13;
+	}
+
+	public void setProperty13(final String property13)
+	{
+		this.property13 = property13;
+	}
+
+	public int getProperty14()
+	{
+		return property14;
+	}
+
+	public void setProperty14(final int property14)
+	{
+		this.property14 = property14;
+	}
+
+	public String getProperty15()
+	{
+		return property15;
+	}
+
+	public void setProperty15(final String property15)
+	{
+		this.property15 = property15;
+	}
+
+	public int getProperty16()
+	{
+		return property16;
+	}
+
+	public void setProperty16(final int property16)
+	{
+		this.property16 = property16;
+	}
+
+	public String getProperty17()
+	{
+		return property17;
+	}
+
+	public void setProperty17(final String property17)
+	{
+		this.property17 = property17;
+	}
+
+	public int getProperty18()
+	{
+		return property18;
+	}
+
+	public void setProperty18(final int property18)
+	{
+		this.property18 = property18;
+	}
+
+	public String getProperty19()
+	{
+		return property19;
+	}
+
+	public void setProperty19(final String property19)
+	{
+		this.property19 = property19;
+	}
+
+	public int getProperty20()
+	{
+		return property20;
+	}
+
+	public void setProperty20(final int property20)
+	{
+		this.property20 = property20;
+	}
+
+	public String getProperty21()
+	{
+		return property21;
+	}
+
+	public void setProperty21(final String property21)
+	{
+		this.property21 = property21;
+	}
+
+	public int getProperty22()
+	{
+		return property22;
+	}
+
+	public void setProperty22(final int property22)
+	{
+		this.property22 = property22;
+	}
+
+	public String getProperty23()
+	{
+		return property23;
+	}
+
+	public void setProperty23(final String property23)
+	{
+		this.property23 = property23;
+	}
+
+	public int getProperty24()
+	{
+		return property24;
+	}
+
+	public void setProperty24(final int property24)
+	{
+		this.property24 = property24;
+	}
+
+	public String getProperty25()
+	{
+		return property25;
+	}
+
+	public void setProperty25(final String property25)
+	{
+		this.property25 = property25;
+	}
+
+	public int getProperty26()
+	{
+		return property26;
+	}
+
+	public void setProperty26(final int property26)
+	{
+		this.property26 = property26;
+	}
+
+	public String getProperty27()
+	{
+		return property27;
+	}
+
+	public void setProperty27(final String property27)
+	{
+		this.property27 = property27;
+	}
+
+	public int getProperty28()
+	{
+		return property28;
+	}
+
+	public void setProperty28(final int property28)
+	{
+		this.property28 = property28;
+	}
+
+	public BeanGraphNode getLeft()
+	{
+		return left;
+	}
+
+	public void setLeft(final BeanGraphNode left)
+	{
+		this.left = left;
+	}
+
+	public BeanGraphNode getRight()
+	{
+		return right;
+	}
+
+	public void setRight(final BeanGraphNode right)
+	{
+		this.right = right;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflection-based accessors of the {@link StandardIntrospector} with the generated ones of the
+ * {@link BytecodeGeneratingIntrospector}, both in isolation and as part of a full comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IntrospectorBenchmark
+{
+	@Param({"STANDARD", "BYTECODE_GENERATING"})
+	public IntrospectorType introspectorType;
+
+	private PropertyAwareAccessor[] accessors;
+	private ObjectDiffer objectDiffer;
+	private BeanGraphNode working;
+	private BeanGraphNode base;
+
+	@Setup
+	public void setUp()
+	{
+		final Introspector introspector = introspectorType.newIntrospector();
+		accessors = introspector.introspect(BeanGraphNode.class).getAccessors().toArray(new PropertyAwareAccessor[0]);
+		objectDiffer = ObjectDifferBuilder.startBuilding()
+				.introspection().setDefaultIntrospector(introspector).and()
+				.build();
+		working = BeanGraphNode.newGraph(5, "working");
+		base = BeanGraphNode.newGraph(5, "base");
+	}
+
+	@Benchmark
+	public void readAllProperties(final Blackhole blackhole)
+	{
+		for (final PropertyAwareAccessor accessor : accessors)
+		{
+			blackhole.consume(accessor.get(working));
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	public enum IntrospectorType
+	{
+		STANDARD
+				{
+					@Override
+					Introspector newIntrospector()
+					{
+						return new StandardIntrospector();
+					}
+				},
+		BYTECODE_GENERATING
+				{
+					@Override
+					Introspector newIntrospector()
+					{
+						return new BytecodeGeneratingIntrospector();
+					}
+				};
+
+		abstract Introspector newIntrospector();
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.node.DiffNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of introspection by comparing a graph of {@link BeanGraphNode}s with a differ that has
+ * already cached their type information and with a fresh differ that needs to introspect them first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TypeInfoCacheBenchmark
+{
+	@Param({"3", "6"})
+	public int depth;
+
+	private ObjectDiffer prewarmedObjectDiffer;
+	private BeanGraphNode working;
+	private BeanGraphNode base;
+
+	@Setup
+	public void setUp()
+	{
+		prewarmedObjectDiffer = ObjectDifferBuilder.buildDefault();
+		prewarmedObjectDiffer.prewarm(BeanGraphNode.class);
+		working = BeanGraphNode.newGraph(depth, "working");
+		base = BeanGraphNode.newGraph(depth, "base");
+	}
+
+	@Benchmark
+	public DiffNode compareWithPrewarmedDiffer()
+	{
+		return prewarmedObjectDiffer.compare(working, base);
+	}
+
+	@Benchmark
+	public DiffNode compareWithFreshDiffer()
+	{
+		return ObjectDifferBuilder.buildDefault().compare(working, base);
+	}
+}
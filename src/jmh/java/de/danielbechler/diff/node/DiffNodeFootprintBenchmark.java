@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+import de.danielbechler.diff.access.Accessor;
+import de.danielbechler.diff.selector.BeanPropertyElementSelector;
+import de.danielbechler.diff.selector.ElementSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the memory footprint of {@link DiffNode DiffNodes}, by building a tree like the ones that result from
+ * comparing a thousand beans with ten properties each. Every operation is one node, so run it with <code>-prof
+ * gc</code> and look at <code>gc.alloc.rate.norm</code> to get the number of bytes per node. The accessors are shared
+ * between all trees, so only the nodes themselves are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DiffNodeFootprintBenchmark
+{
+	private static final int BEAN_COUNT = 1000;
+	private static final int PROPERTY_COUNT = 10;
+	private static final int NODE_COUNT = 1 + BEAN_COUNT + BEAN_COUNT * PROPERTY_COUNT;
+
+	private Accessor[] beanAccessors;
+	private Accessor[] propertyAccessors;
+
+	@Setup
+	public void setUp()
+	{
+		beanAccessors = new Accessor[BEAN_COUNT];
+		for (int i = 0; i < BEAN_COUNT; i++)
+		{
+			beanAccessors[i] = new FixedAccessor(new BeanPropertyElementSelector("bean" + i));
+		}
+		propertyAccessors = new Accessor[PROPERTY_COUNT];
+		for (int i = 0; i < PROPERTY_COUNT; i++)
+		{
+			propertyAccessors[i] = new FixedAccessor(new BeanPropertyElementSelector("property" + i));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NODE_COUNT)
+	public DiffNode buildTree()
+	{
+		final DiffNode rootNode = DiffNode.newRootNodeWithType(Object.class);
+		for (final Accessor beanAccessor : beanAccessors)
+		{
+			final DiffNode beanNode = new DiffNode(rootNode, beanAccessor, Object.class);
+			for (int i = 0; i < propertyAccessors.length; i++)
+			{
+				final DiffNode propertyNode = new DiffNode(beanNode, propertyAccessors[i], String.class);
+				propertyNode.setState(i % 2 == 0 ? DiffNode.State.CHANGED : DiffNode.State.UNTOUCHED);
+				propertyNode.addCategories(Collections.<String>emptySet());
+				beanNode.addChild(propertyNode);
+			}
+			beanNode.addCategories(Collections.<String>emptySet());
+			rootNode.addChild(beanNode);
+		}
+		return rootNode;
+	}
+
+	private static final class FixedAccessor implements Accessor
+	{
+		private final ElementSelector elementSelector;
+
+		FixedAccessor(final ElementSelector elementSelector)
+		{
+			this.elementSelector = elementSelector;
+		}
+
+		public ElementSelector getElementSelector()
+		{
+			return elementSelector;
+		}
+
+		public Object get(final Object target)
+		{
+			return null;
+		}
+
+		public void set(final Object target, final Object value)
+		{
+		}
+
+		public void unset(final Object target)
+		{
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.introspection.BeanGraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the traversal of an existing diff tree via {@link DiffNode#visit(DiffNode.Visitor)}, independent of the
+ * comparison that produced it. The tree either consists of changed nodes only or of untouched nodes only, which get
+ * returned on request. The latter is the worst case for checking every node for changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DiffNodeVisitBenchmark
+{
+	@Param({"4", "8"})
+	public int depth;
+
+	@Param({"ALL", "NONE"})
+	public Changes changes;
+
+	private DiffNode diffNode;
+
+	@Setup
+	public void setUp()
+	{
+		final BeanGraphNode working = BeanGraphNode.newGraph(depth, "working");
+		if (changes == Changes.ALL)
+		{
+			final BeanGraphNode base = BeanGraphNode.newGraph(depth, "base");
+			diffNode = ObjectDifferBuilder.buildDefault().compare(working, base);
+		}
+		else
+		{
+			final BeanGraphNode base = BeanGraphNode.newGraph(depth, "working");
+			diffNode = ObjectDifferBuilder.startBuilding()
+					.filtering().returnNodesWithState(DiffNode.State.UNTOUCHED).and()
+					.build()
+					.compare(working, base);
+		}
+	}
+
+	@Benchmark
+	public int visit()
+	{
+		final CountingVisitor visitor = new CountingVisitor();
+		diffNode.visit(visitor);
+		return visitor.count;
+	}
+
+	/**
+	 * Checks every node for changes, like visitors filtering for changed nodes usually do.
+	 */
+	@Benchmark
+	public int countChangedNodes()
+	{
+		final CountingVisitor visitor = new CountingVisitor();
+		diffNode.visit(new DiffNode.Visitor()
+		{
+			public void node(final DiffNode node, final Visit visit)
+			{
+				if (node.hasChanges())
+				{
+					visitor.node(node, visit);
+				}
+			}
+		});
+		return visitor.count;
+	}
+
+	public enum Changes
+	{
+		ALL,
+		NONE
+	}
+
+	private static class CountingVisitor implements DiffNode.Visitor
+	{
+		private int count;
+
+		public void node(final DiffNode node, final Visit visit)
+		{
+			count++;
+		}
+	}
+}
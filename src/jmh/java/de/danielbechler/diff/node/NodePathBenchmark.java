@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+import de.danielbechler.diff.ObjectDiffer;
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.access.Accessor;
+import de.danielbechler.diff.selector.BeanPropertyElementSelector;
+import de.danielbechler.diff.selector.ElementSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of resolving node paths in deep object graphs. Run it with <code>-prof gc</code> to see the
+ * allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NodePathBenchmark
+{
+	@Param({"20"})
+	public int depth;
+
+	private ObjectDiffer objectDiffer;
+	private DeepGraphNode working;
+	private DeepGraphNode base;
+	private Accessor accessor;
+
+	@Setup
+	public void setUp()
+	{
+		objectDiffer = ObjectDifferBuilder.buildDefault();
+		working = DeepGraphNode.newGraph(depth, "working");
+		base = DeepGraphNode.newGraph(depth, "base");
+		accessor = new PropertyNameAccessor("child");
+	}
+
+	/**
+	 * Resolves the path of every node of a freshly built chain, like the differs and services do while comparing.
+	 */
+	@Benchmark
+	public void resolvePathsOfNodeChain(final Blackhole blackhole)
+	{
+		DiffNode node = DiffNode.newRootNode();
+		for (int i = 0; i < depth; i++)
+		{
+			node = new DiffNode(node, accessor, DeepGraphNode.class);
+			blackhole.consume(node.getPath());
+			blackhole.consume(node.getPath().hashCode());
+		}
+	}
+
+	@Benchmark
+	public DiffNode compare()
+	{
+		return objectDiffer.compare(working, base);
+	}
+
+	private static class PropertyNameAccessor implements Accessor
+	{
+		private final ElementSelector elementSelector;
+
+		PropertyNameAccessor(final String propertyName)
+		{
+			this.elementSelector = new BeanPropertyElementSelector(propertyName);
+		}
+
+		public ElementSelector getElementSelector()
+		{
+			return elementSelector;
+		}
+
+		public Object get(final Object target)
+		{
+			return null;
+		}
+
+		public void set(final Object target, final Object value)
+		{
+		}
+
+		public void unset(final Object target)
+		{
+		}
+	}
+
+	public static class DeepGraphNode
+	{
+		private String value;
+		private DeepGraphNode child;
+
+		public static DeepGraphNode newGraph(final int depth, final String value)
+		{
+			final DeepGraphNode node = new DeepGraphNode();
+			node.setValue(value + depth);
+			if (depth > 1)
+			{
+				node.setChild(newGraph(depth - 1, value));
+			}
+			return node;
+		}
+
+		public String getValue()
+		{
+			return value;
+		}
+
+		public void setValue(final String value)
+		{
+			this.value = value;
+		}
+
+		public DeepGraphNode getChild()
+		{
+			return child;
+		}
+
+		public void setChild(final DeepGraphNode child)
+		{
+			this.child = child;
+		}
+	}
+}
@@ -16,9 +16,14 @@
 
 package de.danielbechler.diff;
 
+import de.danielbechler.diff.access.FreshInstanceCache;
 import de.danielbechler.diff.access.Instances;
 import de.danielbechler.diff.access.RootAccessor;
+import de.danielbechler.diff.access.SharedTypeCache;
+import de.danielbechler.diff.differ.DiffContext;
 import de.danielbechler.diff.differ.DifferDispatcher;
+import de.danielbechler.diff.introspection.TypeInfoCache;
+import de.danielbechler.diff.node.DiffListener;
 import de.danielbechler.diff.node.DiffNode;
 
 /**
@@ -30,15 +35,70 @@ import de.danielbechler.diff.node.DiffNode;
 public class ObjectDiffer
 {
 	private final DifferDispatcher dispatcher;
+	private final TypeInfoCache typeInfoCache;
+	private final SharedTypeCache sharedTypeCache = new SharedTypeCache();
+	private final FreshInstanceCache freshInstanceCache;
 
 	public ObjectDiffer(final DifferDispatcher differDispatcher)
+	{
+		this(differDispatcher, null);
+	}
+
+	public ObjectDiffer(final DifferDispatcher differDispatcher, final TypeInfoCache typeInfoCache)
+	{
+		this(differDispatcher, typeInfoCache, null);
+	}
+
+	/**
+	 * @param freshInstanceCache Provides the fresh instances of the compared types or <code>null</code> to create a
+	 *                           new one for every comparison.
+	 * @see de.danielbechler.diff.differ.DifferConfigurer#reuseFreshInstances()
+	 */
+	public ObjectDiffer(final DifferDispatcher differDispatcher,
+						final TypeInfoCache typeInfoCache,
+						final FreshInstanceCache freshInstanceCache)
 	{
 		this.dispatcher = differDispatcher;
+		this.typeInfoCache = typeInfoCache;
+		this.freshInstanceCache = freshInstanceCache;
+	}
+
+	/**
+	 * Introspects the given bean types upfront, so the first comparison doesn't have to pay for it. This is
+	 * entirely optional, since types get introspected (and cached) anyway the first time they are encountered.
+	 *
+	 * @param types The bean types to introspect.
+	 */
+	public void prewarm(final Class<?>... types)
+	{
+		if (typeInfoCache != null)
+		{
+			typeInfoCache.prewarm(types);
+		}
+	}
+
+	private <T> Instances instancesOf(final T working, final T base)
+	{
+		if (freshInstanceCache != null)
+		{
+			return Instances.of(working, base, freshInstanceCache, sharedTypeCache);
+		}
+		return Instances.of(working, base, sharedTypeCache);
+	}
+
+	/**
+	 * @return The cache holding the type information of all beans this differ has introspected so far or
+	 * <code>null</code> if this differ has been created without one.
+	 */
+	public TypeInfoCache getTypeInfoCache()
+	{
+		return typeInfoCache;
 	}
 
 	/**
 	 * Recursively inspects the given objects and returns a node representing their differences. Both objects
-	 * have be have the same type.
+	 * have be have the same type. Every invocation is independent of all others, so it is safe to call this method
+	 * concurrently or from within another comparison (e.g. in a custom {@link de.danielbechler.diff.differ.Differ}).
 	 *
 	 * @param working This object will be treated as the successor of the `base` object.
 	 * @param base    This object will be treated as the predecessor of the <code>working</code> object.
@@ -46,14 +106,49 @@ public class ObjectDiffer
 	 */
 	public <T> DiffNode compare(final T working, final T base)
 	{
-		dispatcher.resetInstanceMemory();
-		try
+		final DiffContext context = dispatcher.newDiffContext();
+		return dispatcher.dispatch(DiffNode.ROOT, instancesOf(working, base), RootAccessor.getInstance(), context);
+	}
+
+	/**
+	 * Like {@link #compare(Object, Object)}, but instead of returning a tree, every node gets passed to the given
+	 * listener as soon as it has been decided. Nodes are never connected to their children, so they can be
+	 * garbage collected right after the listener is done with them. This keeps the memory needed for the comparison
+	 * proportional to the depth of the compared objects instead of the number of differences.
+	 *
+	 * @param working  This object will be treated as the successor of the `base` object.
+	 * @param base     This object will be treated as the predecessor of the <code>working</code> object.
+	 * @param listener Receives all nodes that would have been part of the tree, children before their parents.
+	 */
+	public <T> void compare(final T working, final T base, final DiffListener listener)
+	{
+		final DiffContext context = dispatcher.newDiffContext(listener);
+		dispatcher.dispatch(DiffNode.ROOT, instancesOf(working, base), RootAccessor.getInstance(), context);
+	}
+
+	/**
+	 * Determines whether there are any differences between the given objects. The result is the same as the one of
+	 * <code>compare(working, base).hasChanges()</code>, but the comparison stops as soon as the first difference has
+	 * been found. So this is considerably cheaper whenever a yes or no answer is all that's needed.
+	 *
+	 * @param working This object will be treated as the successor of the `base` object.
+	 * @param base    This object will be treated as the predecessor of the <code>working</code> object.
+	 * @return <code>true</code> if there are any differences between the given objects.
+	 */
+	public <T> boolean hasDifferences(final T working, final T base)
+	{
+		final DiffContext context = dispatcher.newDiffContextStoppingAtFirstDifference();
+		final DiffNode node = dispatcher.dispatch(DiffNode.ROOT, instancesOf(working, base), RootAccessor.getInstance(), context);
+		if (node.hasChanges())
 		{
-			return dispatcher.dispatch(DiffNode.ROOT, Instances.of(working, base), RootAccessor.getInstance());
+			return true;
 		}
-		finally
+		if (context.isDone())
 		{
-			dispatcher.clearInstanceMemory();
+			// The difference got filtered out on its way up to the root node, so it might have hidden others that
+			// wouldn't have been. Only the full comparison can tell.
+			return compare(working, base).hasChanges();
 		}
+		return false;
 	}
 }
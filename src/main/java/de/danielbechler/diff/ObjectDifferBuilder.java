@@ -16,12 +16,14 @@
 
 package de.danielbechler.diff;
 
+import de.danielbechler.diff.access.FreshInstanceCache;
 import de.danielbechler.diff.category.CategoryConfigurer;
 import de.danielbechler.diff.category.CategoryService;
 import de.danielbechler.diff.circular.CircularReferenceConfigurer;
 import de.danielbechler.diff.circular.CircularReferenceService;
 import de.danielbechler.diff.comparison.ComparisonConfigurer;
 import de.danielbechler.diff.comparison.ComparisonService;
+import de.danielbechler.diff.differ.ArrayDiffer;
 import de.danielbechler.diff.differ.BeanDiffer;
 import de.danielbechler.diff.differ.CollectionDiffer;
 import de.danielbechler.diff.differ.Differ;
@@ -30,6 +32,7 @@ import de.danielbechler.diff.differ.DifferDispatcher;
 import de.danielbechler.diff.differ.DifferFactory;
 import de.danielbechler.diff.differ.DifferProvider;
 import de.danielbechler.diff.differ.DifferService;
+import de.danielbechler.diff.differ.ListDiffer;
 import de.danielbechler.diff.differ.MapDiffer;
 import de.danielbechler.diff.differ.PrimitiveDiffer;
 import de.danielbechler.diff.filtering.FilteringConfigurer;
@@ -39,6 +42,7 @@ import de.danielbechler.diff.inclusion.InclusionConfigurer;
 import de.danielbechler.diff.inclusion.InclusionService;
 import de.danielbechler.diff.introspection.IntrospectionConfigurer;
 import de.danielbechler.diff.introspection.IntrospectionService;
+import de.danielbechler.diff.introspection.TypeInfoCache;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -52,19 +56,49 @@ import java.util.Collection;
  */
 public class ObjectDifferBuilder
 {
-	private final IntrospectionService introspectionService = new IntrospectionService(this);
-	private final CategoryService categoryService = new CategoryService(this);
-	private final InclusionService inclusionService = new InclusionService(categoryService, this);
-	private final ComparisonService comparisonService = new ComparisonService(this);
-	private final IdentityService identityService = new IdentityService(this);
-	private final ReturnableNodeService returnableNodeService = new ReturnableNodeService(this);
-	private final CircularReferenceService circularReferenceService = new CircularReferenceService(this);
-	private final DifferService differService = new DifferService(this);
+	private final IntrospectionService introspectionService;
+	private final CategoryService categoryService;
+	private final InclusionService inclusionService;
+	private final ComparisonService comparisonService;
+	private final IdentityService identityService;
+	private final ReturnableNodeService returnableNodeService;
+	private final CircularReferenceService circularReferenceService;
+	private final DifferService differService;
 	private final NodeQueryService nodeQueryService;
 
 	private ObjectDifferBuilder()
 	{
-		nodeQueryService = new DefaultNodeQueryService(categoryService,
+		introspectionService = new IntrospectionService(this);
+		categoryService = new CategoryService(this);
+		inclusionService = new InclusionService(categoryService, this);
+		comparisonService = new ComparisonService(this);
+		identityService = new IdentityService(this);
+		returnableNodeService = new ReturnableNodeService(this);
+		circularReferenceService = new CircularReferenceService(this);
+		differService = new DifferService(this);
+		nodeQueryService = newNodeQueryService();
+	}
+
+	/**
+	 * Creates a snapshot of the given builder, so the configuration of the {@link ObjectDiffer} built from it can't
+	 * be changed afterwards.
+	 */
+	private ObjectDifferBuilder(final ObjectDifferBuilder objectDifferBuilder)
+	{
+		introspectionService = objectDifferBuilder.introspectionService.snapshot();
+		categoryService = objectDifferBuilder.categoryService.snapshot();
+		inclusionService = objectDifferBuilder.inclusionService.snapshot(categoryService);
+		comparisonService = objectDifferBuilder.comparisonService.snapshot();
+		identityService = objectDifferBuilder.identityService.snapshot();
+		returnableNodeService = objectDifferBuilder.returnableNodeService.snapshot();
+		circularReferenceService = objectDifferBuilder.circularReferenceService.snapshot();
+		differService = objectDifferBuilder.differService.snapshot();
+		nodeQueryService = newNodeQueryService();
+	}
+
+	private NodeQueryService newNodeQueryService()
+	{
+		return new DefaultNodeQueryService(categoryService,
 				introspectionService,
 				inclusionService,
 				returnableNodeService,
@@ -159,16 +193,33 @@ public class ObjectDifferBuilder
 		return new ObjectDifferBuilder();
 	}
 
+	/**
+	 * Builds a new {@link ObjectDiffer} based on the current configuration. Changing the configuration afterwards
+	 * doesn't affect differs that have already been built.
+	 */
 	public ObjectDiffer build()
+	{
+		return new ObjectDifferBuilder(this).buildFromSnapshot();
+	}
+
+	private ObjectDiffer buildFromSnapshot()
 	{
 		final DifferProvider differProvider = new DifferProvider();
 		final DifferDispatcher differDispatcher = newDifferDispatcher(differProvider);
-		differProvider.push(newBeanDiffer(differDispatcher));
-		differProvider.push(newCollectionDiffer(differDispatcher));
+		final TypeInfoCache typeInfoCache = introspectionService.newTypeInfoCache();
+		differProvider.push(newBeanDiffer(differDispatcher, typeInfoCache));
+		final CollectionDiffer collectionDiffer = newCollectionDiffer(differDispatcher);
+		differProvider.push(collectionDiffer);
+		if (differService.isAnyListOrdered())
+		{
+			differProvider.push(newListDiffer(differDispatcher, collectionDiffer));
+		}
 		differProvider.push(newMapDiffer(differDispatcher));
 		differProvider.push(newPrimitiveDiffer());
+		differProvider.push(newArrayDiffer(differDispatcher));
 		differProvider.pushAll(createCustomDiffers(differDispatcher));
-		return new ObjectDiffer(differDispatcher);
+		final FreshInstanceCache freshInstanceCache = differService.isFreshInstancesReused() ? new FreshInstanceCache() : null;
+		return new ObjectDiffer(differDispatcher, typeInfoCache, freshInstanceCache);
 	}
 
 	private DifferDispatcher newDifferDispatcher(final DifferProvider differProvider)
@@ -180,24 +231,32 @@ public class ObjectDifferBuilder
 				inclusionService,
 				returnableNodeService,
 				introspectionService,
-				categoryService);
+				categoryService,
+				differService.getExecutor(),
+				differService.getParallelismThreshold(),
+				comparisonService);
 	}
 
-	private Differ newBeanDiffer(final DifferDispatcher differDispatcher)
+	private Differ newBeanDiffer(final DifferDispatcher differDispatcher, final TypeInfoCache typeInfoCache)
 	{
 		return new BeanDiffer(
 				differDispatcher,
 				introspectionService,
 				returnableNodeService,
 				comparisonService,
-				introspectionService);
+				typeInfoCache);
 	}
 
-	private Differ newCollectionDiffer(final DifferDispatcher differDispatcher)
+	private CollectionDiffer newCollectionDiffer(final DifferDispatcher differDispatcher)
 	{
 		return new CollectionDiffer(differDispatcher, comparisonService, identityService);
 	}
 
+	private Differ newListDiffer(final DifferDispatcher differDispatcher, final CollectionDiffer collectionDiffer)
+	{
+		return new ListDiffer(differDispatcher, collectionDiffer, differService, comparisonService, identityService);
+	}
+
 	private Differ newMapDiffer(final DifferDispatcher differDispatcher)
 	{
 		return new MapDiffer(differDispatcher, comparisonService);
@@ -208,6 +267,11 @@ public class ObjectDifferBuilder
 		return new PrimitiveDiffer(comparisonService);
 	}
 
+	private Differ newArrayDiffer(final DifferDispatcher differDispatcher)
+	{
+		return new ArrayDiffer(differDispatcher, comparisonService);
+	}
+
 	private Iterable<Differ> createCustomDiffers(final DifferDispatcher differDispatcher)
 	{
 		final Collection<DifferFactory> differFactories = differService.getDifferFactories();
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.selector.ArrayRangeElementSelector;
+import de.danielbechler.diff.selector.ElementSelector;
+import de.danielbechler.util.Assert;
+
+import java.lang.reflect.Array;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * Accesses a contiguous range of elements of an array. Reading returns a copy of the elements within the range, so
+ * the value is an array of the same type. Arrays that end before the range starts don't have a value, arrays that
+ * end within the range only return the elements they actually have.
+ */
+public class ArrayRangeAccessor implements TypeAwareAccessor
+{
+	private final Class<?> arrayType;
+	private final ArrayRangeElementSelector elementSelector;
+	private final int fromIndex;
+	private final int toIndex;
+
+	public ArrayRangeAccessor(final Class<?> arrayType, final int fromIndex, final int toIndex)
+	{
+		Assert.notNull(arrayType, "arrayType");
+		if (!arrayType.isArray())
+		{
+			throw new IllegalArgumentException("The type of an array range must be an array type: " + arrayType);
+		}
+		this.arrayType = arrayType;
+		this.elementSelector = new ArrayRangeElementSelector(fromIndex, toIndex);
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
+	}
+
+	public Class<?> getType()
+	{
+		return arrayType;
+	}
+
+	public ElementSelector getElementSelector()
+	{
+		return elementSelector;
+	}
+
+	public Object get(final Object target)
+	{
+		if (target == null)
+		{
+			return null;
+		}
+		final int length = Array.getLength(target);
+		if (length <= fromIndex)
+		{
+			return null;
+		}
+		final int rangeLength = Math.min(toIndex, length) - fromIndex;
+		final Object range = Array.newInstance(target.getClass().getComponentType(), rangeLength);
+		System.arraycopy(target, fromIndex, range, 0, rangeLength);
+		return range;
+	}
+
+	/**
+	 * Copies the elements of the given array into the range. Arrays can't grow, so elements that don't fit into the
+	 * target are dropped.
+	 */
+	public void set(final Object target, final Object value)
+	{
+		if (target == null || value == null)
+		{
+			return;
+		}
+		final int rangeLength = Math.min(Math.min(toIndex, Array.getLength(target)) - fromIndex, Array.getLength(value));
+		if (rangeLength > 0)
+		{
+			System.arraycopy(value, 0, target, fromIndex, rangeLength);
+		}
+	}
+
+	/**
+	 * Arrays can't shrink, so the elements within the range get reset to their default value instead.
+	 */
+	public void unset(final Object target)
+	{
+		if (target == null)
+		{
+			return;
+		}
+		final int rangeLength = Math.min(toIndex, Array.getLength(target)) - fromIndex;
+		if (rangeLength > 0)
+		{
+			final Object defaults = Array.newInstance(target.getClass().getComponentType(), rangeLength);
+			System.arraycopy(defaults, 0, target, fromIndex, rangeLength);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "array range " + getElementSelector();
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.util.Classes;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * Caches the fresh instances of the root types of comparisons along with the default values of their properties.
+ * {@link Instances} only read the default values of properties from them, so instead of looking up the default
+ * constructor and creating a new instance for every single comparison, one prototype gets created per type and shared
+ * by all comparisons of this type. The default value of every property gets read from the prototype only once as
+ * well, so the getters of the fresh instances aren't invoked for every comparison anymore. Every {@link
+ * de.danielbechler.diff.ObjectDiffer} owns its own cache, so it doesn't keep any classes alive any longer than the
+ * differ itself.
+ * <p/>
+ * The prototypes and their default values are shared by all comparisons, including concurrent ones, and never get
+ * copied. That's why the cache is only used when it has been enabled via {@link
+ * de.danielbechler.diff.differ.DifferConfigurer#reuseFreshInstances()}.
+ */
+public final class FreshInstanceCache
+{
+	private static final int MAX_SIZE = 1024;
+
+	private final ConcurrentMap<Class<?>, Prototype> prototypes = new ConcurrentHashMap<Class<?>, Prototype>();
+
+	/**
+	 * @return The prototype of the given type or <code>null</code> if it can't be created via default
+	 * constructor.
+	 * @see Classes#freshInstanceOf(Class)
+	 */
+	public Object freshInstanceOf(final Class<?> type)
+	{
+		return prototypeOf(type).getInstance();
+	}
+
+	Prototype prototypeOf(final Class<?> type)
+	{
+		if (type == null)
+		{
+			return Prototype.NONE;
+		}
+		final Prototype cachedPrototype = prototypes.get(type);
+		if (cachedPrototype != null)
+		{
+			return cachedPrototype;
+		}
+		final Prototype prototype = Prototype.of(Classes.freshInstanceOf(type));
+		if (prototypes.size() < MAX_SIZE)
+		{
+			final Prototype concurrentPrototype = prototypes.putIfAbsent(type, prototype);
+			if (concurrentPrototype != null)
+			{
+				return concurrentPrototype;
+			}
+		}
+		return prototype;
+	}
+
+	/**
+	 * @return The number of cached types.
+	 */
+	public int size()
+	{
+		return prototypes.size();
+	}
+
+	/**
+	 * A fresh value along with the default values of its properties, which get read once on first access. The
+	 * properties are identified by name, since a bean only has one getter per property name.
+	 */
+	static final class Prototype
+	{
+		static final Prototype NONE = new Prototype(null);
+
+		private final Object instance;
+		private final ConcurrentMap<String, Prototype> properties;
+
+		private Prototype(final Object instance)
+		{
+			this.instance = instance;
+			this.properties = instance != null ? new ConcurrentHashMap<String, Prototype>(16, 0.75f, 1) : null;
+		}
+
+		static Prototype of(final Object instance)
+		{
+			return instance != null ? new Prototype(instance) : NONE;
+		}
+
+		Object getInstance()
+		{
+			return instance;
+		}
+
+		/**
+		 * @return The default value of the given property, which is only read from the instance on first access.
+		 */
+		Prototype access(final PropertyAwareAccessor accessor)
+		{
+			if (instance == null)
+			{
+				return NONE;
+			}
+			final String propertyName = accessor.getPropertyName();
+			final Prototype cachedProperty = properties.get(propertyName);
+			if (cachedProperty != null)
+			{
+				return cachedProperty;
+			}
+			final Prototype property = of(accessor.get(instance));
+			final Prototype concurrentProperty = properties.putIfAbsent(propertyName, property);
+			return concurrentProperty != null ? concurrentProperty : property;
+		}
+
+		/**
+		 * @return The number of properties whose default value has been read so far.
+		 */
+		int size()
+		{
+			return properties != null ? properties.size() : 0;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.identity.IdentityIndex;
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.util.Assert;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * A {@link CollectionItemAccessor} that looks up items via {@link IdentityIndex IdentityIndexes} built once per
+ * comparison instead of scanning the whole collection on every access. Collections that haven't been indexed (or
+ * have been replaced in the meantime) are still scanned, so the accessor behaves exactly like its superclass.
+ * <p/>
+ * Writing operations are rare and always delegate to the scanning implementation.
+ */
+public class IndexedCollectionItemAccessor extends CollectionItemAccessor
+{
+	private final Object referenceItem;
+	private final IdentityIndex[] indexes;
+
+	public IndexedCollectionItemAccessor(final Object referenceItem,
+										 final IdentityStrategy identityStrategy,
+										 final IdentityIndex... indexes)
+	{
+		super(referenceItem, identityStrategy);
+		Assert.notNull(indexes, "indexes");
+		this.referenceItem = referenceItem;
+		this.indexes = indexes;
+	}
+
+	@Override
+	public Object get(final Object target)
+	{
+		if (target != null && referenceItem != null)
+		{
+			for (final IdentityIndex index : indexes)
+			{
+				if (index.isIndexOf(target))
+				{
+					return index.get(referenceItem);
+				}
+			}
+		}
+		return super.get(target);
+	}
+}
@@ -31,21 +31,50 @@ import static de.danielbechler.util.Objects.isEqual;
 public class Instances
 {
 	private static final Logger logger = LoggerFactory.getLogger(Instances.class);
+	private static final Class<?> UNRESOLVED_TYPE = UnresolvedType.class;
 	private final Accessor sourceAccessor;
 	private final Object working;
 	private final Object base;
 	private final Object fresh;
+	private final FreshInstanceCache.Prototype freshPrototype;
+	private final SharedTypeCache sharedTypeCache;
+	/**
+	 * Resolved on first use. Instances may be shared by concurrent comparisons, but since the resolution always
+	 * yields the same result, the worst thing that can happen is that it's done more than once.
+	 */
+	private Class<?> type = UNRESOLVED_TYPE;
 
 	Instances(final Accessor sourceAccessor,
 			  final Object working,
 			  final Object base,
 			  final Object fresh)
+	{
+		this(sourceAccessor, working, base, fresh, null);
+	}
+
+	Instances(final Accessor sourceAccessor,
+			  final Object working,
+			  final Object base,
+			  final Object fresh,
+			  final SharedTypeCache sharedTypeCache)
+	{
+		this(sourceAccessor, working, base, fresh, null, sharedTypeCache);
+	}
+
+	private Instances(final Accessor sourceAccessor,
+					  final Object working,
+					  final Object base,
+					  final Object fresh,
+					  final FreshInstanceCache.Prototype freshPrototype,
+					  final SharedTypeCache sharedTypeCache)
 	{
 		Assert.notNull(sourceAccessor, "sourceAccessor");
 		this.sourceAccessor = sourceAccessor;
 		this.working = working;
 		this.base = base;
 		this.fresh = fresh;
+		this.freshPrototype = freshPrototype;
+		this.sharedTypeCache = sharedTypeCache;
 	}
 
 	public static <T> Instances of(final Accessor sourceAccessor,
@@ -68,6 +97,33 @@ public class Instances
 		return new Instances(RootAccessor.getInstance(), working, base, fresh);
 	}
 
+	/**
+	 * Like {@link #of(Object, Object)}, but the given cache gets used to resolve the shared type of mixed types for
+	 * these and all instances accessed from them.
+	 */
+	public static <T> Instances of(final T working, final T base, final SharedTypeCache sharedTypeCache)
+	{
+		final Object fresh = (working != null) ? Classes.freshInstanceOf(working.getClass()) : null;
+		return new Instances(RootAccessor.getInstance(), working, base, fresh, sharedTypeCache);
+	}
+
+	/**
+	 * Like {@link #of(Object, Object, SharedTypeCache)}, but the fresh instance is the prototype of the type of the
+	 * working object, taken from the given cache. The default values of bean properties accessed from these
+	 * instances are taken from the cache as well, instead of reading them from the fresh instance again.
+	 */
+	public static <T> Instances of(final T working,
+								   final T base,
+								   final FreshInstanceCache freshInstanceCache,
+								   final SharedTypeCache sharedTypeCache)
+	{
+		Assert.notNull(freshInstanceCache, "freshInstanceCache");
+		final Class<?> type = (working != null) ? working.getClass() : null;
+		final FreshInstanceCache.Prototype freshPrototype = freshInstanceCache.prototypeOf(type);
+		return new Instances(RootAccessor.getInstance(), working, base, freshPrototype.getInstance(), freshPrototype,
+				sharedTypeCache);
+	}
+
 	/**
 	 * @return The {@link Accessor} that has been used to get to these instances.
 	 */
@@ -79,7 +135,17 @@ public class Instances
 	public Instances access(final Accessor accessor)
 	{
 		Assert.notNull(accessor, "accessor");
-		return new Instances(accessor, accessor.get(working), accessor.get(base), accessor.get(fresh));
+		if (freshPrototype != null && accessor instanceof RootAccessor)
+		{
+			return new Instances(accessor, working, base, fresh, freshPrototype, sharedTypeCache);
+		}
+		if (freshPrototype != null && accessor instanceof PropertyAwareAccessor)
+		{
+			final FreshInstanceCache.Prototype property = freshPrototype.access((PropertyAwareAccessor) accessor);
+			return new Instances(accessor, accessor.get(working), accessor.get(base), property.getInstance(), property,
+					sharedTypeCache);
+		}
+		return new Instances(accessor, accessor.get(working), accessor.get(base), accessor.get(fresh), sharedTypeCache);
 	}
 
 	public Object getWorking()
@@ -164,12 +230,28 @@ public class Instances
 
 	public Class<?> getType()
 	{
-		final Set<Class<?>> types = Classes.typesOf(working, base, fresh);
+		Class<?> resolvedType = type;
+		if (resolvedType == UNRESOLVED_TYPE)
+		{
+			resolvedType = resolveType();
+			type = resolvedType;
+		}
+		return resolvedType;
+	}
+
+	private Class<?> resolveType()
+	{
 		final Class<?> sourceAccessorType = tryToGetTypeFromSourceAccessor();
 		if (Classes.isPrimitiveType(sourceAccessorType))
 		{
 			return sourceAccessorType;
 		}
+		final Class<?> singleType = singleTypeOf(working, base, fresh);
+		if (singleType != null)
+		{
+			return singleType;
+		}
+		final Set<Class<?>> types = Classes.typesOf(working, base, fresh);
 		if (types.isEmpty())
 		{
 			return null;
@@ -216,7 +298,7 @@ public class Instances
 			}
 			else
 			{
-				final Class<?> sharedType = Classes.mostSpecificSharedType(types);
+				final Class<?> sharedType = mostSpecificSharedType(types);
 				if (sharedType != null)
 				{
 					return sharedType;
@@ -234,6 +316,41 @@ public class Instances
 		return Object.class;
 	}
 
+	/**
+	 * Shortcut for the most common case, that avoids the allocations needed to deal with multiple types.
+	 *
+	 * @return The type of the given values, if they all have the same type or <code>null</code> otherwise. Values
+	 * that are <code>null</code> themselves are ignored, unless all of them are.
+	 */
+	private static Class<?> singleTypeOf(final Object... values)
+	{
+		Class<?> singleType = null;
+		for (final Object value : values)
+		{
+			if (value != null)
+			{
+				if (singleType == null)
+				{
+					singleType = value.getClass();
+				}
+				else if (singleType != value.getClass())
+				{
+					return null;
+				}
+			}
+		}
+		return singleType;
+	}
+
+	private Class<?> mostSpecificSharedType(final Set<Class<?>> types)
+	{
+		if (sharedTypeCache != null)
+		{
+			return sharedTypeCache.mostSpecificSharedType(types);
+		}
+		return Classes.mostSpecificSharedType(types);
+	}
+
 	private Class<?> tryToGetTypeFromSourceAccessor()
 	{
 		if (sourceAccessor instanceof TypeAwareAccessor)
@@ -268,4 +385,8 @@ public class Instances
 		return working == null && base == null;
 	}
 
+	private static final class UnresolvedType
+	{
+	}
+
 }
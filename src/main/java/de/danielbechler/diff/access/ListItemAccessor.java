@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.diff.selector.CollectionItemElementSelector;
+import de.danielbechler.diff.selector.ElementSelector;
+import de.danielbechler.diff.selector.ListItemElementSelector;
+
+import java.util.List;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * Accesses an item of a list that has been compared in order. The item has already been matched between the working
+ * and base list, so it knows its position in both of them and whether it has been moved. Just like its superclass
+ * it returns the matched items directly and only scans other lists (like the fresh one) for them.
+ * <p/>
+ * The item is selected by a {@link ListItemElementSelector}, which tells multiple occurrences of the same item apart,
+ * but still matches configured node paths and lookups via {@link CollectionItemElementSelector
+ * CollectionItemElementSelectors}. Its positions are only known to the accessor.
+ */
+public class ListItemAccessor extends MatchedCollectionItemAccessor
+{
+	/**
+	 * The index of an item that is missing in one of the lists.
+	 */
+	public static final int NO_INDEX = -1;
+
+	private final int occurrence;
+	private final int workingIndex;
+	private final int baseIndex;
+	private final boolean moved;
+
+	/**
+	 * @param occurrence   The number of items with the same identity that have been dispatched before this one.
+	 * @param workingIndex The index of the item in the working list or a negative value if it has been removed.
+	 * @param baseIndex    The index of the item in the base list or a negative value if it has been added.
+	 * @param moved        Whether the item has changed its position relative to the other items of the list.
+	 */
+	public ListItemAccessor(final Object referenceItem,
+							final int occurrence,
+							final IdentityStrategy identityStrategy,
+							final List<?> workingList,
+							final int workingIndex,
+							final Object workingItem,
+							final List<?> baseList,
+							final int baseIndex,
+							final Object baseItem,
+							final boolean moved)
+	{
+		super(referenceItem, identityStrategy, workingList, workingItem, baseList, baseItem);
+		if (workingIndex < 0 && baseIndex < 0)
+		{
+			throw new IllegalArgumentException("The item must at least have an index in the working or base list");
+		}
+		this.occurrence = occurrence;
+		this.workingIndex = workingIndex < 0 ? NO_INDEX : workingIndex;
+		this.baseIndex = baseIndex < 0 ? NO_INDEX : baseIndex;
+		this.moved = moved;
+	}
+
+	@Override
+	public ElementSelector getElementSelector()
+	{
+		return new ListItemElementSelector((CollectionItemElementSelector) super.getElementSelector(), occurrence);
+	}
+
+	/**
+	 * @return The index of the item in the working list or {@link #NO_INDEX} if it has been removed.
+	 */
+	public int getWorkingIndex()
+	{
+		return workingIndex;
+	}
+
+	/**
+	 * @return The index of the item in the base list or {@link #NO_INDEX} if it has been added.
+	 */
+	public int getBaseIndex()
+	{
+		return baseIndex;
+	}
+
+	/**
+	 * Moved items are the ones that are part of both lists, but not part of their longest common subsequence. Items
+	 * whose index only shifted because of other items being added or removed don't count as moved.
+	 */
+	public boolean isMoved()
+	{
+		return moved;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "list item " + getElementSelector() + " (base index " + baseIndex + ", working index " + workingIndex + ")";
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.identity.IdentityStrategy;
+
+import java.util.Collection;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * A {@link CollectionItemAccessor} for items that have already been matched between the working and base collection
+ * (e.g. while walking two sorted collections side by side). Reading from one of those two collection instances
+ * returns the matched item right away, while any other collection (like the fresh one) is still scanned, so the
+ * accessor behaves exactly like its superclass.
+ * <p/>
+ * Writing operations are rare and always delegate to the scanning implementation.
+ */
+public class MatchedCollectionItemAccessor extends CollectionItemAccessor
+{
+	private final Collection<?> workingCollection;
+	private final Object workingItem;
+	private final Collection<?> baseCollection;
+	private final Object baseItem;
+
+	/**
+	 * @param workingItem The matching item of the working collection or <code>null</code> if there is none.
+	 * @param baseItem    The matching item of the base collection or <code>null</code> if there is none.
+	 */
+	public MatchedCollectionItemAccessor(final Object referenceItem,
+										 final IdentityStrategy identityStrategy,
+										 final Collection<?> workingCollection,
+										 final Object workingItem,
+										 final Collection<?> baseCollection,
+										 final Object baseItem)
+	{
+		super(referenceItem, identityStrategy);
+		this.workingCollection = workingCollection;
+		this.workingItem = workingItem;
+		this.baseCollection = baseCollection;
+		this.baseItem = baseItem;
+	}
+
+	@Override
+	public Object get(final Object target)
+	{
+		if (target != null)
+		{
+			if (target == workingCollection)
+			{
+				return workingItem;
+			}
+			if (target == baseCollection)
+			{
+				return baseItem;
+			}
+		}
+		return super.get(target);
+	}
+}
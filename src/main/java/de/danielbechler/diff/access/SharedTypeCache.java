@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access;
+
+import de.danielbechler.util.Classes;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * Caches the most specific shared type of mixed types. They usually occur for the same few type combinations over
+ * and over again (e.g. in collections of polymorphic items), so the rather expensive search only needs to be done
+ * once per combination. Every {@link de.danielbechler.diff.ObjectDiffer} owns its own cache, so it doesn't keep any
+ * classes alive any longer than the differ itself.
+ */
+public final class SharedTypeCache
+{
+	private static final int MAX_SIZE = 1024;
+	private static final Class<?> NO_SHARED_TYPE = NoSharedType.class;
+
+	private final ConcurrentMap<Set<Class<?>>, Class<?>> sharedTypes = new ConcurrentHashMap<Set<Class<?>>, Class<?>>();
+
+	/**
+	 * @return The most specific type shared by all given types or <code>null</code> if there is none.
+	 * @see Classes#mostSpecificSharedType(java.util.Collection)
+	 */
+	public Class<?> mostSpecificSharedType(final Set<Class<?>> types)
+	{
+		final Class<?> cachedSharedType = sharedTypes.get(types);
+		if (cachedSharedType != null)
+		{
+			return cachedSharedType != NO_SHARED_TYPE ? cachedSharedType : null;
+		}
+		final Class<?> sharedType = Classes.mostSpecificSharedType(types);
+		if (sharedTypes.size() < MAX_SIZE)
+		{
+			sharedTypes.putIfAbsent(types, sharedType != null ? sharedType : NO_SHARED_TYPE);
+		}
+		return sharedType;
+	}
+
+	/**
+	 * @return The number of cached type combinations.
+	 */
+	public int size()
+	{
+		return sharedTypes.size();
+	}
+
+	private static final class NoSharedType
+	{
+	}
+}
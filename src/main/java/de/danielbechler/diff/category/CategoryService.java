@@ -35,28 +35,65 @@ import static java.util.Collections.emptySet;
 /**
  *
  */
-public class CategoryService implements CategoryConfigurer, CategoryResolver
+public class CategoryService implements CategoryConfigurer, CategoryResolver, ConfiguredCategoryResolver
 {
-	private final NodePathValueHolder<String[]> nodePathCategories = NodePathValueHolder.of(String[].class);
 	private final Map<Class<?>, String[]> typeCategories = new HashMap<Class<?>, String[]>();
 	private final ObjectDifferBuilder objectDifferBuilder;
+	private NodePathValueHolder<String[]> nodePathCategories = NodePathValueHolder.of(String[].class);
 
 	public CategoryService(final ObjectDifferBuilder objectDifferBuilder)
 	{
 		this.objectDifferBuilder = objectDifferBuilder;
 	}
 
+	/**
+	 * Creates a copy of the current configuration, that won't be affected by later changes to this one.
+	 */
+	public CategoryService snapshot()
+	{
+		final CategoryService snapshot = new CategoryService(objectDifferBuilder);
+		snapshot.nodePathCategories = nodePathCategories.copy();
+		snapshot.typeCategories.putAll(typeCategories);
+		return snapshot;
+	}
+
 	public Set<String> resolveCategories(final DiffNode node)
 	{
+		if (!hasConfiguredCategories())
+		{
+			// nothing to add, so the (unmodifiable) categories of the node will do
+			return node.getCategories();
+		}
+		final Set<String> categories = new TreeSet<String>();
+		categories.addAll(categoriesFromNodePathConfiguration(node));
+		categories.addAll(categoriesFromTypeConfiguration(node));
+		categories.addAll(node.getCategories());
+		return categories;
+	}
+
+	public boolean hasConfiguredCategories()
+	{
+		return !nodePathCategories.isEmpty() || !typeCategories.isEmpty();
+	}
+
+	public Set<String> resolveConfiguredCategories(final DiffNode node)
+	{
+		if (!hasConfiguredCategories())
+		{
+			return emptySet();
+		}
 		final Set<String> categories = new TreeSet<String>();
 		categories.addAll(categoriesFromNodePathConfiguration(node));
 		categories.addAll(categoriesFromTypeConfiguration(node));
-		categories.addAll(categoriesFromNode(node));
 		return categories;
 	}
 
 	private Collection<String> categoriesFromNodePathConfiguration(final DiffNode node)
 	{
+		if (nodePathCategories.isEmpty())
+		{
+			return emptySet();
+		}
 		final Collection<String> allCategories = new HashSet<String>();
 		final List<String[]> accumulatedValues = nodePathCategories.accumulatedValuesForNodePath(node.getPath());
 		for (final String[] categoriesForElement : accumulatedValues)
@@ -80,11 +117,6 @@ public class CategoryService implements CategoryConfigurer, CategoryResolver
 		return emptySet();
 	}
 
-	private static Collection<String> categoriesFromNode(final DiffNode node)
-	{
-		return node.getCategories();
-	}
-
 	public Of ofNode(final NodePath nodePath)
 	{
 		return new Of()
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.diff.category;
+
+import de.danielbechler.diff.node.DiffNode;
+
+import java.util.Set;
+
+/**
+ * Resolves only the categories that have been configured for a node, as opposed to the {@link CategoryResolver},
+ * which also includes the categories the node has anyway (e.g. from annotations or its parent). That allows the
+ * node to look them up by itself the first time its categories are needed.
+ * @see DiffNode#setConfiguredCategoryResolver(ConfiguredCategoryResolver)
+ */
+public interface ConfiguredCategoryResolver
+{
+	/**
+	 * @return <code>true</code> if any categories have been configured at all. Otherwise there is no need to ask
+	 * for the categories of any node.
+	 */
+	boolean hasConfiguredCategories();
+
+	/**
+	 * @return The categories configured for the given node or its path. Never <code>null</code>.
+	 */
+	Set<String> resolveConfiguredCategories(DiffNode node);
+}
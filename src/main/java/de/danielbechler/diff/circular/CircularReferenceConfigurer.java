@@ -27,6 +27,9 @@ import de.danielbechler.diff.ObjectDifferBuilder;
  * it is possible to switch the instance detection mode to use the equals method instead of the equality operator. This
  * way objects will be considered to be "the same" whenever `equals` returns `true`.
  * <p/>
+ * For very deep object graphs the instances can also be tracked via hash index instead of a plain stack, which makes
+ * the detection cost independent of the depth of the graph. See {@link CircularReferenceDetectionMode} for details.
+ * <p/>
  * This configuration interface also allows to register a custom handler for exception thrown, whenever a circular
  * reference is detected. The default handler simply logs a warning.
  *
@@ -36,6 +39,8 @@ public interface CircularReferenceConfigurer
 {
 	CircularReferenceConfigurer matchCircularReferencesUsing(CircularReferenceMatchingMode matchingMode);
 
+	CircularReferenceConfigurer detectCircularReferencesUsing(CircularReferenceDetectionMode detectionMode);
+
 	CircularReferenceConfigurer handleCircularReferenceExceptionsUsing(CircularReferenceExceptionHandler exceptionHandler);
 
 	ObjectDifferBuilder and();
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.circular;
+
+/**
+ * Defines how the instances along the current path are tracked to detect circular references. The default is {@link
+ * #STACK}, which is perfectly fine for most object graphs. For very deep graphs {@link #HASH_INDEX} can be
+ * considerably faster.
+ */
+public enum CircularReferenceDetectionMode
+{
+	/**
+	 * Keeps the instances on a stack, which gets scanned every time a new instance is encountered. The cost of this
+	 * grows linearly with the depth of the object graph.
+	 */
+	STACK,
+
+	/**
+	 * Additionally indexes the instances by hash (see {@link HashingCircularReferenceDetector}), so the cost stays
+	 * the same regardless of the depth of the object graph. In combination with {@link
+	 * CircularReferenceMatchingMode#EQUALS_METHOD} this requires the compared objects to implement
+	 * <code>hashCode</code> consistently with <code>equals</code>.
+	 */
+	HASH_INDEX
+}
@@ -49,28 +49,28 @@ public class CircularReferenceDetector
 		{
 			return;
 		}
-		if (knows(instance))
+		final Entry knownEntry = findEntry(instance);
+		if (knownEntry != null)
 		{
-			throw new CircularReferenceException(entryForInstance(instance).getNodePath());
+			throw new CircularReferenceException(knownEntry.getNodePath());
 		}
 		final Entry entry = new Entry(nodePath, instance);
 		stack.addLast(entry);
+		entryPushed(entry);
 	}
 
 	public boolean knows(final Object needle)
 	{
-		for (final Entry entry : stack)
-		{
-			final Object instance = entry.getInstance();
-			if (isMatch(needle, instance))
-			{
-				return true;
-			}
-		}
-		return false;
+		return needle != null && findEntry(needle) != null;
 	}
 
-	private Entry entryForInstance(final Object instance)
+	/**
+	 * Subclasses may override this together with {@link #entryPushed(Entry)} and {@link #entryRemoved(Entry)} to
+	 * find the instances faster than by scanning the stack.
+	 *
+	 * @return The entry of the given instance or <code>null</code> if it isn't on the stack.
+	 */
+	Entry findEntry(final Object instance)
 	{
 		for (final Entry entry : stack)
 		{
@@ -82,6 +82,20 @@ public class CircularReferenceDetector
 		return null;
 	}
 
+	/**
+	 * Called after the given entry has been pushed onto the stack.
+	 */
+	void entryPushed(final Entry entry)
+	{
+	}
+
+	/**
+	 * Called after the given entry has been removed from the stack.
+	 */
+	void entryRemoved(final Entry entry)
+	{
+	}
+
 	protected boolean isMatch(final Object anObject, final Object anotherObject)
 	{
 		if (referenceMatchingMode == ReferenceMatchingMode.EQUALITY_OPERATOR)
@@ -104,9 +118,11 @@ public class CircularReferenceDetector
 		{
 			return;
 		}
-		if (isMatch(instance, stack.getLast().getInstance()))
+		final Entry lastEntry = stack.getLast();
+		if (isMatch(instance, lastEntry.getInstance()))
 		{
 			stack.removeLast();
+			entryRemoved(lastEntry);
 		}
 		else
 		{
@@ -119,6 +135,37 @@ public class CircularReferenceDetector
 		return stack.size();
 	}
 
+	/**
+	 * Used to track the instances of a branch of the comparison that is performed concurrently to the current one.
+	 * Subclasses need to override this method if they hold any additional state.
+	 *
+	 * @return A new detector that knows the same instances as this one, but doesn't share any further changes with
+	 * it.
+	 */
+	public CircularReferenceDetector copy()
+	{
+		final CircularReferenceDetector copy = newEmptyCopy();
+		for (final Entry entry : stack)
+		{
+			copy.stack.addLast(entry);
+			copy.entryPushed(entry);
+		}
+		return copy;
+	}
+
+	/**
+	 * @return A new detector of the same kind as this one, that doesn't know any instances yet.
+	 */
+	CircularReferenceDetector newEmptyCopy()
+	{
+		return new CircularReferenceDetector(referenceMatchingMode);
+	}
+
+	ReferenceMatchingMode getReferenceMatchingMode()
+	{
+		return referenceMatchingMode;
+	}
+
 	public static enum ReferenceMatchingMode
 	{
 		/**
@@ -132,12 +179,12 @@ public class CircularReferenceDetector
 		EQUALS_METHOD
 	}
 
-	private static class Entry
+	static class Entry
 	{
 		private final NodePath nodePath;
 		private final Object instance;
 
-		private Entry(final NodePath nodePath, final Object instance)
+		Entry(final NodePath nodePath, final Object instance)
 		{
 			this.nodePath = nodePath;
 			this.instance = instance;
@@ -156,7 +203,7 @@ public class CircularReferenceDetector
 		@Override
 		public String toString()
 		{
-			return nodePath.toString() + "{" + instance.toString() + "}";
+			return nodePath + "{" + instance + "}";
 		}
 	}
 
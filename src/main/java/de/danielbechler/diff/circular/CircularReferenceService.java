@@ -30,6 +30,7 @@ public class CircularReferenceService implements CircularReferenceConfigurer, Ci
 	private final ObjectDifferBuilder objectDifferBuilder;
 
 	private CircularReferenceMatchingMode circularReferenceMatchingMode = CircularReferenceMatchingMode.EQUALITY_OPERATOR;
+	private CircularReferenceDetectionMode circularReferenceDetectionMode = CircularReferenceDetectionMode.STACK;
 	private CircularReferenceExceptionHandler circularReferenceExceptionHandler = new CircularReferenceExceptionHandler()
 	{
 		public void onCircularReferenceException(final DiffNode node)
@@ -46,12 +47,30 @@ public class CircularReferenceService implements CircularReferenceConfigurer, Ci
 		this.objectDifferBuilder = objectDifferBuilder;
 	}
 
+	/**
+	 * Creates a copy of the current configuration, that won't be affected by later changes to this one.
+	 */
+	public CircularReferenceService snapshot()
+	{
+		final CircularReferenceService snapshot = new CircularReferenceService(objectDifferBuilder);
+		snapshot.circularReferenceMatchingMode = circularReferenceMatchingMode;
+		snapshot.circularReferenceDetectionMode = circularReferenceDetectionMode;
+		snapshot.circularReferenceExceptionHandler = circularReferenceExceptionHandler;
+		return snapshot;
+	}
+
 	public CircularReferenceConfigurer matchCircularReferencesUsing(final CircularReferenceMatchingMode matchingMode)
 	{
 		this.circularReferenceMatchingMode = matchingMode;
 		return this;
 	}
 
+	public CircularReferenceConfigurer detectCircularReferencesUsing(final CircularReferenceDetectionMode detectionMode)
+	{
+		this.circularReferenceDetectionMode = detectionMode;
+		return this;
+	}
+
 	public CircularReferenceConfigurer handleCircularReferenceExceptionsUsing(final CircularReferenceExceptionHandler exceptionHandler)
 	{
 		this.circularReferenceExceptionHandler = exceptionHandler;
@@ -64,14 +83,28 @@ public class CircularReferenceService implements CircularReferenceConfigurer, Ci
 	}
 
 	public CircularReferenceDetector createCircularReferenceDetector()
+	{
+		final CircularReferenceDetector.ReferenceMatchingMode referenceMatchingMode = referenceMatchingMode();
+		if (circularReferenceDetectionMode == CircularReferenceDetectionMode.HASH_INDEX)
+		{
+			return new HashingCircularReferenceDetector(referenceMatchingMode);
+		}
+		else if (circularReferenceDetectionMode == CircularReferenceDetectionMode.STACK)
+		{
+			return new CircularReferenceDetector(referenceMatchingMode);
+		}
+		throw new IllegalStateException();
+	}
+
+	private CircularReferenceDetector.ReferenceMatchingMode referenceMatchingMode()
 	{
 		if (circularReferenceMatchingMode == CircularReferenceMatchingMode.EQUALS_METHOD)
 		{
-			return new CircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD);
+			return CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD;
 		}
 		else if (circularReferenceMatchingMode == CircularReferenceMatchingMode.EQUALITY_OPERATOR)
 		{
-			return new CircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR);
+			return CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR;
 		}
 		throw new IllegalStateException();
 	}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.circular;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A {@link CircularReferenceDetector} that indexes the instances along the current path by hash, so pushing and
+ * removing an instance takes constant time, no matter how deep the object graph is. In {@link
+ * ReferenceMatchingMode#EQUALITY_OPERATOR} mode the instances are indexed by identity, in {@link
+ * ReferenceMatchingMode#EQUALS_METHOD} mode by their own <code>hashCode</code> and <code>equals</code> methods. The
+ * latter only works reliably for objects that implement both of them consistently.
+ */
+public class HashingCircularReferenceDetector extends CircularReferenceDetector
+{
+	private final Map<Object, Entry> index;
+
+	public HashingCircularReferenceDetector(final ReferenceMatchingMode referenceMatchingMode)
+	{
+		super(referenceMatchingMode);
+		if (referenceMatchingMode == ReferenceMatchingMode.EQUALS_METHOD)
+		{
+			index = new HashMap<Object, Entry>();
+		}
+		else
+		{
+			index = new IdentityHashMap<Object, Entry>();
+		}
+	}
+
+	@Override
+	Entry findEntry(final Object instance)
+	{
+		return index.get(instance);
+	}
+
+	@Override
+	void entryPushed(final Entry entry)
+	{
+		index.put(entry.getInstance(), entry);
+	}
+
+	@Override
+	void entryRemoved(final Entry entry)
+	{
+		index.remove(entry.getInstance());
+	}
+
+	@Override
+	CircularReferenceDetector newEmptyCopy()
+	{
+		return new HashingCircularReferenceDetector(getReferenceMatchingMode());
+	}
+}
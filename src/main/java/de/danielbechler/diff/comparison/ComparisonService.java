@@ -26,15 +26,18 @@ import de.danielbechler.util.Classes;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ComparisonService implements ComparisonConfigurer, ComparisonStrategyResolver, PrimitiveDefaultValueModeResolver
 {
 	private static final ComparisonStrategy COMPARABLE_COMPARISON_STRATEGY = new ComparableComparisonStrategy();
 	private static final ComparisonStrategy EQUALS_ONLY_COMPARISON_STRATEGY = new EqualsOnlyComparisonStrategy();
 
-	private final NodePathValueHolder<ComparisonStrategy> nodePathComparisonStrategies = NodePathValueHolder.of(ComparisonStrategy.class);
 	private final Map<Class<?>, ComparisonStrategy> typeComparisonStrategyMap = new HashMap<Class<?>, ComparisonStrategy>();
+	private final ConcurrentMap<Class<?>, TypeComparisonPlan> typeComparisonPlans = new ConcurrentHashMap<Class<?>, TypeComparisonPlan>();
 	private final ObjectDifferBuilder objectDifferBuilder;
+	private NodePathValueHolder<ComparisonStrategy> nodePathComparisonStrategies = NodePathValueHolder.of(ComparisonStrategy.class);
 
 	private PrimitiveDefaultValueMode primitiveDefaultValueMode = PrimitiveDefaultValueMode.UNASSIGNED;
 
@@ -43,18 +46,71 @@ public class ComparisonService implements ComparisonConfigurer, ComparisonStrate
 		this.objectDifferBuilder = objectDifferBuilder;
 	}
 
+	/**
+	 * Creates a copy of the current configuration, that won't be affected by later changes to this one.
+	 */
+	public ComparisonService snapshot()
+	{
+		final ComparisonService snapshot = new ComparisonService(objectDifferBuilder);
+		snapshot.nodePathComparisonStrategies = nodePathComparisonStrategies.copy();
+		snapshot.typeComparisonStrategyMap.putAll(typeComparisonStrategyMap);
+		snapshot.primitiveDefaultValueMode = primitiveDefaultValueMode;
+		return snapshot;
+	}
+
 	public ComparisonStrategy resolveComparisonStrategy(final DiffNode node)
 	{
-		final ComparisonStrategy comparisonStrategy = nodePathComparisonStrategies.valueForNodePath(node.getPath());
-		if (comparisonStrategy != null)
+		if (!nodePathComparisonStrategies.isEmpty())
+		{
+			final ComparisonStrategy comparisonStrategy = nodePathComparisonStrategies.valueForNodePath(node.getPath());
+			if (comparisonStrategy != null)
+			{
+				return comparisonStrategy;
+			}
+		}
+
+		final TypeComparisonPlan typeComparisonPlan = typeComparisonPlanFor(node.getValueType());
+		if (typeComparisonPlan.resolvedByType)
+		{
+			return typeComparisonPlan.comparisonStrategy;
+		}
+
+		final ObjectDiffPropertyComparisonStrategyResolver comparisonStrategyResolver = ObjectDiffPropertyComparisonStrategyResolver.instance;
+
+		final ObjectDiffProperty objectDiffProperty = node.getPropertyAnnotation(ObjectDiffProperty.class);
+		final ComparisonStrategy comparisonStrategyFromObjectDiffPropertyAnnotation = comparisonStrategyResolver.comparisonStrategyForAnnotation(objectDiffProperty);
+		if (comparisonStrategyFromObjectDiffPropertyAnnotation != null)
+		{
+			return comparisonStrategyFromObjectDiffPropertyAnnotation;
+		}
+
+		return typeComparisonPlan.comparisonStrategy;
+	}
+
+	/**
+	 * Everything but the node path and property annotation only depends on the type of the node, so it only needs to
+	 * be determined once per type.
+	 */
+	private TypeComparisonPlan typeComparisonPlanFor(final Class<?> valueType)
+	{
+		if (valueType == null)
+		{
+			return newTypeComparisonPlan(null);
+		}
+		TypeComparisonPlan typeComparisonPlan = typeComparisonPlans.get(valueType);
+		if (typeComparisonPlan == null)
 		{
-			return comparisonStrategy;
+			typeComparisonPlan = newTypeComparisonPlan(valueType);
+			typeComparisonPlans.putIfAbsent(valueType, typeComparisonPlan);
 		}
+		return typeComparisonPlan;
+	}
 
-		final Class<?> valueType = node.getValueType();
+	private TypeComparisonPlan newTypeComparisonPlan(final Class<?> valueType)
+	{
 		if (typeComparisonStrategyMap.containsKey(valueType))
 		{
-			return typeComparisonStrategyMap.get(valueType);
+			return new TypeComparisonPlan(true, typeComparisonStrategyMap.get(valueType));
 		}
 
 		if (Classes.isSimpleType(valueType))
@@ -63,39 +119,30 @@ public class ComparisonService implements ComparisonConfigurer, ComparisonStrate
 			// dictates that compareTo == zero carries the same semantics as equals
 			if (Classes.isComparableType(valueType))
 			{
-				return COMPARABLE_COMPARISON_STRATEGY;
+				return new TypeComparisonPlan(true, COMPARABLE_COMPARISON_STRATEGY);
 			}
 			else
 			{
-				return EQUALS_ONLY_COMPARISON_STRATEGY;
+				return new TypeComparisonPlan(true, EQUALS_ONLY_COMPARISON_STRATEGY);
 			}
 		}
 
-		final ObjectDiffPropertyComparisonStrategyResolver comparisonStrategyResolver = ObjectDiffPropertyComparisonStrategyResolver.instance;
-
-		final ObjectDiffProperty objectDiffProperty = node.getPropertyAnnotation(ObjectDiffProperty.class);
-		final ComparisonStrategy comparisonStrategyFromObjectDiffPropertyAnnotation = comparisonStrategyResolver.comparisonStrategyForAnnotation(objectDiffProperty);
-		if (comparisonStrategyFromObjectDiffPropertyAnnotation != null)
-		{
-			return comparisonStrategyFromObjectDiffPropertyAnnotation;
-		}
-
 		if (valueType != null)
 		{
 			final ObjectDiffEqualsOnlyType objectDiffEqualsOnlyType = valueType.getAnnotation(ObjectDiffEqualsOnlyType.class);
-			final ComparisonStrategy comparisonStrategyFromObjectDiffEqualsOnlyTypeAnnotation = comparisonStrategyResolver.comparisonStrategyForAnnotation(objectDiffEqualsOnlyType);
+			final ComparisonStrategy comparisonStrategyFromObjectDiffEqualsOnlyTypeAnnotation = ObjectDiffPropertyComparisonStrategyResolver.instance.comparisonStrategyForAnnotation(objectDiffEqualsOnlyType);
 			if (comparisonStrategyFromObjectDiffEqualsOnlyTypeAnnotation != null)
 			{
-				return comparisonStrategyFromObjectDiffEqualsOnlyTypeAnnotation;
+				return new TypeComparisonPlan(false, comparisonStrategyFromObjectDiffEqualsOnlyTypeAnnotation);
 			}
 		}
 
 		if (valueType == Object.class)
 		{
-			return EQUALS_ONLY_COMPARISON_STRATEGY;
+			return new TypeComparisonPlan(false, EQUALS_ONLY_COMPARISON_STRATEGY);
 		}
 
-		return null;
+		return new TypeComparisonPlan(false, null);
 	}
 
 	public PrimitiveDefaultValueMode resolvePrimitiveDefaultValueMode(final DiffNode node)
@@ -153,6 +200,7 @@ public class ComparisonService implements ComparisonConfigurer, ComparisonStrate
 		public ComparisonConfigurer toUse(final ComparisonStrategy comparisonStrategy)
 		{
 			typeComparisonStrategyMap.put(type, comparisonStrategy);
+			typeComparisonPlans.clear();
 			return ComparisonService.this;
 		}
 	}
@@ -181,4 +229,20 @@ public class ComparisonService implements ComparisonConfigurer, ComparisonStrate
 			return ComparisonService.this;
 		}
 	}
+
+	/**
+	 * The comparison strategy resolved for a type. When it is <code>resolvedByType</code>, it takes precedence over the
+	 * {@link ObjectDiffProperty} annotation. Otherwise it's only a fallback for properties without annotation.
+	 */
+	private static final class TypeComparisonPlan
+	{
+		private final boolean resolvedByType;
+		private final ComparisonStrategy comparisonStrategy;
+
+		private TypeComparisonPlan(final boolean resolvedByType, final ComparisonStrategy comparisonStrategy)
+		{
+			this.resolvedByType = resolvedByType;
+			this.comparisonStrategy = comparisonStrategy;
+		}
+	}
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.ArrayRangeAccessor;
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+import de.danielbechler.util.Objects;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+
+/**
+ * Used to find differences between arrays of <code>byte</code>, <code>int</code>, <code>long</code>,
+ * <code>double</code> or any reference type.
+ * <p/>
+ * Instead of dispatching every element on its own, both arrays get scanned side by side for runs of elements that
+ * differ. Every run is reported as a single child node with an {@link ArrayRangeAccessor}, so the size of the
+ * resulting tree grows with the number of changed regions, not with the length of the arrays. When the arrays have
+ * different lengths, the surplus elements are reported as one added or removed range. Elements of reference arrays
+ * are compared via {@link Object#equals(Object)}, doubles by their bits (like {@link java.util.Arrays#equals(double[],
+ * double[])} does).
+ */
+public final class ArrayDiffer implements ContextualDiffer
+{
+	private static final int MIN_WORD_SCAN_LENGTH = 64;
+
+	private final DifferDispatcher differDispatcher;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+
+	public ArrayDiffer(final DifferDispatcher differDispatcher,
+					   final ComparisonStrategyResolver comparisonStrategyResolver)
+	{
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(comparisonStrategyResolver, "comparisonStrategyResolver");
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		if (type == null || !type.isArray())
+		{
+			return false;
+		}
+		final Class<?> componentType = type.getComponentType();
+		return !componentType.isPrimitive()
+				|| componentType == byte.class
+				|| componentType == int.class
+				|| componentType == long.class
+				|| componentType == double.class;
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		return compare(parentNode, instances, differDispatcher.currentDiffContext());
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances instances, final DiffContext context)
+	{
+		final Class<?> arrayType = instances.getType();
+		final DiffNode arrayNode = new DiffNode(parentNode, instances.getSourceAccessor(), arrayType);
+		if (instances.hasBeenAdded())
+		{
+			arrayNode.setState(DiffNode.State.ADDED);
+		}
+		else if (instances.hasBeenRemoved())
+		{
+			arrayNode.setState(DiffNode.State.REMOVED);
+		}
+		else if (instances.areSame())
+		{
+			arrayNode.setState(DiffNode.State.UNTOUCHED);
+		}
+		else
+		{
+			final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(arrayNode);
+			if (comparisonStrategy == null)
+			{
+				compareRanges(arrayNode, instances, context);
+			}
+			else
+			{
+				comparisonStrategy.compare(arrayNode, arrayType, instances.getWorking(), instances.getBase());
+			}
+		}
+		return arrayNode;
+	}
+
+	private void compareRanges(final DiffNode arrayNode, final Instances instances, final DiffContext context)
+	{
+		final Object working = instances.getWorking();
+		final Object base = instances.getBase();
+		final int workingLength = Array.getLength(working);
+		final int baseLength = Array.getLength(base);
+		final int commonLength = Math.min(workingLength, baseLength);
+		int fromIndex = nextIndex(working, base, 0, commonLength, false);
+		while (fromIndex < commonLength)
+		{
+			if (context.isDone())
+			{
+				return;
+			}
+			final int toIndex = nextIndex(working, base, fromIndex + 1, commonLength, true);
+			attachRange(arrayNode, instances, fromIndex, toIndex, DiffNode.State.CHANGED, context);
+			fromIndex = nextIndex(working, base, toIndex, commonLength, false);
+		}
+		if (workingLength > commonLength)
+		{
+			attachRange(arrayNode, instances, commonLength, workingLength, DiffNode.State.ADDED, context);
+		}
+		else if (baseLength > commonLength)
+		{
+			attachRange(arrayNode, instances, commonLength, baseLength, DiffNode.State.REMOVED, context);
+		}
+	}
+
+	/**
+	 * Range nodes are created right here instead of being dispatched, but they still go through the dispatcher to
+	 * end up in the tree or the listener like any other node.
+	 */
+	private void attachRange(final DiffNode arrayNode,
+							 final Instances instances,
+							 final int fromIndex,
+							 final int toIndex,
+							 final DiffNode.State state,
+							 final DiffContext context)
+	{
+		final Class<?> arrayType = instances.getType();
+		final DiffNode rangeNode = new DiffNode(arrayNode, new ArrayRangeAccessor(arrayType, fromIndex, toIndex), arrayType);
+		rangeNode.setState(state);
+		differDispatcher.attach(arrayNode, instances, rangeNode, context);
+	}
+
+	/**
+	 * @return The first index between <code>fromIndex</code> (inclusive) and <code>toIndex</code> (exclusive), at
+	 * which the elements of both arrays are <code>equal</code> or not. Returns <code>toIndex</code> if there is none.
+	 */
+	private static int nextIndex(final Object working,
+								 final Object base,
+								 final int fromIndex,
+								 final int toIndex,
+								 final boolean equal)
+	{
+		if (working instanceof byte[])
+		{
+			return nextIndex((byte[]) working, (byte[]) base, fromIndex, toIndex, equal);
+		}
+		else if (working instanceof int[])
+		{
+			return nextIndex((int[]) working, (int[]) base, fromIndex, toIndex, equal);
+		}
+		else if (working instanceof long[])
+		{
+			return nextIndex((long[]) working, (long[]) base, fromIndex, toIndex, equal);
+		}
+		else if (working instanceof double[])
+		{
+			return nextIndex((double[]) working, (double[]) base, fromIndex, toIndex, equal);
+		}
+		return nextIndex((Object[]) working, (Object[]) base, fromIndex, toIndex, equal);
+	}
+
+	/**
+	 * Looking for the next mismatch usually means skipping long runs of equal bytes, so the bytes get compared eight
+	 * at a time until the run ends.
+	 */
+	private static int nextIndex(final byte[] working,
+								 final byte[] base,
+								 int index,
+								 final int toIndex,
+								 final boolean equal)
+	{
+		if (!equal && toIndex - index >= MIN_WORD_SCAN_LENGTH)
+		{
+			final ByteBuffer workingBuffer = ByteBuffer.wrap(working);
+			final ByteBuffer baseBuffer = ByteBuffer.wrap(base);
+			while (index <= toIndex - 8 && workingBuffer.getLong(index) == baseBuffer.getLong(index))
+			{
+				index += 8;
+			}
+		}
+		while (index < toIndex && (working[index] == base[index]) != equal)
+		{
+			index++;
+		}
+		return index;
+	}
+
+	private static int nextIndex(final int[] working,
+								 final int[] base,
+								 int index,
+								 final int toIndex,
+								 final boolean equal)
+	{
+		while (index < toIndex && (working[index] == base[index]) != equal)
+		{
+			index++;
+		}
+		return index;
+	}
+
+	private static int nextIndex(final long[] working,
+								 final long[] base,
+								 int index,
+								 final int toIndex,
+								 final boolean equal)
+	{
+		while (index < toIndex && (working[index] == base[index]) != equal)
+		{
+			index++;
+		}
+		return index;
+	}
+
+	private static int nextIndex(final double[] working,
+								 final double[] base,
+								 int index,
+								 final int toIndex,
+								 final boolean equal)
+	{
+		while (index < toIndex
+				&& (Double.doubleToLongBits(working[index]) == Double.doubleToLongBits(base[index])) != equal)
+		{
+			index++;
+		}
+		return index;
+	}
+
+	private static int nextIndex(final Object[] working,
+								 final Object[] base,
+								 int index,
+								 final int toIndex,
+								 final boolean equal)
+	{
+		while (index < toIndex && Objects.isEqual(working[index], base[index]) != equal)
+		{
+			index++;
+		}
+		return index;
+	}
+}
@@ -27,13 +27,15 @@ import de.danielbechler.diff.introspection.TypeInfoResolver;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.util.Assert;
 
+import java.util.Collection;
+
 /**
  * Used to find differences between objects that were not handled by one of the other (specialized) {@link
  * Differ Differs}.
  *
  * @author Daniel Bechler
  */
-public final class BeanDiffer implements Differ
+public final class BeanDiffer implements ContextualDiffer
 {
 	private final IsIntrospectableResolver isIntrospectableResolver;
 	private final IsReturnableResolver isReturnableResolver;
@@ -69,6 +71,11 @@ public final class BeanDiffer implements Differ
 	}
 
 	public final DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		return compare(parentNode, instances, differDispatcher.currentDiffContext());
+	}
+
+	public final DiffNode compare(final DiffNode parentNode, final Instances instances, final DiffContext context)
 	{
 		final DiffNode beanNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
 		if (instances.areNull() || instances.areSame())
@@ -77,22 +84,24 @@ public final class BeanDiffer implements Differ
 		}
 		else if (instances.hasBeenAdded())
 		{
-			compareUsingAppropriateMethod(beanNode, instances);
+			compareUsingAppropriateMethod(beanNode, instances, context);
 			beanNode.setState(DiffNode.State.ADDED);
 		}
 		else if (instances.hasBeenRemoved())
 		{
-			compareUsingAppropriateMethod(beanNode, instances);
+			compareUsingAppropriateMethod(beanNode, instances, context);
 			beanNode.setState(DiffNode.State.REMOVED);
 		}
 		else
 		{
-			compareUsingAppropriateMethod(beanNode, instances);
+			compareUsingAppropriateMethod(beanNode, instances, context);
 		}
 		return beanNode;
 	}
 
-	private void compareUsingAppropriateMethod(final DiffNode beanNode, final Instances instances)
+	private void compareUsingAppropriateMethod(final DiffNode beanNode,
+											   final Instances instances,
+											   final DiffContext context)
 	{
 		final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(beanNode);
 		if (comparisonStrategy != null)
@@ -101,18 +110,30 @@ public final class BeanDiffer implements Differ
 		}
 		else if (isIntrospectableResolver.isIntrospectable(beanNode))
 		{
-			compareUsingIntrospection(beanNode, instances);
+			compareUsingIntrospection(beanNode, instances, context);
 		}
 	}
 
-	private void compareUsingIntrospection(final DiffNode beanNode, final Instances beanInstances)
+	private void compareUsingIntrospection(final DiffNode beanNode,
+										   final Instances beanInstances,
+										   final DiffContext context)
 	{
 		final TypeInfo typeInfo = typeInfoResolver.typeInfoForNode(beanNode);
 		beanNode.setValueTypeInfo(typeInfo);
-		for (final PropertyAwareAccessor propertyAccessor : typeInfo.getAccessors())
+		final Collection<PropertyAwareAccessor> propertyAccessors = typeInfo.getAccessors();
+		if (differDispatcher.shouldDispatchInParallel(propertyAccessors.size()))
 		{
-			final DiffNode propertyNode = differDispatcher.dispatch(beanNode, beanInstances, propertyAccessor);
-			if (isReturnableResolver.isReturnable(propertyNode))
+			differDispatcher.dispatchInParallel(beanNode, beanInstances, propertyAccessors, context);
+			return;
+		}
+		for (final PropertyAwareAccessor propertyAccessor : propertyAccessors)
+		{
+			if (context.isDone())
+			{
+				return;
+			}
+			final DiffNode propertyNode = differDispatcher.dispatch(beanNode, beanInstances, propertyAccessor, context);
+			if (context.buildsTree() && isReturnableResolver.isReturnable(propertyNode))
 			{
 				beanNode.addChild(propertyNode);
 			}
@@ -18,25 +18,43 @@ package de.danielbechler.diff.differ;
 
 import de.danielbechler.diff.access.Accessor;
 import de.danielbechler.diff.access.CollectionItemAccessor;
+import de.danielbechler.diff.access.IndexedCollectionItemAccessor;
 import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.MatchedCollectionItemAccessor;
 import de.danielbechler.diff.comparison.ComparisonStrategy;
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.identity.EqualsIdentityStrategy;
+import de.danielbechler.diff.identity.HashingIdentityStrategies;
+import de.danielbechler.diff.identity.IdentityIndex;
 import de.danielbechler.diff.identity.IdentityStrategy;
 import de.danielbechler.diff.identity.IdentityStrategyResolver;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.util.Assert;
+import de.danielbechler.util.Classes;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.SortedSet;
 
 /**
  * Used to find differences between {@link Collection Collections}.
  *
  * @author Daniel Bechler
  */
-public final class CollectionDiffer implements Differ
+public final class CollectionDiffer implements ContextualDiffer
 {
+	@SuppressWarnings("unchecked")
+	private static final Comparator<Object> NATURAL_ORDER = new Comparator<Object>()
+	{
+		public int compare(final Object o1, final Object o2)
+		{
+			return ((Comparable<Object>) o1).compareTo(o2);
+		}
+	};
+
 	private final DifferDispatcher differDispatcher;
 	private final ComparisonStrategyResolver comparisonStrategyResolver;
 	private final IdentityStrategyResolver identityStrategyResolver;
@@ -61,6 +79,13 @@ public final class CollectionDiffer implements Differ
 	}
 
 	public final DiffNode compare(final DiffNode parentNode, final Instances collectionInstances)
+	{
+		return compare(parentNode, collectionInstances, differDispatcher.currentDiffContext());
+	}
+
+	public final DiffNode compare(final DiffNode parentNode,
+								  final Instances collectionInstances,
+								  final DiffContext context)
 	{
 		final DiffNode collectionNode = newNode(parentNode, collectionInstances);
 		final IdentityStrategy identityStrategy = identityStrategyResolver.resolveIdentityStrategy(collectionNode);
@@ -70,14 +95,16 @@ public final class CollectionDiffer implements Differ
 		}
 		if (collectionInstances.hasBeenAdded())
 		{
-			final Collection addedItems = collectionInstances.getWorking(Collection.class);
-			compareItems(collectionNode, collectionInstances, addedItems, identityStrategy);
+			final Collection<?> addedItems = collectionInstances.getWorking(Collection.class);
+			final IdentityIndex[] indexes = indexesFor(identityStrategy, addedItems);
+			compareItems(collectionNode, collectionInstances, addedItems, identityStrategy, indexes, context);
 			collectionNode.setState(DiffNode.State.ADDED);
 		}
 		else if (collectionInstances.hasBeenRemoved())
 		{
 			final Collection<?> removedItems = collectionInstances.getBase(Collection.class);
-			compareItems(collectionNode, collectionInstances, removedItems, identityStrategy);
+			final IdentityIndex[] indexes = indexesFor(identityStrategy, removedItems);
+			compareItems(collectionNode, collectionInstances, removedItems, identityStrategy, indexes, context);
 			collectionNode.setState(DiffNode.State.REMOVED);
 		}
 		else if (collectionInstances.areSame())
@@ -89,7 +116,7 @@ public final class CollectionDiffer implements Differ
 			final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(collectionNode);
 			if (comparisonStrategy == null)
 			{
-				compareInternally(collectionNode, collectionInstances, identityStrategy);
+				compareInternally(collectionNode, collectionInstances, identityStrategy, context);
 			}
 			else
 			{
@@ -107,71 +134,339 @@ public final class CollectionDiffer implements Differ
 		return new DiffNode(parentNode, accessor, type);
 	}
 
+	/**
+	 * The item accessors are invoked for the working, base and fresh collection of every single item. Without an
+	 * index each of those lookups would need to scan the whole collection. Strategies that can't provide hash codes
+	 * wouldn't benefit from an index, so their accessors keep scanning.
+	 */
+	private static IdentityIndex[] indexesFor(final IdentityStrategy identityStrategy,
+											  final Collection<?>... collections)
+	{
+		if (!HashingIdentityStrategies.isHashing(identityStrategy))
+		{
+			return null;
+		}
+		final IdentityIndex[] indexes = new IdentityIndex[collections.length];
+		for (int i = 0; i < collections.length; i++)
+		{
+			indexes[i] = new IdentityIndex(collections[i], identityStrategy);
+		}
+		return indexes;
+	}
+
+	private static Accessor newItemAccessor(final Object item,
+											final IdentityStrategy identityStrategy,
+											final IdentityIndex[] indexes)
+	{
+		if (indexes == null)
+		{
+			return new CollectionItemAccessor(item, identityStrategy);
+		}
+		return new IndexedCollectionItemAccessor(item, identityStrategy, indexes);
+	}
+
 	private void compareItems(final DiffNode collectionNode,
 							  final Instances collectionInstances,
-							  final Iterable<?> items,
-							  final IdentityStrategy identityStrategy)
+							  final Collection<?> items,
+							  final IdentityStrategy identityStrategy,
+							  final IdentityIndex[] indexes,
+							  final DiffContext context)
 	{
+		if (differDispatcher.shouldDispatchInParallel(items.size()))
+		{
+			final Collection<Accessor> itemAccessors = new ArrayList<Accessor>(items.size());
+			for (final Object item : items)
+			{
+				itemAccessors.add(newItemAccessor(item, identityStrategy, indexes));
+			}
+			differDispatcher.dispatchInParallel(collectionNode, collectionInstances, itemAccessors, context);
+			return;
+		}
 		for (final Object item : items)
 		{
-			final Accessor itemAccessor = new CollectionItemAccessor(item, identityStrategy);
-			differDispatcher.dispatch(collectionNode, collectionInstances, itemAccessor);
+			if (context.isDone())
+			{
+				return;
+			}
+			final Accessor itemAccessor = newItemAccessor(item, identityStrategy, indexes);
+			differDispatcher.dispatch(collectionNode, collectionInstances, itemAccessor, context);
+		}
+	}
+
+	private void dispatchItems(final DiffNode collectionNode,
+							   final Instances collectionInstances,
+							   final Collection<Accessor> itemAccessors,
+							   final DiffContext context)
+	{
+		if (differDispatcher.shouldDispatchInParallel(itemAccessors.size()))
+		{
+			differDispatcher.dispatchInParallel(collectionNode, collectionInstances, itemAccessors, context);
+			return;
+		}
+		for (final Accessor itemAccessor : itemAccessors)
+		{
+			if (context.isDone())
+			{
+				return;
+			}
+			differDispatcher.dispatch(collectionNode, collectionInstances, itemAccessor, context);
 		}
 	}
 
 	private void compareInternally(final DiffNode collectionNode,
 								   final Instances collectionInstances,
-								   final IdentityStrategy identityStrategy)
+								   final IdentityStrategy identityStrategy,
+								   final DiffContext context)
 	{
 		final Collection<?> working = collectionInstances.getWorking(Collection.class);
 		final Collection<?> base = collectionInstances.getBase(Collection.class);
 
-		final Iterable<?> added = new LinkedList<Object>(working);
-		final Iterable<?> removed = new LinkedList<Object>(base);
-		final Iterable<?> known = new LinkedList<Object>(base);
+		final Comparator<Object> ordering = sharedOrderingOf(working, base, identityStrategy);
+		if (ordering != null && compareSorted(collectionNode, collectionInstances, ordering, identityStrategy, context))
+		{
+			return;
+		}
+
+		final IdentityIndex workingIndex = new IdentityIndex(working, identityStrategy);
+		final IdentityIndex baseIndex = new IdentityIndex(base, identityStrategy);
+		final IdentityIndex[] indexes = HashingIdentityStrategies.isHashing(identityStrategy)
+				? new IdentityIndex[]{workingIndex, baseIndex}
+				: null;
 
-		remove(added, base, identityStrategy);
-		remove(removed, working, identityStrategy);
-		remove(known, added, identityStrategy);
-		remove(known, removed, identityStrategy);
+		final Collection<Object> added = new ArrayList<Object>();
+		final Collection<Object> removed = new ArrayList<Object>();
+		final Collection<Object> known = new ArrayList<Object>();
+
+		for (final Object item : working)
+		{
+			if (!baseIndex.contains(item))
+			{
+				added.add(item);
+			}
+		}
+		for (final Object item : base)
+		{
+			if (workingIndex.contains(item))
+			{
+				known.add(item);
+			}
+			else
+			{
+				removed.add(item);
+			}
+		}
 
-		compareItems(collectionNode, collectionInstances, added, identityStrategy);
-		compareItems(collectionNode, collectionInstances, removed, identityStrategy);
-		compareItems(collectionNode, collectionInstances, known, identityStrategy);
+		compareItems(collectionNode, collectionInstances, added, identityStrategy, indexes, context);
+		compareItems(collectionNode, collectionInstances, removed, identityStrategy, indexes, context);
+		compareItems(collectionNode, collectionInstances, known, identityStrategy, indexes, context);
 	}
 
-	private static void compareUsingComparisonStrategy(final DiffNode collectionNode,
-													   final Instances collectionInstances,
-													   final ComparisonStrategy comparisonStrategy)
+	/**
+	 * Two collections can be walked side by side, if both of them are sorted the same way and the identity of their
+	 * items is defined by {@link Object#equals(Object)}. That's the case for {@link SortedSet SortedSets} sharing the
+	 * same comparator and for lists of {@link Comparable} items in strictly ascending order.
+	 *
+	 * @return The ordering shared by both collections or <code>null</code> if they need to be compared via lookups.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Comparator<Object> sharedOrderingOf(final Collection<?> working,
+													   final Collection<?> base,
+													   final IdentityStrategy identityStrategy)
 	{
-		comparisonStrategy.compare(collectionNode,
-				collectionInstances.getType(),
-				collectionInstances.getWorking(Collection.class),
-				collectionInstances.getBase(Collection.class));
+		if (identityStrategy == null || identityStrategy.getClass() != EqualsIdentityStrategy.class)
+		{
+			return null;
+		}
+		if (working instanceof SortedSet && base instanceof SortedSet)
+		{
+			final Comparator<?> comparator = ((SortedSet<?>) working).comparator();
+			if (comparator == null)
+			{
+				return ((SortedSet<?>) base).comparator() == null ? NATURAL_ORDER : null;
+			}
+			return comparator.equals(((SortedSet<?>) base).comparator()) ? (Comparator<Object>) comparator : null;
+		}
+		if (working instanceof List && base instanceof List && isStrictlyAscending(working) && isStrictlyAscending(base))
+		{
+			return NATURAL_ORDER;
+		}
+		return null;
+	}
+
+	/**
+	 * Stops at the first item that is out of order, so unsorted lists are usually rejected right away.
+	 */
+	@SuppressWarnings("unchecked")
+	private static boolean isStrictlyAscending(final Collection<?> items)
+	{
+		Comparable<Object> previous = null;
+		for (final Object item : items)
+		{
+			if (!(item instanceof Comparable))
+			{
+				return false;
+			}
+			try
+			{
+				if (previous != null && previous.compareTo(item) >= 0)
+				{
+					return false;
+				}
+			}
+			catch (final ClassCastException e)
+			{
+				return false;
+			}
+			previous = (Comparable<Object>) item;
+		}
+		return true;
 	}
 
-	private void remove(final Iterable<?> from, final Iterable<?> these, final IdentityStrategy identityStrategy)
+	/**
+	 * Nothing prevents an ordering from disagreeing with equals (e.g. events sorted by time, but equal by id). Only
+	 * the natural ordering of strings, boxed primitives and enums is known to agree with it.
+	 */
+	private static boolean agreesWithEquals(final Comparator<Object> ordering, final Collection<?>... collections)
 	{
-		final Iterator<?> iterator = from.iterator();
-		while (iterator.hasNext())
+		if (ordering != NATURAL_ORDER)
 		{
-			final Object item = iterator.next();
-			if (contains(these, item, identityStrategy))
+			return false;
+		}
+		for (final Collection<?> collection : collections)
+		{
+			for (final Object item : collection)
+			{
+				final Class<?> type = item.getClass();
+				if (type != String.class && !type.isEnum() && !Classes.isPrimitiveWrapperType(type))
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Walks both collections in order like the two halves of a merge sort, so every item only needs to be compared
+	 * with its counterpart in the other collection. The matched items are handed to their accessors directly, which
+	 * spares the lookups otherwise needed to find them again. Items the ordering considers equal, but which aren't
+	 * equal according to the identity strategy, are treated as one added and one removed item.
+	 * <p/>
+	 * Unless the ordering is known to agree with equals, the added and removed items are checked for matches once
+	 * the walk is done. Finding one means the walk has missed it, so nothing gets dispatched in that case.
+	 *
+	 * @return <code>true</code> if the items have been dispatched or <code>false</code> if the ordering turned out
+	 * to be unsuitable for the collections.
+	 */
+	private boolean compareSorted(final DiffNode collectionNode,
+								  final Instances collectionInstances,
+								  final Comparator<Object> ordering,
+								  final IdentityStrategy identityStrategy,
+								  final DiffContext context)
+	{
+		final Collection<?> working = collectionInstances.getWorking(Collection.class);
+		final Collection<?> base = collectionInstances.getBase(Collection.class);
+
+		final List<Object> addedItems = new ArrayList<Object>();
+		final List<Object> removedItems = new ArrayList<Object>();
+		final Collection<Accessor> known = new ArrayList<Accessor>();
+
+		final Iterator<?> workingItems = working.iterator();
+		final Iterator<?> baseItems = base.iterator();
+		boolean hasWorkingItem = workingItems.hasNext();
+		boolean hasBaseItem = baseItems.hasNext();
+		Object workingItem = hasWorkingItem ? workingItems.next() : null;
+		Object baseItem = hasBaseItem ? baseItems.next() : null;
+		while (hasWorkingItem && hasBaseItem)
+		{
+			final int order = ordering.compare(workingItem, baseItem);
+			if (order == 0 && identityStrategy.equals(workingItem, baseItem))
+			{
+				known.add(new MatchedCollectionItemAccessor(baseItem, identityStrategy, working, workingItem, base, baseItem));
+			}
+			else
+			{
+				if (order <= 0)
+				{
+					addedItems.add(workingItem);
+				}
+				if (order >= 0)
+				{
+					removedItems.add(baseItem);
+				}
+			}
+			if (order <= 0)
+			{
+				hasWorkingItem = workingItems.hasNext();
+				workingItem = hasWorkingItem ? workingItems.next() : null;
+			}
+			if (order >= 0)
 			{
-				iterator.remove();
+				hasBaseItem = baseItems.hasNext();
+				baseItem = hasBaseItem ? baseItems.next() : null;
 			}
 		}
+		while (hasWorkingItem)
+		{
+			addedItems.add(workingItem);
+			hasWorkingItem = workingItems.hasNext();
+			workingItem = hasWorkingItem ? workingItems.next() : null;
+		}
+		while (hasBaseItem)
+		{
+			removedItems.add(baseItem);
+			hasBaseItem = baseItems.hasNext();
+			baseItem = hasBaseItem ? baseItems.next() : null;
+		}
+
+		if (!agreesWithEquals(ordering, addedItems, removedItems) && containsAny(removedItems, addedItems, identityStrategy))
+		{
+			return false;
+		}
+
+		final Collection<Accessor> added = new ArrayList<Accessor>(addedItems.size());
+		for (final Object item : addedItems)
+		{
+			added.add(new MatchedCollectionItemAccessor(item, identityStrategy, working, item, base, null));
+		}
+		final Collection<Accessor> removed = new ArrayList<Accessor>(removedItems.size());
+		for (final Object item : removedItems)
+		{
+			removed.add(new MatchedCollectionItemAccessor(item, identityStrategy, working, null, base, item));
+		}
+
+		dispatchItems(collectionNode, collectionInstances, added, context);
+		dispatchItems(collectionNode, collectionInstances, removed, context);
+		dispatchItems(collectionNode, collectionInstances, known, context);
+		return true;
 	}
 
-	private boolean contains(final Iterable<?> haystack, final Object needle, final IdentityStrategy identityStrategy)
+	private static boolean containsAny(final Collection<?> items,
+									   final Collection<?> needles,
+									   final IdentityStrategy identityStrategy)
 	{
-		for (final Object item : haystack)
+		if (items.isEmpty() || needles.isEmpty())
+		{
+			return false;
+		}
+		final IdentityIndex index = new IdentityIndex(items, identityStrategy);
+		for (final Object needle : needles)
 		{
-			if (identityStrategy.equals(needle, item))
+			if (index.contains(needle))
 			{
 				return true;
 			}
 		}
 		return false;
 	}
+
+	private static void compareUsingComparisonStrategy(final DiffNode collectionNode,
+													   final Instances collectionInstances,
+													   final ComparisonStrategy comparisonStrategy)
+	{
+		comparisonStrategy.compare(collectionNode,
+				collectionInstances.getType(),
+				collectionInstances.getWorking(Collection.class),
+				collectionInstances.getBase(Collection.class));
+	}
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.node.DiffNode;
+
+/**
+ * A {@link Differ} that gets the {@link DiffContext} of the ongoing comparison passed in, so it can hand it on to
+ * {@link DifferDispatcher#dispatch(DiffNode, Instances, de.danielbechler.diff.access.Accessor, DiffContext)}.
+ * <p/>
+ * Differs that only implement the plain {@link Differ} interface keep working: while they are invoked, the {@link
+ * DifferDispatcher} binds the context to the current thread, so their calls to {@link
+ * DifferDispatcher#dispatch(DiffNode, Instances, de.danielbechler.diff.access.Accessor)} still end up in the right
+ * comparison. Implementing this interface simply avoids that detour.
+ */
+public interface ContextualDiffer extends Differ
+{
+	DiffNode compare(DiffNode parentNode, Instances instances, DiffContext context);
+}
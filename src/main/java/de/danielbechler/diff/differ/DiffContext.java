@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.circular.CircularReferenceDetector;
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory;
+import de.danielbechler.diff.node.DiffListener;
+import de.danielbechler.util.Assert;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the state of a single comparison. A new context is created for every invocation of {@link
+ * de.danielbechler.diff.ObjectDiffer#compare(Object, Object)} and passed along to every {@link ContextualDiffer}
+ * involved in it. That way the same differ can be used by any number of threads at the same time and comparisons
+ * nested within other comparisons can't interfere with each other.
+ */
+public final class DiffContext
+{
+	private final CircularReferenceDetector workingCircularReferenceDetector;
+	private final CircularReferenceDetector baseCircularReferenceDetector;
+	/**
+	 * Shared by all forks of the context. <code>null</code> unless the comparison should stop at the first
+	 * difference.
+	 */
+	private final AtomicBoolean differenceFound;
+	private final DiffListener listener;
+
+	public DiffContext(final CircularReferenceDetectorFactory circularReferenceDetectorFactory)
+	{
+		this(circularReferenceDetectorFactory, false);
+	}
+
+	/**
+	 * @param stopAtFirstDifference Whether the comparison only needs to find out if there are any differences at all.
+	 *                              See {@link #isDone()}.
+	 */
+	public DiffContext(final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+					   final boolean stopAtFirstDifference)
+	{
+		this(circularReferenceDetectorFactory, stopAtFirstDifference, null);
+	}
+
+	/**
+	 * @param listener Receives the nodes of the comparison instead of the tree. See {@link #getListener()}.
+	 */
+	public DiffContext(final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+					   final DiffListener listener)
+	{
+		this(circularReferenceDetectorFactory, false, listener);
+		Assert.notNull(listener, "listener");
+	}
+
+	private DiffContext(final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+						final boolean stopAtFirstDifference,
+						final DiffListener listener)
+	{
+		Assert.notNull(circularReferenceDetectorFactory, "circularReferenceDetectorFactory");
+		this.workingCircularReferenceDetector = circularReferenceDetectorFactory.createCircularReferenceDetector();
+		this.baseCircularReferenceDetector = circularReferenceDetectorFactory.createCircularReferenceDetector();
+		this.differenceFound = stopAtFirstDifference ? new AtomicBoolean() : null;
+		this.listener = listener;
+	}
+
+	private DiffContext(final CircularReferenceDetector workingCircularReferenceDetector,
+						final CircularReferenceDetector baseCircularReferenceDetector,
+						final AtomicBoolean differenceFound,
+						final DiffListener listener)
+	{
+		this.workingCircularReferenceDetector = workingCircularReferenceDetector;
+		this.baseCircularReferenceDetector = baseCircularReferenceDetector;
+		this.differenceFound = differenceFound;
+		this.listener = listener;
+	}
+
+	/**
+	 * Creates the context for a branch of the comparison that is performed concurrently to the current one. The
+	 * circular reference detection of the branch starts with all instances known at this point, but the branch and
+	 * this context don't see any further changes of each other.
+	 */
+	public DiffContext fork()
+	{
+		return new DiffContext(workingCircularReferenceDetector.copy(), baseCircularReferenceDetector.copy(), differenceFound,
+				listener);
+	}
+
+	/**
+	 * Records that a node with changes has been added to the tree.
+	 */
+	public void differenceFound()
+	{
+		if (differenceFound != null)
+		{
+			differenceFound.set(true);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the comparison only needs to find any difference and this or any other fork of
+	 * this context has already found one. Differs should stop comparing any further children as soon as this returns
+	 * <code>true</code>.
+	 */
+	public boolean isDone()
+	{
+		return differenceFound != null && differenceFound.get();
+	}
+
+	/**
+	 * @return <code>true</code> if the comparison only needs to find out whether there are any differences at all.
+	 * Such comparisons don't build a tree, only the root node and the states of the nodes on the way to it matter.
+	 */
+	public boolean stopsAtFirstDifference()
+	{
+		return differenceFound != null;
+	}
+
+	/**
+	 * @return <code>true</code> if nodes should be added to their parent nodes. That's the case unless the nodes are
+	 * passed to a listener or the comparison stops at the first difference.
+	 */
+	public boolean buildsTree()
+	{
+		return listener == null && differenceFound == null;
+	}
+
+	/**
+	 * @return The listener to pass the nodes of the comparison to or <code>null</code> if the comparison should
+	 * build a tree. When there is a listener, nodes must not be added to their parents, so the garbage collector can
+	 * discard them as soon as they have been passed on.
+	 */
+	public DiffListener getListener()
+	{
+		return listener;
+	}
+
+	public CircularReferenceDetector getWorkingCircularReferenceDetector()
+	{
+		return workingCircularReferenceDetector;
+	}
+
+	public CircularReferenceDetector getBaseCircularReferenceDetector()
+	{
+		return baseCircularReferenceDetector;
+	}
+}
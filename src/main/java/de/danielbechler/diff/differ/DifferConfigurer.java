@@ -17,6 +17,9 @@
 package de.danielbechler.diff.differ;
 
 import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.path.NodePath;
+
+import java.util.concurrent.Executor;
 
 /**
  * Created by Daniel Bechler.
@@ -33,4 +36,59 @@ public interface DifferConfigurer
 	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
 	 */
 	ObjectDifferBuilder register(DifferFactory differFactory);
+
+	/**
+	 * Enables the parallel comparison of sibling nodes. Whenever a bean has at least <code>threshold</code>
+	 * properties, or a collection or map at least <code>threshold</code> items or entries to compare, they are
+	 * compared concurrently via the given executor. The resulting nodes are still added to their parent in the same
+	 * order as they would have been sequentially.
+	 * <p/>
+	 * Make sure custom differs, comparison strategies and resolvers are thread-safe, before enabling this.
+	 *
+	 * @param executor  Executes the comparisons. Its lifecycle is up to the caller, so it can be shared with other
+	 *                  parts of the application. Comparisons it rejects are performed on the calling thread.
+	 * @param threshold The minimum number of siblings to compare in parallel. Comparing small nodes in parallel
+	 *                  usually costs more than it gains, so this should be rather high.
+	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
+	 */
+	ObjectDifferBuilder compareInParallel(Executor executor, int threshold);
+
+	/**
+	 * Compares the lists at the given path as ordered sequences instead of bags. Their items get matched via the
+	 * longest common subsequence of both lists, so added, removed and moved items are reported along with their
+	 * positions via {@link de.danielbechler.diff.access.ListItemAccessor ListItemAccessors}. The item nodes are
+	 * selected by {@link de.danielbechler.diff.selector.ListItemElementSelector ListItemElementSelectors}, which tell
+	 * duplicate items apart by their occurrence, but still match the configuration for collection items. Items that only
+	 * changed their position end up with the state {@link de.danielbechler.diff.node.DiffNode.State#MOVED}. Items that
+	 * have also been changed keep the state {@link de.danielbechler.diff.node.DiffNode.State#CHANGED}, but {@link
+	 * de.danielbechler.diff.node.DiffNode#isMoved()} tells about their move either way.
+	 * <p/>
+	 * The identity of the items is still determined by the configured {@link de.danielbechler.diff.identity
+	 * .IdentityStrategy}.
+	 *
+	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
+	 */
+	ObjectDifferBuilder compareInOrder(NodePath nodePath);
+
+	/**
+	 * Like {@link #compareInOrder(NodePath)}, but for all lists of the given type or any of its subtypes. Passing
+	 * {@link java.util.List} enables it for every list.
+	 *
+	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
+	 */
+	ObjectDifferBuilder compareInOrder(Class<?> listType);
+
+	/**
+	 * Lets the {@link de.danielbechler.diff.ObjectDiffer} create the fresh instance of a compared type only once and
+	 * reuse it for all further comparisons of that type, instead of calling its default constructor every time. The
+	 * default values of its properties are only read once as well and then reused the same way.
+	 * <p/>
+	 * The fresh instance is only used to read the default values of properties, but it is shared by all comparisons
+	 * of the differ, including concurrent ones. So this must only be enabled if reading the properties of the
+	 * compared types doesn't modify them (e.g. no lazily initializing getters) and custom differs, comparison
+	 * strategies and identity strategies never modify the fresh instances they get to see.
+	 *
+	 * @return The {@link de.danielbechler.diff.ObjectDifferBuilder} for chaining.
+	 */
+	ObjectDifferBuilder reuseFreshInstances();
 }
@@ -20,21 +20,35 @@ import de.danielbechler.diff.access.Accessor;
 import de.danielbechler.diff.access.Instances;
 import de.danielbechler.diff.access.PropertyAwareAccessor;
 import de.danielbechler.diff.category.CategoryResolver;
+import de.danielbechler.diff.category.ConfiguredCategoryResolver;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
 import de.danielbechler.diff.introspection.PropertyReadException;
 import de.danielbechler.diff.circular.CircularReferenceDetector;
 import de.danielbechler.diff.circular.CircularReferenceDetectorFactory;
 import de.danielbechler.diff.circular.CircularReferenceExceptionHandler;
 import de.danielbechler.diff.filtering.IsReturnableResolver;
 import de.danielbechler.diff.inclusion.IsIgnoredResolver;
+import de.danielbechler.diff.node.DiffListener;
 import de.danielbechler.diff.introspection.PropertyAccessExceptionHandler;
 import de.danielbechler.diff.introspection.PropertyAccessExceptionHandlerResolver;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
 import de.danielbechler.diff.selector.ElementSelector;
 import de.danielbechler.util.Assert;
+import de.danielbechler.util.Classes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
 import static de.danielbechler.diff.circular.CircularReferenceDetector.CircularReferenceException;
 
 /**
@@ -50,16 +64,34 @@ public class DifferDispatcher
 	private final CategoryResolver categoryResolver;
 	private final IsReturnableResolver isReturnableResolver;
 	private final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver;
-	private static final ThreadLocal<CircularReferenceDetector> workingThreadLocal = new ThreadLocal<CircularReferenceDetector>();
-	private static final ThreadLocal<CircularReferenceDetector> baseThreadLocal = new ThreadLocal<CircularReferenceDetector>();
+	private final Executor executor;
+	private final int parallelismThreshold;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+	/**
+	 * Only used to pass the context through differs that don't implement {@link ContextualDiffer}.
+	 */
+	private final ThreadLocal<DiffContext> boundContext = new ThreadLocal<DiffContext>();
 
+	/**
+	 * @param executor                   Used to compare the children of a node in parallel or <code>null</code> to
+	 *                                   compare everything on the calling thread.
+	 * @param parallelismThreshold       The minimum number of children a node needs to have to compare them in
+	 *                                   parallel.
+	 * @param comparisonStrategyResolver Used to compare simple leaf values (like strings and numbers) right away, as
+	 *                                   long as they are handled by the {@link BeanDiffer}. The node that has been
+	 *                                   created for the ignore check is reused for them, instead of having the
+	 *                                   differ create another one. May be <code>null</code> to always ask the differ.
+	 */
 	public DifferDispatcher(final DifferProvider differProvider,
 							final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
 							final CircularReferenceExceptionHandler circularReferenceExceptionHandler,
 							final IsIgnoredResolver ignoredResolver,
 							final IsReturnableResolver returnableResolver,
 							final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver,
-							final CategoryResolver categoryResolver)
+							final CategoryResolver categoryResolver,
+							final Executor executor,
+							final int parallelismThreshold,
+							final ComparisonStrategyResolver comparisonStrategyResolver)
 	{
 		Assert.notNull(differProvider, "differFactory");
 		this.differProvider = differProvider;
@@ -74,53 +106,385 @@ public class DifferDispatcher
 		this.circularReferenceExceptionHandler = circularReferenceExceptionHandler;
 		this.isReturnableResolver = returnableResolver;
 		this.propertyAccessExceptionHandlerResolver = propertyAccessExceptionHandlerResolver;
-
-		resetInstanceMemory();
+		this.executor = executor;
+		this.parallelismThreshold = parallelismThreshold;
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
 	}
 
+	/**
+	 * @deprecated The state of a comparison is now kept in its {@link DiffContext}, so there is nothing to reset
+	 * anymore. This method does nothing and will be removed in future versions.
+	 */
+	@Deprecated
 	public final void resetInstanceMemory()
 	{
-		workingThreadLocal.set(circularReferenceDetectorFactory.createCircularReferenceDetector());
-		baseThreadLocal.set(circularReferenceDetectorFactory.createCircularReferenceDetector());
 	}
 
+	/**
+	 * @deprecated The state of a comparison is now kept in its {@link DiffContext}, so there is nothing to clear
+	 * anymore. This method does nothing and will be removed in future versions.
+	 */
+	@Deprecated
 	public final void clearInstanceMemory()
 	{
-		workingThreadLocal.remove();
-		baseThreadLocal.remove();
 	}
 
 	/**
-	 * Delegates the call to an appropriate {@link Differ}.
+	 * @return A fresh context for a new comparison.
+	 */
+	public DiffContext newDiffContext()
+	{
+		return new DiffContext(circularReferenceDetectorFactory);
+	}
+
+	/**
+	 * @return A fresh context for a new comparison, that only needs to find out whether there are any differences at
+	 * all.
+	 * @see DiffContext#isDone()
+	 */
+	public DiffContext newDiffContextStoppingAtFirstDifference()
+	{
+		return new DiffContext(circularReferenceDetectorFactory, true);
+	}
+
+	/**
+	 * @return A fresh context for a new comparison, that passes its nodes to the given listener instead of building
+	 * a tree.
+	 * @see DiffContext#getListener()
+	 */
+	public DiffContext newDiffContext(final DiffListener listener)
+	{
+		return new DiffContext(circularReferenceDetectorFactory, listener);
+	}
+
+	/**
+	 * @return The context of the comparison that is currently performed by a {@link Differ} not implementing {@link
+	 * ContextualDiffer} on the calling thread or a fresh one, if there is no such comparison.
+	 */
+	public DiffContext currentDiffContext()
+	{
+		final DiffContext context = boundContext.get();
+		return context != null ? context : newDiffContext();
+	}
+
+	/**
+	 * Delegates the call to an appropriate {@link Differ}. Dispatching a root node starts a new comparison,
+	 * otherwise the node becomes part of the comparison that is currently performed on the calling thread.
+	 * {@link ContextualDiffer ContextualDiffers} should use {@link #dispatch(DiffNode, Instances, Accessor,
+	 * DiffContext)} instead.
 	 *
 	 * @return A node representing the difference between the given {@link Instances}.
 	 */
 	public DiffNode dispatch(final DiffNode parentNode,
 							 final Instances parentInstances,
 							 final Accessor accessor)
+	{
+		final DiffContext context = parentNode == DiffNode.ROOT ? newDiffContext() : currentDiffContext();
+		return dispatch(parentNode, parentInstances, accessor, context);
+	}
+
+	/**
+	 * Delegates the call to an appropriate {@link Differ}.
+	 *
+	 * @param context The context of the comparison the node belongs to.
+	 * @return A node representing the difference between the given {@link Instances}.
+	 */
+	public DiffNode dispatch(final DiffNode parentNode,
+							 final Instances parentInstances,
+							 final Accessor accessor,
+							 final DiffContext context)
 	{
 		Assert.notNull(parentInstances, "parentInstances");
 		Assert.notNull(accessor, "accessor");
+		Assert.notNull(context, "context");
+
+		if (context.isDone())
+		{
+			return new DiffNode(parentNode, accessor, null);
+		}
+		final Comparison comparison = compareAndCategorize(parentNode, parentInstances, accessor, context);
+		attachToParent(parentNode, parentInstances, comparison, context);
+		return comparison.node;
+	}
+
+	/**
+	 * Hands a node to the comparison that a {@link Differ} has created on its own, instead of dispatching it. The node
+	 * gets the same treatment as the ones returned by {@link #dispatch(DiffNode, Instances, Accessor, DiffContext)}:
+	 * it gets checked for being ignored and categorized, before it is either added to its parent or passed to the
+	 * listener of the context.
+	 *
+	 * @param parentInstances The instances of the parent node.
+	 * @param context         The context of the comparison the node belongs to.
+	 */
+	public void attach(final DiffNode parentNode,
+					   final Instances parentInstances,
+					   final DiffNode node,
+					   final DiffContext context)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(node, "node");
+		Assert.notNull(context, "context");
 
-		final DiffNode node = compare(parentNode, parentInstances, accessor);
-		if (parentNode != null && isReturnableResolver.isReturnable(node))
+		if (isIgnoredResolver.isIgnored(node))
 		{
-			parentNode.addChild(node);
+			node.setState(DiffNode.State.IGNORED);
+		}
+		categorize(parentNode, node, context);
+		attachToParent(parentNode, parentInstances, new Comparison(node, null), context);
+	}
+
+	/**
+	 * @return <code>true</code> if parallel comparison has been enabled and the given number of children is big
+	 * enough to make use of it.
+	 */
+	public boolean shouldDispatchInParallel(final int childCount)
+	{
+		return executor != null && childCount >= parallelismThreshold;
+	}
+
+	/**
+	 * Like {@link #dispatch(DiffNode, Instances, Accessor, DiffContext)}, but compares all the given children
+	 * concurrently. Every child gets its own fork of the context, so circular references are tracked per branch.
+	 * The resulting nodes get added to the parent node in the order of the given accessors, regardless of the order
+	 * in which they complete. The parent node must not be modified by the caller until this method returns.
+	 */
+	public void dispatchInParallel(final DiffNode parentNode,
+								   final Instances parentInstances,
+								   final Collection<? extends Accessor> accessors,
+								   final DiffContext context)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(accessors, "accessors");
+		Assert.notNull(context, "context");
+
+		if (parentNode != null)
+		{
+			// The children only read the path and categories of their ancestors, but those get looked up lazily. So
+			// they have to be resolved upfront, or the workers would race to initialize them.
+			parentNode.getPath();
+			parentNode.getCategories();
+		}
+		final List<FutureTask<Comparison>> tasks = new ArrayList<FutureTask<Comparison>>(accessors.size());
+		for (final Accessor accessor : accessors)
+		{
+			Assert.notNull(accessor, "accessor");
+			final DiffContext forkedContext = context.fork();
+			final FutureTask<Comparison> task = new FutureTask<Comparison>(new Callable<Comparison>()
+			{
+				public Comparison call()
+				{
+					if (forkedContext.isDone())
+					{
+						return new Comparison(new DiffNode(parentNode, accessor, null), null);
+					}
+					return compareAndCategorize(parentNode, parentInstances, accessor, forkedContext);
+				}
+			});
+			tasks.add(task);
+			try
+			{
+				executor.execute(task);
+			}
+			catch (final RejectedExecutionException e)
+			{
+				logger.debug("Executor rejected comparison of {}. It will be performed on the calling thread.", accessor);
+			}
+		}
+		try
+		{
+			for (final FutureTask<Comparison> task : tasks)
+			{
+				// Tasks that haven't been picked up yet are run right here. This way the calling thread is never
+				// blocked by tasks waiting in the queue and nested parallel comparisons can't exhaust the executor.
+				task.run();
+				attachToParent(parentNode, parentInstances, awaitResult(task), context);
+			}
+		}
+		finally
+		{
+			for (final FutureTask<Comparison> task : tasks)
+			{
+				task.cancel(false);
+			}
+		}
+	}
+
+	private static Comparison awaitResult(final FutureTask<Comparison> task)
+	{
+		boolean interrupted = false;
+		try
+		{
+			while (true)
+			{
+				try
+				{
+					return task.get();
+				}
+				catch (final InterruptedException e)
+				{
+					interrupted = true;
+				}
+				catch (final ExecutionException e)
+				{
+					final Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException)
+					{
+						throw (RuntimeException) cause;
+					}
+					if (cause instanceof Error)
+					{
+						throw (Error) cause;
+					}
+					throw new IllegalStateException(cause);
+				}
+			}
+		}
+		finally
+		{
+			if (interrupted)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private Comparison compareAndCategorize(final DiffNode parentNode,
+											final Instances parentInstances,
+											final Accessor accessor,
+											final DiffContext context)
+	{
+		final Comparison comparison = compare(parentNode, parentInstances, accessor, context);
+		final DiffNode node = comparison.node;
+		if (node != null && node.isUntouched() && node.isMoved())
+		{
+			// items that have been moved and changed stay changed, but are still reported as moved by the node
+			node.setState(DiffNode.State.MOVED);
 		}
 		if (node != null)
+		{
+			categorize(parentNode, node, context);
+		}
+		return comparison;
+	}
+
+	private void categorize(final DiffNode parentNode, final DiffNode node, final DiffContext context)
+	{
+		// Children that aren't returnable get discarded right away and comparisons stopping at the first difference
+		// only care about states, so in both cases nobody gets to see the categories. Nodes without a parent are
+		// always returned to the caller, though.
+		if (context.stopsAtFirstDifference() || !hasCategoriesToResolve() || isDiscarded(parentNode, node))
+		{
+			return;
+		}
+		if (categoryResolver instanceof ConfiguredCategoryResolver)
+		{
+			// the node looks its categories up by itself, once somebody is interested in them
+			node.setConfiguredCategoryResolver((ConfiguredCategoryResolver) categoryResolver);
+		}
+		else
 		{
 			node.addCategories(categoryResolver.resolveCategories(node));
 		}
-		return node;
 	}
 
-	private DiffNode compare(final DiffNode parentNode, final Instances parentInstances, final Accessor accessor)
+	private boolean isDiscarded(final DiffNode parentNode, final DiffNode node)
+	{
+		return parentNode != null && !isReturnableResolver.isReturnable(node);
+	}
+
+	private boolean hasCategoriesToResolve()
+	{
+		return !(categoryResolver instanceof ConfiguredCategoryResolver)
+				|| ((ConfiguredCategoryResolver) categoryResolver).hasConfiguredCategories();
+	}
+
+	private void attachToParent(final DiffNode parentNode,
+								final Instances parentInstances,
+								final Comparison comparison,
+								final DiffContext context)
+	{
+		final DiffNode node = comparison.node;
+		if (context.getListener() != null)
+		{
+			passToListener(parentNode, parentInstances, comparison, context);
+		}
+		else if (parentNode != null && isReturnableResolver.isReturnable(node))
+		{
+			if (context.stopsAtFirstDifference())
+			{
+				passStateToParent(parentNode, node);
+			}
+			else
+			{
+				parentNode.addChild(node);
+			}
+			if (node.isAdded() || node.isChanged() || node.isRemoved() || node.isMoved())
+			{
+				context.differenceFound();
+			}
+		}
+	}
+
+	/**
+	 * Instead of adding the node to its parent, only the state change it would cause is applied to the parent. That
+	 * way the parent still ends up in the same state as in the tree, but doesn't keep its children alive.
+	 */
+	private void passToListener(final DiffNode parentNode,
+								final Instances parentInstances,
+								final Comparison comparison,
+								final DiffContext context)
+	{
+		final DiffNode node = comparison.node;
+		if (!isReturnableResolver.isReturnable(node) || node.isRootNode() && node.isUntouched())
+		{
+			return;
+		}
+		if (parentNode != null)
+		{
+			passStateToParent(parentNode, node);
+		}
+		final Object working;
+		final Object base;
+		if (comparison.instances != null)
+		{
+			// the values have already been read for the comparison, so there is no need to access them again
+			working = comparison.instances.getWorking();
+			base = comparison.instances.getBase();
+		}
+		else if (node.getState() == DiffNode.State.INACCESSIBLE)
+		{
+			working = null;
+			base = null;
+		}
+		else
+		{
+			working = node.get(parentInstances.getWorking());
+			base = node.get(parentInstances.getBase());
+		}
+		context.getListener().onNode(node, working, base);
+	}
+
+	/**
+	 * Applies the state change adding the given node to its parent would cause, without actually adding it.
+	 */
+	private static void passStateToParent(final DiffNode parentNode, final DiffNode node)
+	{
+		if (parentNode.isUntouched() && node.hasChanges())
+		{
+			parentNode.setState(DiffNode.State.CHANGED);
+		}
+	}
+
+	private Comparison compare(final DiffNode parentNode,
+							   final Instances parentInstances,
+							   final Accessor accessor,
+							   final DiffContext context)
 	{
 		final DiffNode node = new DiffNode(parentNode, accessor, null);
 		if (isIgnoredResolver.isIgnored(node))
 		{
 			node.setState(DiffNode.State.IGNORED);
-			return node;
+			return new Comparison(node, null);
 		}
 
 		final Instances accessedInstances;
@@ -142,7 +506,7 @@ public class DifferDispatcher
 				{
 					exceptionHandler.onPropertyReadException(e, node);
 				}
-				return node;
+				return new Comparison(node, null);
 			}
 		}
 		else
@@ -152,30 +516,83 @@ public class DifferDispatcher
 
 		if (accessedInstances.areNull())
 		{
-			return new DiffNode(parentNode, accessedInstances.getSourceAccessor(), accessedInstances.getType());
+			// there is nothing to compare, so the node that has been created for the ignore check will do
+			node.setType(accessedInstances.getType());
+			return new Comparison(node, accessedInstances);
+		}
+		else if (isLeafValue(accessedInstances.getType()))
+		{
+			// leaf values can't be part of a circle, so there is no need to track them
+			if (isComparedByBeanDiffer(accessedInstances.getType()))
+			{
+				return new Comparison(compareLeafValue(parentNode, node, accessedInstances, context), accessedInstances);
+			}
+			return new Comparison(compare(parentNode, accessedInstances, context), accessedInstances);
 		}
 		else
 		{
-			return compareWithCircularReferenceTracking(parentNode, accessedInstances);
+			return new Comparison(compareWithCircularReferenceTracking(parentNode, accessedInstances, context), accessedInstances);
 		}
 	}
 
+	private static boolean isLeafValue(final Class<?> type)
+	{
+		return type == String.class || Classes.isPrimitiveWrapperType(type);
+	}
+
+	private boolean isComparedByBeanDiffer(final Class<?> type)
+	{
+		return comparisonStrategyResolver != null && differProvider.retrieveDifferForType(type) instanceof BeanDiffer;
+	}
+
+	/**
+	 * Does exactly what the {@link BeanDiffer} would do with a leaf value, but on the given node. Leaf values always
+	 * have a comparison strategy, so the differ would never introspect them anyway.
+	 */
+	private DiffNode compareLeafValue(final DiffNode parentNode,
+									  final DiffNode node,
+									  final Instances instances,
+									  final DiffContext context)
+	{
+		node.setType(instances.getType());
+		if (instances.areSame())
+		{
+			return node;
+		}
+		final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(node);
+		if (comparisonStrategy == null)
+		{
+			return compare(parentNode, instances, context);
+		}
+		comparisonStrategy.compare(node, instances.getType(), instances.getWorking(), instances.getBase());
+		if (instances.hasBeenAdded())
+		{
+			node.setState(DiffNode.State.ADDED);
+		}
+		else if (instances.hasBeenRemoved())
+		{
+			node.setState(DiffNode.State.REMOVED);
+		}
+		return node;
+	}
+
 	private DiffNode compareWithCircularReferenceTracking(final DiffNode parentNode,
-														  final Instances instances)
+														  final Instances instances,
+														  final DiffContext context)
 	{
 		DiffNode node = null;
 		try
 		{
-			rememberInstances(parentNode, instances);
+			rememberInstances(parentNode, instances, context);
 			try
 			{
-				node = compare(parentNode, instances);
+				node = compare(parentNode, instances, context);
 			}
 			finally
 			{
 				if (node != null)
 				{
-					forgetInstances(parentNode, instances);
+					forgetInstances(parentNode, instances, context);
 				}
 			}
 		}
@@ -184,14 +601,10 @@ public class DifferDispatcher
 			node = newCircularNode(parentNode, instances, e.getNodePath());
 			circularReferenceExceptionHandler.onCircularReferenceException(node);
 		}
-		if (parentNode == null)
-		{
-			resetInstanceMemory();
-		}
 		return node;
 	}
 
-	private DiffNode compare(final DiffNode parentNode, final Instances instances)
+	private DiffNode compare(final DiffNode parentNode, final Instances instances, final DiffContext context)
 	{
 		final Differ differ = differProvider.retrieveDifferForType(instances.getType());
 		if (differ == null)
@@ -199,15 +612,53 @@ public class DifferDispatcher
 			throw new IllegalStateException("Couldn't create Differ for type '" + instances.getType() +
 					"'. This mustn't happen, as there should always be a fallback differ.");
 		}
-		return differ.compare(parentNode, instances);
+		if (differ instanceof ContextualDiffer)
+		{
+			return ((ContextualDiffer) differ).compare(parentNode, instances, context);
+		}
+		return compareWithBoundContext(differ, parentNode, instances, context);
 	}
 
-	protected static void forgetInstances(final DiffNode parentNode, final Instances instances)
+	/**
+	 * Adapter for differs that don't know about the {@link DiffContext}. The context is bound to the current thread
+	 * while they are running, so their own calls to {@link #dispatch(DiffNode, Instances, Accessor)} can pick it
+	 * up again. The previously bound context gets restored afterwards, so this also works for nested comparisons.
+	 */
+	private DiffNode compareWithBoundContext(final Differ differ,
+											 final DiffNode parentNode,
+											 final Instances instances,
+											 final DiffContext context)
 	{
-		final NodePath nodePath = getNodePath(parentNode, instances);
-		logger.debug("[ {} ] Forgetting --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
-		workingThreadLocal.get().remove(instances.getWorking());
-		baseThreadLocal.get().remove(instances.getBase());
+		final DiffContext previousContext = boundContext.get();
+		boundContext.set(context);
+		try
+		{
+			return differ.compare(parentNode, instances);
+		}
+		finally
+		{
+			if (previousContext != null)
+			{
+				boundContext.set(previousContext);
+			}
+			else
+			{
+				boundContext.remove();
+			}
+		}
+	}
+
+	protected static void forgetInstances(final DiffNode parentNode,
+										  final Instances instances,
+										  final DiffContext context)
+	{
+		if (logger.isDebugEnabled())
+		{
+			final NodePath nodePath = getNodePath(parentNode, instances);
+			logger.debug("[ {} ] Forgetting --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
+		}
+		context.getWorkingCircularReferenceDetector().remove(instances.getWorking());
+		context.getBaseCircularReferenceDetector().remove(instances.getBase());
 	}
 
 	private static NodePath getNodePath(final DiffNode parentNode, final Instances instances)
@@ -224,26 +675,36 @@ public class DifferDispatcher
 		}
 	}
 
-	protected static void rememberInstances(final DiffNode parentNode, final Instances instances)
+	protected static void rememberInstances(final DiffNode parentNode,
+											final Instances instances,
+											final DiffContext context)
 	{
-		final NodePath nodePath = getNodePath(parentNode, instances);
-		logger.debug("[ {} ] Remembering --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
-		transactionalPushToCircularReferenceDetectors(nodePath, instances);
+		// Circular nodes never make it into the result of a comparison stopping at the first difference, so there
+		// is no need to know where their circles start.
+		final NodePath nodePath = context.stopsAtFirstDifference() ? null : getNodePath(parentNode, instances);
+		if (logger.isDebugEnabled())
+		{
+			logger.debug("[ {} ] Remembering --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
+		}
+		transactionalPushToCircularReferenceDetectors(nodePath, instances, context);
 	}
 
-	private static void transactionalPushToCircularReferenceDetectors(final NodePath nodePath, final Instances instances)
+	private static void transactionalPushToCircularReferenceDetectors(final NodePath nodePath,
+																	  final Instances instances,
+																	  final DiffContext context)
 	{
-		workingThreadLocal.get().push(instances.getWorking(), nodePath);
+		final CircularReferenceDetector workingCircularReferenceDetector = context.getWorkingCircularReferenceDetector();
+		workingCircularReferenceDetector.push(instances.getWorking(), nodePath);
 
 		// TODO This needs to be solved more elegantly. If the push for one of these detectors fails,
 		// we need to make sure to revert the push to the other one, if it already happened.
 		try
 		{
-			baseThreadLocal.get().push(instances.getBase(), nodePath);
+			context.getBaseCircularReferenceDetector().push(instances.getBase(), nodePath);
 		}
 		catch (final CircularReferenceException e)
 		{
-			workingThreadLocal.get().remove(instances.getWorking()); // rollback
+			workingCircularReferenceDetector.remove(instances.getWorking()); // rollback
 			throw e;
 		}
 	}
@@ -267,8 +728,30 @@ public class DifferDispatcher
 	{
 		final DiffNode node = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
 		node.setState(DiffNode.State.CIRCULAR);
-		node.setCircleStartPath(circleStartPath);
-		node.setCircleStartNode(findNodeMatchingPropertyPath(parentNode, circleStartPath));
+		if (circleStartPath != null)
+		{
+			node.setCircleStartPath(circleStartPath);
+			node.setCircleStartNode(findNodeMatchingPropertyPath(parentNode, circleStartPath));
+		}
 		return node;
 	}
+
+	/**
+	 * A compared node along with the instances it has been compared with, so they don't need to be accessed again.
+	 */
+	private static final class Comparison
+	{
+		private final DiffNode node;
+		private final Instances instances;
+
+		/**
+		 * @param instances The accessed instances or <code>null</code>, if the node has been created without
+		 *                  accessing them (e.g. because it is ignored).
+		 */
+		Comparison(final DiffNode node, final Instances instances)
+		{
+			this.node = node;
+			this.instances = instances;
+		}
+	}
 }
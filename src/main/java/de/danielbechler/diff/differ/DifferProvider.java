@@ -18,17 +18,28 @@ package de.danielbechler.diff.differ;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Finds the {@link Differ} responsible for a given type. Differs that have been pushed later take precedence over
+ * the ones that have been pushed earlier, which allows custom differs to override the default ones.
+ * <p/>
+ * Since the answer of {@link Differ#accepts(Class)} is expected to never change for the same type, the resolved
+ * differ gets cached per type until the next differ is pushed. The cache belongs to this provider, so it doesn't
+ * keep any classes alive any longer than the {@link de.danielbechler.diff.ObjectDiffer} using it.
+ *
  * @author Daniel Bechler
  */
 public class DifferProvider
 {
 	private final List<Differ> differs = new LinkedList<Differ>();
+	private final ConcurrentMap<Class<?>, Differ> differsByType = new ConcurrentHashMap<Class<?>, Differ>();
 
 	public void push(final Differ differ)
 	{
 		differs.add(0, differ);
+		differsByType.clear();
 	}
 
 	public void pushAll(final Iterable<Differ> differs)
@@ -45,10 +56,16 @@ public class DifferProvider
 		{
 			throw new IllegalArgumentException("Missing 'type'");
 		}
+		final Differ cachedDiffer = differsByType.get(type);
+		if (cachedDiffer != null)
+		{
+			return cachedDiffer;
+		}
 		for (final Differ differ : differs)
 		{
 			if (differ.accepts(type))
 			{
+				differsByType.put(type, differ);
 				return differ;
 			}
 		}
@@ -17,16 +17,29 @@
 package de.danielbechler.diff.differ;
 
 import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.inclusion.ValueNode;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.diff.selector.ElementSelector;
+import de.danielbechler.diff.selector.RootElementSelector;
 import de.danielbechler.util.Assert;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
 
-public class DifferService implements DifferConfigurer
+public class DifferService implements DifferConfigurer, OrderedListResolver
 {
 	private final ObjectDifferBuilder objectDifferBuilder;
 	private final Collection<DifferFactory> differFactories = new ArrayList<DifferFactory>();
+	private final Collection<Class<?>> orderedListTypes = new ArrayList<Class<?>>();
+	private ValueNode<Boolean> orderedListPaths = new ValueNode<Boolean>();
+	private boolean orderedListPathsConfigured;
+	private Executor executor;
+	private int parallelismThreshold;
+	private boolean freshInstancesReused;
 
 	public DifferService(final ObjectDifferBuilder objectDifferBuilder)
 	{
@@ -34,6 +47,22 @@ public class DifferService implements DifferConfigurer
 		this.objectDifferBuilder = objectDifferBuilder;
 	}
 
+	/**
+	 * Creates a copy of the current configuration, that won't be affected by later changes to this one.
+	 */
+	public DifferService snapshot()
+	{
+		final DifferService snapshot = new DifferService(objectDifferBuilder);
+		snapshot.differFactories.addAll(differFactories);
+		snapshot.executor = executor;
+		snapshot.parallelismThreshold = parallelismThreshold;
+		snapshot.orderedListTypes.addAll(orderedListTypes);
+		snapshot.orderedListPaths = orderedListPaths.copy();
+		snapshot.orderedListPathsConfigured = orderedListPathsConfigured;
+		snapshot.freshInstancesReused = freshInstancesReused;
+		return snapshot;
+	}
+
 	public ObjectDifferBuilder register(final DifferFactory differFactory)
 	{
 		Assert.notNull(differFactory, "differFactory");
@@ -41,8 +70,105 @@ public class DifferService implements DifferConfigurer
 		return objectDifferBuilder;
 	}
 
+	public ObjectDifferBuilder compareInParallel(final Executor executor, final int threshold)
+	{
+		Assert.notNull(executor, "executor");
+		if (threshold < 1)
+		{
+			throw new IllegalArgumentException("The threshold must be at least 1, but was " + threshold);
+		}
+		this.executor = executor;
+		this.parallelismThreshold = threshold;
+		return objectDifferBuilder;
+	}
+
+	public ObjectDifferBuilder compareInOrder(final NodePath nodePath)
+	{
+		Assert.notNull(nodePath, "nodePath");
+		orderedListPaths.getNodeForPath(nodePath).setValue(Boolean.TRUE);
+		orderedListPathsConfigured = true;
+		return objectDifferBuilder;
+	}
+
+	public ObjectDifferBuilder compareInOrder(final Class<?> listType)
+	{
+		Assert.notNull(listType, "listType");
+		if (!List.class.isAssignableFrom(listType))
+		{
+			throw new IllegalArgumentException("Only lists can be compared in order, but got " + listType.getName());
+		}
+		orderedListTypes.add(listType);
+		return objectDifferBuilder;
+	}
+
+	public ObjectDifferBuilder reuseFreshInstances()
+	{
+		freshInstancesReused = true;
+		return objectDifferBuilder;
+	}
+
+	/**
+	 * @return <code>true</code> if the fresh instances of compared types may be reused across comparisons.
+	 */
+	public boolean isFreshInstancesReused()
+	{
+		return freshInstancesReused;
+	}
+
+	/**
+	 * @return <code>true</code> if any list has been configured to be compared in order.
+	 */
+	public boolean isAnyListOrdered()
+	{
+		return orderedListPathsConfigured || !orderedListTypes.isEmpty();
+	}
+
+	public boolean isOrdered(final DiffNode parentNode, final ElementSelector elementSelector, final Class<?> listType)
+	{
+		for (final Class<?> orderedListType : orderedListTypes)
+		{
+			if (orderedListType.isAssignableFrom(listType))
+			{
+				return true;
+			}
+		}
+		if (orderedListPathsConfigured)
+		{
+			final ValueNode<Boolean> orderedListNode = findOrderedListNode(parentNode, elementSelector);
+			return orderedListNode != null && Boolean.TRUE.equals(orderedListNode.getValue());
+		}
+		return false;
+	}
+
+	/**
+	 * Looks the list up relative to the path of its parent, which has usually been built already.
+	 */
+	private ValueNode<Boolean> findOrderedListNode(final DiffNode parentNode, final ElementSelector elementSelector)
+	{
+		if (parentNode == null)
+		{
+			return elementSelector == RootElementSelector.getInstance() ? orderedListPaths : orderedListPaths.findChild(elementSelector);
+		}
+		final ValueNode<Boolean> parentListNode = orderedListPaths.findNodeForPath(parentNode.getPath());
+		return parentListNode != null ? parentListNode.findChild(elementSelector) : null;
+	}
+
 	public Collection<DifferFactory> getDifferFactories()
 	{
 		return Collections.unmodifiableCollection(differFactories);
 	}
+
+	/**
+	 * @return The executor to compare sibling nodes in parallel or <code>null</code> if parallel comparison is
+	 * disabled.
+	 */
+	public Executor getExecutor()
+	{
+		return executor;
+	}
+
+	public int getParallelismThreshold()
+	{
+		return parallelismThreshold;
+	}
 }
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Accessor;
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.ListItemAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.identity.IdentityIndex;
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.diff.identity.IdentityStrategyResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Used to find differences between {@link List Lists} that have been configured to be compared in order (see {@link
+ * DifferConfigurer#compareInOrder(de.danielbechler.diff.path.NodePath)}). All other lists are passed on to the
+ * given fallback differ, which usually treats them as bags.
+ * <p/>
+ * The items of both lists are matched via their longest common subsequence, as computed by {@link MyersDiff}.
+ * Afterwards the remaining added and removed items with the same identity are paired up as moved items. All matched
+ * items get compared recursively, so they can still end up being changed.
+ */
+public final class ListDiffer implements ContextualDiffer
+{
+	private final DifferDispatcher differDispatcher;
+	private final ContextualDiffer fallbackDiffer;
+	private final OrderedListResolver orderedListResolver;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+	private final IdentityStrategyResolver identityStrategyResolver;
+
+	public ListDiffer(final DifferDispatcher differDispatcher,
+					  final ContextualDiffer fallbackDiffer,
+					  final OrderedListResolver orderedListResolver,
+					  final ComparisonStrategyResolver comparisonStrategyResolver,
+					  final IdentityStrategyResolver identityStrategyResolver)
+	{
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(fallbackDiffer, "fallbackDiffer");
+		this.fallbackDiffer = fallbackDiffer;
+
+		Assert.notNull(orderedListResolver, "orderedListResolver");
+		this.orderedListResolver = orderedListResolver;
+
+		Assert.notNull(comparisonStrategyResolver, "comparisonStrategyResolver");
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+
+		Assert.notNull(identityStrategyResolver, "identityStrategyResolver");
+		this.identityStrategyResolver = identityStrategyResolver;
+	}
+
+	/**
+	 * Besides lists, this also accepts plain {@link Collection Collections}, since that's the type of any two
+	 * collections of different types (like an <code>ArrayList</code> and a <code>LinkedList</code>). They only get
+	 * compared in order if they are both lists.
+	 */
+	public boolean accepts(final Class<?> type)
+	{
+		return List.class.isAssignableFrom(type) || type == Collection.class;
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances listInstances)
+	{
+		return compare(parentNode, listInstances, differDispatcher.currentDiffContext());
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances listInstances, final DiffContext context)
+	{
+		final Class<?> listType = listTypeOf(listInstances);
+		final Accessor listAccessor = listInstances.getSourceAccessor();
+		if (listType == null || !orderedListResolver.isOrdered(parentNode, listAccessor.getElementSelector(), listType))
+		{
+			return fallbackDiffer.compare(parentNode, listInstances, context);
+		}
+		final DiffNode listNode = new DiffNode(parentNode, listAccessor, listType);
+		final IdentityStrategy identityStrategy = identityStrategyResolver.resolveIdentityStrategy(listNode);
+		if (identityStrategy != null)
+		{
+			listNode.setChildIdentityStrategy(identityStrategy);
+		}
+		if (listInstances.hasBeenAdded())
+		{
+			final List<?> addedItems = listInstances.getWorking(List.class);
+			dispatchItems(listNode, listInstances, addedOrRemovedItems(addedItems, true, identityStrategy), context);
+			listNode.setState(DiffNode.State.ADDED);
+		}
+		else if (listInstances.hasBeenRemoved())
+		{
+			final List<?> removedItems = listInstances.getBase(List.class);
+			dispatchItems(listNode, listInstances, addedOrRemovedItems(removedItems, false, identityStrategy), context);
+			listNode.setState(DiffNode.State.REMOVED);
+		}
+		else if (listInstances.areSame())
+		{
+			listNode.setState(DiffNode.State.UNTOUCHED);
+		}
+		else
+		{
+			final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(listNode);
+			if (comparisonStrategy == null)
+			{
+				compareInternally(listNode, listInstances, identityStrategy, context);
+			}
+			else
+			{
+				comparisonStrategy.compare(listNode,
+						listInstances.getType(),
+						listInstances.getWorking(List.class),
+						listInstances.getBase(List.class));
+			}
+		}
+		return listNode;
+	}
+
+	/**
+	 * @return The type of the compared lists or <code>null</code> if they aren't both lists.
+	 */
+	private static Class<?> listTypeOf(final Instances instances)
+	{
+		final Class<?> type = instances.getType();
+		if (List.class.isAssignableFrom(type))
+		{
+			return type;
+		}
+		if (isListOrNull(instances.getWorking()) && isListOrNull(instances.getBase()))
+		{
+			return List.class;
+		}
+		return null;
+	}
+
+	private static boolean isListOrNull(final Object value)
+	{
+		return value == null || value instanceof List;
+	}
+
+	private static Collection<Accessor> addedOrRemovedItems(final List<?> items,
+															final boolean added,
+															final IdentityStrategy identityStrategy)
+	{
+		final Collection<Accessor> itemAccessors = new ArrayList<Accessor>(items.size());
+		final IdentityIndex itemIndex = new IdentityIndex(items, identityStrategy);
+		final int[] occurrences = new int[items.size()];
+		int index = 0;
+		for (final Object item : items)
+		{
+			final int occurrence = occurrences[itemIndex.indexOf(item)]++;
+			if (added)
+			{
+				itemAccessors.add(new ListItemAccessor(item, occurrence, identityStrategy,
+						items, index, item,
+						null, ListItemAccessor.NO_INDEX, null,
+						false));
+			}
+			else
+			{
+				itemAccessors.add(new ListItemAccessor(item, occurrence, identityStrategy,
+						null, ListItemAccessor.NO_INDEX, null,
+						items, index, item,
+						false));
+			}
+			index++;
+		}
+		return itemAccessors;
+	}
+
+	/**
+	 * The matched and added items are dispatched in the order of the working list, followed by the removed items in
+	 * the order of the base list. Items with the same identity are told apart by the order in which they are
+	 * dispatched.
+	 */
+	private void compareInternally(final DiffNode listNode,
+								   final Instances listInstances,
+								   final IdentityStrategy identityStrategy,
+								   final DiffContext context)
+	{
+		final List<?> working = listInstances.getWorking(List.class);
+		final List<?> base = listInstances.getBase(List.class);
+		final Object[] workingItems = working.toArray();
+		final Object[] baseItems = base.toArray();
+
+		// Every item gets replaced by the index of the first base item with the same identity. Working items that
+		// don't exist in the base list get a negative symbol, since they can't be matched anyway.
+		final IdentityIndex baseIndex = new IdentityIndex(base, identityStrategy);
+		final int[] baseSymbols = new int[baseItems.length];
+		for (int i = 0; i < baseItems.length; i++)
+		{
+			baseSymbols[i] = baseIndex.indexOf(baseItems[i]);
+		}
+		final int[] workingSymbols = new int[workingItems.length];
+		for (int i = 0; i < workingItems.length; i++)
+		{
+			final int symbol = baseIndex.indexOf(workingItems[i]);
+			workingSymbols[i] = symbol != IdentityIndex.NO_ITEM ? symbol : -1 - i;
+		}
+
+		final int[] workingMatches = new int[workingItems.length];
+		Arrays.fill(workingMatches, MyersDiff.NO_MATCH);
+		final int[] baseMatches = MyersDiff.match(baseSymbols, workingSymbols);
+		for (int i = 0; i < baseMatches.length; i++)
+		{
+			if (baseMatches[i] != MyersDiff.NO_MATCH)
+			{
+				workingMatches[baseMatches[i]] = i;
+			}
+		}
+		final boolean[] moved = matchMovedItems(baseSymbols, baseMatches, workingSymbols, workingMatches);
+
+		// Occurrences are counted per identity: items that exist in the base list are counted by their symbol, the
+		// remaining ones by the first working item with the same identity.
+		final int[] occurrences = new int[baseItems.length + workingItems.length];
+		IdentityIndex workingIndex = null;
+		final Collection<Accessor> itemAccessors = new ArrayList<Accessor>(Math.max(workingItems.length, baseItems.length));
+		for (int i = 0; i < workingItems.length; i++)
+		{
+			int identity = workingSymbols[i];
+			if (identity < 0)
+			{
+				if (workingIndex == null)
+				{
+					workingIndex = new IdentityIndex(working, identityStrategy);
+				}
+				identity = baseItems.length + workingIndex.indexOf(workingItems[i]);
+			}
+			final int occurrence = occurrences[identity]++;
+			final int matchingBaseIndex = workingMatches[i];
+			if (matchingBaseIndex == MyersDiff.NO_MATCH)
+			{
+				itemAccessors.add(new ListItemAccessor(workingItems[i], occurrence, identityStrategy,
+						working, i, workingItems[i],
+						base, ListItemAccessor.NO_INDEX, null,
+						false));
+			}
+			else
+			{
+				itemAccessors.add(new ListItemAccessor(baseItems[matchingBaseIndex], occurrence, identityStrategy,
+						working, i, workingItems[i],
+						base, matchingBaseIndex, baseItems[matchingBaseIndex],
+						moved[i]));
+			}
+		}
+		for (int i = 0; i < baseItems.length; i++)
+		{
+			if (baseMatches[i] == MyersDiff.NO_MATCH)
+			{
+				itemAccessors.add(new ListItemAccessor(baseItems[i], occurrences[baseSymbols[i]]++, identityStrategy,
+						working, ListItemAccessor.NO_INDEX, null,
+						base, i, baseItems[i],
+						false));
+			}
+		}
+		dispatchItems(listNode, listInstances, itemAccessors, context);
+	}
+
+	/**
+	 * Pairs up the items that haven't been matched by the edit script, but exist in both lists. Every added item
+	 * gets paired with the first removed item of the same identity, that hasn't been paired yet. Both matches get
+	 * updated accordingly.
+	 *
+	 * @return Which working items have been moved.
+	 */
+	private static boolean[] matchMovedItems(final int[] baseSymbols,
+											 final int[] baseMatches,
+											 final int[] workingSymbols,
+											 final int[] workingMatches)
+	{
+		// chains the removed base items by symbol, in the order of the base list
+		final int[] firstRemovedBySymbol = new int[baseSymbols.length];
+		final int[] nextRemovedWithSameSymbol = new int[baseSymbols.length];
+		Arrays.fill(firstRemovedBySymbol, MyersDiff.NO_MATCH);
+		for (int i = baseSymbols.length - 1; i >= 0; i--)
+		{
+			if (baseMatches[i] == MyersDiff.NO_MATCH)
+			{
+				nextRemovedWithSameSymbol[i] = firstRemovedBySymbol[baseSymbols[i]];
+				firstRemovedBySymbol[baseSymbols[i]] = i;
+			}
+		}
+		final boolean[] moved = new boolean[workingSymbols.length];
+		for (int i = 0; i < workingSymbols.length; i++)
+		{
+			final int symbol = workingSymbols[i];
+			if (workingMatches[i] != MyersDiff.NO_MATCH || symbol < 0)
+			{
+				continue;
+			}
+			final int removedBaseIndex = firstRemovedBySymbol[symbol];
+			if (removedBaseIndex != MyersDiff.NO_MATCH)
+			{
+				firstRemovedBySymbol[symbol] = nextRemovedWithSameSymbol[removedBaseIndex];
+				baseMatches[removedBaseIndex] = i;
+				workingMatches[i] = removedBaseIndex;
+				moved[i] = true;
+			}
+		}
+		return moved;
+	}
+
+	private void dispatchItems(final DiffNode listNode,
+							   final Instances listInstances,
+							   final Collection<Accessor> itemAccessors,
+							   final DiffContext context)
+	{
+		if (differDispatcher.shouldDispatchInParallel(itemAccessors.size()))
+		{
+			differDispatcher.dispatchInParallel(listNode, listInstances, itemAccessors, context);
+			return;
+		}
+		for (final Accessor itemAccessor : itemAccessors)
+		{
+			if (context.isDone())
+			{
+				return;
+			}
+			differDispatcher.dispatch(listNode, listInstances, itemAccessor, context);
+		}
+	}
+}
@@ -16,23 +16,26 @@
 
 package de.danielbechler.diff.differ;
 
+import de.danielbechler.diff.access.Accessor;
 import de.danielbechler.diff.access.Instances;
 import de.danielbechler.diff.access.MapEntryAccessor;
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.util.Assert;
-import de.danielbechler.util.Collections;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
+import java.util.SortedMap;
 
 /**
  * Used to find differences between {@link Map Maps}
  *
  * @author Daniel Bechler
  */
-public final class MapDiffer implements Differ
+public final class MapDiffer implements ContextualDiffer
 {
 	private final ComparisonStrategyResolver comparisonStrategyResolver;
 	private final DifferDispatcher differDispatcher;
@@ -44,27 +47,105 @@ public final class MapDiffer implements Differ
 		this.comparisonStrategyResolver = comparisonStrategyResolver;
 	}
 
-	private static Collection<?> findAddedKeys(final Instances instances)
+	/**
+	 * Sorts the keys of both maps into added, removed and known ones within a single pass over each map.
+	 */
+	private static void classifyKeys(final Map<?, ?> working,
+									 final Map<?, ?> base,
+									 final Collection<Object> addedKeys,
+									 final Collection<Object> removedKeys,
+									 final Collection<Object> knownKeys)
 	{
-		final Set<?> source = instances.getWorking(Map.class).keySet();
-		final Set<?> filter = instances.getBase(Map.class).keySet();
-		return Collections.filteredCopyOf(source, filter);
+		if (working instanceof SortedMap && base instanceof SortedMap
+				&& haveSameOrder((SortedMap<?, ?>) working, (SortedMap<?, ?>) base))
+		{
+			classifySortedKeys((SortedMap<?, ?>) working, (SortedMap<?, ?>) base, addedKeys, removedKeys, knownKeys);
+			return;
+		}
+		for (final Object key : working.keySet())
+		{
+			if (base.containsKey(key))
+			{
+				knownKeys.add(key);
+			}
+			else
+			{
+				addedKeys.add(key);
+			}
+		}
+		for (final Object key : base.keySet())
+		{
+			if (!working.containsKey(key))
+			{
+				removedKeys.add(key);
+			}
+		}
 	}
 
-	private static Collection<?> findRemovedKeys(final Instances instances)
+	private static boolean haveSameOrder(final SortedMap<?, ?> working, final SortedMap<?, ?> base)
 	{
-		final Set<?> source = instances.getBase(Map.class).keySet();
-		final Set<?> filter = instances.getWorking(Map.class).keySet();
-		return Collections.filteredCopyOf(source, filter);
+		final Comparator<?> comparator = working.comparator();
+		return comparator == null ? base.comparator() == null : comparator.equals(base.comparator());
 	}
 
-	private static Iterable<?> findKnownKeys(final Instances instances)
+	/**
+	 * Both maps iterate their keys in the same order, so they can be walked side by side like the two halves of a
+	 * merge sort. That way every key only needs to be compared with its counterpart in the other map.
+	 */
+	@SuppressWarnings("unchecked")
+	private static void classifySortedKeys(final SortedMap<?, ?> working,
+										   final SortedMap<?, ?> base,
+										   final Collection<Object> addedKeys,
+										   final Collection<Object> removedKeys,
+										   final Collection<Object> knownKeys)
 	{
-		final Set<?> keys = instances.getWorking(Map.class).keySet();
-		final Collection<?> changed = Collections.setOf(keys);
-		changed.removeAll(findAddedKeys(instances));
-		changed.removeAll(findRemovedKeys(instances));
-		return changed;
+		final Comparator<Object> comparator = (Comparator<Object>) working.comparator();
+		final Iterator<?> workingKeys = working.keySet().iterator();
+		final Iterator<?> baseKeys = base.keySet().iterator();
+		Object workingKey = workingKeys.hasNext() ? workingKeys.next() : null;
+		Object baseKey = baseKeys.hasNext() ? baseKeys.next() : null;
+		boolean hasWorkingKey = !working.isEmpty();
+		boolean hasBaseKey = !base.isEmpty();
+		while (hasWorkingKey && hasBaseKey)
+		{
+			final int order = comparator != null
+					? comparator.compare(workingKey, baseKey)
+					: ((Comparable<Object>) workingKey).compareTo(baseKey);
+			if (order == 0)
+			{
+				knownKeys.add(workingKey);
+			}
+			else if (order < 0)
+			{
+				addedKeys.add(workingKey);
+			}
+			else
+			{
+				removedKeys.add(baseKey);
+			}
+			if (order <= 0)
+			{
+				hasWorkingKey = workingKeys.hasNext();
+				workingKey = hasWorkingKey ? workingKeys.next() : null;
+			}
+			if (order >= 0)
+			{
+				hasBaseKey = baseKeys.hasNext();
+				baseKey = hasBaseKey ? baseKeys.next() : null;
+			}
+		}
+		while (hasWorkingKey)
+		{
+			addedKeys.add(workingKey);
+			hasWorkingKey = workingKeys.hasNext();
+			workingKey = hasWorkingKey ? workingKeys.next() : null;
+		}
+		while (hasBaseKey)
+		{
+			removedKeys.add(baseKey);
+			hasBaseKey = baseKeys.hasNext();
+			baseKey = hasBaseKey ? baseKeys.next() : null;
+		}
 	}
 
 	public boolean accepts(final Class<?> type)
@@ -77,16 +158,21 @@ public final class MapDiffer implements Differ
 	}
 
 	public final DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		return compare(parentNode, instances, differDispatcher.currentDiffContext());
+	}
+
+	public final DiffNode compare(final DiffNode parentNode, final Instances instances, final DiffContext context)
 	{
 		final DiffNode mapNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
 		if (instances.hasBeenAdded())
 		{
-			compareEntries(mapNode, instances, instances.getWorking(Map.class).keySet());
+			compareEntries(mapNode, instances, instances.getWorking(Map.class).keySet(), context);
 			mapNode.setState(DiffNode.State.ADDED);
 		}
 		else if (instances.hasBeenRemoved())
 		{
-			compareEntries(mapNode, instances, instances.getBase(Map.class).keySet());
+			compareEntries(mapNode, instances, instances.getBase(Map.class).keySet(), context);
 			mapNode.setState(DiffNode.State.REMOVED);
 		}
 		else if (instances.areSame())
@@ -99,18 +185,39 @@ public final class MapDiffer implements Differ
 		}
 		else
 		{
-			compareEntries(mapNode, instances, findAddedKeys(instances));
-			compareEntries(mapNode, instances, findRemovedKeys(instances));
-			compareEntries(mapNode, instances, findKnownKeys(instances));
+			final Collection<Object> addedKeys = new ArrayList<Object>();
+			final Collection<Object> removedKeys = new ArrayList<Object>();
+			final Collection<Object> knownKeys = new ArrayList<Object>();
+			classifyKeys(instances.getWorking(Map.class), instances.getBase(Map.class), addedKeys, removedKeys, knownKeys);
+			compareEntries(mapNode, instances, addedKeys, context);
+			compareEntries(mapNode, instances, removedKeys, context);
+			compareEntries(mapNode, instances, knownKeys, context);
 		}
 		return mapNode;
 	}
 
-	private void compareEntries(final DiffNode mapNode, final Instances mapInstances, final Iterable<?> keys)
+	private void compareEntries(final DiffNode mapNode,
+								final Instances mapInstances,
+								final Collection<?> keys,
+								final DiffContext context)
 	{
+		if (differDispatcher.shouldDispatchInParallel(keys.size()))
+		{
+			final Collection<Accessor> entryAccessors = new ArrayList<Accessor>(keys.size());
+			for (final Object key : keys)
+			{
+				entryAccessors.add(new MapEntryAccessor(key));
+			}
+			differDispatcher.dispatchInParallel(mapNode, mapInstances, entryAccessors, context);
+			return;
+		}
 		for (final Object key : keys)
 		{
-			differDispatcher.dispatch(mapNode, mapInstances, new MapEntryAccessor(key));
+			if (context.isDone())
+			{
+				return;
+			}
+			differDispatcher.dispatch(mapNode, mapInstances, new MapEntryAccessor(key), context);
 		}
 	}
 }
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import java.util.Arrays;
+
+/**
+ * Finds the longest common subsequence of two sequences of symbols via the linear space variant of the algorithm
+ * described by Eugene W. Myers in "An O(ND) Difference Algorithm and Its Variations". Instead of keeping the whole
+ * edit graph in memory, the sequences get split at the middle snake of their shortest edit script, so only two
+ * vectors of diagonals are needed.
+ * <p/>
+ * The runtime grows with the number of differences. To keep it bounded for sequences that have next to nothing in
+ * common (e.g. shuffled lists), the search for the middle snake gives up after a number of steps that grows with
+ * the square root of the sequence lengths and splits at the furthest point reached instead (like GNU diff does). The
+ * resulting edit script may not be the shortest possible one in that case, but it is still correct.
+ * <p/>
+ * When the symbols of the base sequence are strictly ascending (which implies they are distinct), the longest common
+ * subsequence is just the longest increasing subsequence of the matching working symbols. That one can be found in
+ * <code>O(n log n)</code>, no matter how many differences there are, so it is used instead.
+ */
+final class MyersDiff
+{
+	static final int NO_MATCH = -1;
+
+	private static final int MIN_COST_LIMIT = 256;
+
+	private final int[] base;
+	private final int[] working;
+	private final boolean[] deleted;
+	private final boolean[] inserted;
+	private final int[] forwardDiagonals;
+	private final int[] backwardDiagonals;
+	private final int diagonalOffset;
+	private final int costLimit;
+
+	private MyersDiff(final int[] base, final int[] working)
+	{
+		this.base = base;
+		this.working = working;
+		this.deleted = new boolean[base.length];
+		this.inserted = new boolean[working.length];
+		final int diagonalCount = base.length + working.length + 3;
+		this.forwardDiagonals = new int[diagonalCount];
+		this.backwardDiagonals = new int[diagonalCount];
+		this.diagonalOffset = working.length + 1;
+		this.costLimit = costLimitFor(diagonalCount);
+	}
+
+	private static int costLimitFor(final int diagonalCount)
+	{
+		int costLimit = 1;
+		for (int i = diagonalCount; i != 0; i >>= 2)
+		{
+			costLimit <<= 1;
+		}
+		return Math.max(MIN_COST_LIMIT, costLimit);
+	}
+
+	/**
+	 * Symbols are considered equal when they have the same value.
+	 *
+	 * @return For every symbol of the base sequence the index of the working symbol it has been matched with or
+	 * {@link #NO_MATCH} if it has been deleted. The matches are in ascending order.
+	 */
+	static int[] match(final int[] base, final int[] working)
+	{
+		if (isStrictlyAscending(base))
+		{
+			return matchIncreasing(base, working);
+		}
+		final MyersDiff myersDiff = new MyersDiff(base, working);
+		myersDiff.compare(0, base.length, 0, working.length);
+		return myersDiff.matches();
+	}
+
+	private static boolean isStrictlyAscending(final int[] symbols)
+	{
+		for (int i = 1; i < symbols.length; i++)
+		{
+			if (symbols[i - 1] >= symbols[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the longest increasing subsequence of the base positions of the working symbols via patience sorting.
+	 * The tail of the best subsequence of every length is kept along with a back reference per working symbol, so
+	 * the subsequence can be restored afterwards.
+	 */
+	private static int[] matchIncreasing(final int[] base, final int[] working)
+	{
+		final int[] basePositions = new int[working.length];
+		final int[] predecessors = new int[working.length];
+		final int[] tails = new int[working.length];
+		int length = 0;
+		for (int i = 0; i < working.length; i++)
+		{
+			final int basePosition = Arrays.binarySearch(base, working[i]);
+			if (basePosition < 0)
+			{
+				continue;
+			}
+			int low = 0;
+			int high = length;
+			while (low < high)
+			{
+				final int mid = (low + high) >>> 1;
+				if (basePositions[tails[mid]] < basePosition)
+				{
+					low = mid + 1;
+				}
+				else
+				{
+					high = mid;
+				}
+			}
+			if (low < length && basePositions[tails[low]] == basePosition)
+			{
+				// repeated working symbols keep their first match
+				continue;
+			}
+			basePositions[i] = basePosition;
+			predecessors[i] = low > 0 ? tails[low - 1] : NO_MATCH;
+			tails[low] = i;
+			if (low == length)
+			{
+				length++;
+			}
+		}
+		final int[] matches = new int[base.length];
+		Arrays.fill(matches, NO_MATCH);
+		for (int i = length > 0 ? tails[length - 1] : NO_MATCH; i != NO_MATCH; i = predecessors[i])
+		{
+			matches[basePositions[i]] = i;
+		}
+		return matches;
+	}
+
+	private int[] matches()
+	{
+		final int[] matches = new int[base.length];
+		Arrays.fill(matches, NO_MATCH);
+		int workingIndex = 0;
+		for (int baseIndex = 0; baseIndex < base.length; baseIndex++)
+		{
+			if (deleted[baseIndex])
+			{
+				continue;
+			}
+			while (inserted[workingIndex])
+			{
+				workingIndex++;
+			}
+			matches[baseIndex] = workingIndex++;
+		}
+		return matches;
+	}
+
+	/**
+	 * Compares <code>base[baseStart, baseEnd)</code> with <code>working[workingStart, workingEnd)</code>. The second
+	 * half of every split is handled iteratively, so the recursion depth only grows with the number of splits of the
+	 * first halves.
+	 */
+	private void compare(int baseStart, int baseEnd, int workingStart, int workingEnd)
+	{
+		while (true)
+		{
+			while (baseStart < baseEnd && workingStart < workingEnd && base[baseStart] == working[workingStart])
+			{
+				baseStart++;
+				workingStart++;
+			}
+			while (baseStart < baseEnd && workingStart < workingEnd && base[baseEnd - 1] == working[workingEnd - 1])
+			{
+				baseEnd--;
+				workingEnd--;
+			}
+			if (baseStart == baseEnd)
+			{
+				Arrays.fill(inserted, workingStart, workingEnd, true);
+				return;
+			}
+			if (workingStart == workingEnd)
+			{
+				Arrays.fill(deleted, baseStart, baseEnd, true);
+				return;
+			}
+			final long split = findSplit(baseStart, baseEnd, workingStart, workingEnd);
+			final int baseSplit = (int) (split >>> 32);
+			final int workingSplit = (int) split;
+			compare(baseStart, baseSplit, workingStart, workingSplit);
+			baseStart = baseSplit;
+			workingStart = workingSplit;
+		}
+	}
+
+	/**
+	 * Searches forward from the start and backward from the end at the same time, until both searches overlap on
+	 * a diagonal. The diagonal <code>k</code> contains all points with <code>x - y == k</code>, where <code>x</code>
+	 * is an index of the base and <code>y</code> an index of the working sequence.
+	 *
+	 * @return The point to split at, with <code>x</code> in the upper and <code>y</code> in the lower half.
+	 */
+	private long findSplit(final int baseStart, final int baseEnd, final int workingStart, final int workingEnd)
+	{
+		final int[] fd = forwardDiagonals;
+		final int[] bd = backwardDiagonals;
+		final int o = diagonalOffset;
+		final int minDiagonal = baseStart - workingEnd;
+		final int maxDiagonal = baseEnd - workingStart;
+		final int forwardMid = baseStart - workingStart;
+		final int backwardMid = baseEnd - workingEnd;
+		final boolean odd = ((forwardMid - backwardMid) & 1) != 0;
+		int forwardMin = forwardMid;
+		int forwardMax = forwardMid;
+		int backwardMin = backwardMid;
+		int backwardMax = backwardMid;
+		fd[o + forwardMid] = baseStart;
+		bd[o + backwardMid] = baseEnd;
+
+		for (int cost = 1; ; cost++)
+		{
+			if (forwardMin > minDiagonal)
+			{
+				fd[o + --forwardMin - 1] = -1;
+			}
+			else
+			{
+				forwardMin++;
+			}
+			if (forwardMax < maxDiagonal)
+			{
+				fd[o + ++forwardMax + 1] = -1;
+			}
+			else
+			{
+				forwardMax--;
+			}
+			for (int d = forwardMax; d >= forwardMin; d -= 2)
+			{
+				final int low = fd[o + d - 1];
+				final int high = fd[o + d + 1];
+				int x = low >= high ? low + 1 : high;
+				int y = x - d;
+				while (x < baseEnd && y < workingEnd && base[x] == working[y])
+				{
+					x++;
+					y++;
+				}
+				fd[o + d] = x;
+				if (odd && backwardMin <= d && d <= backwardMax && bd[o + d] <= x)
+				{
+					return point(x, y);
+				}
+			}
+
+			if (backwardMin > minDiagonal)
+			{
+				bd[o + --backwardMin - 1] = Integer.MAX_VALUE;
+			}
+			else
+			{
+				backwardMin++;
+			}
+			if (backwardMax < maxDiagonal)
+			{
+				bd[o + ++backwardMax + 1] = Integer.MAX_VALUE;
+			}
+			else
+			{
+				backwardMax--;
+			}
+			for (int d = backwardMax; d >= backwardMin; d -= 2)
+			{
+				final int low = bd[o + d - 1];
+				final int high = bd[o + d + 1];
+				int x = low < high ? low : high - 1;
+				int y = x - d;
+				while (x > baseStart && y > workingStart && base[x - 1] == working[y - 1])
+				{
+					x--;
+					y--;
+				}
+				bd[o + d] = x;
+				if (!odd && forwardMin <= d && d <= forwardMax && x <= fd[o + d])
+				{
+					return point(x, y);
+				}
+			}
+
+			if (cost >= costLimit)
+			{
+				return furthestPoint(baseStart, baseEnd, workingStart, workingEnd,
+						forwardMin, forwardMax, backwardMin, backwardMax);
+			}
+		}
+	}
+
+	/**
+	 * Gives up on finding the middle snake and picks the point closest to the opposite corner, that has been reached
+	 * by either the forward or the backward search.
+	 */
+	private long furthestPoint(final int baseStart, final int baseEnd, final int workingStart, final int workingEnd,
+							   final int forwardMin, final int forwardMax,
+							   final int backwardMin, final int backwardMax)
+	{
+		final int o = diagonalOffset;
+		int forwardBestSum = -1;
+		int forwardBestX = baseStart;
+		for (int d = forwardMax; d >= forwardMin; d -= 2)
+		{
+			int x = Math.min(forwardDiagonals[o + d], baseEnd);
+			int y = x - d;
+			if (workingEnd < y)
+			{
+				x = workingEnd + d;
+				y = workingEnd;
+			}
+			if (forwardBestSum < x + y)
+			{
+				forwardBestSum = x + y;
+				forwardBestX = x;
+			}
+		}
+		int backwardBestSum = Integer.MAX_VALUE;
+		int backwardBestX = baseEnd;
+		for (int d = backwardMax; d >= backwardMin; d -= 2)
+		{
+			int x = Math.max(baseStart, backwardDiagonals[o + d]);
+			int y = x - d;
+			if (y < workingStart)
+			{
+				x = workingStart + d;
+				y = workingStart;
+			}
+			if (x + y < backwardBestSum)
+			{
+				backwardBestSum = x + y;
+				backwardBestX = x;
+			}
+		}
+		if ((baseEnd + workingEnd) - backwardBestSum < forwardBestSum - (baseStart + workingStart))
+		{
+			return point(forwardBestX, forwardBestSum - forwardBestX);
+		}
+		return point(backwardBestX, backwardBestSum - backwardBestX);
+	}
+
+	private static long point(final int x, final int y)
+	{
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+}
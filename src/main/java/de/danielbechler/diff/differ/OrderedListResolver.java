@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.selector.ElementSelector;
+
+public interface OrderedListResolver
+{
+	/**
+	 * Gets asked before the node of the list is created, so lists that are treated as bags don't cost an extra node.
+	 *
+	 * @param parentNode      The parent of the list node or <code>null</code> if the list is the root object.
+	 * @param elementSelector Selects the list from its parent.
+	 * @param listType        The type of the list.
+	 * @return <code>true</code> if the list should be compared as an ordered sequence of items, instead of a bag.
+	 */
+	boolean isOrdered(DiffNode parentNode, ElementSelector elementSelector, Class<?> listType);
+}
@@ -27,7 +27,7 @@ import static de.danielbechler.diff.comparison.PrimitiveDefaultValueMode.UNASSIG
 /**
  * @author Daniel Bechler
  */
-public final class PrimitiveDiffer implements Differ
+public final class PrimitiveDiffer implements ContextualDiffer
 {
 	private final PrimitiveDefaultValueModeResolver primitiveDefaultValueModeResolver;
 
@@ -42,6 +42,11 @@ public final class PrimitiveDiffer implements Differ
 		return Classes.isPrimitiveType(type);
 	}
 
+	public final DiffNode compare(final DiffNode parentNode, final Instances instances, final DiffContext context)
+	{
+		return compare(parentNode, instances);
+	}
+
 	public final DiffNode compare(final DiffNode parentNode, final Instances instances)
 	{
 		if (!accepts(instances.getType()))
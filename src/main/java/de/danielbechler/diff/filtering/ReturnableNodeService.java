@@ -46,10 +46,21 @@ public class ReturnableNodeService implements FilteringConfigurer, IsReturnableR
 		this.stateFilterSettings.put(DiffNode.State.CIRCULAR, true);
 		this.stateFilterSettings.put(DiffNode.State.ADDED, true);
 		this.stateFilterSettings.put(DiffNode.State.REMOVED, true);
+		this.stateFilterSettings.put(DiffNode.State.MOVED, true);
 		this.stateFilterSettings.put(DiffNode.State.CHANGED, true);
 		assertDefaultValuesForAllAvailableStates();
 	}
 
+	/**
+	 * Creates a copy of the current configuration, that won't be affected by later changes to this one.
+	 */
+	public ReturnableNodeService snapshot()
+	{
+		final ReturnableNodeService snapshot = new ReturnableNodeService(objectDifferBuilder);
+		snapshot.stateFilterSettings.putAll(stateFilterSettings);
+		return snapshot;
+	}
+
 	private void assertDefaultValuesForAllAvailableStates()
 	{
 		final List<DiffNode.State> availableStates = asList(DiffNode.State.values());
@@ -28,11 +28,31 @@ class CollectionItemIdentityService implements IdentityStrategyResolver
 	private final IdentityConfigurer identityConfigurer;
 	private IdentityStrategy defaultIdentityStrategy = EqualsIdentityStrategy.getInstance();
 
+	private boolean nodePathIdentityStrategiesConfigured;
+
 	CollectionItemIdentityService(final IdentityConfigurer identityConfigurer)
+	{
+		this(identityConfigurer, new ValueNode<IdentityStrategy>(), new TypePropertyIdentityStrategyResolver());
+	}
+
+	private CollectionItemIdentityService(final IdentityConfigurer identityConfigurer,
+										  final ValueNode<IdentityStrategy> nodePathIdentityStrategies,
+										  final TypePropertyIdentityStrategyResolver typePropertyIdentityStrategyResolver)
 	{
 		this.identityConfigurer = identityConfigurer;
-		this.nodePathIdentityStrategies = new ValueNode<IdentityStrategy>();
-		this.typePropertyIdentityStrategyResolver = new TypePropertyIdentityStrategyResolver();
+		this.nodePathIdentityStrategies = nodePathIdentityStrategies;
+		this.typePropertyIdentityStrategyResolver = typePropertyIdentityStrategyResolver;
+	}
+
+	CollectionItemIdentityService snapshot(final IdentityConfigurer identityConfigurer)
+	{
+		final CollectionItemIdentityService snapshot = new CollectionItemIdentityService(
+				identityConfigurer,
+				nodePathIdentityStrategies.copy(),
+				typePropertyIdentityStrategyResolver.copy());
+		snapshot.nodePathIdentityStrategiesConfigured = nodePathIdentityStrategiesConfigured;
+		snapshot.defaultIdentityStrategy = defaultIdentityStrategy;
+		return snapshot;
 	}
 
 	public IdentityStrategy resolveIdentityStrategy(final DiffNode node)
@@ -42,10 +62,13 @@ class CollectionItemIdentityService implements IdentityStrategyResolver
 		{
 			return identityStrategy;
 		}
-		identityStrategy = nodePathIdentityStrategies.getNodeForPath(node.getPath()).getValue();
-		if (identityStrategy != null)
+		if (nodePathIdentityStrategiesConfigured)
 		{
-			return identityStrategy;
+			final ValueNode<IdentityStrategy> identityStrategyNode = nodePathIdentityStrategies.findNodeForPath(node.getPath());
+			if (identityStrategyNode != null && identityStrategyNode.hasValue())
+			{
+				return identityStrategyNode.getValue();
+			}
 		}
 		return defaultIdentityStrategy;
 	}
@@ -79,6 +102,7 @@ class CollectionItemIdentityService implements IdentityStrategyResolver
 		public IdentityConfigurer via(final IdentityStrategy identityStrategy)
 		{
 			nodePathIdentityStrategies.getNodeForPath(nodePath).setValue(identityStrategy);
+			nodePathIdentityStrategiesConfigured = true;
 			return identityConfigurer;
 		}
 	}
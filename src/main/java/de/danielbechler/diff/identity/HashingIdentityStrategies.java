@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.identity;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ */
+public final class HashingIdentityStrategies
+{
+	private HashingIdentityStrategies()
+	{
+	}
+
+	/**
+	 * Subclasses of {@link EqualsIdentityStrategy} inherit its hash codes, even when they override {@link
+	 * EqualsIdentityStrategy#equals(Object, Object)} with a looser match. Their hash codes can't be trusted, so only
+	 * the {@link EqualsIdentityStrategy} itself and dedicated implementations of {@link HashingIdentityStrategy}
+	 * count as hashing.
+	 *
+	 * @return <code>true</code> if the hash codes of the given strategy are consistent with its equality.
+	 */
+	public static boolean isHashing(final IdentityStrategy identityStrategy)
+	{
+		if (identityStrategy instanceof EqualsIdentityStrategy)
+		{
+			return identityStrategy.getClass() == EqualsIdentityStrategy.class;
+		}
+		return identityStrategy instanceof HashingIdentityStrategy;
+	}
+}
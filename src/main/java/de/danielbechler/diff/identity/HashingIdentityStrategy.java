@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.identity;
+
+/**
+ * An {@link IdentityStrategy} that is also able to compute hash codes for the identities it compares. Implementing
+ * this interface is optional, but it allows the {@link de.danielbechler.diff.differ.CollectionDiffer} to match
+ * collection items via hash lookups instead of comparing every item with every other item. For large collections
+ * that makes a huge difference.
+ * <p/>
+ * Subclasses of {@link EqualsIdentityStrategy} are never hashed, because they inherit hash codes that don't know
+ * about their own notion of equality.
+ */
+public interface HashingIdentityStrategy extends IdentityStrategy
+{
+	/**
+	 * Must be consistent with {@link #equals(Object, Object)}: whenever two items are considered equal, their hash
+	 * codes must be equal as well.
+	 *
+	 * @param item The item to compute the hash code for. May be <code>null</code>.
+	 * @return The hash code of the identity of the given item.
+	 */
+	int hashCode(Object item);
+}
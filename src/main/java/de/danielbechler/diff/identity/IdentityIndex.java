@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.identity;
+
+import de.danielbechler.util.Assert;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * Indexes the items of a collection by their identity as defined by an {@link IdentityStrategy}. When the strategy
+ * is {@linkplain HashingIdentityStrategies#isHashing(IdentityStrategy) hashing} the items are bucketed by their
+ * identity hash code, so lookups only need to compare the few items that share the same bucket. Any other strategy
+ * puts all items into the same bucket, which degrades lookups to the same linear scan that would be needed without
+ * an index.
+ */
+public final class IdentityIndex
+{
+	public static final int NO_ITEM = -1;
+
+	private final Collection<?> source;
+	private final IdentityStrategy identityStrategy;
+	private final HashingIdentityStrategy hashingIdentityStrategy;
+	private final Object[] items;
+	private final int[] hashes;
+	private final int[] nextInBucket;
+	private final int[] buckets;
+
+	public IdentityIndex(final Collection<?> items, final IdentityStrategy identityStrategy)
+	{
+		Assert.notNull(items, "items");
+		Assert.notNull(identityStrategy, "identityStrategy");
+		this.source = items;
+		this.identityStrategy = identityStrategy;
+		this.hashingIdentityStrategy = HashingIdentityStrategies.isHashing(identityStrategy)
+				? (HashingIdentityStrategy) identityStrategy
+				: null;
+		this.items = items.toArray();
+		this.hashes = new int[this.items.length];
+		this.nextInBucket = new int[this.items.length];
+		this.buckets = new int[bucketCountFor(this.items.length)];
+		Arrays.fill(buckets, NO_ITEM);
+		// inserting in reverse order keeps the items of each bucket in iteration order of the collection
+		for (int i = this.items.length - 1; i >= 0; i--)
+		{
+			final int hash = hashOf(this.items[i]);
+			final int bucket = bucketOf(hash);
+			hashes[i] = hash;
+			nextInBucket[i] = buckets[bucket];
+			buckets[bucket] = i;
+		}
+	}
+
+	private int bucketCountFor(final int itemCount)
+	{
+		if (hashingIdentityStrategy == null || itemCount == 0)
+		{
+			return 1;
+		}
+		return Integer.highestOneBit(itemCount) << 1;
+	}
+
+	private int hashOf(final Object item)
+	{
+		if (hashingIdentityStrategy == null)
+		{
+			return 0;
+		}
+		final int hash = hashingIdentityStrategy.hashCode(item);
+		return hash ^ (hash >>> 16);
+	}
+
+	private int bucketOf(final int hash)
+	{
+		return hash & (buckets.length - 1);
+	}
+
+	/**
+	 * @return <code>true</code> if the index contains an item with the same identity as the given one.
+	 */
+	public boolean contains(final Object needle)
+	{
+		return indexOf(needle) != NO_ITEM;
+	}
+
+	/**
+	 * @return The first indexed item (in iteration order of the indexed collection) with the same identity as the
+	 * given one or <code>null</code> if there is none.
+	 */
+	public Object get(final Object needle)
+	{
+		final int index = indexOf(needle);
+		return index != NO_ITEM ? items[index] : null;
+	}
+
+	/**
+	 * @return The position (in iteration order of the indexed collection) of the first indexed item with the same
+	 * identity as the given one or {@link #NO_ITEM} if there is none.
+	 */
+	public int indexOf(final Object needle)
+	{
+		final int hash = hashOf(needle);
+		for (int i = buckets[bucketOf(hash)]; i != NO_ITEM; i = nextInBucket[i])
+		{
+			if (hashes[i] == hash && identityStrategy.equals(needle, items[i]))
+			{
+				return i;
+			}
+		}
+		return NO_ITEM;
+	}
+
+	/**
+	 * @return <code>true</code> if this index has been built from the given collection instance. The index is a
+	 * snapshot, so it only reflects the collection as it was at the time the index was built.
+	 */
+	public boolean isIndexOf(final Object collection)
+	{
+		return collection == source;
+	}
+
+	public int size()
+	{
+		return items.length;
+	}
+}
@@ -22,12 +22,28 @@ import de.danielbechler.diff.path.NodePath;
 
 public class IdentityService implements IdentityConfigurer, IdentityStrategyResolver
 {
-	private final CollectionItemIdentityService collectionItemIdentityService = new CollectionItemIdentityService(this);
+	private final CollectionItemIdentityService collectionItemIdentityService;
 	private final ObjectDifferBuilder objectDifferBuilder;
 
 	public IdentityService(final ObjectDifferBuilder objectDifferBuilder)
 	{
 		this.objectDifferBuilder = objectDifferBuilder;
+		this.collectionItemIdentityService = new CollectionItemIdentityService(this);
+	}
+
+	private IdentityService(final ObjectDifferBuilder objectDifferBuilder,
+							final CollectionItemIdentityService collectionItemIdentityService)
+	{
+		this.objectDifferBuilder = objectDifferBuilder;
+		this.collectionItemIdentityService = collectionItemIdentityService.snapshot(this);
+	}
+
+	/**
+	 * Creates a copy of the current configuration, that won't be affected by later changes to this one.
+	 */
+	public IdentityService snapshot()
+	{
+		return new IdentityService(objectDifferBuilder, collectionItemIdentityService);
 	}
 
 	public OfCollectionItems ofCollectionItems(final NodePath nodePath)
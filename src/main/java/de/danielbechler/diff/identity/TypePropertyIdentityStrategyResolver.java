@@ -53,6 +53,13 @@ public class TypePropertyIdentityStrategyResolver
 		return false;
 	}
 
+	TypePropertyIdentityStrategyResolver copy()
+	{
+		final TypePropertyIdentityStrategyResolver copy = new TypePropertyIdentityStrategyResolver();
+		copy.strategies.putAll(strategies);
+		return copy;
+	}
+
 	public void setStrategy(final IdentityStrategy identityStrategy, final Class<?> type, final String... properties)
 	{
 		for (final String property : properties)
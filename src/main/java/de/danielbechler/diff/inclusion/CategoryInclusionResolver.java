@@ -74,6 +74,16 @@ class CategoryInclusionResolver implements InclusionResolver
 		return containsIncluded;
 	}
 
+	CategoryInclusionResolver copy(final CategoryResolver categoryResolver)
+	{
+		final CategoryInclusionResolver copy = new CategoryInclusionResolver(categoryResolver);
+		for (final Map.Entry<String, Inclusion> entry : categoryInclusions.entrySet())
+		{
+			copy.setInclusion(entry.getKey(), entry.getValue());
+		}
+		return copy;
+	}
+
 	public void setInclusion(final String category, final Inclusion inclusion)
 	{
 		categoryInclusions.put(category, inclusion);
@@ -55,6 +55,53 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 		inclusionResolvers.add(new TypePropertyAnnotationInclusionResolver());
 	}
 
+	/**
+	 * Creates a copy of the current configuration, that won't be affected by later changes to this one. Custom
+	 * inclusion resolvers are shared with the copy, since there is no way to copy them.
+	 *
+	 * @param categoryResolver The category resolver to be used by the copy.
+	 */
+	public InclusionService snapshot(final CategoryResolver categoryResolver)
+	{
+		final InclusionService snapshot = new InclusionService(categoryResolver, rootConfiguration);
+		snapshot.inclusionResolvers.clear();
+		for (final InclusionResolver inclusionResolver : inclusionResolvers)
+		{
+			snapshot.inclusionResolvers.add(snapshot.copyOf(inclusionResolver, this));
+		}
+		return snapshot;
+	}
+
+	private InclusionResolver copyOf(final InclusionResolver inclusionResolver, final InclusionService original)
+	{
+		if (inclusionResolver == original.typeInclusionResolver)
+		{
+			typeInclusionResolver = original.typeInclusionResolver.copy();
+			return typeInclusionResolver;
+		}
+		if (inclusionResolver == original.typePropertyConfigInclusionResolver)
+		{
+			typePropertyConfigInclusionResolver = original.typePropertyConfigInclusionResolver.copy();
+			return typePropertyConfigInclusionResolver;
+		}
+		if (inclusionResolver == original.categoryInclusionResolver)
+		{
+			categoryInclusionResolver = original.categoryInclusionResolver.copy(categoryResolver);
+			return categoryInclusionResolver;
+		}
+		if (inclusionResolver == original.nodePathInclusionResolver)
+		{
+			nodePathInclusionResolver = original.nodePathInclusionResolver.copy();
+			return nodePathInclusionResolver;
+		}
+		if (inclusionResolver == original.propertyNameInclusionResolver)
+		{
+			propertyNameInclusionResolver = original.propertyNameInclusionResolver.copy();
+			return propertyNameInclusionResolver;
+		}
+		return inclusionResolver;
+	}
+
 	Collection<InclusionResolver> getInclusionResolvers()
 	{
 		return inclusionResolvers;
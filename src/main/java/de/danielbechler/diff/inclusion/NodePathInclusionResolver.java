@@ -25,17 +25,39 @@ import static de.danielbechler.diff.inclusion.Inclusion.INCLUDED;
 
 class NodePathInclusionResolver implements InclusionResolver
 {
-	private final ValueNode<Inclusion> inclusions = new ValueNode<Inclusion>();
+	private final ValueNode<Inclusion> inclusions;
 	private boolean containsIncluded;
 	private boolean containsExcluded;
 
+	NodePathInclusionResolver()
+	{
+		this(new ValueNode<Inclusion>());
+	}
+
+	private NodePathInclusionResolver(final ValueNode<Inclusion> inclusions)
+	{
+		this.inclusions = inclusions;
+	}
+
 	public Inclusion getInclusion(final DiffNode node)
 	{
 		if (isInactive())
 		{
 			return DEFAULT;
 		}
-		return resolveInclusion(inclusions.getNodeForPath(node.getPath()));
+		final NodePath nodePath = node.getPath();
+		final ValueNode<Inclusion> inclusionNode = inclusions.findNodeForPath(nodePath);
+		if (inclusionNode != null)
+		{
+			return resolveInclusion(inclusionNode);
+		}
+		// Paths that haven't been configured can only inherit the inclusion of their closest configured ancestor
+		final ValueNode<Inclusion> ancestorNode = inclusions.findClosestNodeForPath(nodePath);
+		if (ancestorNode.hasValue())
+		{
+			return resolveInclusion(ancestorNode);
+		}
+		return resolveParentInclusion(ancestorNode);
 	}
 
 	public boolean enablesStrictIncludeMode()
@@ -48,6 +70,14 @@ class NodePathInclusionResolver implements InclusionResolver
 		return !containsIncluded && !containsExcluded;
 	}
 
+	NodePathInclusionResolver copy()
+	{
+		final NodePathInclusionResolver copy = new NodePathInclusionResolver(inclusions.copy());
+		copy.containsIncluded = containsIncluded;
+		copy.containsExcluded = containsExcluded;
+		return copy;
+	}
+
 	public void setInclusion(final NodePath nodePath, final Inclusion inclusion)
 	{
 		inclusions.getNodeForPath(nodePath).setValue(inclusion);
@@ -59,6 +59,16 @@ class PropertyNameInclusionResolver implements InclusionResolver
 		return !containsIncluded && !containsExcluded;
 	}
 
+	PropertyNameInclusionResolver copy()
+	{
+		final PropertyNameInclusionResolver copy = new PropertyNameInclusionResolver();
+		for (final Map.Entry<String, Inclusion> entry : propertyNameInclusions.entrySet())
+		{
+			copy.setInclusion(entry.getKey(), entry.getValue());
+		}
+		return copy;
+	}
+
 	public void setInclusion(final String propertyName, final Inclusion inclusion)
 	{
 		propertyNameInclusions.put(propertyName, inclusion);
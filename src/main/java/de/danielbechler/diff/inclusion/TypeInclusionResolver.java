@@ -59,6 +59,16 @@ class TypeInclusionResolver implements InclusionResolver
 		return containsIncluded;
 	}
 
+	TypeInclusionResolver copy()
+	{
+		final TypeInclusionResolver copy = new TypeInclusionResolver();
+		for (final Map.Entry<Class<?>, Inclusion> entry : typeInclusions.entrySet())
+		{
+			copy.setInclusion(entry.getKey(), entry.getValue());
+		}
+		return copy;
+	}
+
 	void setInclusion(final Class<?> type, final Inclusion inclusion)
 	{
 		typeInclusions.put(type, inclusion);
@@ -88,6 +88,13 @@ class TypePropertyConfigInclusionResolver implements InclusionResolver
 		return false;
 	}
 
+	TypePropertyConfigInclusionResolver copy()
+	{
+		final TypePropertyConfigInclusionResolver copy = new TypePropertyConfigInclusionResolver();
+		copy.inclusions.putAll(inclusions);
+		return copy;
+	}
+
 	public void setInclusion(final Class<?> type, final String property, final Inclusion inclusion)
 	{
 		inclusions.put(new PropertyId(type, property), inclusion);
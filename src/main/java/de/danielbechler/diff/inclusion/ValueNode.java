@@ -17,6 +17,7 @@
 package de.danielbechler.diff.inclusion;
 
 import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.diff.selector.CollectionItemElementSelector;
 import de.danielbechler.diff.selector.ElementSelector;
 import de.danielbechler.diff.selector.RootElementSelector;
 
@@ -26,6 +27,10 @@ import java.util.Map;
 
 /**
  * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * The methods that start with <code>get</code> create missing nodes on the fly and are meant to be used while
+ * configuring. Lookups during comparisons must use the <code>find</code> methods instead, which never modify the
+ * tree. Otherwise every path that has ever been compared would end up in the configuration.
  */
 public class ValueNode<V>
 {
@@ -69,15 +74,60 @@ public class ValueNode<V>
 		return parent.getNodeForPath(nodePath);
 	}
 
+	/**
+	 * @return The node for the given path or <code>null</code> if it doesn't exist. Never creates any nodes.
+	 */
+	public ValueNode<V> findNodeForPath(final NodePath nodePath)
+	{
+		final List<ElementSelector> elementSelectors = nodePath.getElementSelectors();
+		ValueNode<V> node = getRoot();
+		for (int i = 1; i < elementSelectors.size() && node != null; i++)
+		{
+			node = node.findChild(elementSelectors.get(i));
+		}
+		return node;
+	}
+
+	/**
+	 * @return The node for the given path or, if it doesn't exist, the closest existing node on the way to it (which
+	 * is the root node at worst). Never creates any nodes.
+	 */
+	public ValueNode<V> findClosestNodeForPath(final NodePath nodePath)
+	{
+		final List<ElementSelector> elementSelectors = nodePath.getElementSelectors();
+		ValueNode<V> node = getRoot();
+		for (int i = 1; i < elementSelectors.size(); i++)
+		{
+			final ValueNode<V> childNode = node.findChild(elementSelectors.get(i));
+			if (childNode == null)
+			{
+				break;
+			}
+			node = childNode;
+		}
+		return node;
+	}
+
+	private ValueNode<V> getRoot()
+	{
+		ValueNode<V> root = this;
+		while (root.parent != null)
+		{
+			root = root.parent;
+		}
+		return root;
+	}
+
 	public ValueNode<V> getChild(final ElementSelector childSelector)
 	{
 		if (childSelector == RootElementSelector.getInstance())
 		{
 			throw new IllegalArgumentException("A child node can never be the root");
 		}
-		if (children.containsKey(childSelector))
+		final ValueNode<V> existingChildNode = findChild(childSelector);
+		if (existingChildNode != null)
 		{
-			return children.get(childSelector);
+			return existingChildNode;
 		}
 		else
 		{
@@ -87,6 +137,14 @@ public class ValueNode<V>
 		}
 	}
 
+	/**
+	 * @return The child for the given selector or <code>null</code> if it doesn't exist. Never creates any nodes.
+	 */
+	public ValueNode<V> findChild(final ElementSelector childSelector)
+	{
+		return CollectionItemElementSelector.findValue(children, childSelector);
+	}
+
 	protected ValueNode<V> newNode(final ElementSelector childSelector)
 	{
 		return new ValueNode<V>(childSelector, this);
@@ -107,7 +165,7 @@ public class ValueNode<V>
 
 	public boolean hasChild(final ElementSelector childSelector)
 	{
-		return children.get(childSelector) != null;
+		return findChild(childSelector) != null;
 	}
 
 	public ValueNode<V> getClosestParentWithValue()
@@ -126,6 +184,26 @@ public class ValueNode<V>
 		return null;
 	}
 
+	/**
+	 * @return A deep copy of this node and its children, that won't be affected by later changes to this one. The copy
+	 * has no parent, so this should only be called on the root node.
+	 */
+	public ValueNode<V> copy()
+	{
+		return copy(null);
+	}
+
+	private ValueNode<V> copy(final ValueNode<V> parentCopy)
+	{
+		final ValueNode<V> copy = parentCopy != null ? parentCopy.newNode(elementSelector) : new ValueNode<V>(elementSelector, null);
+		copy.value = value;
+		for (final Map.Entry<ElementSelector, ValueNode<V>> entry : children.entrySet())
+		{
+			copy.children.put(entry.getKey(), entry.getValue().copy(copy));
+		}
+		return copy;
+	}
+
 	public boolean hasValue()
 	{
 		return value != null;
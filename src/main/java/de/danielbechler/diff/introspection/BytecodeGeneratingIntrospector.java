@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the same properties as the {@link StandardIntrospector}, but generates a small class for each introspected
+ * type, that calls the read and write methods of its properties directly instead of via reflection.
+ * <p/>
+ * Generating these classes is only possible for public types with public accessor methods. All other properties
+ * silently fall back to the regular reflection-based {@link PropertyAccessor}.
+ * <p/>
+ * This introspector is opt-in, because it hasn't shown a reliable advantage over reflection on current JVMs yet (see
+ * the <code>IntrospectorBenchmark</code>). Use it by registering it via {@link
+ * IntrospectionConfigurer#setDefaultIntrospector(Introspector)}.
+ */
+public class BytecodeGeneratingIntrospector extends StandardIntrospector
+{
+	private static final Logger logger = LoggerFactory.getLogger(BytecodeGeneratingIntrospector.class);
+
+	@Override
+	protected List<PropertyAwareAccessor> newPropertyAccessors(final Class<?> type,
+															   final List<PropertyDescriptor> descriptors)
+	{
+		final List<PropertyDescriptor> generatableDescriptors = new ArrayList<PropertyDescriptor>(descriptors.size());
+		for (final PropertyDescriptor descriptor : descriptors)
+		{
+			if (PropertyInvokerGenerator.canGenerate(type, descriptor.getReadMethod(), descriptor.getWriteMethod()))
+			{
+				generatableDescriptors.add(descriptor);
+			}
+		}
+		final PropertyInvoker propertyInvoker = generatePropertyInvoker(type, generatableDescriptors);
+		if (propertyInvoker == null)
+		{
+			return super.newPropertyAccessors(type, descriptors);
+		}
+		final List<PropertyAwareAccessor> accessors = new ArrayList<PropertyAwareAccessor>(descriptors.size());
+		int propertyIndex = 0;
+		for (final PropertyDescriptor descriptor : descriptors)
+		{
+			final String propertyName = descriptor.getName();
+			final Method readMethod = descriptor.getReadMethod();
+			final Method writeMethod = descriptor.getWriteMethod();
+			if (propertyIndex < generatableDescriptors.size() && generatableDescriptors.get(propertyIndex) == descriptor)
+			{
+				accessors.add(new GeneratedPropertyAccessor(propertyName, readMethod, writeMethod, propertyInvoker, propertyIndex));
+				propertyIndex++;
+			}
+			else
+			{
+				accessors.add(new PropertyAccessor(propertyName, readMethod, writeMethod));
+			}
+		}
+		return accessors;
+	}
+
+	/**
+	 * @return The invoker for the given properties or <code>null</code> if there are none or it can't be generated.
+	 */
+	private static PropertyInvoker generatePropertyInvoker(final Class<?> type,
+														   final List<PropertyDescriptor> descriptors)
+	{
+		if (descriptors.isEmpty())
+		{
+			return null;
+		}
+		final Method[] readMethods = new Method[descriptors.size()];
+		final Method[] writeMethods = new Method[descriptors.size()];
+		for (int i = 0; i < descriptors.size(); i++)
+		{
+			readMethods[i] = descriptors.get(i).getReadMethod();
+			writeMethods[i] = descriptors.get(i).getWriteMethod();
+		}
+		try
+		{
+			return PropertyInvokerGenerator.generate(type, readMethods, writeMethods);
+		}
+		catch (final RuntimeException e)
+		{
+			logger.debug("Failed to generate property accessors for type {}", type, e);
+		}
+		catch (final LinkageError e)
+		{
+			logger.debug("Failed to generate property accessors for type {}", type, e);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.util.Assert;
+
+import java.lang.reflect.Method;
+
+/**
+ * A {@link PropertyAccessor} that reads and writes property values via a generated {@link PropertyInvoker}
+ * instead of {@link Method#invoke(Object, Object...)}. Everything else, like the annotation and category
+ * handling, is the same as for the reflective accessor.
+ */
+class GeneratedPropertyAccessor extends PropertyAccessor
+{
+	private final PropertyInvoker propertyInvoker;
+	private final int propertyIndex;
+
+	/**
+	 * @param propertyInvoker The invoker generated for the type declaring this property.
+	 * @param propertyIndex   The index of this property in the given invoker.
+	 */
+	GeneratedPropertyAccessor(final String propertyName,
+							  final Method readMethod,
+							  final Method writeMethod,
+							  final PropertyInvoker propertyInvoker,
+							  final int propertyIndex)
+	{
+		super(propertyName, readMethod, writeMethod);
+		Assert.notNull(propertyInvoker, "propertyInvoker");
+		this.propertyInvoker = propertyInvoker;
+		this.propertyIndex = propertyIndex;
+	}
+
+	@Override
+	protected Object readValue(final Object target)
+	{
+		return propertyInvoker.get(propertyIndex, target);
+	}
+
+	@Override
+	protected void writeValue(final Object target, final Object value)
+	{
+		propertyInvoker.set(propertyIndex, target, value);
+	}
+}
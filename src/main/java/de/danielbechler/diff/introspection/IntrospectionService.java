@@ -28,6 +28,8 @@ import de.danielbechler.util.Classes;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Daniel Bechler
@@ -36,8 +38,9 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 {
 	private final Map<Class<?>, Introspector> typeIntrospectorMap = new HashMap<Class<?>, Introspector>();
 	private final Map<Class<?>, IntrospectionMode> typeIntrospectionModeMap = new HashMap<Class<?>, IntrospectionMode>();
-	private final NodePathValueHolder<Introspector> nodePathIntrospectorHolder = new NodePathValueHolder<Introspector>();
-	private final NodePathValueHolder<IntrospectionMode> nodePathIntrospectionModeHolder = new NodePathValueHolder<IntrospectionMode>();
+	private NodePathValueHolder<Introspector> nodePathIntrospectorHolder = new NodePathValueHolder<Introspector>();
+	private NodePathValueHolder<IntrospectionMode> nodePathIntrospectionModeHolder = new NodePathValueHolder<IntrospectionMode>();
+	private final ConcurrentMap<Class<?>, Boolean> typeIntrospectability = new ConcurrentHashMap<Class<?>, Boolean>();
 	private final ObjectDifferBuilder objectDifferBuilder;
 	private Introspector defaultIntrospector;
 	private InstanceFactory instanceFactory = new PublicNoArgsConstructorInstanceFactory();
@@ -48,6 +51,22 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 		this.objectDifferBuilder = objectDifferBuilder;
 	}
 
+	/**
+	 * Creates a copy of the current configuration, that won't be affected by later changes to this one.
+	 */
+	public IntrospectionService snapshot()
+	{
+		final IntrospectionService snapshot = new IntrospectionService(objectDifferBuilder);
+		snapshot.typeIntrospectorMap.putAll(typeIntrospectorMap);
+		snapshot.typeIntrospectionModeMap.putAll(typeIntrospectionModeMap);
+		snapshot.nodePathIntrospectorHolder = nodePathIntrospectorHolder.copy();
+		snapshot.nodePathIntrospectionModeHolder = nodePathIntrospectionModeHolder.copy();
+		snapshot.defaultIntrospector = getDefaultIntrospector();
+		snapshot.instanceFactory = instanceFactory;
+		snapshot.defaultPropertyAccessExceptionHandler = defaultPropertyAccessExceptionHandler;
+		return snapshot;
+	}
+
 	public boolean isIntrospectable(final DiffNode node)
 	{
 		final Class<?> nodeType = node.getValueType();
@@ -55,19 +74,28 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 		{
 			return false;
 		}
-		else if (isPrimitiveTypeEnumOrArray(nodeType))
+		else if (!isIntrospectableType(nodeType))
 		{
 			return false;
 		}
-		else if (nodePathIntrospectionModeHolder.valueForNodePath(node.getPath()) == IntrospectionMode.DISABLED)
+		else if (!nodePathIntrospectionModeHolder.isEmpty()
+				&& nodePathIntrospectionModeHolder.valueForNodePath(node.getPath()) == IntrospectionMode.DISABLED)
 		{
 			return false;
 		}
-		else if (typeIntrospectionModeMap.get(nodeType) == IntrospectionMode.DISABLED)
+		return true;
+	}
+
+	private boolean isIntrospectableType(final Class<?> nodeType)
+	{
+		Boolean introspectable = typeIntrospectability.get(nodeType);
+		if (introspectable == null)
 		{
-			return false;
+			introspectable = !isPrimitiveTypeEnumOrArray(nodeType)
+					&& typeIntrospectionModeMap.get(nodeType) != IntrospectionMode.DISABLED;
+			typeIntrospectability.putIfAbsent(nodeType, introspectable);
 		}
-		return true;
+		return introspectable;
 	}
 
 	private static boolean isPrimitiveTypeEnumOrArray(final Class<?> nodeType)
@@ -87,11 +115,26 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 	{
 		final Class<?> beanType = node.getValueType();
 		final Introspector introspector = introspectorForNode(node);
+		return introspect(beanType, introspector);
+	}
+
+	TypeInfo introspect(final Class<?> beanType, final Introspector introspector)
+	{
 		final TypeInfo typeInfo = introspector.introspect(beanType);
 		typeInfo.setInstanceFactory(instanceFactory);
 		return typeInfo;
 	}
 
+	/**
+	 * Creates a new cache for the type information resolved by this service. Every {@link
+	 * de.danielbechler.diff.ObjectDiffer} gets its own cache, so the introspection of a type only happens once per
+	 * differ.
+	 */
+	public TypeInfoCache newTypeInfoCache()
+	{
+		return new TypeInfoCache(this);
+	}
+
 	public Introspector introspectorForNode(final DiffNode node)
 	{
 		final Introspector typeIntrospector = typeIntrospectorMap.get(node.getValueType());
@@ -100,12 +143,33 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 			return typeIntrospector;
 		}
 
-		final Introspector nodePathIntrospector = nodePathIntrospectorHolder.valueForNodePath(node.getPath());
-		if (nodePathIntrospector != null)
+		if (!nodePathIntrospectorHolder.isEmpty())
 		{
-			return nodePathIntrospector;
+			final Introspector nodePathIntrospector = nodePathIntrospectorHolder.valueForNodePath(node.getPath());
+			if (nodePathIntrospector != null)
+			{
+				return nodePathIntrospector;
+			}
 		}
 
+		return getDefaultIntrospector();
+	}
+
+	/**
+	 * Resolves the introspector for the given type without taking node paths into account.
+	 */
+	Introspector introspectorForType(final Class<?> type)
+	{
+		final Introspector typeIntrospector = typeIntrospectorMap.get(type);
+		if (typeIntrospector != null)
+		{
+			return typeIntrospector;
+		}
+		return getDefaultIntrospector();
+	}
+
+	private Introspector getDefaultIntrospector()
+	{
 		if (defaultIntrospector == null)
 		{
 			defaultIntrospector = new StandardIntrospector();
@@ -147,12 +211,14 @@ public class IntrospectionService implements IntrospectionConfigurer, IsIntrospe
 			public IntrospectionConfigurer toBeEnabled()
 			{
 				typeIntrospectionModeMap.put(type, IntrospectionMode.ENABLED);
+				typeIntrospectability.clear();
 				return IntrospectionService.this;
 			}
 
 			public IntrospectionConfigurer toBeDisabled()
 			{
 				typeIntrospectionModeMap.put(type, IntrospectionMode.DISABLED);
+				typeIntrospectability.clear();
 				return IntrospectionService.this;
 			}
 		};
@@ -146,10 +146,8 @@ public class PropertyAccessor implements PropertyAwareAccessor
 
 	public <T extends Annotation> T getReadMethodAnnotation(final Class<T> annotationClass)
 	{
-		final Set<? extends Annotation> annotations = getReadMethodAnnotations();
-		assert (annotations != null) : "Something is wrong here. " +
-				"The contract of getReadAnnotations() guarantees a non-null return value.";
-		for (final Annotation annotation : annotations)
+		// this gets called for every sibling of every compared property, so the annotations aren't copied into a set
+		for (final Annotation annotation : readMethod.getAnnotations())
 		{
 			if (annotationClass.isAssignableFrom(annotation.annotationType()))
 			{
@@ -172,7 +170,7 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		}
 		try
 		{
-			return readMethod.invoke(target);
+			return readValue(target);
 		}
 		catch (final Exception cause)
 		{
@@ -180,6 +178,25 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		}
 	}
 
+	/**
+	 * Reads the property value from the given (non-null) target. Subclasses may override this to avoid the
+	 * reflective invocation of the read method.
+	 */
+	protected Object readValue(final Object target) throws Exception
+	{
+		return readMethod.invoke(target);
+	}
+
+	/**
+	 * Writes the given value to the property of the given (non-null) target. This will only be called when the
+	 * property has a write method. Subclasses may override this to avoid the reflective invocation of the write
+	 * method.
+	 */
+	protected void writeValue(final Object target, final Object value) throws Exception
+	{
+		writeMethod.invoke(target, value);
+	}
+
 	public void set(final Object target, final Object value)
 	{
 		if (target == null)
@@ -227,7 +244,7 @@ public class PropertyAccessor implements PropertyAwareAccessor
 	{
 		try
 		{
-			writeMethod.invoke(target, value);
+			writeValue(target, value);
 		}
 		catch (final Exception cause)
 		{
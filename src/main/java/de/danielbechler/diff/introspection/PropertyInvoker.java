@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+/**
+ * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
+ * <p/>
+ * Implemented by the classes generated by the {@link PropertyInvokerGenerator} to call the read and write methods
+ * of the properties of a bean type directly instead of via reflection. There is one class per bean type, which
+ * identifies the properties by index. It needs to be public, because the generated classes live in their own class
+ * loader.
+ */
+public interface PropertyInvoker
+{
+	Object get(int property, Object target);
+
+	void set(int property, Object target, Object value);
+}
@@ -0,0 +1,638 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.util.Assert;
+import de.danielbechler.util.Exceptions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates {@link PropertyInvoker} implementations, that call the read and write methods of the properties of a
+ * bean type directly.
+ * <p/>
+ * The generated classes are written in the Java 5 class file format, which doesn't require stack map frames and
+ * therefore keeps this generator small enough to get along without a bytecode library. They are equivalent to the
+ * following Java code (with boxing and unboxing for primitive properties):
+ * <pre>
+ * public final class GeneratedPropertyInvoker$1 implements PropertyInvoker
+ * {
+ *     public Object get(int property, Object target)
+ *     {
+ *         switch (property)
+ *         {
+ *             case 0: return ((Bean) target).getValue();
+ *             case 1: return ((Bean) target).getOtherValue();
+ *             default: throw new IllegalArgumentException();
+ *         }
+ *     }
+ *
+ *     public void set(int property, Object target, Object value)
+ *     {
+ *         switch (property)
+ *         {
+ *             case 0: ((Bean) target).setValue((Value) value); return;
+ *             case 1: throw new UnsupportedOperationException();
+ *             default: throw new IllegalArgumentException();
+ *         }
+ *     }
+ * }
+ * </pre>
+ * All classes generated for the types of the same class loader share one class loader, which can be garbage
+ * collected together with the accessors using them.
+ */
+final class PropertyInvokerGenerator
+{
+	private static final String INVOKER_CLASS_NAME_PREFIX = PropertyInvoker.class.getPackage().getName() + ".GeneratedPropertyInvoker$";
+	private static final AtomicInteger invokerClassCounter = new AtomicInteger();
+	/**
+	 * The class loaders only reference the class loaders of the bean types as their parents, so the bean types can
+	 * still be unloaded. They are weakly referenced here, since they are kept alive by the classes they define.
+	 */
+	private static final Map<ClassLoader, WeakReference<InvokerClassLoader>> invokerClassLoaders = new WeakHashMap<ClassLoader, WeakReference<InvokerClassLoader>>();
+
+	private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+	private static final int CLASS_FILE_VERSION_JAVA_5 = 49;
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_METHOD_REF = 10;
+	private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private static final int ILOAD_1 = 0x1b;
+	private static final int ALOAD_0 = 0x2a;
+	private static final int ALOAD_2 = 0x2c;
+	private static final int ALOAD_3 = 0x2d;
+	private static final int POP = 0x57;
+	private static final int POP2 = 0x58;
+	private static final int DUP = 0x59;
+	private static final int TABLESWITCH = 0xaa;
+	private static final int ARETURN = 0xb0;
+	private static final int RETURN = 0xb1;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKESPECIAL = 0xb7;
+	private static final int INVOKESTATIC = 0xb8;
+	private static final int INVOKEINTERFACE = 0xb9;
+	private static final int NEW = 0xbb;
+	private static final int ATHROW = 0xbf;
+	private static final int CHECKCAST = 0xc0;
+
+	private PropertyInvokerGenerator()
+	{
+	}
+
+	/**
+	 * @return <code>true</code> if the generated class would be allowed to access the given type and methods.
+	 */
+	static boolean canGenerate(final Class<?> type, final Method readMethod, final Method writeMethod)
+	{
+		if (type.getClassLoader() == null || !isAccessible(type) || !isAccessible(readMethod))
+		{
+			return false;
+		}
+		if (writeMethod != null)
+		{
+			final Class<?> parameterType = writeMethod.getParameterTypes()[0];
+			return isAccessible(writeMethod) && (parameterType.isPrimitive() || isAccessible(parameterType));
+		}
+		return true;
+	}
+
+	private static boolean isAccessible(final Class<?> type)
+	{
+		Class<?> componentType = type;
+		while (componentType.isArray())
+		{
+			componentType = componentType.getComponentType();
+		}
+		return componentType.isPrimitive() || Modifier.isPublic(componentType.getModifiers());
+	}
+
+	private static boolean isAccessible(final Method method)
+	{
+		return Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers());
+	}
+
+	/**
+	 * Generates a single invoker for all the given properties of the given type. The properties are identified by
+	 * their index in the given arrays.
+	 *
+	 * @param readMethods  The read methods of the properties. None of them may be <code>null</code>.
+	 * @param writeMethods The write methods of the properties, containing <code>null</code> for read-only ones.
+	 */
+	static PropertyInvoker generate(final Class<?> type, final Method[] readMethods, final Method[] writeMethods)
+	{
+		Assert.notNull(type, "type");
+		Assert.notNull(readMethods, "readMethods");
+		Assert.notNull(writeMethods, "writeMethods");
+		if (readMethods.length == 0 || readMethods.length != writeMethods.length)
+		{
+			throw new IllegalArgumentException("Expected at least one read method and as many write methods as read methods");
+		}
+		final String className = INVOKER_CLASS_NAME_PREFIX + invokerClassCounter.incrementAndGet();
+		final byte[] classFile = new ClassFileWriter(className, type, readMethods, writeMethods).toByteArray();
+		final InvokerClassLoader classLoader = invokerClassLoaderFor(type.getClassLoader());
+		try
+		{
+			return (PropertyInvoker) classLoader.define(className, classFile).newInstance();
+		}
+		catch (final InstantiationException e)
+		{
+			throw Exceptions.escalate(e);
+		}
+		catch (final IllegalAccessException e)
+		{
+			throw Exceptions.escalate(e);
+		}
+	}
+
+	private static synchronized InvokerClassLoader invokerClassLoaderFor(final ClassLoader parent)
+	{
+		final WeakReference<InvokerClassLoader> reference = invokerClassLoaders.get(parent);
+		final InvokerClassLoader cachedClassLoader = reference != null ? reference.get() : null;
+		if (cachedClassLoader != null)
+		{
+			return cachedClassLoader;
+		}
+		final InvokerClassLoader classLoader = new InvokerClassLoader(parent);
+		invokerClassLoaders.put(parent, new WeakReference<InvokerClassLoader>(classLoader));
+		return classLoader;
+	}
+
+	private static String internalNameOf(final Class<?> type)
+	{
+		return type.getName().replace('.', '/');
+	}
+
+	private static String descriptorOf(final Class<?> type)
+	{
+		if (type.isArray())
+		{
+			return internalNameOf(type);
+		}
+		if (type.isPrimitive())
+		{
+			return String.valueOf(Primitive.of(type).descriptor);
+		}
+		return 'L' + internalNameOf(type) + ';';
+	}
+
+	private static String descriptorOf(final Method method)
+	{
+		final StringBuilder sb = new StringBuilder("(");
+		for (final Class<?> parameterType : method.getParameterTypes())
+		{
+			sb.append(descriptorOf(parameterType));
+		}
+		return sb.append(')').append(descriptorOf(method.getReturnType())).toString();
+	}
+
+	private static int slotsOf(final Class<?> type)
+	{
+		return type == long.class || type == double.class ? 2 : 1;
+	}
+
+	private enum Primitive
+	{
+		BOOLEAN(boolean.class, Boolean.class, 'Z'),
+		BYTE(byte.class, Byte.class, 'B'),
+		CHAR(char.class, Character.class, 'C'),
+		SHORT(short.class, Short.class, 'S'),
+		INT(int.class, Integer.class, 'I'),
+		LONG(long.class, Long.class, 'J'),
+		FLOAT(float.class, Float.class, 'F'),
+		DOUBLE(double.class, Double.class, 'D'),
+		VOID(void.class, Void.class, 'V');
+
+		private final Class<?> type;
+		private final Class<?> wrapperType;
+		private final char descriptor;
+
+		Primitive(final Class<?> type, final Class<?> wrapperType, final char descriptor)
+		{
+			this.type = type;
+			this.wrapperType = wrapperType;
+			this.descriptor = descriptor;
+		}
+
+		static Primitive of(final Class<?> type)
+		{
+			for (final Primitive primitive : values())
+			{
+				if (primitive.type == type)
+				{
+					return primitive;
+				}
+			}
+			throw new IllegalArgumentException("Not a primitive type: " + type);
+		}
+	}
+
+	private static final class InvokerClassLoader extends ClassLoader
+	{
+		private InvokerClassLoader(final ClassLoader parent)
+		{
+			super(parent);
+		}
+
+		/**
+		 * The class loader of the bean doesn't necessarily know about this library, so the {@link PropertyInvoker}
+		 * interface must be resolved to the one the generated class is supposed to implement.
+		 */
+		@Override
+		protected synchronized Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException
+		{
+			if (PropertyInvoker.class.getName().equals(name))
+			{
+				return PropertyInvoker.class;
+			}
+			return super.loadClass(name, resolve);
+		}
+
+		private synchronized Class<?> define(final String className, final byte[] classFile)
+		{
+			return defineClass(className, classFile, 0, classFile.length);
+		}
+	}
+
+	private static final class ClassFileWriter
+	{
+		private final ByteArrayOutputStream constantPoolBytes = new ByteArrayOutputStream();
+		private final DataOutputStream constantPool = new DataOutputStream(constantPoolBytes);
+		private final Map<String, Integer> constantIndexes = new HashMap<String, Integer>();
+		private int constantCount = 1;
+
+		private final String className;
+		private final Class<?> type;
+		private final Method[] readMethods;
+		private final Method[] writeMethods;
+
+		private ClassFileWriter(final String className,
+								final Class<?> type,
+								final Method[] readMethods,
+								final Method[] writeMethods)
+		{
+			this.className = className;
+			this.type = type;
+			this.readMethods = readMethods;
+			this.writeMethods = writeMethods;
+		}
+
+		byte[] toByteArray()
+		{
+			try
+			{
+				return write();
+			}
+			catch (final IOException e)
+			{
+				// can't happen when writing to a byte array
+				throw Exceptions.escalate(e);
+			}
+		}
+
+		private byte[] write() throws IOException
+		{
+			final int thisClass = classConstant(className.replace('.', '/'));
+			final int superClass = classConstant("java/lang/Object");
+			final int invokerInterface = classConstant(internalNameOf(PropertyInvoker.class));
+			final byte[] constructor = method("<init>", "()V", 1, 1, constructorCode());
+			final byte[] getter = method("get", "(ILjava/lang/Object;)Ljava/lang/Object;", 2, 3, getterCode());
+			final byte[] setter = method("set", "(ILjava/lang/Object;Ljava/lang/Object;)V", 3, 4, setterCode());
+
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(CLASS_FILE_MAGIC);
+			out.writeShort(0);
+			out.writeShort(CLASS_FILE_VERSION_JAVA_5);
+			out.writeShort(constantCount);
+			constantPool.flush();
+			constantPoolBytes.writeTo(out);
+			out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(1);
+			out.writeShort(invokerInterface);
+			out.writeShort(0); // fields
+			out.writeShort(3);
+			out.write(constructor);
+			out.write(getter);
+			out.write(setter);
+			out.writeShort(0); // attributes
+			out.flush();
+			return bytes.toByteArray();
+		}
+
+		private byte[] constructorCode() throws IOException
+		{
+			final Code code = new Code();
+			code.op(ALOAD_0);
+			code.op(INVOKESPECIAL).u2(methodConstant(CONSTANT_METHOD_REF, "java/lang/Object", "<init>", "()V"));
+			code.op(RETURN);
+			return code.toByteArray();
+		}
+
+		private byte[] getterCode() throws IOException
+		{
+			final Code[] cases = new Code[readMethods.length];
+			for (int i = 0; i < readMethods.length; i++)
+			{
+				cases[i] = getterCaseCode(readMethods[i]);
+			}
+			return switchCode(cases, throwCode("java/lang/IllegalArgumentException"));
+		}
+
+		private Code getterCaseCode(final Method readMethod) throws IOException
+		{
+			final Code code = new Code();
+			code.op(ALOAD_2);
+			code.op(CHECKCAST).u2(classConstant(internalNameOf(type)));
+			invoke(code, readMethod);
+			final Class<?> returnType = readMethod.getReturnType();
+			if (returnType.isPrimitive())
+			{
+				final Primitive primitive = Primitive.of(returnType);
+				final String wrapperType = internalNameOf(primitive.wrapperType);
+				final String descriptor = "(" + primitive.descriptor + ")L" + wrapperType + ";";
+				code.op(INVOKESTATIC).u2(methodConstant(CONSTANT_METHOD_REF, wrapperType, "valueOf", descriptor));
+			}
+			code.op(ARETURN);
+			return code;
+		}
+
+		private byte[] setterCode() throws IOException
+		{
+			final Code[] cases = new Code[writeMethods.length];
+			for (int i = 0; i < writeMethods.length; i++)
+			{
+				if (writeMethods[i] != null)
+				{
+					cases[i] = setterCaseCode(writeMethods[i]);
+				}
+				else
+				{
+					cases[i] = throwCode("java/lang/UnsupportedOperationException");
+				}
+			}
+			return switchCode(cases, throwCode("java/lang/IllegalArgumentException"));
+		}
+
+		private Code setterCaseCode(final Method writeMethod) throws IOException
+		{
+			final Code code = new Code();
+			code.op(ALOAD_2);
+			code.op(CHECKCAST).u2(classConstant(internalNameOf(type)));
+			code.op(ALOAD_3);
+			final Class<?> parameterType = writeMethod.getParameterTypes()[0];
+			if (parameterType.isPrimitive())
+			{
+				final Primitive primitive = Primitive.of(parameterType);
+				final String wrapperType = internalNameOf(primitive.wrapperType);
+				final String descriptor = "()" + primitive.descriptor;
+				code.op(CHECKCAST).u2(classConstant(wrapperType));
+				code.op(INVOKEVIRTUAL).u2(methodConstant(CONSTANT_METHOD_REF, wrapperType, parameterType.getName() + "Value", descriptor));
+			}
+			else if (parameterType != Object.class)
+			{
+				code.op(CHECKCAST).u2(classConstant(internalNameOf(parameterType)));
+			}
+			invoke(code, writeMethod);
+			final Class<?> returnType = writeMethod.getReturnType();
+			if (returnType != void.class)
+			{
+				code.op(slotsOf(returnType) == 2 ? POP2 : POP);
+			}
+			code.op(RETURN);
+			return code;
+		}
+
+		private Code throwCode(final String exceptionType) throws IOException
+		{
+			final Code code = new Code();
+			code.op(NEW).u2(classConstant(exceptionType));
+			code.op(DUP);
+			code.op(INVOKESPECIAL).u2(methodConstant(CONSTANT_METHOD_REF, exceptionType, "<init>", "()V"));
+			code.op(ATHROW);
+			return code;
+		}
+
+		/**
+		 * Jumps to the case whose index is passed as first argument of the method. The jump offsets of a
+		 * <code>tableswitch</code> are relative to its opcode and its operands must start at a multiple of four.
+		 */
+		private static byte[] switchCode(final Code[] cases, final Code defaultCase)
+		{
+			final int switchOffset = 1;
+			final int padding = 3 - switchOffset % 4;
+			final int casesOffset = switchOffset + 1 + padding + 12 + 4 * cases.length;
+			final Code code = new Code();
+			code.op(ILOAD_1);
+			code.op(TABLESWITCH);
+			for (int i = 0; i < padding; i++)
+			{
+				code.op(0);
+			}
+			int caseOffset = casesOffset;
+			for (final Code caseCode : cases)
+			{
+				caseOffset += caseCode.size();
+			}
+			code.s4(caseOffset - switchOffset);
+			code.s4(0);
+			code.s4(cases.length - 1);
+			caseOffset = casesOffset;
+			for (final Code caseCode : cases)
+			{
+				code.s4(caseOffset - switchOffset);
+				caseOffset += caseCode.size();
+			}
+			for (final Code caseCode : cases)
+			{
+				code.append(caseCode);
+			}
+			code.append(defaultCase);
+			return code.toByteArray();
+		}
+
+		private void invoke(final Code code, final Method method) throws IOException
+		{
+			final String owner = internalNameOf(type);
+			final String descriptor = descriptorOf(method);
+			if (type.isInterface())
+			{
+				int argumentSlots = 1;
+				for (final Class<?> parameterType : method.getParameterTypes())
+				{
+					argumentSlots += slotsOf(parameterType);
+				}
+				code.op(INVOKEINTERFACE).u2(methodConstant(CONSTANT_INTERFACE_METHOD_REF, owner, method.getName(), descriptor));
+				code.op(argumentSlots).op(0);
+			}
+			else
+			{
+				code.op(INVOKEVIRTUAL).u2(methodConstant(CONSTANT_METHOD_REF, owner, method.getName(), descriptor));
+			}
+		}
+
+		private byte[] method(final String name,
+							  final String descriptor,
+							  final int maxStack,
+							  final int maxLocals,
+							  final byte[] code) throws IOException
+		{
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final DataOutputStream out = new DataOutputStream(bytes);
+			out.writeShort(ACC_PUBLIC);
+			out.writeShort(utf8Constant(name));
+			out.writeShort(utf8Constant(descriptor));
+			out.writeShort(1);
+			out.writeShort(utf8Constant("Code"));
+			out.writeInt(12 + code.length);
+			// long and double values as well as setters returning them need an extra slot on the stack
+			out.writeShort(maxStack + 1);
+			out.writeShort(maxLocals);
+			out.writeInt(code.length);
+			out.write(code);
+			out.writeShort(0); // exception table
+			out.writeShort(0); // attributes
+			out.flush();
+			return bytes.toByteArray();
+		}
+
+		private int utf8Constant(final String value) throws IOException
+		{
+			final String key = "utf8:" + value;
+			final Integer index = constantIndexes.get(key);
+			if (index != null)
+			{
+				return index;
+			}
+			constantPool.writeByte(CONSTANT_UTF8);
+			constantPool.writeUTF(value);
+			return register(key);
+		}
+
+		private int classConstant(final String internalName) throws IOException
+		{
+			final String key = "class:" + internalName;
+			final Integer index = constantIndexes.get(key);
+			if (index != null)
+			{
+				return index;
+			}
+			final int nameIndex = utf8Constant(internalName);
+			constantPool.writeByte(CONSTANT_CLASS);
+			constantPool.writeShort(nameIndex);
+			return register(key);
+		}
+
+		private int methodConstant(final int tag,
+								   final String owner,
+								   final String name,
+								   final String descriptor) throws IOException
+		{
+			final String key = "method:" + tag + ':' + owner + '.' + name + descriptor;
+			final Integer index = constantIndexes.get(key);
+			if (index != null)
+			{
+				return index;
+			}
+			final int ownerIndex = classConstant(owner);
+			final int nameAndTypeIndex = nameAndTypeConstant(name, descriptor);
+			constantPool.writeByte(tag);
+			constantPool.writeShort(ownerIndex);
+			constantPool.writeShort(nameAndTypeIndex);
+			return register(key);
+		}
+
+		private int nameAndTypeConstant(final String name, final String descriptor) throws IOException
+		{
+			final String key = "nameAndType:" + name + descriptor;
+			final Integer index = constantIndexes.get(key);
+			if (index != null)
+			{
+				return index;
+			}
+			final int nameIndex = utf8Constant(name);
+			final int descriptorIndex = utf8Constant(descriptor);
+			constantPool.writeByte(CONSTANT_NAME_AND_TYPE);
+			constantPool.writeShort(nameIndex);
+			constantPool.writeShort(descriptorIndex);
+			return register(key);
+		}
+
+		private int register(final String key)
+		{
+			final int index = constantCount++;
+			constantIndexes.put(key, index);
+			return index;
+		}
+	}
+
+	private static final class Code
+	{
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		Code op(final int opcode)
+		{
+			bytes.write(opcode);
+			return this;
+		}
+
+		Code u2(final int value)
+		{
+			bytes.write(value >>> 8);
+			bytes.write(value);
+			return this;
+		}
+
+		Code s4(final int value)
+		{
+			return u2(value >>> 16).u2(value & 0xffff);
+		}
+
+		Code append(final Code code)
+		{
+			final byte[] codeBytes = code.toByteArray();
+			bytes.write(codeBytes, 0, codeBytes.length);
+			return this;
+		}
+
+		int size()
+		{
+			return bytes.size();
+		}
+
+		byte[] toByteArray()
+		{
+			return bytes.toByteArray();
+		}
+	}
+}
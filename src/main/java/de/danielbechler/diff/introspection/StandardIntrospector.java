@@ -26,6 +26,8 @@ import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Resolves the accessors of a given type by using the standard Java {@link Introspector}.
@@ -50,20 +52,40 @@ public class StandardIntrospector implements de.danielbechler.diff.introspection
 	private TypeInfo internalIntrospect(final Class<?> type) throws IntrospectionException
 	{
 		final TypeInfo typeInfo = new TypeInfo(type);
-		final PropertyDescriptor[] descriptors = getBeanInfo(type).getPropertyDescriptors();
-		for (final PropertyDescriptor descriptor : descriptors)
+		final List<PropertyDescriptor> descriptors = new ArrayList<PropertyDescriptor>();
+		for (final PropertyDescriptor descriptor : getBeanInfo(type).getPropertyDescriptors())
 		{
-			if (shouldSkip(descriptor))
+			if (!shouldSkip(descriptor))
 			{
-				continue;
+				descriptors.add(descriptor);
 			}
+		}
+		for (final PropertyAwareAccessor accessor : newPropertyAccessors(type, descriptors))
+		{
+			typeInfo.addPropertyAccessor(accessor);
+		}
+		return typeInfo;
+	}
+
+	/**
+	 * Creates the accessors for the properties of the given type.
+	 *
+	 * @param type        The introspected type.
+	 * @param descriptors The properties of the type. All of them have a read method.
+	 * @return One accessor per property, in the same order.
+	 */
+	protected List<PropertyAwareAccessor> newPropertyAccessors(final Class<?> type,
+															   final List<PropertyDescriptor> descriptors)
+	{
+		final List<PropertyAwareAccessor> accessors = new ArrayList<PropertyAwareAccessor>(descriptors.size());
+		for (final PropertyDescriptor descriptor : descriptors)
+		{
 			final String propertyName = descriptor.getName();
 			final Method readMethod = descriptor.getReadMethod();
 			final Method writeMethod = descriptor.getWriteMethod();
-			final PropertyAwareAccessor accessor = new PropertyAccessor(propertyName, readMethod, writeMethod);
-			typeInfo.addPropertyAccessor(accessor);
+			accessors.add(new PropertyAccessor(propertyName, readMethod, writeMethod));
 		}
-		return typeInfo;
+		return accessors;
 	}
 
 	protected BeanInfo getBeanInfo(final Class<?> type) throws IntrospectionException
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe cache for the {@link TypeInfo} of introspected types. The introspection of a type (e.g. via {@link
+ * java.beans.Introspector}) is expensive, but its result never changes. So as long as the same {@link Introspector} is
+ * responsible for a type, it only needs to be introspected once.
+ */
+public class TypeInfoCache implements TypeInfoResolver
+{
+	private final ConcurrentMap<CacheKey, TypeInfo> typeInfos = new ConcurrentHashMap<CacheKey, TypeInfo>();
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final IntrospectionService introspectionService;
+
+	TypeInfoCache(final IntrospectionService introspectionService)
+	{
+		Assert.notNull(introspectionService, "introspectionService");
+		this.introspectionService = introspectionService;
+	}
+
+	public TypeInfo typeInfoForNode(final DiffNode node)
+	{
+		final Class<?> beanType = node.getValueType();
+		final Introspector introspector = introspectionService.introspectorForNode(node);
+		return typeInfoFor(beanType, introspector);
+	}
+
+	/**
+	 * Introspects the given types upfront, so the first comparisons involving them don't have to. Introspectors that
+	 * have been configured for specific node paths are not taken into account, since there is no node to resolve
+	 * them for. Types handled that way will still be introspected when they are first encountered.
+	 *
+	 * @param types The types to introspect.
+	 */
+	public void prewarm(final Class<?>... types)
+	{
+		for (final Class<?> type : types)
+		{
+			Assert.notNull(type, "type");
+		}
+		for (final Class<?> type : types)
+		{
+			typeInfoFor(type, introspectionService.introspectorForType(type));
+		}
+	}
+
+	private TypeInfo typeInfoFor(final Class<?> beanType, final Introspector introspector)
+	{
+		final CacheKey cacheKey = new CacheKey(beanType, introspector);
+		final TypeInfo cachedTypeInfo = typeInfos.get(cacheKey);
+		if (cachedTypeInfo != null)
+		{
+			hitCount.incrementAndGet();
+			return cachedTypeInfo;
+		}
+		missCount.incrementAndGet();
+		final TypeInfo typeInfo = introspectionService.introspect(beanType, introspector);
+		final TypeInfo concurrentlyCachedTypeInfo = typeInfos.putIfAbsent(cacheKey, typeInfo);
+		return concurrentlyCachedTypeInfo != null ? concurrentlyCachedTypeInfo : typeInfo;
+	}
+
+	/**
+	 * @return The number of lookups that could be served from the cache.
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	/**
+	 * @return The number of lookups that required an actual introspection.
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	/**
+	 * @return The number of cached types.
+	 */
+	public int size()
+	{
+		return typeInfos.size();
+	}
+
+	private static final class CacheKey
+	{
+		private final Class<?> type;
+		private final Introspector introspector;
+
+		private CacheKey(final Class<?> type, final Introspector introspector)
+		{
+			Assert.notNull(type, "type");
+			Assert.notNull(introspector, "introspector");
+			this.type = type;
+			this.introspector = introspector;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * type.hashCode() + System.identityHashCode(introspector);
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (o == null || getClass() != o.getClass())
+			{
+				return false;
+			}
+			final CacheKey that = (CacheKey) o;
+			return type == that.type && introspector == that.introspector;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Interns the category sets of {@link DiffNode DiffNodes}. There are usually only a handful of distinct combinations
+ * of categories, so all nodes in the same categories share one immutable set.
+ * <p/>
+ * The pool is shared by all nodes of the JVM, but categories can also be added at will via {@link
+ * DiffNode#addCategories(Collection)} or custom {@link de.danielbechler.diff.category.CategoryResolver
+ * CategoryResolvers}. So it only keeps the first {@link #MAX_INTERNED_SETS} combinations. Any others still get
+ * their own immutable set, it just isn't shared.
+ */
+final class CategorySets
+{
+	static final Set<String> NONE = unmodifiableSet(new TreeSet<String>());
+
+	static final int MAX_INTERNED_SETS = 1024;
+
+	private static final ConcurrentMap<Set<String>, Set<String>> internedSets = new ConcurrentHashMap<Set<String>, Set<String>>();
+	private static final AtomicInteger internedSetCount = new AtomicInteger();
+
+	private CategorySets()
+	{
+	}
+
+	/**
+	 * @return An unmodifiable, sorted set equal to the given categories, that is shared with all other callers
+	 * passing the same categories, unless the pool is full.
+	 */
+	static Set<String> intern(final Collection<String> categories)
+	{
+		if (categories.isEmpty())
+		{
+			return NONE;
+		}
+		final Set<String> sortedCategories = new TreeSet<String>(categories);
+		final Set<String> internedSet = internedSets.get(sortedCategories);
+		if (internedSet != null)
+		{
+			return internedSet;
+		}
+		final Set<String> candidate = unmodifiableSet(sortedCategories);
+		if (internedSetCount.get() >= MAX_INTERNED_SETS)
+		{
+			return candidate;
+		}
+		final Set<String> previous = internedSets.putIfAbsent(candidate, candidate);
+		if (previous != null)
+		{
+			return previous;
+		}
+		internedSetCount.incrementAndGet();
+		return candidate;
+	}
+
+	/**
+	 * @return The interned union of the given sets. When one of them already contains the other, it is
+	 * returned as is.
+	 */
+	static Set<String> union(final Set<String> categories, final Set<String> otherCategories)
+	{
+		if (categories.containsAll(otherCategories))
+		{
+			return categories;
+		}
+		if (otherCategories.containsAll(categories))
+		{
+			return otherCategories;
+		}
+		final Set<String> union = new TreeSet<String>(categories);
+		union.addAll(otherCategories);
+		return intern(union);
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+/**
+ * Receives the nodes of a comparison as soon as they have been decided, instead of getting them all at once as
+ * part of a {@link DiffNode} tree. See {@link de.danielbechler.diff.ObjectDiffer#compare(Object, Object,
+ * DiffListener)}.
+ */
+public interface DiffListener
+{
+	/**
+	 * Gets called for every node that would have been part of the tree returned by {@link
+	 * de.danielbechler.diff.ObjectDiffer#compare(Object, Object)}, after all of its children have been passed to
+	 * this listener. Only untouched nodes that would have been part of the tree just because of their children are
+	 * left out. The node is not connected to its children and must not be expected to be, but its path and
+	 * parent nodes are available as usual.
+	 * <p/>
+	 * When parallel comparison has been enabled, this method may get called concurrently.
+	 *
+	 * @param node    The node that has been decided.
+	 * @param working The value of the node in the working object or <code>null</code> if it is not available.
+	 * @param base    The value of the node in the base object or <code>null</code> if it is not available.
+	 */
+	void onNode(DiffNode node, Object working, Object base);
+}
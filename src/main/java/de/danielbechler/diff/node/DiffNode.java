@@ -19,27 +19,29 @@ package de.danielbechler.diff.node;
 import de.danielbechler.diff.access.Accessor;
 import de.danielbechler.diff.access.CategoryAware;
 import de.danielbechler.diff.access.ExclusionAware;
+import de.danielbechler.diff.access.ListItemAccessor;
 import de.danielbechler.diff.access.PropertyAwareAccessor;
 import de.danielbechler.diff.access.RootAccessor;
 import de.danielbechler.diff.access.TypeAwareAccessor;
+import de.danielbechler.diff.category.ConfiguredCategoryResolver;
 import de.danielbechler.diff.identity.IdentityStrategy;
 import de.danielbechler.diff.instantiation.TypeInfo;
 import de.danielbechler.diff.path.NodePath;
 import de.danielbechler.diff.selector.BeanPropertyElementSelector;
 import de.danielbechler.diff.selector.CollectionItemElementSelector;
 import de.danielbechler.diff.selector.ElementSelector;
+import de.danielbechler.diff.selector.ListItemElementSelector;
 import de.danielbechler.diff.selector.RootElementSelector;
 import de.danielbechler.util.Assert;
 
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.Collection;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Collections.unmodifiableSet;
 
@@ -58,21 +60,56 @@ public class DiffNode
 {
 	public static final DiffNode ROOT = null;
 
+	/**
+	 * Nodes with more children than this keep them in a map instead of an array.
+	 */
+	private static final int MAX_CHILD_ARRAY_LENGTH = 16;
+
 	private final Accessor accessor;
-	private final Map<ElementSelector, DiffNode> children = new LinkedHashMap<ElementSelector, DiffNode>(10);
+	private ElementSelector elementSelector;
+
+	/**
+	 * Most nodes are leaves or only have a few children, so they are stored as compact as possible: <code>null</code>
+	 * when there are none, the {@link DiffNode} itself when there is only one, a {@link DiffNode DiffNode[]} for up to
+	 * {@link #MAX_CHILD_ARRAY_LENGTH} children and a {@link LinkedHashMap} for all others. The array doubles its
+	 * length whenever it is full; its unused slots are at the end and <code>null</code>. In any case the children keep
+	 * the order in which they have been added.
+	 */
+	private Object children;
 
 	private State state = State.UNTOUCHED;
 	private DiffNode parentNode;
-	private NodePath circleStartPath;
-	private DiffNode circleStartNode;
+	private NodePath path;
 	private Class<?> valueType;
 	private TypeInfo valueTypeInfo;
-	private IdentityStrategy childIdentityStrategy;
-	private final Collection<String> additionalCategories = new TreeSet<String>();
+	/**
+	 * The interned categories of this node, that don't come from its parent, or <code>null</code> if they haven't
+	 * been looked up yet. They are made up of the categories from annotations, the configured ones and the ones that
+	 * have been added explicitly.
+	 */
+	private Set<String> ownCategories;
+	private RareAttributes rareAttributes;
+	private boolean attached;
+	private int addedDescendantCount;
+	private int removedDescendantCount;
+	private int changedDescendantCount;
+	private int movedDescendantCount;
 
 	public void setChildIdentityStrategy(final IdentityStrategy identityStrategy)
 	{
-		this.childIdentityStrategy = identityStrategy;
+		if (identityStrategy != null || rareAttributes != null)
+		{
+			rareAttributes().childIdentityStrategy = identityStrategy;
+		}
+	}
+
+	private RareAttributes rareAttributes()
+	{
+		if (rareAttributes == null)
+		{
+			rareAttributes = new RareAttributes();
+		}
+		return rareAttributes;
 	}
 
 	public static DiffNode newRootNode()
@@ -120,7 +157,15 @@ public class DiffNode
 	public void setState(final State state)
 	{
 		Assert.notNull(state, "state");
+		final State previousState = this.state;
 		this.state = state;
+		if (attached && previousState != state)
+		{
+			updateAncestorCounts(countOf(State.ADDED, state) - countOf(State.ADDED, previousState),
+					countOf(State.REMOVED, state) - countOf(State.REMOVED, previousState),
+					countOf(State.CHANGED, state) - countOf(State.CHANGED, previousState),
+					countOf(State.MOVED, state) - countOf(State.MOVED, previousState));
+		}
 	}
 
 	public boolean matches(final NodePath path)
@@ -128,25 +173,77 @@ public class DiffNode
 		return path.matches(getPath());
 	}
 
+	/**
+	 * @return <code>true</code> if this node or any of its descendants has been added, removed, changed or moved.
+	 * The states of the descendants are counted while the tree is built, so this doesn't need to visit them.
+	 */
 	public boolean hasChanges()
 	{
-		if (isAdded() || isChanged() || isRemoved())
+		return isAdded() || isChanged() || isRemoved() || isMoved()
+				|| addedDescendantCount + removedDescendantCount + changedDescendantCount + movedDescendantCount > 0;
+	}
+
+	/**
+	 * @return The number of descendants (children, children of children, etc.) in the state {@link State#ADDED}.
+	 */
+	public int getAddedDescendantCount()
+	{
+		return addedDescendantCount;
+	}
+
+	/**
+	 * @return The number of descendants (children, children of children, etc.) in the state {@link State#REMOVED}.
+	 */
+	public int getRemovedDescendantCount()
+	{
+		return removedDescendantCount;
+	}
+
+	/**
+	 * @return The number of descendants (children, children of children, etc.) in the state {@link State#CHANGED}.
+	 */
+	public int getChangedDescendantCount()
+	{
+		return changedDescendantCount;
+	}
+
+	/**
+	 * @return The number of descendants (children, children of children, etc.) in the state {@link State#MOVED}.
+	 */
+	public int getMovedDescendantCount()
+	{
+		return movedDescendantCount;
+	}
+
+	private static int countOf(final State countedState, final State state)
+	{
+		return countedState == state ? 1 : 0;
+	}
+
+	private void updateAncestorCountsWithSubtree(final int sign)
+	{
+		updateAncestorCounts(sign * (addedDescendantCount + countOf(State.ADDED, state)),
+				sign * (removedDescendantCount + countOf(State.REMOVED, state)),
+				sign * (changedDescendantCount + countOf(State.CHANGED, state)),
+				sign * (movedDescendantCount + countOf(State.MOVED, state)));
+	}
+
+	/**
+	 * Adds the given differences to the counts of all ancestors this node has been added to. Nodes that have been
+	 * created with a parent but haven't been added to it yet don't affect it, so subtrees that are still being
+	 * built (maybe on another thread) never touch the nodes above them.
+	 */
+	private void updateAncestorCounts(final int added, final int removed, final int changed, final int moved)
+	{
+		DiffNode node = this;
+		while (node.attached)
 		{
-			return true;
+			node = node.parentNode;
+			node.addedDescendantCount += added;
+			node.removedDescendantCount += removed;
+			node.changedDescendantCount += changed;
+			node.movedDescendantCount += moved;
 		}
-		final AtomicBoolean result = new AtomicBoolean(false);
-		visitChildren(new Visitor()
-		{
-			public void node(final DiffNode node, final Visit visit)
-			{
-				if (node.hasChanges())
-				{
-					result.set(true);
-					visit.stop();
-				}
-			}
-		});
-		return result.get();
 	}
 
 	/**
@@ -173,6 +270,36 @@ public class DiffNode
 		return state == State.REMOVED;
 	}
 
+	/**
+	 * Unlike the other convenience methods, this isn't limited to the state {@link DiffNode.State#MOVED}. Items of
+	 * ordered lists that have been moved and changed are in the state {@link DiffNode.State#CHANGED}, but still count
+	 * as moved. Their positions can be found via {@link #getBaseIndex()} and {@link #getWorkingIndex()}.
+	 *
+	 * @return <code>true</code> if this node represents an item that changed its position within an ordered list.
+	 */
+	public final boolean isMoved()
+	{
+		return state == State.MOVED || accessor instanceof ListItemAccessor && ((ListItemAccessor) accessor).isMoved();
+	}
+
+	/**
+	 * @return The index of the item in the working list, if this node represents an item of an ordered list, or
+	 * {@link ListItemAccessor#NO_INDEX} otherwise.
+	 */
+	public int getWorkingIndex()
+	{
+		return accessor instanceof ListItemAccessor ? ((ListItemAccessor) accessor).getWorkingIndex() : ListItemAccessor.NO_INDEX;
+	}
+
+	/**
+	 * @return The index of the item in the base list, if this node represents an item of an ordered list, or {@link
+	 * ListItemAccessor#NO_INDEX} otherwise.
+	 */
+	public int getBaseIndex()
+	{
+		return accessor instanceof ListItemAccessor ? ((ListItemAccessor) accessor).getBaseIndex() : ListItemAccessor.NO_INDEX;
+	}
+
 	/**
 	 * Convenience method for <code>{@link #getState()} == {@link DiffNode.State#UNTOUCHED}</code>
 	 */
@@ -190,14 +317,24 @@ public class DiffNode
 	}
 
 	/**
-	 * @return The absolute property path from the object root up to this node.
+	 * @return The absolute property path from the object root up to this node. It only gets built once and is
+	 * derived from the path of the parent node, so calling this method repeatedly is cheap.
 	 */
 	public NodePath getPath()
+	{
+		if (path == null)
+		{
+			path = buildPath();
+		}
+		return path;
+	}
+
+	private NodePath buildPath()
 	{
 		if (parentNode != null)
 		{
 			return NodePath.startBuildingFrom(parentNode.getPath())
-					.element(accessor.getElementSelector())
+					.element(getElementSelector())
 					.build();
 		}
 		else if (accessor instanceof RootAccessor)
@@ -206,13 +343,32 @@ public class DiffNode
 		}
 		else
 		{
-			return NodePath.startBuilding().element(accessor.getElementSelector()).build();
+			return NodePath.startBuilding().element(getElementSelector()).build();
+		}
+	}
+
+	private void resetPath()
+	{
+		if (path != null)
+		{
+			path = null;
+			for (final DiffNode child : childNodes())
+			{
+				child.resetPath();
+			}
 		}
 	}
 
+	/**
+	 * @return The element selector of the accessor. Most accessors create a new one on every call, so it gets cached.
+	 */
 	public ElementSelector getElementSelector()
 	{
-		return accessor.getElementSelector();
+		if (elementSelector == null)
+		{
+			elementSelector = accessor.getElementSelector();
+		}
+		return elementSelector;
 	}
 
 	/**
@@ -261,12 +417,160 @@ public class DiffNode
 	 */
 	public boolean hasChildren()
 	{
-		return !children.isEmpty();
+		return children != null;
 	}
 
 	public int childCount()
 	{
-		return children.size();
+		if (children == null)
+		{
+			return 0;
+		}
+		else if (children instanceof DiffNode)
+		{
+			return 1;
+		}
+		else if (children instanceof DiffNode[])
+		{
+			return lengthOf((DiffNode[]) children);
+		}
+		return childMap().size();
+	}
+
+	private static int lengthOf(final DiffNode[] childNodes)
+	{
+		int length = childNodes.length;
+		while (childNodes[length - 1] == null)
+		{
+			length--;
+		}
+		return length;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<ElementSelector, DiffNode> childMap()
+	{
+		return (Map<ElementSelector, DiffNode>) children;
+	}
+
+	/**
+	 * @return The children in the order they have been added.
+	 */
+	private Collection<DiffNode> childNodes()
+	{
+		if (children == null)
+		{
+			return Collections.emptyList();
+		}
+		else if (children instanceof DiffNode)
+		{
+			return Collections.singletonList((DiffNode) children);
+		}
+		else if (children instanceof DiffNode[])
+		{
+			final DiffNode[] childNodes = (DiffNode[]) children;
+			return Arrays.asList(childNodes).subList(0, lengthOf(childNodes));
+		}
+		return childMap().values();
+	}
+
+	/**
+	 * Looks up children the same way a {@link java.util.HashMap} would, so it makes no difference how they are
+	 * stored. (Some element selectors are equal to others with a different hash code.)
+	 */
+	private DiffNode findChild(final ElementSelector elementSelector)
+	{
+		if (children instanceof DiffNode)
+		{
+			final DiffNode child = (DiffNode) children;
+			return isSelectedBy(child, elementSelector) ? child : null;
+		}
+		else if (children instanceof DiffNode[])
+		{
+			for (final DiffNode child : (DiffNode[]) children)
+			{
+				if (child == null)
+				{
+					break;
+				}
+				if (isSelectedBy(child, elementSelector))
+				{
+					return child;
+				}
+			}
+			return null;
+		}
+		else if (children != null)
+		{
+			return childMap().get(elementSelector);
+		}
+		return null;
+	}
+
+	private static boolean isSelectedBy(final DiffNode child, final ElementSelector elementSelector)
+	{
+		final ElementSelector childSelector = child.getElementSelector();
+		return childSelector == elementSelector
+				|| elementSelector.equals(childSelector) && elementSelector.hashCode() == childSelector.hashCode();
+	}
+
+	/**
+	 * @return The child that has been replaced by the given one or <code>null</code>.
+	 */
+	private DiffNode putChild(final DiffNode node)
+	{
+		final ElementSelector childSelector = node.getElementSelector();
+		if (children == null)
+		{
+			children = node;
+			return null;
+		}
+		else if (children instanceof DiffNode)
+		{
+			final DiffNode child = (DiffNode) children;
+			if (isSelectedBy(child, childSelector))
+			{
+				children = node;
+				return child;
+			}
+			children = new DiffNode[]{child, node};
+			return null;
+		}
+		else if (children instanceof DiffNode[])
+		{
+			final DiffNode[] childNodes = (DiffNode[]) children;
+			int length = 0;
+			while (length < childNodes.length && childNodes[length] != null)
+			{
+				if (isSelectedBy(childNodes[length], childSelector))
+				{
+					final DiffNode replacedNode = childNodes[length];
+					childNodes[length] = node;
+					return replacedNode;
+				}
+				length++;
+			}
+			if (length < childNodes.length)
+			{
+				childNodes[length] = node;
+				return null;
+			}
+			if (length < MAX_CHILD_ARRAY_LENGTH)
+			{
+				final DiffNode[] grownChildNodes = new DiffNode[length * 2];
+				System.arraycopy(childNodes, 0, grownChildNodes, 0, length);
+				grownChildNodes[length] = node;
+				children = grownChildNodes;
+				return null;
+			}
+			final Map<ElementSelector, DiffNode> childMap = new LinkedHashMap<ElementSelector, DiffNode>();
+			for (final DiffNode child : childNodes)
+			{
+				childMap.put(child.getElementSelector(), child);
+			}
+			children = childMap;
+		}
+		return childMap().put(childSelector, node);
 	}
 
 	/**
@@ -288,13 +592,27 @@ public class DiffNode
 	 */
 	public DiffNode getChild(final ElementSelector elementSelector)
 	{
-		if (elementSelector instanceof CollectionItemElementSelector && childIdentityStrategy != null)
+		final IdentityStrategy childIdentityStrategy = rareAttributes != null ? rareAttributes.childIdentityStrategy : null;
+		if (elementSelector instanceof CollectionItemElementSelector)
 		{
-			return children.get(((CollectionItemElementSelector) elementSelector).copyWithIdentityStrategy(childIdentityStrategy));
+			final CollectionItemElementSelector itemSelector = childIdentityStrategy != null
+					? ((CollectionItemElementSelector) elementSelector).copyWithIdentityStrategy(childIdentityStrategy)
+					: (CollectionItemElementSelector) elementSelector;
+			final DiffNode child = findChild(itemSelector);
+			if (child == null && children != null)
+			{
+				// the items of lists compared in order are selected by their occurrence, so fall back to the first one
+				return findChild(new ListItemElementSelector(itemSelector, 0));
+			}
+			return child;
+		}
+		else if (elementSelector instanceof ListItemElementSelector && childIdentityStrategy != null)
+		{
+			return findChild(((ListItemElementSelector) elementSelector).copyWithIdentityStrategy(childIdentityStrategy));
 		}
 		else
 		{
-			return children.get(elementSelector);
+			return findChild(elementSelector);
 		}
 	}
 
@@ -383,10 +701,20 @@ public class DiffNode
 		{
 			node.setParentNode(this);
 		}
-		children.put(node.getElementSelector(), node);
+		final DiffNode replacedNode = putChild(node);
+		if (replacedNode != node)
+		{
+			if (replacedNode != null)
+			{
+				replacedNode.updateAncestorCountsWithSubtree(-1);
+				replacedNode.attached = false;
+			}
+			node.attached = true;
+			node.updateAncestorCountsWithSubtree(1);
+		}
 		if (state == State.UNTOUCHED && node.hasChanges())
 		{
-			state = State.CHANGED;
+			setState(State.CHANGED);
 		}
 	}
 
@@ -434,19 +762,48 @@ public class DiffNode
 	 */
 	public final void visitChildren(final Visitor visitor)
 	{
-		for (final DiffNode child : children.values())
+		if (children instanceof DiffNode)
+		{
+			visitChild((DiffNode) children, visitor);
+		}
+		else if (children instanceof DiffNode[])
 		{
-			try
+			for (final DiffNode child : (DiffNode[]) children)
 			{
-				child.visit(visitor);
+				if (child == null || !visitChild(child, visitor))
+				{
+					return;
+				}
 			}
-			catch (final StopVisitationException e)
+		}
+		else if (children != null)
+		{
+			for (final DiffNode child : childMap().values())
 			{
-				return;
+				if (!visitChild(child, visitor))
+				{
+					return;
+				}
 			}
 		}
 	}
 
+	/**
+	 * @return <code>false</code> if the visitation has been stopped.
+	 */
+	private static boolean visitChild(final DiffNode child, final Visitor visitor)
+	{
+		try
+		{
+			child.visit(visitor);
+			return true;
+		}
+		catch (final StopVisitationException e)
+		{
+			return false;
+		}
+	}
+
 	public final void visitParents(final Visitor visitor)
 	{
 		final Visit visit = new Visit();
@@ -577,27 +934,84 @@ public class DiffNode
 
 	/**
 	 * Returns an unmodifiable {@link java.util.Set} of {@link java.lang.String} with the categories of this node.
+	 * <p/>
+	 * The categories are looked up the first time they are needed. Nodes without categories of their own return the
+	 * set of their parent, all others usually an interned set that is shared with all nodes in the same categories.
 	 *
 	 * @return an unmodifiable {@link java.util.Set} of {@link java.lang.String} with the categories of this node
 	 */
 	public final Set<String> getCategories()
 	{
-		final Set<String> categories = new TreeSet<String>();
-		if (parentNode != null)
+		final Set<String> parentCategories = parentNode != null ? parentNode.getCategories() : CategorySets.NONE;
+		final Set<String> ownCategories = getOwnCategories();
+		if (ownCategories.isEmpty())
+		{
+			return parentCategories;
+		}
+		if (parentCategories.isEmpty())
+		{
+			return ownCategories;
+		}
+		final RareAttributes rareAttributes = rareAttributes();
+		Set<String> categories = rareAttributes.categories;
+		if (categories == null || rareAttributes.categoriesOfParent != parentCategories)
 		{
-			categories.addAll(parentNode.getCategories());
+			categories = CategorySets.union(parentCategories, ownCategories);
+			rareAttributes.categories = categories;
+			rareAttributes.categoriesOfParent = parentCategories;
 		}
-		if (accessor instanceof CategoryAware)
+		return categories;
+	}
+
+	private Set<String> getOwnCategories()
+	{
+		Set<String> ownCategories = this.ownCategories;
+		if (ownCategories == null)
 		{
-			final Set<String> categoriesFromAccessor = ((CategoryAware) accessor).getCategoriesFromAnnotation();
-			if (categoriesFromAccessor != null)
+			ownCategories = CategorySets.NONE;
+			if (accessor instanceof CategoryAware)
+			{
+				final Set<String> categoriesFromAccessor = ((CategoryAware) accessor).getCategoriesFromAnnotation();
+				if (categoriesFromAccessor != null)
+				{
+					ownCategories = CategorySets.intern(categoriesFromAccessor);
+				}
+			}
+			if (rareAttributes != null)
 			{
-				categories.addAll(categoriesFromAccessor);
+				final ConfiguredCategoryResolver configuredCategoryResolver = rareAttributes.configuredCategoryResolver;
+				if (configuredCategoryResolver != null)
+				{
+					final Set<String> configuredCategories = configuredCategoryResolver.resolveConfiguredCategories(this);
+					ownCategories = CategorySets.union(ownCategories, CategorySets.intern(configuredCategories));
+				}
+				if (rareAttributes.addedCategories != null)
+				{
+					ownCategories = CategorySets.union(ownCategories, rareAttributes.addedCategories);
+				}
 			}
+			this.ownCategories = ownCategories;
 		}
-		categories.addAll(additionalCategories);
+		return ownCategories;
+	}
+
+	/**
+	 * Lets this node look up its configured categories via the given resolver the first time its categories are
+	 * needed, instead of having them resolved and added upfront.
+	 */
+	public void setConfiguredCategoryResolver(final ConfiguredCategoryResolver configuredCategoryResolver)
+	{
+		rareAttributes().configuredCategoryResolver = configuredCategoryResolver;
+		forgetOwnCategories();
+	}
 
-		return unmodifiableSet(categories);
+	private void forgetOwnCategories()
+	{
+		ownCategories = null;
+		if (rareAttributes != null)
+		{
+			rareAttributes.categories = null;
+		}
 	}
 
 	/**
@@ -619,6 +1033,11 @@ public class DiffNode
 		{
 			throw new IllegalStateException("The parent of a node cannot be changed, once it's set.");
 		}
+		if (this.parentNode != parentNode)
+		{
+			// the path of this node and its children may have been built before it got attached to its parent
+			resetPath();
+		}
 		this.parentNode = parentNode;
 	}
 
@@ -743,7 +1162,21 @@ public class DiffNode
 	public void addCategories(final Collection<String> additionalCategories)
 	{
 		Assert.notNull(additionalCategories, "additionalCategories");
-		this.additionalCategories.addAll(additionalCategories);
+		if (additionalCategories.isEmpty())
+		{
+			return;
+		}
+		final RareAttributes rareAttributes = rareAttributes();
+		final Set<String> addedCategories = CategorySets.intern(additionalCategories);
+		if (rareAttributes.addedCategories != null)
+		{
+			rareAttributes.addedCategories = CategorySets.union(rareAttributes.addedCategories, addedCategories);
+		}
+		else
+		{
+			rareAttributes.addedCategories = addedCategories;
+		}
+		forgetOwnCategories();
 	}
 
 	/**
@@ -752,22 +1185,36 @@ public class DiffNode
 	 */
 	public NodePath getCircleStartPath()
 	{
-		return circleStartPath;
+		return rareAttributes != null ? rareAttributes.circleStartPath : null;
 	}
 
 	public void setCircleStartPath(final NodePath circularStartPath)
 	{
-		this.circleStartPath = circularStartPath;
+		rareAttributes().circleStartPath = circularStartPath;
 	}
 
 	public DiffNode getCircleStartNode()
 	{
-		return circleStartNode;
+		return rareAttributes != null ? rareAttributes.circleStartNode : null;
 	}
 
 	public void setCircleStartNode(final DiffNode circleStartNode)
 	{
-		this.circleStartNode = circleStartNode;
+		rareAttributes().circleStartNode = circleStartNode;
+	}
+
+	/**
+	 * Attributes only few nodes ever have. Keeping them out of the node itself saves memory on all the others.
+	 */
+	private static final class RareAttributes
+	{
+		private NodePath circleStartPath;
+		private DiffNode circleStartNode;
+		private IdentityStrategy childIdentityStrategy;
+		private ConfiguredCategoryResolver configuredCategoryResolver;
+		private Set<String> addedCategories;
+		private Set<String> categoriesOfParent;
+		private Set<String> categories;
 	}
 
 	/**
@@ -781,7 +1228,8 @@ public class DiffNode
 		UNTOUCHED("The value is identical in the working and base object"),
 		CIRCULAR("Special state to mark circular references"),
 		IGNORED("The value has not been looked at and has been ignored"),
-		INACCESSIBLE("When a comparison was not possible because the underlying value was not accessible");
+		INACCESSIBLE("When a comparison was not possible because the underlying value was not accessible"),
+		MOVED("The value is identical, but its position within an ordered list has changed");
 
 		private final String reason;
 
@@ -87,6 +87,10 @@ public class PrintingVisitor implements DiffNode.Visitor
 		{
 			return String.format("with value [ %s ] has been removed", Strings.toSingleLineString(base));
 		}
+		else if (state == DiffNode.State.MOVED)
+		{
+			return String.format("with value [ %s ] has been moved", Strings.toSingleLineString(modified));
+		}
 		else if (state == DiffNode.State.UNTOUCHED)
 		{
 			return "has not changed";
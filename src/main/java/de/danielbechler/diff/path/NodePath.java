@@ -23,58 +23,86 @@ import de.danielbechler.diff.selector.MapKeyElementSelector;
 import de.danielbechler.diff.selector.RootElementSelector;
 import de.danielbechler.util.Assert;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
+ * An immutable path from the root of an object graph to one of its elements. Every path references the path of its
+ * parent, so appending an element to an existing path doesn't need to copy the ones before it. This makes it cheap
+ * to derive the paths of child nodes from the path of their parent.
+ *
  * @author Daniel Bechler
  */
 public final class NodePath implements Comparable<NodePath>
 {
-	private final List<ElementSelector> elementSelectors;
+	private static final NodePath ROOT = new NodePath(null, RootElementSelector.getInstance());
+
+	private final NodePath parentPath;
+	private final ElementSelector elementSelector;
+	private final int size;
+	private int hashCode;
+	private List<ElementSelector> elementSelectors;
 
-	private NodePath(final List<ElementSelector> elementSelectors)
+	private NodePath(final NodePath parentPath, final ElementSelector elementSelector)
 	{
-		this.elementSelectors = Collections.unmodifiableList(elementSelectors);
+		this.parentPath = parentPath;
+		this.elementSelector = elementSelector;
+		this.size = parentPath != null ? parentPath.size + 1 : 1;
 	}
 
 	public boolean isParentOf(final NodePath nodePath)
 	{
-		final List<ElementSelector> otherElementSelectors = nodePath.getElementSelectors();
-		if (elementSelectors.size() < otherElementSelectors.size())
-		{
-			return otherElementSelectors.subList(0, elementSelectors.size()).equals(elementSelectors);
-		}
-		return false;
+		return nodePath.size > size && equals(nodePath.ancestorOfSize(size));
 	}
 
 	public List<ElementSelector> getElementSelectors()
 	{
+		if (elementSelectors == null)
+		{
+			final ElementSelector[] elementSelectorArray = new ElementSelector[size];
+			for (NodePath path = this; path != null; path = path.parentPath)
+			{
+				elementSelectorArray[path.size - 1] = path.elementSelector;
+			}
+			elementSelectors = Collections.unmodifiableList(Arrays.asList(elementSelectorArray));
+		}
 		return elementSelectors;
 	}
 
 	public boolean isChildOf(final NodePath nodePath)
 	{
-		final List<ElementSelector> otherElementSelectors = nodePath.getElementSelectors();
-		if (elementSelectors.size() > otherElementSelectors.size())
+		return size > nodePath.size && ancestorOfSize(nodePath.size).equals(nodePath);
+	}
+
+	private NodePath ancestorOfSize(final int ancestorSize)
+	{
+		NodePath path = this;
+		while (path.size > ancestorSize)
 		{
-			return elementSelectors.subList(0, otherElementSelectors.size()).equals(otherElementSelectors);
+			path = path.parentPath;
 		}
-		return false;
+		return path;
 	}
 
 	public ElementSelector getLastElementSelector()
 	{
-		return elementSelectors.get(elementSelectors.size() - 1);
+		return elementSelector;
 	}
 
+	/**
+	 * @return The same hash code as the list returned by {@link #getElementSelectors()}.
+	 */
 	@Override
 	public int hashCode()
 	{
-		return elementSelectors.hashCode();
+		if (hashCode == 0)
+		{
+			final int parentHashCode = parentPath != null ? parentPath.hashCode() : 1;
+			hashCode = 31 * parentHashCode + elementSelector.hashCode();
+		}
+		return hashCode;
 	}
 
 	@Override
@@ -91,10 +119,21 @@ public final class NodePath implements Comparable<NodePath>
 
 		final NodePath that = (NodePath) o;
 
-		if (!elementSelectors.equals(that.elementSelectors))
+		if (size != that.size)
 		{
 			return false;
 		}
+		NodePath path = this;
+		NodePath otherPath = that;
+		while (path != otherPath)
+		{
+			if (!path.elementSelector.equals(otherPath.elementSelector))
+			{
+				return false;
+			}
+			path = path.parentPath;
+			otherPath = otherPath.parentPath;
+		}
 
 		return true;
 	}
@@ -103,7 +142,7 @@ public final class NodePath implements Comparable<NodePath>
 	public String toString()
 	{
 		final StringBuilder sb = new StringBuilder();
-		final Iterator<ElementSelector> iterator = elementSelectors.iterator();
+		final Iterator<ElementSelector> iterator = getElementSelectors().iterator();
 		ElementSelector previousElementSelector = null;
 		while (iterator.hasNext())
 		{
@@ -132,7 +171,7 @@ public final class NodePath implements Comparable<NodePath>
 
 	public int compareTo(final NodePath that)
 	{
-		final int distance = getElementSelectors().size() - that.getElementSelectors().size();
+		final int distance = size - that.size;
 		if (distance == 0)
 		{
 			return matches(that) ? 0 : 1;
@@ -155,7 +194,7 @@ public final class NodePath implements Comparable<NodePath>
 	public static AppendableBuilder startBuildingFrom(final NodePath nodePath)
 	{
 		Assert.notNull(nodePath, "propertyPath");
-		return new AppendableBuilderImpl(new ArrayList<ElementSelector>(nodePath.getElementSelectors()));
+		return new AppendableBuilderImpl(nodePath);
 	}
 
 	public static NodePath with(final String propertyName, final String... additionalPropertyNames)
@@ -165,14 +204,12 @@ public final class NodePath implements Comparable<NodePath>
 
 	public static AppendableBuilder startBuilding()
 	{
-		final List<ElementSelector> elementSelectors1 = new LinkedList<ElementSelector>();
-		elementSelectors1.add(RootElementSelector.getInstance());
-		return new AppendableBuilderImpl(elementSelectors1);
+		return new AppendableBuilderImpl(ROOT);
 	}
 
 	public static NodePath withRoot()
 	{
-		return startBuilding().build();
+		return ROOT;
 	}
 
 	public static interface AppendableBuilder
@@ -190,73 +227,61 @@ public final class NodePath implements Comparable<NodePath>
 
 	private static final class AppendableBuilderImpl implements AppendableBuilder
 	{
-		private final List<ElementSelector> elementSelectors;
+		private NodePath nodePath;
+		private boolean containsMultipleRootElements;
 
-		public AppendableBuilderImpl(final List<ElementSelector> elementSelectors)
+		public AppendableBuilderImpl(final NodePath nodePath)
 		{
-			Assert.notEmpty(elementSelectors, "elementSelectors");
-			this.elementSelectors = new LinkedList<ElementSelector>(elementSelectors);
+			Assert.notNull(nodePath, "nodePath");
+			this.nodePath = nodePath;
 		}
 
 		public AppendableBuilder element(final ElementSelector elementSelector)
 		{
 			Assert.notNull(elementSelector, "elementSelector");
-			elementSelectors.add(elementSelector);
+			append(elementSelector);
 			return this;
 		}
 
+		private void append(final ElementSelector elementSelector)
+		{
+			if (elementSelector instanceof RootElementSelector)
+			{
+				containsMultipleRootElements = true;
+			}
+			nodePath = new NodePath(nodePath, elementSelector);
+		}
+
 		public AppendableBuilder propertyName(final String name, final String... names)
 		{
-			elementSelectors.add(new BeanPropertyElementSelector(name));
+			append(new BeanPropertyElementSelector(name));
 			for (final String s : names)
 			{
-				elementSelectors.add(new BeanPropertyElementSelector(s));
+				append(new BeanPropertyElementSelector(s));
 			}
 			return this;
 		}
 
 		public <T> AppendableBuilder collectionItem(final T item)
 		{
-			elementSelectors.add(new CollectionItemElementSelector(item));
+			append(new CollectionItemElementSelector(item));
 			return this;
 		}
 
 		public <K> AppendableBuilder mapKey(final K key)
 		{
 			Assert.notNull(key, "key");
-			elementSelectors.add(new MapKeyElementSelector(key));
+			append(new MapKeyElementSelector(key));
 			return this;
 		}
 
 		public NodePath build()
 		{
-			if (elementSelectors.isEmpty())
-			{
-				throw new IllegalStateException("A property path cannot be empty");
-			}
-			else if (!(elementSelectors.get(0) instanceof RootElementSelector))
-			{
-				throw new IllegalStateException("A property path must start with a root element");
-			}
-			else if (elementCount(RootElementSelector.class) > 1)
+			if (containsMultipleRootElements)
 			{
 				throw new IllegalStateException("A property path cannot contain multiple root elements");
 			}
-			return new NodePath(elementSelectors);
-		}
-
-		private int elementCount(final Class<? extends ElementSelector> type)
-		{
-			assert type != null : "Type must not be null";
-			int count = 0;
-			for (final ElementSelector elementSelector : elementSelectors)
-			{
-				if (type.isAssignableFrom(elementSelector.getClass()))
-				{
-					count++;
-				}
-			}
-			return count;
+			return nodePath;
 		}
 	}
 }
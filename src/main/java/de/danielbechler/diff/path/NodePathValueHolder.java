@@ -16,6 +16,7 @@
 
 package de.danielbechler.diff.path;
 
+import de.danielbechler.diff.selector.CollectionItemElementSelector;
 import de.danielbechler.diff.selector.ElementSelector;
 import de.danielbechler.diff.selector.RootElementSelector;
 import de.danielbechler.util.Assert;
@@ -96,12 +97,21 @@ public class NodePathValueHolder<T>
 
 	private NodePathValueHolder<T> valueHolderForElementSelector(final ElementSelector elementSelector)
 	{
-		return elementValueHolders.get(elementSelector);
+		return CollectionItemElementSelector.findValue(elementValueHolders, elementSelector);
 	}
 
 	public T valueForNodePath(final NodePath nodePath)
 	{
-		return visit(new LinkedList<T>(), nodePath.getElementSelectors().iterator());
+		NodePathValueHolder<T> valueHolder = this;
+		for (final ElementSelector elementSelector : nodePath.getElementSelectors())
+		{
+			valueHolder = valueHolder.valueHolderForElementSelector(elementSelector);
+			if (valueHolder == null)
+			{
+				return null;
+			}
+		}
+		return valueHolder.value;
 	}
 
 	public List<T> accumulatedValuesForNodePath(final NodePath nodePath)
@@ -111,6 +121,28 @@ public class NodePathValueHolder<T>
 		return accumulator;
 	}
 
+	/**
+	 * @return <code>true</code> if nothing has been stored in this holder yet, so lookups can be skipped.
+	 */
+	public boolean isEmpty()
+	{
+		return value == null && elementValueHolders.isEmpty();
+	}
+
+	/**
+	 * @return A deep copy of this holder, that won't be affected by later changes to this one.
+	 */
+	public NodePathValueHolder<T> copy()
+	{
+		final NodePathValueHolder<T> copy = new NodePathValueHolder<T>();
+		copy.value = value;
+		for (final Map.Entry<ElementSelector, NodePathValueHolder<T>> entry : elementValueHolders.entrySet())
+		{
+			copy.elementValueHolders.put(entry.getKey(), entry.getValue().copy());
+		}
+		return copy;
+	}
+
 	public boolean containsValue(final T value)
 	{
 		if (value == null && this.value == null)
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector;
+
+/**
+ * Selects a contiguous range of array elements. The range starts at the <code>fromIndex</code> (inclusive) and ends
+ * at the <code>toIndex</code> (exclusive).
+ */
+public final class ArrayRangeElementSelector extends ElementSelector
+{
+	private final int fromIndex;
+	private final int toIndex;
+
+	public ArrayRangeElementSelector(final int fromIndex, final int toIndex)
+	{
+		if (fromIndex < 0 || toIndex <= fromIndex)
+		{
+			throw new IllegalArgumentException("Invalid array range: " + fromIndex + " to " + toIndex);
+		}
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
+	}
+
+	public int getFromIndex()
+	{
+		return fromIndex;
+	}
+
+	public int getToIndex()
+	{
+		return toIndex;
+	}
+
+	public int getLength()
+	{
+		return toIndex - fromIndex;
+	}
+
+	/**
+	 * Ranges of a single element only show its index, longer ones their first and last index.
+	 */
+	@Override
+	public String toHumanReadableString()
+	{
+		if (getLength() == 1)
+		{
+			return "[" + fromIndex + "]";
+		}
+		return "[" + fromIndex + ".." + (toIndex - 1) + "]";
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+
+		final ArrayRangeElementSelector that = (ArrayRangeElementSelector) o;
+
+		return fromIndex == that.fromIndex && toIndex == that.toIndex;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return 31 * fromIndex + toIndex;
+	}
+}
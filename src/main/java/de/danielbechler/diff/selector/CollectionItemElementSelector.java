@@ -17,10 +17,14 @@
 package de.danielbechler.diff.selector;
 
 import de.danielbechler.diff.identity.EqualsIdentityStrategy;
+import de.danielbechler.diff.identity.HashingIdentityStrategies;
+import de.danielbechler.diff.identity.HashingIdentityStrategy;
 import de.danielbechler.diff.identity.IdentityStrategy;
 import de.danielbechler.util.Assert;
 import de.danielbechler.util.Strings;
 
+import java.util.Map;
+
 /**
  * @author Daniel Bechler
  */
@@ -68,6 +72,48 @@ public final class CollectionItemElementSelector extends ElementSelector
 		return item;
 	}
 
+	/**
+	 * Selectors using the default {@link EqualsIdentityStrategy} share their hash codes with the items themselves.
+	 * Selectors with any other identity strategy may still be equal to those, but they can't be found by hash
+	 * lookup, because their hash codes are computed differently.
+	 *
+	 * @return <code>true</code> if this selector uses the default {@link EqualsIdentityStrategy}.
+	 */
+	public boolean isHashCompatibleWithDefault()
+	{
+		return identityStrategy.getClass() == EqualsIdentityStrategy.class;
+	}
+
+	/**
+	 * Looks up the value of the given selector in a map of selectors, that have been configured via node paths and
+	 * therefore use the default identity strategy. Collection item selectors that aren't {@linkplain
+	 * #isHashCompatibleWithDefault() hash compatible} with those are compared to each key, if the hash lookup fails.
+	 * {@link ListItemElementSelector ListItemElementSelectors} are looked up via their item selector, so the value
+	 * applies to every occurrence of the item.
+	 *
+	 * @return The value of the matching key or <code>null</code> if there is none.
+	 */
+	public static <V> V findValue(final Map<ElementSelector, V> valuesBySelector, final ElementSelector elementSelector)
+	{
+		final ElementSelector selector = elementSelector instanceof ListItemElementSelector
+				? ((ListItemElementSelector) elementSelector).getItemSelector()
+				: elementSelector;
+		final V value = valuesBySelector.get(selector);
+		if (value == null
+				&& selector instanceof CollectionItemElementSelector
+				&& !((CollectionItemElementSelector) selector).isHashCompatibleWithDefault())
+		{
+			for (final Map.Entry<ElementSelector, V> entry : valuesBySelector.entrySet())
+			{
+				if (selector.equals(entry.getKey()))
+				{
+					return entry.getValue();
+				}
+			}
+		}
+		return value;
+	}
+
 	@Override
 	public String toHumanReadableString()
 	{
@@ -96,9 +142,18 @@ public final class CollectionItemElementSelector extends ElementSelector
 		return true;
 	}
 
+	/**
+	 * The hash code is provided by the {@link IdentityStrategy}, when it is {@linkplain
+	 * HashingIdentityStrategies#isHashing(IdentityStrategy) hashing}. Otherwise there is no way to know which items are considered equal, so all selectors share the same constant
+	 * hash code.
+	 */
 	@Override
 	public int hashCode()
 	{
+		if (HashingIdentityStrategies.isHashing(identityStrategy))
+		{
+			return ((HashingIdentityStrategy) identityStrategy).hashCode(item);
+		}
 		return 31;
 	}
 
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector;
+
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.util.Assert;
+
+/**
+ * Selects an item of a list that has been compared in order. Lists may contain the same item multiple times, so
+ * besides the {@link CollectionItemElementSelector} of the item it also knows which occurrence of the item it
+ * selects. Items only occurring once are always the first occurrence.
+ * <p/>
+ * Configuration for collection items applies to every occurrence of the item (see {@link
+ * CollectionItemElementSelector#findValue(java.util.Map, ElementSelector)}), while looking up the child of a node
+ * via the collection item selector returns the first occurrence.
+ */
+public final class ListItemElementSelector extends ElementSelector
+{
+	private final CollectionItemElementSelector itemSelector;
+	private final int occurrence;
+
+	/**
+	 * @param occurrence The number of preceding items with the same identity, starting at <code>0</code>.
+	 */
+	public ListItemElementSelector(final CollectionItemElementSelector itemSelector, final int occurrence)
+	{
+		Assert.notNull(itemSelector, "itemSelector");
+		if (occurrence < 0)
+		{
+			throw new IllegalArgumentException("The occurrence must not be negative");
+		}
+		this.itemSelector = itemSelector;
+		this.occurrence = occurrence;
+	}
+
+	public ListItemElementSelector copyWithIdentityStrategy(final IdentityStrategy identityStrategy)
+	{
+		return new ListItemElementSelector(itemSelector.copyWithIdentityStrategy(identityStrategy), occurrence);
+	}
+
+	/**
+	 * @return The selector of the item, regardless of its occurrence.
+	 */
+	public CollectionItemElementSelector getItemSelector()
+	{
+		return itemSelector;
+	}
+
+	public int getOccurrence()
+	{
+		return occurrence;
+	}
+
+	/**
+	 * The first occurrence looks just like a collection item, all others are suffixed with their occurrence.
+	 */
+	@Override
+	public String toHumanReadableString()
+	{
+		if (occurrence == 0)
+		{
+			return itemSelector.toHumanReadableString();
+		}
+		return itemSelector.toHumanReadableString() + "#" + occurrence;
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+
+		final ListItemElementSelector that = (ListItemElementSelector) o;
+
+		if (occurrence != that.occurrence)
+		{
+			return false;
+		}
+		if (!itemSelector.equals(that.itemSelector))
+		{
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return 31 * itemSelector.hashCode() + occurrence;
+	}
+}
@@ -26,6 +26,7 @@ import de.danielbechler.diff.filtering.FilteringConfigurer
 import de.danielbechler.diff.identity.IdentityConfigurer
 import de.danielbechler.diff.inclusion.InclusionConfigurer
 import de.danielbechler.diff.introspection.IntrospectionConfigurer
+import de.danielbechler.diff.mock.ObjectWithString
 import spock.lang.Specification
 
 class ObjectDifferBuilderTest extends Specification {
@@ -105,4 +106,50 @@ class ObjectDifferBuilderTest extends Specification {
 		then:
 		  1 * differFactory.createDiffer(_, _) >> Stub(Differ)
 	}
+
+	def 'build returns an ObjectDiffer that is not affected by later configuration changes'() {
+		given:
+		  def builder = ObjectDifferBuilder.startBuilding()
+		  def objectDiffer = builder.build()
+
+		when:
+		  builder.inclusion().exclude().propertyName('value')
+
+		then:
+		  objectDiffer.compare(new ObjectWithString('foo'), new ObjectWithString('bar')).getChild('value') != null
+		and:
+		  builder.build().compare(new ObjectWithString('foo'), new ObjectWithString('bar')).getChild('value') == null
+	}
+
+	def 'build returns an ObjectDiffer that creates a fresh instance for every comparison by default'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.buildDefault()
+		  def working = new CountedObject()
+		  def base = new CountedObject()
+		  CountedObject.instances = 0
+		when:
+		  2.times { objectDiffer.compare(working, base) }
+		then:
+		  CountedObject.instances == 2
+	}
+
+	def 'build returns an ObjectDiffer that reuses fresh instances, if configured to'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding().differs().reuseFreshInstances().build()
+		  def working = new CountedObject()
+		  def base = new CountedObject()
+		  CountedObject.instances = 0
+		when:
+		  2.times { objectDiffer.compare(working, base) }
+		then:
+		  CountedObject.instances == 1
+	}
+
+	static class CountedObject {
+		static int instances
+
+		CountedObject() {
+			instances++
+		}
+	}
 }
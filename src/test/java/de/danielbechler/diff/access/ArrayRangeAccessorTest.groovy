@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access
+
+import de.danielbechler.diff.selector.ArrayRangeElementSelector
+import spock.lang.Specification
+
+class ArrayRangeAccessorTest extends Specification {
+
+	def accessor = new ArrayRangeAccessor(int[], 1, 3)
+
+	def 'requires an array type'() {
+		when:
+		  new ArrayRangeAccessor(List, 1, 3)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	def 'getType: returns the array type'() {
+		expect:
+		  accessor.type == int[]
+	}
+
+	def 'getElementSelector: selects the range'() {
+		expect:
+		  accessor.elementSelector == new ArrayRangeElementSelector(1, 3)
+	}
+
+	def 'get: returns a copy of the elements within the range'() {
+		given:
+		  def target = [1, 2, 3, 4] as int[]
+		when:
+		  def range = accessor.get(target)
+		then:
+		  range == [2, 3] as int[]
+		  !range.is(target)
+	}
+
+	def 'get: returns only the elements of arrays that end within the range'() {
+		expect:
+		  accessor.get([1, 2] as int[]) == [2] as int[]
+	}
+
+	def 'get: returns null for arrays that end before the range'() {
+		expect:
+		  accessor.get([1] as int[]) == null
+		  accessor.get(null) == null
+	}
+
+	def 'set: copies the given elements into the range'() {
+		given:
+		  def target = [1, 2, 3, 4] as int[]
+		when:
+		  accessor.set(target, [7, 8, 9] as int[])
+		then:
+		  target == [1, 7, 8, 4] as int[]
+	}
+
+	def 'unset: resets the elements within the range to their default value'() {
+		given:
+		  def target = ['a', 'b', 'c'] as String[]
+		when:
+		  new ArrayRangeAccessor(String[], 1, 3).unset(target)
+		then:
+		  target == ['a', null, null] as String[]
+	}
+}
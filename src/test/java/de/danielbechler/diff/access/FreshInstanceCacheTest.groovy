@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access
+
+import spock.lang.Specification
+
+class FreshInstanceCacheTest extends Specification {
+
+	def cache = new FreshInstanceCache()
+
+	def 'freshInstanceOf: creates an instance of the given type via default constructor'() {
+		expect:
+		  cache.freshInstanceOf(ArrayList) == []
+	}
+
+	def 'freshInstanceOf: returns the same prototype for every comparison of the same type'() {
+		when:
+		  def prototypes = [cache.freshInstanceOf(Counted), cache.freshInstanceOf(Counted)]
+		then:
+		  prototypes[0].is(prototypes[1])
+		  Counted.instances == 1
+		  cache.size() == 1
+	}
+
+	def 'freshInstanceOf: remembers types without default constructor as well'() {
+		when:
+		  def prototypes = [cache.freshInstanceOf(Integer), cache.freshInstanceOf(Integer)]
+		then:
+		  prototypes == [null, null]
+		  cache.size() == 1
+	}
+
+	def 'freshInstanceOf: returns null for null'() {
+		expect:
+		  cache.freshInstanceOf(null) == null
+		  cache.size() == 0
+	}
+
+	def 'prototypeOf: reads the default value of every property only once'() {
+		given:
+		  def accessor = Mock(PropertyAwareAccessor) {
+			  getPropertyName() >> 'size'
+		  }
+		  def prototype = cache.prototypeOf(ArrayList)
+		when:
+		  def defaultValues = [prototype.access(accessor), cache.prototypeOf(ArrayList).access(accessor)]
+		then:
+		  1 * accessor.get(prototype.instance) >> 0
+		and:
+		  defaultValues[0].is(defaultValues[1])
+		  defaultValues[0].instance == 0
+		  prototype.size() == 1
+	}
+
+	def 'prototypeOf: returns no default values for types without default constructor'() {
+		given:
+		  def accessor = Mock(PropertyAwareAccessor)
+		when:
+		  def defaultValue = cache.prototypeOf(Integer).access(accessor)
+		then:
+		  0 * accessor.get(_)
+		and:
+		  defaultValue.instance == null
+	}
+
+	private static class Counted {
+		static int instances
+
+		Counted() {
+			instances++
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.access
+
+import de.danielbechler.diff.identity.EqualsIdentityStrategy
+import de.danielbechler.diff.identity.IdentityIndex
+import de.danielbechler.diff.mock.ObjectWithIdentityAndValue
+import spock.lang.Specification
+
+class IndexedCollectionItemAccessorTest extends Specification {
+
+	def strategy = EqualsIdentityStrategy.instance
+
+	def 'get: should return matching item of indexed collection'() {
+		given:
+		  def collection = [new ObjectWithIdentityAndValue('1', 'foo'), new ObjectWithIdentityAndValue('2', 'bar')]
+		  def accessor = new IndexedCollectionItemAccessor(new ObjectWithIdentityAndValue('2'), strategy,
+				  new IdentityIndex(collection, strategy))
+		expect:
+		  accessor.get(collection).is(collection[1])
+	}
+
+	def 'get: should not scan indexed collection'() {
+		given:
+		  def collection = Spy(ArrayList, constructorArgs: [['a', 'b']])
+		  def index = new IdentityIndex(collection, strategy)
+		  def accessor = new IndexedCollectionItemAccessor('b', strategy, index)
+		when:
+		  def item = accessor.get(collection)
+		then:
+		  item == 'b'
+		  0 * collection.iterator()
+	}
+
+	def 'get: should scan collections that have not been indexed'() {
+		given:
+		  def accessor = new IndexedCollectionItemAccessor('b', strategy, new IdentityIndex(['a'], strategy))
+		expect:
+		  accessor.get(['a', 'b']) == 'b'
+		  accessor.get(null) == null
+	}
+
+	def 'get: should return null when the indexed collection contains no matching item'() {
+		given:
+		  def collection = ['a']
+		  def accessor = new IndexedCollectionItemAccessor('b', strategy, new IdentityIndex(collection, strategy))
+		expect:
+		  accessor.get(collection) == null
+	}
+}
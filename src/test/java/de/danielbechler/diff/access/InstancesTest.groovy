@@ -281,4 +281,79 @@ class InstancesTest extends Specification {
 		  accessedInstances.fresh == 'fresh2'
 		  accessedInstances.sourceAccessor.is accessor
 	}
+
+	def 'getType: resolves the type only once'() {
+		given:
+		  def accessor = Mock(TypeAwareAccessor)
+		  def instances = new Instances(accessor, 'working', 'base', null)
+		when:
+		  def types = [instances.type, instances.type, instances.type]
+		then:
+		  1 * accessor.getType() >> String
+		  types == [String, String, String]
+	}
+
+	def 'getType: returns most specific shared type of mixed types every time'() {
+		given:
+		  def working = new java.sql.Timestamp(0)
+		  def base = new java.sql.Date(0)
+		expect:
+		  new Instances(RootAccessor.instance, working, base, null).type == Date
+		  new Instances(RootAccessor.instance, working, base, null).type == Date
+		  new Instances(RootAccessor.instance, base, working, null).type == Date
+	}
+
+	def 'getType: resolves the shared type of mixed types via the cache of the root instances'() {
+		given:
+		  def sharedTypeCache = new SharedTypeCache()
+		  def accessor = Mock(Accessor) {
+			  get('working') >> new java.sql.Timestamp(0)
+			  get('base') >> new java.sql.Date(0)
+		  }
+		when:
+		  def instances = Instances.of('working', 'base', sharedTypeCache).access(accessor)
+		then:
+		  instances.type == Date
+		  sharedTypeCache.size() == 1
+	}
+
+	def 'of: takes the fresh instance from the given cache'() {
+		given:
+		  def freshInstanceCache = new FreshInstanceCache()
+		  def prototype = freshInstanceCache.freshInstanceOf(ArrayList)
+		when:
+		  def instances = Instances.of(['working'], ['base'], freshInstanceCache, new SharedTypeCache())
+		then:
+		  instances.fresh.is(prototype)
+	}
+
+	def 'access: reads the default values of properties from the fresh instance only once'() {
+		given:
+		  def freshInstanceCache = new FreshInstanceCache()
+		  def prototype = freshInstanceCache.freshInstanceOf(ArrayList)
+		  def accessor = Mock(PropertyAwareAccessor) {
+			  getPropertyName() >> 'size'
+		  }
+		when:
+		  def accessedInstances = (1..3).collect {
+			  Instances.of(['working'], ['base'], freshInstanceCache, null).access(RootAccessor.instance).access(accessor)
+		  }
+		then:
+		  1 * accessor.get(prototype) >> 0
+		  3 * accessor.get(['working']) >> 1
+		  3 * accessor.get(['base']) >> 1
+		and:
+		  accessedInstances.every { it.fresh == 0 }
+	}
+
+	def 'access: reads the default values from the fresh instance when it does not come from a cache'() {
+		given:
+		  def accessor = Mock(PropertyAwareAccessor)
+		when:
+		  (1..2).each {
+			  Instances.of(['working'], ['base'], (SharedTypeCache) null).access(accessor)
+		  }
+		then:
+		  2 * accessor.get([])
+	}
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.danielbechler.diff.access
+
+import spock.lang.Specification
+
+import java.sql.Timestamp
+
+class SharedTypeCacheTest extends Specification {
+
+	def cache = new SharedTypeCache()
+
+	def 'mostSpecificSharedType: returns the most specific type shared by all given types'() {
+		expect:
+		  cache.mostSpecificSharedType([Timestamp, java.sql.Date] as Set) == Date
+	}
+
+	def 'mostSpecificSharedType: remembers each combination of types only once'() {
+		when:
+		  cache.mostSpecificSharedType([Timestamp, java.sql.Date] as Set)
+		  cache.mostSpecificSharedType([java.sql.Date, Timestamp] as Set)
+		then:
+		  cache.size() == 1
+	}
+
+	def 'mostSpecificSharedType: remembers combinations without shared type as well'() {
+		when:
+		  def sharedTypes = [
+				  cache.mostSpecificSharedType([String, Integer] as Set),
+				  cache.mostSpecificSharedType([String, Integer] as Set)
+		  ]
+		then:
+		  sharedTypes == [null, null]
+		  cache.size() == 1
+	}
+}
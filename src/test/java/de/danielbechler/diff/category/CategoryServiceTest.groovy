@@ -96,6 +96,33 @@ class CategoryServiceTest extends Specification {
 		  categoryService.resolveCategories(node) == [] as Set
 	}
 
+	def "resolveCategories: should return the categories of the node itself if nothing has been configured"() {
+		given:
+		  accessor.categoriesFromAnnotation >> ["Stark"]
+
+		expect:
+		  categoryService.resolveCategories(node).is(node.categories)
+	}
+
+	def "resolveConfiguredCategories: should return only the configured categories"() {
+		given:
+		  categoryService.ofNode(NodePath.withRoot()).toBe("A")
+		  categoryService.ofType(nodeType).toBe("B")
+		and:
+		  accessor.categoriesFromAnnotation >> ["C"]
+		expect:
+		  categoryService.resolveConfiguredCategories(node) == ["A", "B"] as Set
+	}
+
+	def "hasConfiguredCategories: should tell whether categories have been configured at all"() {
+		expect:
+		  !categoryService.hasConfiguredCategories()
+		when:
+		  categoryService.ofType(nodeType).toBe("A")
+		then:
+		  categoryService.hasConfiguredCategories()
+	}
+
 	class Alliance {
 	}
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.circular
+
+import de.danielbechler.diff.mock.ObjectWithString
+import de.danielbechler.diff.path.NodePath
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.circular.CircularReferenceDetector.CircularReferenceException
+import static de.danielbechler.diff.circular.CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR
+import static de.danielbechler.diff.circular.CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD
+
+class HashingCircularReferenceDetectorTest extends Specification {
+
+	CircularReferenceDetector circularReferenceDetector = new HashingCircularReferenceDetector(EQUALITY_OPERATOR)
+
+	def 'push: does nothing with null object'() {
+		when:
+		  circularReferenceDetector.push(null, null)
+		then:
+		  circularReferenceDetector.size() == 0
+	}
+
+	def 'push: throws CircularReferenceException with path of known object'() {
+		given:
+		  def path = NodePath.with('a')
+		  circularReferenceDetector.push('root', NodePath.withRoot())
+		  circularReferenceDetector.push('foo', path)
+		  circularReferenceDetector.push('bar', NodePath.with('a', 'b'))
+		when:
+		  circularReferenceDetector.push('foo', NodePath.with('a', 'b', 'c'))
+		then: 'exception should be thrown'
+		  CircularReferenceException ex = thrown CircularReferenceException
+		  ex.nodePath == path
+		and: 'the known object should not be added again'
+		  circularReferenceDetector.size() == 3
+	}
+
+	def 'remove: throws IllegalArgumentException when instance is removed out of order'() {
+		given:
+		  circularReferenceDetector.push 'foo', null
+		  circularReferenceDetector.push 'bar', null
+		when:
+		  circularReferenceDetector.remove 'foo'
+		then:
+		  thrown IllegalArgumentException
+		and:
+		  circularReferenceDetector.knows('foo')
+		  circularReferenceDetector.knows('bar')
+	}
+
+	def 'remove: forgets instance when it is removed in order'() {
+		given:
+		  circularReferenceDetector.push 'foo', null
+		  circularReferenceDetector.push 'bar', null
+		when:
+		  circularReferenceDetector.remove 'bar'
+		then:
+		  circularReferenceDetector.size() == 1
+		  circularReferenceDetector.knows('foo')
+		  !circularReferenceDetector.knows('bar')
+	}
+
+	def 'knows: returns false for null'() {
+		expect:
+		  !circularReferenceDetector.knows(null)
+	}
+
+	@Unroll
+	def 'matchingMode #matchingMode'() {
+		given:
+		  circularReferenceDetector = new HashingCircularReferenceDetector(matchingMode)
+
+		when:
+		  circularReferenceDetector.push(internalInstance, NodePath.withRoot())
+		then:
+		  circularReferenceDetector.knows(externalInstance) == known
+
+		when:
+		  circularReferenceDetector.remove(internalInstance)
+		then:
+		  !circularReferenceDetector.knows(internalInstance)
+		  circularReferenceDetector.size() == 0
+
+		where:
+		  matchingMode      | internalInstance            | externalInstance            || known
+		  EQUALS_METHOD     | new ObjectWithString('foo') | new ObjectWithString('foo') || true
+		  EQUALITY_OPERATOR | new ObjectWithString('foo') | new ObjectWithString('foo') || false
+	}
+}
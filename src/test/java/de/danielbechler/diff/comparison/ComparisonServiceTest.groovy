@@ -97,4 +97,35 @@ class ComparisonServiceTest extends Specification {
 			return 0
 		}
 	}
+
+	def "resolveComparisonStrategy: reflects type configuration made after the type has already been resolved"() {
+		given:
+		  def node = Stub(DiffNode)
+		  node.valueType >> String
+		  node.path >> NodePath.with('any')
+		  def comparisonStrategy = Stub(ComparisonStrategy)
+
+		expect:
+		  comparisonService.resolveComparisonStrategy(node) instanceof ComparableComparisonStrategy
+
+		when:
+		  comparisonService.ofType(String).toUse(comparisonStrategy)
+
+		then:
+		  comparisonService.resolveComparisonStrategy(node).is(comparisonStrategy)
+	}
+
+	def "snapshot: is not affected by later configuration changes"() {
+		given:
+		  def node = Stub(DiffNode)
+		  node.valueType >> String
+		  node.path >> NodePath.with('any')
+		  def snapshot = comparisonService.snapshot()
+
+		when:
+		  comparisonService.ofType(String).toUse(Stub(ComparisonStrategy))
+
+		then:
+		  snapshot.resolveComparisonStrategy(node) instanceof ComparableComparisonStrategy
+	}
 }
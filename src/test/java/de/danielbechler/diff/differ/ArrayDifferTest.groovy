@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
+import de.danielbechler.diff.comparison.ComparisonStrategy
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.selector.ArrayRangeElementSelector
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.node.DiffNode.State.*
+
+class ArrayDifferTest extends Specification {
+
+	DifferDispatcher differDispatcher = Mock() {
+		currentDiffContext() >> new DiffContext(Stub(CircularReferenceDetectorFactory))
+		attach(_, _, _, _) >> { DiffNode parentNode, Instances instances, DiffNode node, DiffContext context ->
+			parentNode.addChild(node)
+		}
+	}
+	ComparisonStrategyResolver comparisonStrategyResolver = Mock()
+	ArrayDiffer arrayDiffer = new ArrayDiffer(differDispatcher, comparisonStrategyResolver)
+
+	@Unroll
+	def 'accepts #type: #expected'() {
+		expect:
+		  arrayDiffer.accepts(type) == expected
+		where:
+		  type       || expected
+		  byte[]     || true
+		  int[]      || true
+		  long[]     || true
+		  double[]   || true
+		  Object[]   || true
+		  String[]   || true
+		  int[][]    || true
+		  char[]     || false
+		  List       || false
+		  Object     || false
+		  null       || false
+	}
+
+	@Unroll
+	def 'reports the changed ranges of #type.simpleName arrays'() {
+		given:
+		  def instances = Instances.of(working.asType(type), base.asType(type))
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  node.state == CHANGED
+		  rangesOf(node) == ['[1]', '[3..4]', '[7..8]']
+		where:
+		  type << [byte[], int[], long[], double[], Integer[]]
+		  working = [0, 9, 2, 9, 9, 5, 6, 9, 9]
+		  base = [0, 1, 2, 3, 4, 5, 6, 7, 8]
+	}
+
+	def 'range nodes are changed and typed like the array'() {
+		given:
+		  def instances = Instances.of([1, 2, 3] as int[], [1, 0, 0] as int[])
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  node.childCount() == 1
+		and:
+		  def rangeNode = node.getChild(new ArrayRangeElementSelector(1, 3))
+		  rangeNode.state == CHANGED
+		  rangeNode.valueType == int[]
+		  rangeNode.canonicalGet([1, 2, 3] as int[]) == [2, 3] as int[]
+	}
+
+	@Unroll
+	def 'reports the surplus elements of a #state array as a single range'() {
+		given:
+		  def instances = Instances.of(working as int[], base as int[])
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  node.state == CHANGED
+		  rangesOf(node) == expectedRanges
+		  node.getChild(new ArrayRangeElementSelector(2, 4)).state == state
+		where:
+		  working      | base         || state   | expectedRanges
+		  [1, 2, 3, 4] | [1, 2]       || ADDED   | ['[2..3]']
+		  [1, 2]       | [1, 2, 3, 4] || REMOVED | ['[2..3]']
+		  [1, 0, 3, 4] | [1, 2]       || ADDED   | ['[1]', '[2..3]']
+	}
+
+	def 'reference arrays compare their elements via equals'() {
+		given:
+		  def instances = Instances.of(['a', new String('b'), null] as String[], ['a', 'b', 'c'] as String[])
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  rangesOf(node) == ['[2]']
+	}
+
+	def 'double arrays compare their elements bitwise'() {
+		given:
+		  def instances = Instances.of([Double.NaN, 0.0d] as double[], [Double.NaN, 1.0d / Double.NEGATIVE_INFINITY] as double[])
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  rangesOf(node) == ['[1]']
+	}
+
+	def 'hands range nodes to the dispatcher, so they end up wherever the context wants them'() {
+		given:
+		  def instances = Instances.of([1, 2, 3] as int[], [1, 0, 0] as int[])
+		  def context = new DiffContext(Stub(CircularReferenceDetectorFactory))
+		when:
+		  arrayDiffer.compare(DiffNode.ROOT, instances, context)
+		then:
+		  1 * differDispatcher.attach(_ as DiffNode, instances, _ as DiffNode, context) >> { DiffNode parentNode, Instances i, DiffNode node, DiffContext c ->
+			  assert node.parentNode.is(parentNode)
+			  assert node.elementSelector == new ArrayRangeElementSelector(1, 3)
+		  }
+	}
+
+	def 'stops looking for ranges once the context is done'() {
+		given:
+		  def instances = Instances.of([0, 1, 0, 1] as int[], [1, 0, 1, 0] as int[])
+		  def context = new DiffContext(Stub(CircularReferenceDetectorFactory), true)
+		when:
+		  arrayDiffer.compare(DiffNode.ROOT, instances, context)
+		then:
+		  1 * differDispatcher.attach(_, _, _, context) >> { DiffNode parentNode, Instances i, DiffNode node, DiffContext c ->
+			  c.differenceFound()
+		  }
+	}
+
+	def 'equal arrays are untouched'() {
+		given:
+		  def instances = Instances.of([1, 2, 3] as byte[], [1, 2, 3] as byte[])
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  node.state == UNTOUCHED
+		  !node.hasChildren()
+	}
+
+	@Unroll
+	def 'added and removed arrays get marked as #state without children'() {
+		given:
+		  def instances = Instances.of(working as int[], base as int[])
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  node.state == state
+		  !node.hasChildren()
+		where:
+		  working   | base      || state
+		  [1, 2, 3] | null      || ADDED
+		  null      | [1, 2, 3] || REMOVED
+	}
+
+	def 'delegates to the comparison strategy, if one has been configured'() {
+		given:
+		  def working = [1, 2] as int[]
+		  def base = [2, 1] as int[]
+		  def comparisonStrategy = Mock(ComparisonStrategy)
+		  comparisonStrategyResolver.resolveComparisonStrategy(_) >> comparisonStrategy
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, Instances.of(working, base))
+		then:
+		  1 * comparisonStrategy.compare(_ as DiffNode, int[], working, base)
+		and:
+		  !node.hasChildren()
+	}
+
+	def 'finds changed bytes at any position of a long array'() {
+		expect:
+		  (0..<100).every { position ->
+			  def working = new byte[100]
+			  working[position] = 1
+			  rangesOf(arrayDiffer.compare(DiffNode.ROOT, Instances.of(working, new byte[100]))) == ["[$position]".toString()]
+		  }
+	}
+
+	def 'creates a single node for each run of changed elements of a large array'() {
+		given:
+		  def working = new byte[1000000]
+		  def base = new byte[1000000]
+		  working[10] = 1
+		  (500000..<500100).each { working[it] = 1 }
+		when:
+		  def node = arrayDiffer.compare(DiffNode.ROOT, Instances.of(working, base))
+		then:
+		  rangesOf(node) == ['[10]', '[500000..500099]']
+	}
+
+	private static List<String> rangesOf(DiffNode node) {
+		def ranges = []
+		node.visitChildren({ child, visit -> ranges << child.elementSelector } as DiffNode.Visitor)
+		return ranges.sort { it.fromIndex }*.toHumanReadableString()
+	}
+}
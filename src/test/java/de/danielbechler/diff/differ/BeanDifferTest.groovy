@@ -18,6 +18,7 @@ package de.danielbechler.diff.differ
 import de.danielbechler.diff.access.Instances
 import de.danielbechler.diff.access.PropertyAwareAccessor
 import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
 import de.danielbechler.diff.comparison.ComparisonStrategy
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver
 import de.danielbechler.diff.filtering.IsReturnableResolver
@@ -52,6 +53,10 @@ class BeanDifferTest extends Specification {
 			comparisonStrategyResolver,
 			typeInfoResolver)
 
+	def setup() {
+		differDispatcher.currentDiffContext() >> new DiffContext(Stub(CircularReferenceDetectorFactory))
+	}
+
 	@Unroll
 	def 'accepts all object types (e.g. #type)'() {
 		expect:
@@ -130,7 +135,7 @@ class BeanDifferTest extends Specification {
 		when:
 		  def rootNode = beanDiffer.compare(DiffNode.ROOT, instances)
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, accessor) >> propertyNode
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, accessor, _) >> propertyNode
 		and:
 		  rootNode.childCount() == 1
 		  rootNode.getChild(propertyNode.elementSelector) == propertyNode
@@ -152,7 +157,7 @@ class BeanDifferTest extends Specification {
 		when:
 		  def node = beanDiffer.compare(DiffNode.ROOT, instances)
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, accessor) >> propertyNode
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, accessor, _) >> propertyNode
 		and:
 		  !node.hasChildren()
 	}
@@ -173,7 +178,7 @@ class BeanDifferTest extends Specification {
 		and:
 		  1 * typeInfoResolver.typeInfoForNode({ DiffNode node -> node.isRootNode() }) >> typeInfo
 		and:
-		  1 * differDispatcher.dispatch({ DiffNode node -> node.isRootNode() }, instances, propertyAccessor) >> propertyNode
+		  1 * differDispatcher.dispatch({ DiffNode node -> node.isRootNode() }, instances, propertyAccessor, _) >> propertyNode
 		and:
 		  1 * returnableResolver.isReturnable(propertyNode) >> false
 		and:
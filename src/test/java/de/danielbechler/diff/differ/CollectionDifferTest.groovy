@@ -17,8 +17,11 @@
 package de.danielbechler.diff.differ
 
 import de.danielbechler.diff.access.CollectionItemAccessor
+import de.danielbechler.diff.access.IndexedCollectionItemAccessor
 import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.access.MatchedCollectionItemAccessor
 import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
 import de.danielbechler.diff.comparison.ComparisonStrategy
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver
 import de.danielbechler.diff.identity.EqualsIdentityStrategy
@@ -27,6 +30,7 @@ import de.danielbechler.diff.mock.ObjectWithString
 import de.danielbechler.diff.node.DiffNode
 import de.danielbechler.diff.path.NodePath
 import spock.lang.Specification
+import spock.lang.Unroll
 
 public class CollectionDifferTest extends Specification {
 
@@ -42,6 +46,7 @@ public class CollectionDifferTest extends Specification {
 	Collection<String> workingCollection
 
 	def setup() {
+		differDispatcher.currentDiffContext() >> new DiffContext(Stub(CircularReferenceDetectorFactory))
 		collectionDiffer = new CollectionDiffer(differDispatcher, comparisonStrategyResolver, identityStrategyResolver)
 		baseCollection = new HashSet<String>()
 		workingCollection = new HashSet<String>()
@@ -116,7 +121,7 @@ public class CollectionDifferTest extends Specification {
 		when:
 		  node = collectionDiffer.compare(DiffNode.ROOT, instances)
 		then:
-		  1 * differDispatcher.dispatch(_, instances, _) >> { parentNode, instances, accessor ->
+		  1 * differDispatcher.dispatch(_, instances, _, _) >> { parentNode, instances, accessor, context ->
 			  assert parentNode != null
 			  assert accessor instanceof CollectionItemAccessor
 		  }
@@ -134,7 +139,7 @@ public class CollectionDifferTest extends Specification {
 		when:
 		  node = collectionDiffer.compare(DiffNode.ROOT, instances);
 		then:
-		  1 * differDispatcher.dispatch(_, instances, _) >> { parentNode, instances, accessor ->
+		  1 * differDispatcher.dispatch(_, instances, _, _) >> { parentNode, instances, accessor, context ->
 			  assert parentNode != null
 			  assert accessor instanceof CollectionItemAccessor
 		  }
@@ -168,7 +173,7 @@ public class CollectionDifferTest extends Specification {
 		when:
 		  node = collectionDiffer.compare(DiffNode.ROOT, instances);
 		then:
-		  1 * differDispatcher.dispatch(_, instances, _) >> { parentNode, instances, accessor ->
+		  1 * differDispatcher.dispatch(_, instances, _, _) >> { parentNode, instances, accessor, context ->
 			  assert parentNode.path.matches(NodePath.withRoot())
 			  assert accessor instanceof CollectionItemAccessor
 		  }
@@ -180,4 +185,131 @@ public class CollectionDifferTest extends Specification {
 		  ['known'] | ['known']
 		  []        | ['removed']
 	}
+
+	def 'hands indexed item accessors to dispatcher when identity strategy supports hashing'() {
+		given:
+		  instances = Mock(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getWorking(Collection) >> ['b', 'a']
+			  getBase(Collection) >> ['b', 'a']
+		  }
+		and:
+		  identityStrategyResolver.resolveIdentityStrategy(_) >> EqualsIdentityStrategy.instance
+		when:
+		  collectionDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  2 * differDispatcher.dispatch(_, instances, _, _) >> { parentNode, instances, accessor, context ->
+			  assert accessor instanceof IndexedCollectionItemAccessor
+		  }
+	}
+
+	@Unroll
+	def 'walks #workingItems and #baseItems side by side when both are sorted the same way'() {
+		given:
+		  instances = Mock(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getWorking(Collection) >> workingItems
+			  getBase(Collection) >> baseItems
+		  }
+		and:
+		  identityStrategyResolver.resolveIdentityStrategy(_) >> EqualsIdentityStrategy.instance
+		and:
+		  def dispatchedItems = []
+		when:
+		  collectionDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  _ * differDispatcher.dispatch(_, instances, _, _) >> { parentNode, instances, accessor, context ->
+			  assert accessor instanceof MatchedCollectionItemAccessor
+			  dispatchedItems << [accessor.get(workingItems), accessor.get(baseItems)]
+			  return null
+		  }
+		and:
+		  dispatchedItems == expectedItems
+		where:
+		  workingItems                 | baseItems                    || expectedItems
+		  ['a', 'c', 'd']              | ['b', 'c', 'e']              || [['a', null], ['d', null], [null, 'b'], [null, 'e'], ['c', 'c']]
+		  new TreeSet(['a', 'c', 'd']) | new TreeSet(['b', 'c', 'e']) || [['a', null], ['d', null], [null, 'b'], [null, 'e'], ['c', 'c']]
+		  reverseTreeSet('a', 'c')     | reverseTreeSet('c', 'b')     || [['a', null], [null, 'b'], ['c', 'c']]
+		  [new BigDecimal('1.0')]      | [new BigDecimal('1.00')]     || [[new BigDecimal('1.0'), null], [null, new BigDecimal('1.00')]]
+	}
+
+	@Unroll
+	def 'looks items of #workingItems and #baseItems up via index when they are not sorted the same way'() {
+		given:
+		  instances = Mock(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getWorking(Collection) >> workingItems
+			  getBase(Collection) >> baseItems
+		  }
+		and:
+		  identityStrategyResolver.resolveIdentityStrategy(_) >> EqualsIdentityStrategy.instance
+		when:
+		  collectionDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  _ * differDispatcher.dispatch(_, instances, _, _) >> { parentNode, instances, accessor, context ->
+			  assert accessor instanceof IndexedCollectionItemAccessor
+		  }
+		where:
+		  workingItems             | baseItems
+		  ['a', 'b', 'b']          | ['a', 'b']
+		  ['a', 'b']               | ['b', 'a']
+		  ['a', 1]                 | ['a', 1]
+		  new TreeSet(['a', 'b'])  | reverseTreeSet('a', 'b')
+		  new TreeSet(['a', 'b'])  | ['a', 'b']
+		  [new Event('a', 1), new Event('b', 5)] | [new Event('a', 1), new Event('b', 3)]
+	}
+
+	def 'walks items side by side when the ordering disagrees with equals, but no items have been missed'() {
+		given:
+		  def workingItems = [new Event('a', 1), new Event('c', 5)]
+		  def baseItems = [new Event('a', 1), new Event('b', 3)]
+		  instances = Mock(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getWorking(Collection) >> workingItems
+			  getBase(Collection) >> baseItems
+		  }
+		and:
+		  identityStrategyResolver.resolveIdentityStrategy(_) >> EqualsIdentityStrategy.instance
+		when:
+		  collectionDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  3 * differDispatcher.dispatch(_, instances, _, _) >> { parentNode, instances, accessor, context ->
+			  assert accessor instanceof MatchedCollectionItemAccessor
+		  }
+	}
+
+	private static TreeSet reverseTreeSet(final String... items) {
+		def treeSet = new TreeSet(Collections.reverseOrder())
+		treeSet.addAll(items)
+		return treeSet
+	}
+
+	/**
+	 * Sorted by time, but equal by id.
+	 */
+	static class Event implements Comparable<Event> {
+		final String id
+		final int time
+
+		Event(String id, int time) {
+			this.id = id
+			this.time = time
+		}
+
+		int compareTo(Event other) {
+			return time <=> other.time
+		}
+
+		boolean equals(Object o) {
+			return o instanceof Event && id == o.id
+		}
+
+		int hashCode() {
+			return id.hashCode()
+		}
+
+		String toString() {
+			return id + '@' + time
+		}
+	}
 }
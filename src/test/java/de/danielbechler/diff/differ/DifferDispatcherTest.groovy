@@ -16,22 +16,35 @@
 
 package de.danielbechler.diff.differ
 
+import de.danielbechler.diff.access.ArrayRangeAccessor
+import de.danielbechler.diff.access.CollectionItemAccessor
 import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.access.MapEntryAccessor
 import de.danielbechler.diff.access.PropertyAwareAccessor
 import de.danielbechler.diff.access.RootAccessor
 import de.danielbechler.diff.category.CategoryResolver
+import de.danielbechler.diff.category.CategoryService
 import de.danielbechler.diff.circular.CircularReferenceDetector
 import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
 import de.danielbechler.diff.circular.CircularReferenceExceptionHandler
+import de.danielbechler.diff.comparison.ComparableComparisonStrategy
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver
 import de.danielbechler.diff.filtering.IsReturnableResolver
 import de.danielbechler.diff.inclusion.IsIgnoredResolver
+import de.danielbechler.diff.introspection.IsIntrospectableResolver
 import de.danielbechler.diff.introspection.PropertyAccessExceptionHandler
 import de.danielbechler.diff.introspection.PropertyAccessExceptionHandlerResolver
 import de.danielbechler.diff.introspection.PropertyReadException
+import de.danielbechler.diff.introspection.TypeInfoResolver
+import de.danielbechler.diff.node.DiffListener
 import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.node.Visit
 import de.danielbechler.diff.path.NodePath
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
 import spock.lang.Specification
 
+import java.util.concurrent.Executor
+
 import static de.danielbechler.diff.circular.CircularReferenceDetector.CircularReferenceException
 
 public class DifferDispatcherTest extends Specification {
@@ -56,7 +69,10 @@ public class DifferDispatcherTest extends Specification {
 				ignoredResolver,
 				returnableResolver,
 				propertyAccessExceptionHandlerResolver,
-				categoryResolver);
+				categoryResolver,
+				null,
+				0,
+				null);
 	}
 
 	def 'when circular reference is detected the node should be marked as circular'() throws Exception {
@@ -65,7 +81,7 @@ public class DifferDispatcherTest extends Specification {
 			  throw new CircularReferenceException(nodePath)
 		  }
 		when:
-		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('*', '*'), RootAccessor.instance);
+		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of(new Object(), new Object()), RootAccessor.instance);
 		then:
 		  node.state == DiffNode.State.CIRCULAR
 	}
@@ -76,7 +92,7 @@ public class DifferDispatcherTest extends Specification {
 			  throw new CircularReferenceException(nodePath)
 		  }
 		when:
-		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('*', '*'), RootAccessor.instance);
+		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of(new Object(), new Object()), RootAccessor.instance);
 		then: 'the node should be marked as circular'
 		  node.circleStartPath == NodePath.withRoot()
 		and:
@@ -91,13 +107,24 @@ public class DifferDispatcherTest extends Specification {
 			  throw new CircularReferenceException(nodePath)
 		  }
 		when:
-		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('*', '*'), RootAccessor.instance);
+		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of(new Object(), new Object()), RootAccessor.instance);
 		then:
 		  1 * circularReferenceExceptionHandler.onCircularReferenceException(_ as DiffNode) >> { DiffNode it -> handledNode = it }
 		expect:
 		  node.is(handledNode)
 	}
 
+	def 'leaf values are not tracked by the circular reference detectors'() {
+		given:
+		  differProvider.retrieveDifferForType(_) >> Stub(Differ)
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, Instances.of(value, value), RootAccessor.instance);
+		then:
+		  0 * circularReferenceDetector.push(_, _)
+		where:
+		  value << ['*', 42, true]
+	}
+
 	def 'throw exception if no differ can be found for instance type'() {
 		given:
 		  differProvider.retrieveDifferForType(_) >> null
@@ -137,4 +164,379 @@ public class DifferDispatcherTest extends Specification {
 		then:
 		  node.state == DiffNode.State.INACCESSIBLE
 	}
+
+	def 'passes the given context on to ContextualDiffers'() {
+		given:
+		  def context = differDispatcher.newDiffContext()
+		  def differ = Mock(ContextualDiffer)
+		  differProvider.retrieveDifferForType(_) >> differ
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, Instances.of('a', 'b'), RootAccessor.instance, context)
+		then:
+		  1 * differ.compare(DiffNode.ROOT, _ as Instances, context) >> new DiffNode(DiffNode.ROOT, RootAccessor.instance, String)
+	}
+
+	def 'binds the context to the current thread while invoking differs that are not ContextualDiffers'() {
+		given:
+		  def context = differDispatcher.newDiffContext()
+		  def contextSeenByDiffer = null
+		  differProvider.retrieveDifferForType(_) >> Stub(Differ) {
+			  compare(_, _) >> {
+				  contextSeenByDiffer = differDispatcher.currentDiffContext()
+				  new DiffNode(DiffNode.ROOT, RootAccessor.instance, String)
+			  }
+		  }
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, Instances.of('a', 'b'), RootAccessor.instance, context)
+		then:
+		  contextSeenByDiffer.is(context)
+		and: 'the context is unbound again afterwards'
+		  !differDispatcher.currentDiffContext().is(context)
+	}
+
+	def 'dispatching a root node without context starts a new comparison'() {
+		given:
+		  def contexts = []
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { parentNode, instances, context ->
+				  contexts << context
+				  new DiffNode(DiffNode.ROOT, RootAccessor.instance, String)
+			  }
+		  }
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, Instances.of('a', 'b'), RootAccessor.instance)
+		  differDispatcher.dispatch(DiffNode.ROOT, Instances.of('a', 'b'), RootAccessor.instance)
+		then:
+		  contexts.size() == 2
+		  !contexts[0].is(contexts[1])
+	}
+
+	def 'dispatchInParallel: adds children in order of the given accessors, regardless of completion order'() {
+		given:
+		  def pendingTasks = []
+		  def executor = { Runnable task -> pendingTasks << task } as Executor
+		  differDispatcher = new DifferDispatcher(differProvider,
+				  circularReferenceDetectorFactory,
+				  circularReferenceExceptionHandler,
+				  ignoredResolver,
+				  returnableResolver,
+				  propertyAccessExceptionHandlerResolver,
+				  categoryResolver,
+				  executor,
+				  2,
+				  null)
+		  circularReferenceDetector.copy() >> circularReferenceDetector
+		  returnableResolver.isReturnable(_) >> true
+		and:
+		  def contexts = []
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { DiffNode parentNode, Instances instances, DiffContext context ->
+				  contexts << context
+				  // simulates other threads completing the remaining comparisons first
+				  pendingTasks.reverse().each { it.run() }
+				  new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+			  }
+		  }
+		and:
+		  def context = differDispatcher.newDiffContext()
+		  def mapNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, Map)
+		  def accessors = ['a', 'b', 'c'].collect { new MapEntryAccessor(it) }
+		expect:
+		  differDispatcher.shouldDispatchInParallel(accessors.size())
+		when:
+		  differDispatcher.dispatchInParallel(mapNode, Instances.of([a: '1', b: '2', c: '3'], [:]), accessors, context)
+		then:
+		  def childKeys = []
+		  mapNode.visitChildren({ DiffNode node, Visit visit -> childKeys << node.elementSelector.key } as DiffNode.Visitor)
+		  childKeys == ['a', 'b', 'c']
+		and: 'every child has been compared with its own fork of the context'
+		  contexts.size() == 3
+		  contexts.every { !it.is(context) }
+		  contexts.unique(false) { System.identityHashCode(it) }.size() == 3
+	}
+
+	def 'dispatchInParallel: resolves the categories of the parent node before forking'() {
+		given:
+		  def executor = Mock(Executor)
+		  differDispatcher = new DifferDispatcher(differProvider,
+				  circularReferenceDetectorFactory,
+				  circularReferenceExceptionHandler,
+				  ignoredResolver,
+				  returnableResolver,
+				  propertyAccessExceptionHandlerResolver,
+				  categoryResolver,
+				  executor,
+				  1,
+				  null)
+		  circularReferenceDetector.copy() >> circularReferenceDetector
+		  ignoredResolver.isIgnored(_) >> true
+		and:
+		  def parentAccessor = Mock(PropertyAwareAccessor) {
+			  getElementSelector() >> new BeanPropertyElementSelector('map')
+		  }
+		  def parentNode = new DiffNode(DiffNode.ROOT, parentAccessor, Map)
+		when:
+		  differDispatcher.dispatchInParallel(parentNode, Instances.of([a: '1'], [:]), [new MapEntryAccessor('a')], differDispatcher.newDiffContext())
+		then:
+		  1 * parentAccessor.getCategoriesFromAnnotation() >> (['foo'] as Set)
+		then:
+		  1 * executor.execute(_)
+		and:
+		  parentNode.categories == ['foo'] as Set
+	}
+
+	def 'shouldDispatchInParallel: returns false when no executor has been configured'() {
+		expect:
+		  !differDispatcher.shouldDispatchInParallel(Integer.MAX_VALUE)
+	}
+
+	def 'stops dispatching once a context that stops at the first difference has found one'() {
+		given:
+		  returnableResolver.isReturnable(_) >> true
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { DiffNode parentNode, Instances instances, DiffContext context ->
+				  def node = new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+				  node.state = DiffNode.State.CHANGED
+				  node
+			  }
+		  }
+		and:
+		  def context = differDispatcher.newDiffContextStoppingAtFirstDifference()
+		  def mapNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, Map)
+		  def instances = Instances.of([a: '1', b: '2'], [a: '0', b: '0'])
+		when:
+		  def first = differDispatcher.dispatch(mapNode, instances, new MapEntryAccessor('a'), context)
+		then:
+		  first.changed
+		  context.done
+		when:
+		  def second = differDispatcher.dispatch(mapNode, instances, new MapEntryAccessor('b'), context)
+		then:
+		  second.untouched
+	}
+
+	def 'contexts that stop at the first difference only pass the state of nodes on to their parents'() {
+		given:
+		  returnableResolver.isReturnable(_) >> true
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { DiffNode parentNode, Instances instances, DiffContext context ->
+				  def node = new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+				  node.state = DiffNode.State.CHANGED
+				  node
+			  }
+		  }
+		and:
+		  def context = differDispatcher.newDiffContextStoppingAtFirstDifference()
+		  def mapNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, Map)
+		when:
+		  differDispatcher.dispatch(mapNode, Instances.of([a: '1'], [a: '0']), new MapEntryAccessor('a'), context)
+		then:
+		  0 * categoryResolver.resolveCategories(_)
+		and:
+		  !mapNode.hasChildren()
+		  mapNode.changed
+	}
+
+	def 'contexts that do not stop at the first difference are never done'() {
+		given:
+		  def context = differDispatcher.newDiffContext()
+		when:
+		  context.differenceFound()
+		then:
+		  !context.done
+	}
+
+	def 'passes nodes to the listener of the context instead of adding them to their parent'() {
+		given:
+		  returnableResolver.isReturnable(_) >> true
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { DiffNode parentNode, Instances instances, DiffContext context ->
+				  def node = new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+				  node.state = DiffNode.State.CHANGED
+				  node
+			  }
+		  }
+		and:
+		  def listener = Mock(DiffListener)
+		  def context = differDispatcher.newDiffContext(listener)
+		  def mapNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, Map)
+		when:
+		  differDispatcher.dispatch(mapNode, Instances.of([a: '1'], [a: '0']), new MapEntryAccessor('a'), context)
+		then:
+		  1 * listener.onNode({ it.path == NodePath.startBuilding().mapKey('a').build() }, '1', '0')
+		and:
+		  !mapNode.hasChildren()
+		  mapNode.changed
+	}
+
+	def 'passes the compared values to the listener without accessing them again'() {
+		given:
+		  returnableResolver.isReturnable(_) >> true
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { DiffNode parentNode, Instances instances, DiffContext context ->
+				  def node = new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+				  node.state = DiffNode.State.CHANGED
+				  node
+			  }
+		  }
+		and:
+		  def listener = Mock(DiffListener)
+		  def context = differDispatcher.newDiffContext(listener)
+		  def working = ['a', 'b']
+		  def base = ['a']
+		  def itemAccessor = Spy(CollectionItemAccessor, constructorArgs: ['a'])
+		  def listNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, List)
+		when:
+		  differDispatcher.dispatch(listNode, Instances.of(working, base), itemAccessor, context)
+		then:
+		  1 * itemAccessor.get(working)
+		  1 * itemAccessor.get(base)
+		  1 * listener.onNode(_, 'a', 'a')
+	}
+
+	def 'attach: treats nodes created by differs like dispatched ones'() {
+		given:
+		  returnableResolver.isReturnable(_) >> true
+		  def listener = Mock(DiffListener)
+		  def context = differDispatcher.newDiffContext(listener)
+		  def instances = Instances.of([0, 1] as int[], [0, 0] as int[])
+		  def arrayNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, int[])
+		  def rangeNode = new DiffNode(arrayNode, new ArrayRangeAccessor(int[], 1, 2), int[])
+		  rangeNode.state = DiffNode.State.CHANGED
+		when:
+		  differDispatcher.attach(arrayNode, instances, rangeNode, context)
+		then:
+		  1 * categoryResolver.resolveCategories(rangeNode) >> ['foo']
+		  1 * listener.onNode(rangeNode, [1] as int[], [0] as int[])
+		and:
+		  rangeNode.categories == ['foo'] as Set
+		  !arrayNode.hasChildren()
+		  arrayNode.changed
+	}
+
+	def 'attach: marks ignored nodes as such'() {
+		given:
+		  ignoredResolver.isIgnored(_) >> true
+		  def arrayNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, int[])
+		  def rangeNode = new DiffNode(arrayNode, new ArrayRangeAccessor(int[], 0, 1), int[])
+		when:
+		  differDispatcher.attach(arrayNode, Instances.of([1] as int[], [0] as int[]), rangeNode, differDispatcher.newDiffContext())
+		then:
+		  rangeNode.state == DiffNode.State.IGNORED
+	}
+
+	def 'leaves the lookup of configured categories to the nodes'() {
+		given:
+		  returnableResolver.isReturnable(_) >> true
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { DiffNode parentNode, Instances instances, DiffContext context ->
+				  new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+			  }
+		  }
+		  def configuredCategoryResolver = Mock(CategoryService) {
+			  hasConfiguredCategories() >> configured
+		  }
+		  differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory,
+				  circularReferenceExceptionHandler, ignoredResolver, returnableResolver,
+				  propertyAccessExceptionHandlerResolver, configuredCategoryResolver, null, 0, null)
+		  def mapNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, Map)
+		when:
+		  def node = differDispatcher.dispatch(mapNode, Instances.of([a: '1'], [a: '1']), new MapEntryAccessor('a'), differDispatcher.newDiffContext())
+		then:
+		  0 * configuredCategoryResolver.resolveConfiguredCategories(_)
+		  0 * configuredCategoryResolver.resolveCategories(_)
+		when:
+		  def categories = node.categories
+		then:
+		  lookups * configuredCategoryResolver.resolveConfiguredCategories(node) >> (['foo'] as Set)
+		  categories == expectedCategories as Set
+		where:
+		  configured || lookups | expectedCategories
+		  true       || 1       | ['foo']
+		  false      || 0       | []
+	}
+
+	def 'only resolves the categories of children that are returnable'() {
+		given:
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { DiffNode parentNode, Instances instances, DiffContext context ->
+				  new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+			  }
+		  }
+		  returnableResolver.isReturnable(_) >> returnable
+		  def mapNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, Map)
+		when:
+		  def node = differDispatcher.dispatch(mapNode, Instances.of([a: '1'], [a: '1']), new MapEntryAccessor('a'), differDispatcher.newDiffContext())
+		then:
+		  resolutions * categoryResolver.resolveCategories(_) >> ['foo']
+		and:
+		  node.categories == categories as Set
+		where:
+		  returnable || resolutions | categories
+		  true       || 1           | ['foo']
+		  false      || 0           | []
+	}
+
+	def 'always resolves the categories of the root node'() {
+		given:
+		  differProvider.retrieveDifferForType(_) >> Stub(ContextualDiffer) {
+			  compare(_, _, _) >> { DiffNode parentNode, Instances instances, DiffContext context ->
+				  new DiffNode(parentNode, instances.sourceAccessor, instances.type)
+			  }
+		  }
+		  returnableResolver.isReturnable(_) >> false
+		when:
+		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of([a: '1'], [a: '1']), RootAccessor.instance)
+		then:
+		  1 * categoryResolver.resolveCategories(_) >> ['foo']
+		and:
+		  node.untouched
+		  node.categories == ['foo'] as Set
+	}
+
+	def 'returns an untouched node without consulting any differ when both values are null'() {
+		given:
+		  def mapNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, Map)
+		when:
+		  def node = differDispatcher.dispatch(mapNode, Instances.of([a: null], [a: null]), new MapEntryAccessor('a'), differDispatcher.newDiffContext())
+		then:
+		  0 * differProvider.retrieveDifferForType(_)
+		and:
+		  node.untouched
+		  node.path == NodePath.startBuilding().mapKey('a').build()
+	}
+
+	def 'compares leaf values handled by the BeanDiffer on the node that has been created for the ignore check'() {
+		given:
+		  def comparisonStrategyResolver = Mock(ComparisonStrategyResolver)
+		  def dispatcher = new DifferDispatcher(differProvider,
+				  circularReferenceDetectorFactory,
+				  circularReferenceExceptionHandler,
+				  ignoredResolver,
+				  returnableResolver,
+				  propertyAccessExceptionHandlerResolver,
+				  categoryResolver,
+				  null,
+				  0,
+				  comparisonStrategyResolver)
+		  differProvider.retrieveDifferForType(String) >> new BeanDiffer(dispatcher,
+				  Stub(IsIntrospectableResolver),
+				  Stub(IsReturnableResolver),
+				  Stub(ComparisonStrategyResolver),
+				  Stub(TypeInfoResolver))
+		and:
+		  def ignoreCheckNode = null
+		  ignoredResolver.isIgnored(_) >> { DiffNode node ->
+			  ignoreCheckNode = node
+			  return false
+		  }
+		when:
+		  def node = dispatcher.dispatch(DiffNode.ROOT, Instances.of('foo', 'bar'), RootAccessor.instance)
+		then:
+		  1 * comparisonStrategyResolver.resolveComparisonStrategy(_) >> new ComparableComparisonStrategy()
+		and:
+		  node.is(ignoreCheckNode)
+		  node.changed
+		  node.valueType == String
+	}
 }
@@ -69,4 +69,31 @@ public class DifferProviderTest extends Specification {
 		  Exception ex = thrown(IllegalStateException)
 		  ex.message == "Couldn't find a differ for type: java.util.Date"
 	}
+
+	def 'ask differs only once whether they accept a given type'() {
+		given:
+		  def differ = Mock(Differ)
+		  differProvider.push(differ)
+		when:
+		  differProvider.retrieveDifferForType(String)
+		  differProvider.retrieveDifferForType(String)
+		then:
+		  1 * differ.accepts(String) >> true
+	}
+
+	def 'differs pushed after a type has been resolved still take precedence'() {
+		given:
+		  differProvider.push(Stub(Differ) {
+			  accepts(String) >> true
+		  })
+		  differProvider.retrieveDifferForType(String)
+		and:
+		  def customDiffer = Stub(Differ) {
+			  accepts(String) >> true
+		  }
+		when:
+		  differProvider.push(customDiffer)
+		then:
+		  differProvider.retrieveDifferForType(String).is(customDiffer)
+	}
 }
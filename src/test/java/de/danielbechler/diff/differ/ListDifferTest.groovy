@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.access.Instances
+import de.danielbechler.diff.access.ListItemAccessor
+import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
+import de.danielbechler.diff.comparison.ComparisonStrategy
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver
+import de.danielbechler.diff.identity.EqualsIdentityStrategy
+import de.danielbechler.diff.identity.IdentityStrategyResolver
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.selector.CollectionItemElementSelector
+import de.danielbechler.diff.selector.ListItemElementSelector
+import spock.lang.Specification
+
+class ListDifferTest extends Specification {
+
+	DifferDispatcher differDispatcher = Mock()
+	ContextualDiffer fallbackDiffer = Mock()
+	OrderedListResolver orderedListResolver = Stub()
+	ComparisonStrategyResolver comparisonStrategyResolver = Mock()
+	IdentityStrategyResolver identityStrategyResolver = Stub()
+	ListDiffer listDiffer
+
+	def setup() {
+		differDispatcher.currentDiffContext() >> new DiffContext(Stub(CircularReferenceDetectorFactory))
+		identityStrategyResolver.resolveIdentityStrategy(_) >> EqualsIdentityStrategy.instance
+		listDiffer = new ListDiffer(differDispatcher, fallbackDiffer, orderedListResolver, comparisonStrategyResolver, identityStrategyResolver)
+	}
+
+	def 'accepts lists and collections of mixed types'() {
+		expect:
+		  listDiffer.accepts(List)
+		  listDiffer.accepts(ArrayList)
+		  listDiffer.accepts(Collection)
+		  !listDiffer.accepts(Set)
+	}
+
+	def 'passes collections that are no lists on to the fallback differ'() {
+		given:
+		  def instances = Stub(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getType() >> Collection
+			  getWorking() >> (['a'] as Set)
+			  getBase() >> ['b']
+		  }
+		  orderedListResolver.isOrdered(_, _, _) >> true
+		when:
+		  listDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  1 * fallbackDiffer.compare(DiffNode.ROOT, instances, _ as DiffContext)
+		  0 * differDispatcher.dispatch(*_)
+	}
+
+	def 'passes lists that should not be compared in order on to the fallback differ'() {
+		given:
+		  def instances = listInstances(['a'], ['b'])
+		  def fallbackNode = new DiffNode(DiffNode.ROOT, RootAccessor.instance, List)
+		  orderedListResolver.isOrdered(_, _, _) >> false
+		when:
+		  def node = listDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  1 * fallbackDiffer.compare(DiffNode.ROOT, instances, _ as DiffContext) >> fallbackNode
+		  0 * differDispatcher.dispatch(*_)
+		and:
+		  node.is(fallbackNode)
+	}
+
+	def 'dispatches the items in working order, followed by the removed ones'() {
+		given:
+		  def working = ['d', 'a', 'b', 'x']
+		  def base = ['a', 'b', 'c', 'd']
+		  def instances = listInstances(working, base)
+		  orderedListResolver.isOrdered(_, _, _) >> true
+		and:
+		  def dispatchedItems = []
+		when:
+		  listDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  _ * differDispatcher.dispatch(_, instances, _ as ListItemAccessor, _) >> { parentNode, parentInstances, accessor, context ->
+			  dispatchedItems << [accessor.baseIndex, accessor.workingIndex, accessor.moved, accessor.get(working), accessor.get(base)]
+			  return null
+		  }
+		and:
+		  dispatchedItems == [
+				  [3, 0, true, 'd', 'd'],
+				  [0, 1, false, 'a', 'a'],
+				  [1, 2, false, 'b', 'b'],
+				  [-1, 3, false, 'x', null],
+				  [2, -1, false, null, 'c']
+		  ]
+	}
+
+	def 'keeps track of the positions of duplicate items'() {
+		given:
+		  def working = ['a', 'a', 'a']
+		  def base = ['a']
+		  def instances = listInstances(working, base)
+		  orderedListResolver.isOrdered(_, _, _) >> true
+		and:
+		  def positions = []
+		when:
+		  listDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  _ * differDispatcher.dispatch(_, instances, _ as ListItemAccessor, _) >> { parentNode, parentInstances, accessor, context ->
+			  positions << [accessor.elementSelector.occurrence, accessor.baseIndex, accessor.workingIndex]
+			  return null
+		  }
+		and:
+		  positions == [[0, 0, 0], [1, -1, 1], [2, -1, 2]]
+	}
+
+	def 'dispatches all items of an added list as added'() {
+		given:
+		  def instances = Stub(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getType() >> List
+			  hasBeenAdded() >> true
+			  getWorking(List) >> ['a', 'b']
+		  }
+		  orderedListResolver.isOrdered(_, _, _) >> true
+		and:
+		  def positions = []
+		when:
+		  def node = listDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  _ * differDispatcher.dispatch(_, instances, _ as ListItemAccessor, _) >> { parentNode, parentInstances, accessor, context ->
+			  positions << [accessor.elementSelector, accessor.baseIndex, accessor.workingIndex]
+			  return null
+		  }
+		and:
+		  positions == [
+				  [new ListItemElementSelector(new CollectionItemElementSelector('a'), 0), -1, 0],
+				  [new ListItemElementSelector(new CollectionItemElementSelector('b'), 0), -1, 1]
+		  ]
+		  node.state == DiffNode.State.ADDED
+	}
+
+	def 'uses the comparison strategy instead of comparing the items, if one is configured'() {
+		given:
+		  def instances = listInstances(['a'], ['b'])
+		  def comparisonStrategy = Mock(ComparisonStrategy)
+		  orderedListResolver.isOrdered(_, _, _) >> true
+		  comparisonStrategyResolver.resolveComparisonStrategy(_) >> comparisonStrategy
+		when:
+		  listDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  1 * comparisonStrategy.compare(_ as DiffNode, List, ['a'], ['b'])
+		  0 * differDispatcher.dispatch(*_)
+	}
+
+	private Instances listInstances(List workingList, List baseList) {
+		return Stub(Instances) {
+			getSourceAccessor() >> RootAccessor.instance
+			getType() >> List
+			getWorking(List) >> workingList
+			getBase(List) >> baseList
+		}
+	}
+}
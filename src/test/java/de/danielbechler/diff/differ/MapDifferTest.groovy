@@ -20,11 +20,13 @@ import de.danielbechler.diff.access.Accessor
 import de.danielbechler.diff.access.Instances
 import de.danielbechler.diff.access.MapEntryAccessor
 import de.danielbechler.diff.access.RootAccessor
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
 import de.danielbechler.diff.comparison.ComparisonStrategy
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver
 import de.danielbechler.diff.filtering.IsReturnableResolver
 import de.danielbechler.diff.node.DiffNode
 import spock.lang.Specification
+import spock.lang.Unroll
 
 import static de.danielbechler.diff.node.DiffNode.State.*
 
@@ -44,7 +46,8 @@ public class MapDifferTest extends Specification {
 	def comparisonStrategy = Mock(ComparisonStrategy)
 
 	def setup() {
-		differDispatcher.dispatch(_ as DiffNode, _ as Instances, _ as Accessor) >> childNode
+		differDispatcher.currentDiffContext() >> new DiffContext(Stub(CircularReferenceDetectorFactory))
+		differDispatcher.dispatch(_ as DiffNode, _ as Instances, _ as Accessor, _) >> childNode
 		mapDiffer = new MapDiffer(differDispatcher, comparisonStrategyResolver)
 		instances.sourceAccessor >> RootAccessor.instance
 		instances.getWorking(Map) >> working
@@ -70,8 +73,8 @@ public class MapDifferTest extends Specification {
 		  node = mapDiffer.compare(DiffNode.ROOT, instances)
 
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('1'))
-		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('2'))
+		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('1'), _)
+		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('2'), _)
 	}
 
 	def "mark node as removed when map was an instance and has been changed to null"() {
@@ -98,7 +101,7 @@ public class MapDifferTest extends Specification {
 		  working.put('foo', 'bar')
 
 		when:
-		  mapDiffer.compare(DiffNode.ROOT, instances)
+		  mapDiffer.compare(DiffNode.ROOT, instances, new DiffContext(Stub(CircularReferenceDetectorFactory)))
 
 		then:
 		  0 * differDispatcher._
@@ -112,7 +115,7 @@ public class MapDifferTest extends Specification {
 		  node = mapDiffer.compare(DiffNode.ROOT, instances)
 
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('foo')) >> childNode
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('foo'), _) >> childNode
 	}
 
 	def "dispatch comparison of removed map entry"() {
@@ -123,7 +126,7 @@ public class MapDifferTest extends Specification {
 		  node = mapDiffer.compare(DiffNode.ROOT, instances)
 
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('foo')) >> childNode
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('foo'), _) >> childNode
 	}
 
 	def "delegate to comparison strategy returned by ComparisonStrategyResolver"() {
@@ -160,8 +163,8 @@ public class MapDifferTest extends Specification {
 		  node = mapDiffer.compare(DiffNode.ROOT, instances)
 
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('1'))
-		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('2'))
+		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('1'), _)
+		  1 * differDispatcher.dispatch(_ as DiffNode, _ as Instances, new MapEntryAccessor('2'), _)
 	}
 
 	def "fail when constructed without delegator"() {
@@ -196,4 +199,40 @@ public class MapDifferTest extends Specification {
 		  String     || false
 		  null       || false
 	}
+
+	@Unroll
+	def "dispatch added, removed and known entries in that order (#description)"() {
+		given:
+		  def sortedInstances = Stub(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getType() >> Map
+			  getWorking(Map) >> workingMap
+			  getBase(Map) >> baseMap
+		  }
+		and:
+		  def dispatchedKeys = []
+
+		when:
+		  mapDiffer.compare(DiffNode.ROOT, sortedInstances)
+
+		then:
+		  _ * differDispatcher.dispatch(_, _, _, _) >> { parentNode, instances, MapEntryAccessor accessor, context ->
+			  dispatchedKeys << accessor.elementSelector.key
+			  childNode
+		  }
+		  dispatchedKeys == expectedKeys
+
+		where:
+		  description                  | workingMap                                               | baseMap                                                  || expectedKeys
+		  'hashed'                     | [a: 1, c: 3, d: 4] as LinkedHashMap                      | [b: 2, c: 0, d: 4] as LinkedHashMap                      || ['a', 'b', 'c', 'd']
+		  'sorted'                     | new TreeMap([d: 4, a: 1, c: 3])                          | new TreeMap([c: 0, b: 2, d: 4, e: 5])                    || ['a', 'b', 'e', 'c', 'd']
+		  'sorted in reverse'          | reverseTreeMap([d: 4, a: 1, c: 3])                       | reverseTreeMap([c: 0, b: 2, d: 4, e: 5])                 || ['a', 'e', 'b', 'd', 'c']
+		  'sorted in different orders' | new TreeMap([d: 4, a: 1, c: 3])                          | reverseTreeMap([c: 0, b: 2, d: 4, e: 5])                 || ['a', 'e', 'b', 'c', 'd']
+	}
+
+	private static SortedMap reverseTreeMap(Map map) {
+		def sortedMap = new TreeMap(Collections.reverseOrder())
+		sortedMap.putAll(map)
+		return sortedMap
+	}
 }
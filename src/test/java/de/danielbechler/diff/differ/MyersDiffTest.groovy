@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.differ.MyersDiff.NO_MATCH
+
+class MyersDiffTest extends Specification {
+
+	@Unroll
+	def 'matches #base with #working via their longest common subsequence'() {
+		expect:
+		  MyersDiff.match(base as int[], working as int[]) as List == expectedMatches
+		where:
+		  base            | working         || expectedMatches
+		  []              | []              || []
+		  []              | [1, 2]          || []
+		  [1, 2]          | []              || [NO_MATCH, NO_MATCH]
+		  [1, 2, 3]       | [1, 2, 3]       || [0, 1, 2]
+		  [1, 2, 3]       | [1, 3]          || [0, NO_MATCH, 1]
+		  [1, 3]          | [1, 2, 3]       || [0, 2]
+		  [1, 2, 3]       | [3, 1, 2]       || [1, 2, NO_MATCH]
+		  [1, 2, 3]       | [4, 5, 6]       || [NO_MATCH, NO_MATCH, NO_MATCH]
+		  [1, 1, 2]       | [2, 1, 1]       || [1, 2, NO_MATCH]
+		  [1, 2, 3, 4, 5] | [1, 4, 3, 2, 5] || [0, 3, NO_MATCH, NO_MATCH, 4]
+		  [2, 1, 2]       | [1, 2, 2]       || [NO_MATCH, 0, 2]
+		  [1, 2]          | [2, 1, 1, 2]    || [1, 3]
+	}
+
+	def 'finds a longest common subsequence for random sequences'() {
+		given:
+		  def random = new Random(42)
+		expect:
+		  1000.times {
+			  def base = randomSymbols(random, random.nextInt(30), 5)
+			  def working = randomSymbols(random, random.nextInt(30), 5)
+			  def matches = MyersDiff.match(base, working)
+			  assertValidMatches(base, working, matches)
+			  assert matchCount(matches) == lcsLength(base, working)
+		  }
+	}
+
+	def 'finds a longest common subsequence for random sequences with distinct base symbols'() {
+		given:
+		  def random = new Random(42)
+		expect:
+		  1000.times {
+			  def base = (0..<random.nextInt(30)) as int[]
+			  def working = randomSymbols(random, random.nextInt(30), 40)
+			  def matches = MyersDiff.match(base, working)
+			  assertValidMatches(base, working, matches)
+			  assert matchCount(matches) == lcsLength(base, working)
+		  }
+	}
+
+	def 'matches shuffled sequences of distinct symbols via their longest increasing subsequence'() {
+		given:
+		  def base = (0..<100000) as int[]
+		  def working = base.toList()
+		  Collections.shuffle(working, new Random(42))
+		when:
+		  def matches = MyersDiff.match(base, working as int[])
+		then:
+		  assertValidMatches(base, working as int[], matches)
+		  matchCount(matches) > 0
+	}
+
+	def 'still finds valid matches when the search for the shortest edit script is cut short'() {
+		given:
+		  def random = new Random(42)
+		  def base = randomSymbols(random, 20000, 1000)
+		  def working = randomSymbols(random, 20000, 1000)
+		when:
+		  def matches = MyersDiff.match(base, working)
+		then:
+		  assertValidMatches(base, working, matches)
+	}
+
+	def 'finds the few differences of long sequences'() {
+		given:
+		  def base = (0..<100000) as int[]
+		  def working = base.toList()
+		  working.remove(500)
+		  working.add(70000, -1)
+		  Collections.swap(working, 10, 20)
+		when:
+		  def matches = MyersDiff.match(base, working as int[])
+		then:
+		  assertValidMatches(base, working as int[], matches)
+		  matchCount(matches) == base.length - 3
+	}
+
+	private static int[] randomSymbols(Random random, int length, int alphabetSize) {
+		def symbols = new int[length]
+		for (int i = 0; i < length; i++) {
+			symbols[i] = random.nextInt(alphabetSize)
+		}
+		return symbols
+	}
+
+	private static void assertValidMatches(int[] base, int[] working, int[] matches) {
+		assert matches.length == base.length
+		int previous = -1
+		for (int i = 0; i < matches.length; i++) {
+			if (matches[i] != NO_MATCH) {
+				assert matches[i] > previous
+				assert base[i] == working[matches[i]]
+				previous = matches[i]
+			}
+		}
+	}
+
+	private static int matchCount(int[] matches) {
+		return matches.toList().count { it != NO_MATCH }
+	}
+
+	private static int lcsLength(int[] base, int[] working) {
+		def lengths = new int[base.length + 1][working.length + 1]
+		for (int i = base.length - 1; i >= 0; i--) {
+			for (int j = working.length - 1; j >= 0; j--) {
+				lengths[i][j] = base[i] == working[j]
+						? lengths[i + 1][j + 1] + 1
+						: Math.max(lengths[i + 1][j], lengths[i][j + 1])
+			}
+		}
+		return lengths[0][0]
+	}
+}
@@ -36,6 +36,18 @@ class EqualsIdentityStrategyTest extends Specification {
 		  'foo' | 'foo' || true
 	}
 
+	@Unroll
+	def "hashCode(#item) should be #hash"() {
+		expect:
+		  identityStrategy.hashCode(item) == hash
+
+		where:
+		  item  || hash
+		  null  || 0
+		  'foo' || 'foo'.hashCode()
+		  42    || 42
+	}
+
 	def "getInstance"() {
 		expect:
 		  EqualsIdentityStrategy.instance.is(identityStrategy)
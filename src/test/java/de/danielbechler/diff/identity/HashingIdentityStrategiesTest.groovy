@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.identity
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class HashingIdentityStrategiesTest extends Specification {
+
+	@Unroll
+	def 'isHashing(#strategyName) should be #expected'() {
+		expect:
+		  HashingIdentityStrategies.isHashing(identityStrategy) == expected
+		where:
+		  strategyName                      | identityStrategy                         || expected
+		  'EqualsIdentityStrategy'          | EqualsIdentityStrategy.instance          || true
+		  'HashingIdentityStrategy'         | Stub(HashingIdentityStrategy)            || true
+		  'IdentityStrategy'                | Stub(IdentityStrategy)                   || false
+		  'subclass of the equals strategy' | new CaseInsensitiveIdentityStrategy()    || false
+		  'null'                            | null                                     || false
+	}
+
+	private static class CaseInsensitiveIdentityStrategy extends EqualsIdentityStrategy {
+		@Override
+		boolean equals(Object working, Object base) {
+			return ((String) working).equalsIgnoreCase((String) base)
+		}
+	}
+}
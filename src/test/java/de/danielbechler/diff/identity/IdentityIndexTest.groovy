@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.identity
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class IdentityIndexTest extends Specification {
+
+	def 'construction fails without items'() {
+		when:
+		  new IdentityIndex(null, EqualsIdentityStrategy.instance)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	def 'construction fails without identity strategy'() {
+		when:
+		  new IdentityIndex([], null)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	@Unroll
+	def 'contains(#needle) should be #expected when using #strategyName strategy'() {
+		given:
+		  def index = new IdentityIndex(['a', 'b', null, 'c'], identityStrategy)
+		expect:
+		  index.contains(needle) == expected
+		where:
+		  needle | expected | identityStrategy
+		  'a'    | true     | EqualsIdentityStrategy.instance
+		  'c'    | true     | EqualsIdentityStrategy.instance
+		  null   | true     | EqualsIdentityStrategy.instance
+		  'd'    | false    | EqualsIdentityStrategy.instance
+		  'a'    | true     | new NonHashingIdentityStrategy()
+		  'c'    | true     | new NonHashingIdentityStrategy()
+		  null   | true     | new NonHashingIdentityStrategy()
+		  'd'    | false    | new NonHashingIdentityStrategy()
+
+		  strategyName = identityStrategy instanceof HashingIdentityStrategy ? 'hashing' : 'non-hashing'
+	}
+
+	def 'get returns the first matching item in iteration order'() {
+		given:
+		  def first = new StringBuilder('foo')
+		  def second = new StringBuilder('foo')
+		  def strategy = new HashingIdentityStrategy() {
+			  boolean equals(Object working, Object base) {
+				  return working.toString() == base.toString()
+			  }
+
+			  int hashCode(Object item) {
+				  return item.toString().hashCode()
+			  }
+		  }
+		  def index = new IdentityIndex([first, second], strategy)
+		expect:
+		  index.get('foo').is(first)
+	}
+
+	def 'get returns null when there is no matching item'() {
+		expect:
+		  new IdentityIndex(['foo'], EqualsIdentityStrategy.instance).get('bar') == null
+	}
+
+	def 'only compares items with matching hash codes when strategy supports hashing'() {
+		given:
+		  def comparisons = 0
+		  def strategy = new HashingIdentityStrategy() {
+			  boolean equals(Object working, Object base) {
+				  comparisons++
+				  return working == base
+			  }
+
+			  int hashCode(Object item) {
+				  return item.hashCode()
+			  }
+		  }
+		  def index = new IdentityIndex((1..1000).toList(), strategy)
+		when:
+		  index.contains(500)
+		then:
+		  comparisons == 1
+	}
+
+	def 'size'() {
+		expect:
+		  new IdentityIndex(['a', 'b', 'a'], EqualsIdentityStrategy.instance).size() == 3
+	}
+
+	def 'isIndexOf only matches the indexed collection instance'() {
+		given:
+		  def items = ['a', 'b']
+		  def index = new IdentityIndex(items, EqualsIdentityStrategy.instance)
+		expect:
+		  index.isIndexOf(items)
+		  !index.isIndexOf(['a', 'b'])
+		  !index.isIndexOf(null)
+	}
+
+	private static class NonHashingIdentityStrategy implements IdentityStrategy {
+		boolean equals(Object working, Object base) {
+			return working == base
+		}
+	}
+}
@@ -88,6 +88,39 @@ class NodePathInclusionResolverTest extends Specification {
 	def "GetInclusion: returns DEFAULT when neither the node itself nor its parents have an inclusion"() {
 	}
 
+	@Unroll
+	def "GetInclusion: unconfigured node #path inherits #expectedInclusion from its closest configured ancestor"() {
+		given:
+		  inclusionResolver.setInclusion(NodePath.with('foo'), INCLUDED)
+		  inclusionResolver.setInclusion(NodePath.with('foo', 'bar'), EXCLUDED)
+		  inclusionResolver.setInclusion(NodePath.with('baz', 'qux'), null)
+		  def node = Stub(DiffNode) {
+			  getPath() >> path
+		  }
+		expect:
+		  inclusionResolver.getInclusion(node) == expectedInclusion
+		where:
+		  path                                    || expectedInclusion
+		  NodePath.with('foo', 'other')           || INCLUDED
+		  NodePath.with('foo', 'other', 'deeper') || INCLUDED
+		  NodePath.with('foo', 'bar', 'deeper')   || EXCLUDED
+		  NodePath.with('baz', 'qux', 'deeper')   || DEFAULT
+		  NodePath.with('other')                  || DEFAULT
+	}
+
+	def "GetInclusion: does not add the paths of the compared nodes to the configuration"() {
+		given:
+		  inclusionResolver.setInclusion(NodePath.with('foo'), EXCLUDED)
+		  def node = Stub(DiffNode) {
+			  getPath() >> NodePath.with('foo', 'bar')
+		  }
+		when:
+		  inclusionResolver.getInclusion(node)
+		  def copy = inclusionResolver.copy()
+		then:
+		  copy.inclusions.findNodeForPath(NodePath.with('foo', 'bar')) == null
+	}
+
 	def "EnablesStrictIncludeMode: is true when at least one INCLUDE has been configured"() {
 		expect:
 		  !inclusionResolver.enablesStrictIncludeMode()
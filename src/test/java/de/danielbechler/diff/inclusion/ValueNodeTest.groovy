@@ -16,8 +16,10 @@
 
 package de.danielbechler.diff.inclusion
 
+import de.danielbechler.diff.identity.IdentityStrategy
 import de.danielbechler.diff.path.NodePath
 import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import de.danielbechler.diff.selector.CollectionItemElementSelector
 import de.danielbechler.diff.selector.RootElementSelector
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -66,6 +68,17 @@ class ValueNodeTest extends Specification {
 		  node.getChild(childElementSelector).elementSelector == childElementSelector
 	}
 
+	def 'GetChild: finds child for collection item selector with custom identity strategy'() {
+		setup:
+		  def childNode = node.getChild(new CollectionItemElementSelector('foo'))
+		  def identityStrategy = Stub(IdentityStrategy) {
+			  equals('foo', 'foo') >> true
+		  }
+
+		expect:
+		  node.getChild(new CollectionItemElementSelector('foo').copyWithIdentityStrategy(identityStrategy)) is childNode
+	}
+
 	def 'GetChild: sets reference to parent when creating new child nodes'() {
 		when:
 		  def childNode = node.getChild(new BeanPropertyElementSelector('foo'))
@@ -114,6 +127,59 @@ class ValueNodeTest extends Specification {
 		  childNode.getNodeForPath(NodePath.with('foo', 'bar')) is childNode
 	}
 
+	def 'FindNodeForPath: returns existing nodes'() {
+		given:
+		  def childNode = node.getNodeForPath(NodePath.with('foo', 'bar'))
+		expect:
+		  node.findNodeForPath(NodePath.with('foo', 'bar')) is childNode
+		  node.findNodeForPath(NodePath.withRoot()) is node
+		  childNode.findNodeForPath(NodePath.with('foo')) is childNode.parent
+	}
+
+	def 'FindNodeForPath: returns null for unknown paths without creating any nodes'() {
+		given:
+		  node.getNodeForPath(NodePath.with('foo'))
+		expect:
+		  node.findNodeForPath(NodePath.with('foo', 'bar')) == null
+		  node.findNodeForPath(NodePath.with('bar')) == null
+		and:
+		  !node.getChild(new BeanPropertyElementSelector('foo')).hasChild(new BeanPropertyElementSelector('bar'))
+		  !node.hasChild(new BeanPropertyElementSelector('bar'))
+	}
+
+	def 'FindNodeForPath: finds child for collection item selector with custom identity strategy'() {
+		given:
+		  def childNode = node.getChild(new CollectionItemElementSelector('foo'))
+		  def identityStrategy = Stub(IdentityStrategy) {
+			  equals('foo', 'foo') >> true
+		  }
+		  def nodePath = NodePath.startBuilding()
+				  .element(new CollectionItemElementSelector('foo').copyWithIdentityStrategy(identityStrategy))
+				  .build()
+		expect:
+		  node.findNodeForPath(nodePath) is childNode
+	}
+
+	@Unroll
+	def 'FindClosestNodeForPath: returns the closest existing node for #path'() {
+		given:
+		  def fooNode = node.getNodeForPath(NodePath.with('foo'))
+		  def barNode = node.getNodeForPath(NodePath.with('foo', 'bar'))
+		  def expectedNode = [root: node, foo: fooNode, bar: barNode][expected]
+		expect:
+		  node.findClosestNodeForPath(path) is expectedNode
+		and:
+		  node.findNodeForPath(NodePath.with('foo', 'bar', 'baz')) == null
+		where:
+		  path                                || expected
+		  NodePath.withRoot()                 || 'root'
+		  NodePath.with('baz')                || 'root'
+		  NodePath.with('foo')                || 'foo'
+		  NodePath.with('foo', 'baz')         || 'foo'
+		  NodePath.with('foo', 'bar')         || 'bar'
+		  NodePath.with('foo', 'bar', 'baz')  || 'bar'
+	}
+
 	def 'ContainsValue: is true when the node has the requested value'() {
 		when:
 		  node.setValue(INCLUDED)
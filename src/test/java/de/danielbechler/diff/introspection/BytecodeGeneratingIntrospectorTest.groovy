@@ -0,0 +1,241 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.mock.ObjectDiffTest
+import de.danielbechler.diff.mock.ObjectWithAnnotatedProperty
+import de.danielbechler.diff.mock.ObjectWithPrimitiveProperties
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class BytecodeGeneratingIntrospectorTest extends Specification {
+
+	def introspector = new BytecodeGeneratingIntrospector()
+
+	private Map<String, PropertyAwareAccessor> introspect(Class<?> type) {
+		introspector.introspect(type).accessors.collectEntries {
+			accessor -> [accessor.propertyName, accessor]
+		}
+	}
+
+	@Unroll
+	def 'should generate accessor for #propertyName property'() {
+		given:
+		  def accessor = introspect(TypeWithAllKindsOfProperties).get(propertyName)
+		  def target = new TypeWithAllKindsOfProperties()
+
+		expect:
+		  accessor instanceof GeneratedPropertyAccessor
+		  accessor.type == type
+
+		when:
+		  accessor.set(target, value)
+
+		then:
+		  accessor.get(target) == value
+		  target."$propertyName" == value
+
+		where:
+		  propertyName   | type     | value
+		  'booleanValue' | boolean  | true
+		  'byteValue'    | byte     | (byte) 42
+		  'charValue'    | char     | (char) 'x'
+		  'shortValue'   | short    | (short) 42
+		  'intValue'     | int      | 42
+		  'longValue'    | long     | 42L
+		  'floatValue'   | float    | 4.2f
+		  'doubleValue'  | double   | 4.2d
+		  'stringValue'  | String   | 'foo'
+		  'arrayValue'   | String[] | ['foo', 'bar'] as String[]
+		  'objectValue'  | Object   | new Object()
+	}
+
+	def 'should generate accessors that work for interfaces'() {
+		given:
+		  def accessor = introspect(TypeWithInterfaceProperty).get('value')
+		  TypeWithInterfaceProperty target = new TypeWithInterfaceProperty() {
+			  String value = 'foo'
+		  }
+
+		expect:
+		  accessor instanceof GeneratedPropertyAccessor
+		  accessor.get(target) == 'foo'
+
+		when:
+		  accessor.set(target, 'bar')
+
+		then:
+		  target.value == 'bar'
+	}
+
+	def 'should return null when reading from null target'() {
+		expect:
+		  introspect(TypeWithAllKindsOfProperties).get('stringValue').get(null) == null
+	}
+
+	def 'should wrap exceptions thrown by the read method in PropertyReadException'() {
+		given:
+		  def accessor = introspect(TypeWithFailingProperty).get('value')
+
+		when:
+		  accessor.get(new TypeWithFailingProperty())
+
+		then:
+		  def exception = thrown(PropertyReadException)
+		  exception.cause instanceof UnsupportedOperationException
+	}
+
+	def 'should wrap exceptions thrown by the write method in PropertyWriteException'() {
+		given:
+		  def accessor = introspect(TypeWithFailingProperty).get('value')
+
+		when:
+		  accessor.set(new TypeWithFailingProperty(), 'foo')
+
+		then:
+		  def exception = thrown(PropertyWriteException)
+		  exception.cause instanceof UnsupportedOperationException
+	}
+
+	def 'should wrap ClassCastException in PropertyWriteException when value has wrong type'() {
+		given:
+		  def accessor = introspect(TypeWithAllKindsOfProperties).get('stringValue')
+
+		when:
+		  accessor.set(new TypeWithAllKindsOfProperties(), 42)
+
+		then:
+		  def exception = thrown(PropertyWriteException)
+		  exception.cause instanceof ClassCastException
+	}
+
+	def 'should keep annotations and categories of the read method'() {
+		when:
+		  def accessor = introspect(ObjectWithAnnotatedProperty).get('value')
+
+		then:
+		  accessor instanceof GeneratedPropertyAccessor
+		  accessor.excludedByAnnotation
+		  accessor.readMethodAnnotations.collect { it.annotationType() }.containsAll([ObjectDiffTest, ObjectDiffProperty])
+		  accessor.getReadMethodAnnotation(ObjectDiffTest) != null
+	}
+
+	def 'should fall back to reflection for non-public types'() {
+		expect:
+		  introspect(NonPublicType).get('value').class == PropertyAccessor
+	}
+
+	def 'should fall back to reflection when the type of the write method is not public'() {
+		expect:
+		  introspect(TypeWithNonPublicPropertyType).get('value').class == PropertyAccessor
+	}
+
+	def 'should generate a single invoker for all properties of a type'() {
+		when:
+		  def accessors = introspect(TypeWithAllKindsOfProperties).values()
+
+		then:
+		  accessors.every { it instanceof GeneratedPropertyAccessor }
+		  accessors.collect { it.@propertyInvoker }.unique().size() == 1
+	}
+
+	def 'should define the invokers of types from the same class loader in the same class loader'() {
+		given:
+		  def accessor = introspect(TypeWithAllKindsOfProperties).get('stringValue')
+		  def otherAccessor = introspect(TypeWithInterfaceProperty).get('value')
+
+		expect:
+		  accessor.@propertyInvoker.class != otherAccessor.@propertyInvoker.class
+		  accessor.@propertyInvoker.class.classLoader.is(otherAccessor.@propertyInvoker.class.classLoader)
+	}
+
+	def 'should only fall back to reflection for the properties that need it'() {
+		given:
+		  def accessors = introspect(TypeWithMixedProperties)
+		  def target = new TypeWithMixedProperties(publicValue: 'foo', nonPublicValue: new NonPublicType())
+
+		expect:
+		  accessors.get('publicValue') instanceof GeneratedPropertyAccessor
+		  accessors.get('nonPublicValue').class == PropertyAccessor
+		  accessors.get('publicValue').get(target) == 'foo'
+		  accessors.get('nonPublicValue').get(target).is(target.nonPublicValue)
+	}
+
+	def 'should produce the same diff as the StandardIntrospector'() {
+		given:
+		  def working = new ObjectWithPrimitiveProperties(intValue: 1, longValue: 2L, booleanValue: true)
+		  def base = new ObjectWithPrimitiveProperties(intValue: 2, longValue: 2L, booleanValue: false)
+
+		when:
+		  def generatedNode = ObjectDifferBuilder.startBuilding()
+				  .introspection().setDefaultIntrospector(introspector).and()
+				  .build()
+				  .compare(working, base)
+		  def standardNode = ObjectDifferBuilder.buildDefault().compare(working, base)
+
+		then:
+		  generatedNode.childCount() == 2
+		  ['intValue', 'booleanValue'].every {
+			  generatedNode.getChild(it).state == standardNode.getChild(it).state
+		  }
+	}
+
+	static class TypeWithAllKindsOfProperties {
+		boolean booleanValue
+		byte byteValue
+		char charValue
+		short shortValue
+		int intValue
+		long longValue
+		float floatValue
+		double doubleValue
+		String stringValue
+		String[] arrayValue
+		Object objectValue
+	}
+
+	static interface TypeWithInterfaceProperty {
+		String getValue()
+
+		void setValue(String value)
+	}
+
+	static class TypeWithFailingProperty {
+		String getValue() {
+			throw new UnsupportedOperationException()
+		}
+
+		void setValue(String value) {
+			throw new UnsupportedOperationException()
+		}
+	}
+
+	static class TypeWithMixedProperties {
+		NonPublicType nonPublicValue
+		String publicValue
+	}
+
+	private static class NonPublicType {
+		String value
+	}
+
+	static class TypeWithNonPublicPropertyType {
+		NonPublicType value
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.instantiation.InstanceFactory
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.mock.ObjectWithString
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.path.NodePath
+import spock.lang.Specification
+
+class TypeInfoCacheTest extends Specification {
+
+	def introspectionService = new IntrospectionService(Mock(ObjectDifferBuilder))
+	def defaultIntrospector = Mock(Introspector)
+	def typeInfoCache = introspectionService.newTypeInfoCache()
+
+	def setup() {
+		introspectionService.setDefaultIntrospector(defaultIntrospector)
+	}
+
+	def 'typeInfoForNode introspects a type only once'() {
+		given:
+		  def node = DiffNode.newRootNodeWithType(ObjectWithString)
+
+		when:
+		  def first = typeInfoCache.typeInfoForNode(node)
+		  def second = typeInfoCache.typeInfoForNode(node)
+
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		and:
+		  first.is(second)
+		  typeInfoCache.missCount == 1
+		  typeInfoCache.hitCount == 1
+		  typeInfoCache.size() == 1
+	}
+
+	def 'typeInfoForNode caches type information separately for every introspector'() {
+		given:
+		  def node = DiffNode.newRootNodeWithType(ObjectWithString)
+		  def nodePathIntrospector = Mock(Introspector)
+
+		when:
+		  def defaultTypeInfo = typeInfoCache.typeInfoForNode(node)
+
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+
+		when:
+		  introspectionService.ofNode(NodePath.withRoot()).toUse(nodePathIntrospector)
+		  def nodePathTypeInfo = typeInfoCache.typeInfoForNode(node)
+
+		then:
+		  1 * nodePathIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		and:
+		  !defaultTypeInfo.is(nodePathTypeInfo)
+		  typeInfoCache.missCount == 2
+		  typeInfoCache.size() == 2
+	}
+
+	def 'typeInfoForNode applies the configured instance factory'() {
+		given:
+		  def instanceFactory = Mock(InstanceFactory)
+		  introspectionService.setInstanceFactory(instanceFactory)
+		  defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+
+		when:
+		  def typeInfo = typeInfoCache.typeInfoForNode(DiffNode.newRootNodeWithType(ObjectWithString))
+		  typeInfo.newInstance()
+
+		then:
+		  1 * instanceFactory.newInstanceOfType(ObjectWithString) >> new ObjectWithString()
+	}
+
+	def 'prewarm introspects the given types upfront'() {
+		given:
+		  def typeIntrospector = Mock(Introspector)
+		  introspectionService.ofType(String).toUse(typeIntrospector)
+
+		when:
+		  typeInfoCache.prewarm(ObjectWithString, String)
+
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		  1 * typeIntrospector.introspect(String) >> new TypeInfo(String)
+		and:
+		  typeInfoCache.missCount == 2
+		  typeInfoCache.size() == 2
+
+		when:
+		  typeInfoCache.typeInfoForNode(DiffNode.newRootNodeWithType(ObjectWithString))
+
+		then:
+		  0 * defaultIntrospector.introspect(_)
+		and:
+		  typeInfoCache.hitCount == 1
+	}
+
+	def 'prewarm should fail on null types'() {
+		when:
+		  typeInfoCache.prewarm(ObjectWithString, null)
+
+		then:
+		  thrown(IllegalArgumentException)
+		and:
+		  0 * defaultIntrospector.introspect(_)
+	}
+
+	def 'ObjectDiffer reuses cached type information across comparisons'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.buildDefault()
+
+		when:
+		  objectDiffer.compare(new ObjectWithString('foo'), new ObjectWithString('bar'))
+		  objectDiffer.compare(new ObjectWithString('foo'), new ObjectWithString('bar'))
+
+		then:
+		  objectDiffer.typeInfoCache.missCount == 1
+		  objectDiffer.typeInfoCache.hitCount == 1
+	}
+}
@@ -19,6 +19,7 @@ package de.danielbechler.diff.node
 import de.danielbechler.diff.access.Accessor
 import de.danielbechler.diff.access.CollectionItemAccessor
 import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.category.ConfiguredCategoryResolver
 import de.danielbechler.diff.mock.ObjectDiffTest
 import de.danielbechler.diff.path.NodePath
 import de.danielbechler.diff.selector.BeanPropertyElementSelector
@@ -83,6 +84,145 @@ class DiffNodeTest extends Specification {
 		  rootNode.hasChanges() == true
 	}
 
+	def 'descendant counts: sum up the states of all descendants'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def beanNode = childOf(rootNode, 'bean', UNTOUCHED)
+		  childOf(beanNode, 'added', ADDED)
+		  childOf(beanNode, 'removed', REMOVED)
+		  childOf(beanNode, 'moved', MOVED)
+		  childOf(beanNode, 'untouched', UNTOUCHED)
+		  childOf(rootNode, 'changed', CHANGED)
+		expect:
+		  rootNode.addedDescendantCount == 1
+		  rootNode.removedDescendantCount == 1
+		  rootNode.movedDescendantCount == 1
+		  rootNode.changedDescendantCount == 2
+		and:
+		  beanNode.state == CHANGED
+		  beanNode.changedDescendantCount == 0
+		  beanNode.hasChanges()
+	}
+
+	def 'descendant counts: follow state changes of nodes that have already been added'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def beanNode = childOf(rootNode, 'bean', UNTOUCHED)
+		  def propertyNode = childOf(beanNode, 'property', UNTOUCHED)
+		expect:
+		  !rootNode.hasChanges()
+		when:
+		  propertyNode.state = ADDED
+		then:
+		  rootNode.addedDescendantCount == 1
+		  rootNode.hasChanges()
+		when:
+		  propertyNode.state = UNTOUCHED
+		then:
+		  rootNode.addedDescendantCount == 0
+		  !beanNode.hasChanges()
+	}
+
+	def 'descendant counts: ignore nodes that have not been added to their parent yet'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def beanNode = new DiffNode(rootNode, accessorFor('bean'), Object)
+		when:
+		  childOf(beanNode, 'property', ADDED)
+		then:
+		  beanNode.addedDescendantCount == 1
+		  rootNode.addedDescendantCount == 0
+		  !rootNode.hasChanges()
+		when:
+		  rootNode.addChild(beanNode)
+		then:
+		  rootNode.addedDescendantCount == 1
+		  rootNode.changedDescendantCount == 1
+	}
+
+	def 'descendant counts: forget about replaced children'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  childOf(rootNode, 'property', ADDED)
+		when:
+		  childOf(rootNode, 'property', REMOVED)
+		then:
+		  rootNode.addedDescendantCount == 0
+		  rootNode.removedDescendantCount == 1
+	}
+
+	@Unroll
+	def 'addChild: keeps #childCount children in the order they have been added'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def names = (0..<childCount).collect { "property$it".toString() }
+		when:
+		  def children = names.collect { childOf(rootNode, it, CHANGED) }
+		then:
+		  rootNode.childCount() == childCount
+		  rootNode.hasChildren() == (childCount > 0)
+		  childrenOf(rootNode) == children
+		  names.every { rootNode.getChild(it).is(children[names.indexOf(it)]) }
+		  rootNode.getChild('unknown') == null
+		where:
+		  childCount << [0, 1, 2, 3, 8, 16, 17, 40]
+	}
+
+	@Unroll
+	def 'addChild: replaces the child with the same element selector among #childCount children'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def names = (0..<childCount).collect { "property$it".toString() }
+		  names.each { childOf(rootNode, it, ADDED) }
+		when:
+		  def replacement = childOf(rootNode, names.first(), REMOVED)
+		then:
+		  rootNode.childCount() == childCount
+		  rootNode.getChild(names.first()).is(replacement)
+		  childrenOf(rootNode).first().is(replacement)
+		  rootNode.addedDescendantCount == childCount - 1
+		  rootNode.removedDescendantCount == 1
+		where:
+		  childCount << [1, 2, 16, 17]
+	}
+
+	def 'getCircleStartPath: remembers the start of the circle'() {
+		given:
+		  def node = DiffNode.newRootNode()
+		  def circleStartNode = DiffNode.newRootNode()
+		expect:
+		  node.circleStartPath == null
+		  node.circleStartNode == null
+		when:
+		  node.circleStartPath = NodePath.with('foo')
+		  node.circleStartNode = circleStartNode
+		then:
+		  node.circleStartPath == NodePath.with('foo')
+		  node.circleStartNode.is(circleStartNode)
+	}
+
+	private static List<DiffNode> childrenOf(DiffNode node) {
+		def children = []
+		node.visitChildren({ child, visit ->
+			children << child
+			visit.dontGoDeeper()
+		} as DiffNode.Visitor)
+		return children
+	}
+
+	private DiffNode childOf(DiffNode parentNode, String propertyName, DiffNode.State state) {
+		def node = new DiffNode(parentNode, accessorFor(propertyName), Object)
+		node.state = state
+		parentNode.addChild(node)
+		return node
+	}
+
+	private Accessor accessorFor(String propertyName) {
+		return Stub(Accessor) {
+			getElementSelector() >> new BeanPropertyElementSelector(propertyName)
+		}
+	}
+
 	def 'getPropertyPath: returns absolute path for root node'() {
 		given:
 		  def diffNode = DiffNode.newRootNode()
@@ -106,6 +246,44 @@ class DiffNodeTest extends Specification {
 		  diffNode.path == NodePath.with('a', 'b', 'c')
 	}
 
+	def 'getPath: builds the path only once'() {
+		given:
+		  def accessor = Mock(Accessor)
+		  def diffNode = new DiffNode(DiffNode.newRootNode(), accessor, Object)
+
+		when:
+		  def path = diffNode.path
+
+		then:
+		  1 * accessor.getElementSelector() >> new BeanPropertyElementSelector('foo')
+		and:
+		  diffNode.path.is(path)
+	}
+
+	def 'getPath: reflects the parent node once the node has been added as child'() {
+		given:
+		  def parent = new DiffNode(DiffNode.newRootNode(), Stub(Accessor) {
+			  getElementSelector() >> new BeanPropertyElementSelector('a')
+		  }, Object)
+		  def child = new DiffNode(null, Stub(Accessor) {
+			  getElementSelector() >> new BeanPropertyElementSelector('b')
+		  }, Object)
+		  def grandChild = new DiffNode(child, Stub(Accessor) {
+			  getElementSelector() >> new BeanPropertyElementSelector('c')
+		  }, Object)
+		  child.addChild(grandChild)
+
+		expect:
+		  grandChild.path == NodePath.with('b', 'c')
+
+		when:
+		  parent.addChild(child)
+
+		then:
+		  child.path == NodePath.with('a', 'b')
+		  grandChild.path == NodePath.with('a', 'b', 'c')
+	}
+
 	def 'addChild: fails with exception when attempting to add root node'() {
 		given:
 		  def rootNode = DiffNode.newRootNode()
@@ -254,6 +432,79 @@ class DiffNodeTest extends Specification {
 		  node.getCategories() == ["addedCategory"] as Set
 	}
 
+	def 'nodes without categories of their own share the categories of their parent'() {
+		given:
+		  def parentNode = new DiffNode(null, Mock(Accessor), Object)
+		  parentNode.addCategories(['foo'])
+		  def node = new DiffNode(parentNode, Mock(Accessor), Object)
+		expect:
+		  node.categories.is(parentNode.categories)
+	}
+
+	def 'nodes in the same categories share the same set'() {
+		given:
+		  def node = new DiffNode(null, Mock(Accessor), Object)
+		  node.addCategories(['foo', 'bar'])
+		  def otherNode = new DiffNode(null, Mock(Accessor), Object)
+		  otherNode.addCategories(['bar'])
+		  otherNode.addCategories(['foo'])
+		expect:
+		  node.categories.is(otherNode.categories)
+	}
+
+	def 'categories added to a node after its children have been looked at show up in them'() {
+		given:
+		  def parentNode = new DiffNode(null, Mock(Accessor), Object)
+		  def node = new DiffNode(parentNode, Mock(Accessor), Object)
+		  node.addCategories(['foo'])
+		  assert node.categories == ['foo'] as Set
+		when:
+		  parentNode.addCategories(['bar'])
+		then:
+		  node.categories == ['bar', 'foo'] as Set
+	}
+
+	def 'adding categories a node already inherits from its parent does not change its categories'() {
+		given:
+		  def parentNode = new DiffNode(null, Mock(Accessor), Object)
+		  parentNode.addCategories(['foo'])
+		  def node = new DiffNode(parentNode, Mock(Accessor), Object)
+		when:
+		  node.addCategories(['foo'])
+		then:
+		  node.categories.is(parentNode.categories)
+	}
+
+	def 'looks up configured categories only once they are needed'() {
+		given:
+		  def resolver = Mock(ConfiguredCategoryResolver)
+		  def node = new DiffNode(null, Mock(Accessor), Object)
+		when:
+		  node.configuredCategoryResolver = resolver
+		then:
+		  0 * resolver._
+		when:
+		  def categories = [node.categories, node.categories]
+		then:
+		  1 * resolver.resolveConfiguredCategories(node) >> (['foo'] as Set)
+		and:
+		  categories == [['foo'] as Set, ['foo'] as Set]
+	}
+
+	def 'combines configured categories with added ones and those of the parent'() {
+		given:
+		  def parentNode = new DiffNode(null, Mock(Accessor), Object)
+		  parentNode.addCategories(['parent'])
+		  def node = new DiffNode(parentNode, Mock(Accessor), Object)
+		  node.addCategories(['added'])
+		when:
+		  node.configuredCategoryResolver = Stub(ConfiguredCategoryResolver) {
+			  resolveConfiguredCategories(node) >> (['configured'] as Set)
+		  }
+		then:
+		  node.categories == ['added', 'configured', 'parent'] as Set
+	}
+
 	def "categories should not be modifiable by a client directly"() {
 
 		when:
@@ -156,6 +156,35 @@ class NodePathTest extends Specification {
 		  thrown IllegalArgumentException
 	}
 
+	def 'startBuildingFrom: doesn\'t modify the original path'() {
+		given:
+		  def path = NodePath.with('foo')
+
+		when:
+		  def childPath = NodePath.startBuildingFrom(path).propertyName('bar').build()
+
+		then:
+		  path == NodePath.with('foo')
+		  childPath == NodePath.with('foo', 'bar')
+		  childPath.isChildOf(path)
+	}
+
+	def 'startBuildingFrom: fails when path would contain multiple root elements'() {
+		when:
+		  NodePath.startBuildingFrom(NodePath.with('foo')).element(RootElementSelector.instance).build()
+		then:
+		  thrown IllegalStateException
+	}
+
+	def 'hashCode: is the same as the hashCode of the element selectors'() {
+		given:
+		  def path = NodePath.startBuilding().propertyName('a').collectionItem('b').mapKey('c').build()
+
+		expect:
+		  path.hashCode() == path.elementSelectors.hashCode()
+		  path.hashCode() == NodePath.startBuilding().propertyName('a').collectionItem('b').mapKey('c').build().hashCode()
+	}
+
 	def 'withRoot: build path with only the root element'() {
 		expect:
 		  NodePath.withRoot().elementSelectors == [
@@ -1,5 +1,7 @@
 package de.danielbechler.diff.path
 
+import de.danielbechler.diff.identity.IdentityStrategy
+import de.danielbechler.diff.selector.CollectionItemElementSelector
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -46,4 +48,47 @@ class NodePathValueHolderTest extends Specification {
 		expect:
 		  valueHolder.accumulatedValuesForNodePath(NodePath.with("a", "b")) == ["foo1", "foo2", "foo3"]
 	}
+
+	def "should find values for collection items selected via custom identity strategy"() {
+		given:
+		  def valueHolder = NodePathValueHolder.of(String)
+		  valueHolder.put(NodePath.startBuilding().collectionItem('foo').build(), 'bar')
+		and:
+		  def identityStrategy = Stub(IdentityStrategy) {
+			  equals('foo', 'foo') >> true
+		  }
+		  def selector = new CollectionItemElementSelector('foo').copyWithIdentityStrategy(identityStrategy)
+
+		expect:
+		  valueHolder.valueForNodePath(NodePath.startBuilding().element(selector).build()) == 'bar'
+	}
+
+	def "isEmpty: should return true until a value has been stored"() {
+		given:
+		  def valueHolder = NodePathValueHolder.of(String)
+
+		expect:
+		  valueHolder.isEmpty()
+
+		when:
+		  valueHolder.put(NodePath.with("a", "b"), "foo")
+
+		then:
+		  !valueHolder.isEmpty()
+	}
+
+	def "copy: should not be affected by later changes to the original"() {
+		given:
+		  def valueHolder = NodePathValueHolder.of(String)
+		  valueHolder.put(NodePath.with("a"), "foo1")
+
+		when:
+		  def copy = valueHolder.copy()
+		  valueHolder.put(NodePath.with("a"), "foo2")
+		  valueHolder.put(NodePath.with("a", "b"), "foo3")
+
+		then:
+		  copy.valueForNodePath(NodePath.with("a")) == "foo1"
+		  copy.valueForNodePath(NodePath.with("a", "b")) == null
+	}
 }
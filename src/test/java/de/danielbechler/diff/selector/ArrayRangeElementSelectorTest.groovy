@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ArrayRangeElementSelectorTest extends Specification {
+
+	@Unroll
+	def 'equals should be #expected when comparing #selector with #otherSelector'() {
+		expect:
+		  selector.equals(otherSelector) == expected
+		where:
+		  selector                            | otherSelector                        || expected
+		  new ArrayRangeElementSelector(0, 1) | new ArrayRangeElementSelector(0, 1)  || true
+		  new ArrayRangeElementSelector(0, 1) | new ArrayRangeElementSelector(0, 2)  || false
+		  new ArrayRangeElementSelector(0, 2) | new ArrayRangeElementSelector(1, 2)  || false
+		  new ArrayRangeElementSelector(0, 1) | new CollectionItemElementSelector(0) || false
+		  new ArrayRangeElementSelector(0, 1) | null                                 || false
+	}
+
+	def 'equal selectors have equal hash codes'() {
+		expect:
+		  new ArrayRangeElementSelector(3, 5).hashCode() == new ArrayRangeElementSelector(3, 5).hashCode()
+	}
+
+	@Unroll
+	def 'rejects the invalid range from #fromIndex to #toIndex'() {
+		when:
+		  new ArrayRangeElementSelector(fromIndex, toIndex)
+		then:
+		  thrown(IllegalArgumentException)
+		where:
+		  fromIndex | toIndex
+		  -1        | 1
+		  1         | 1
+		  2         | 1
+	}
+
+	@Unroll
+	def 'human readable string of range from #fromIndex to #toIndex is #expected'() {
+		expect:
+		  new ArrayRangeElementSelector(fromIndex, toIndex).toHumanReadableString() == expected
+		where:
+		  fromIndex | toIndex || expected
+		  3         | 4       || '[3]'
+		  3         | 5       || '[3..4]'
+	}
+}
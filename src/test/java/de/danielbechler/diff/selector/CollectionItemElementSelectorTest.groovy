@@ -1,5 +1,8 @@
 package de.danielbechler.diff.selector
 
+import de.danielbechler.diff.identity.EqualsIdentityStrategy
+import de.danielbechler.diff.identity.HashingIdentityStrategy
+import de.danielbechler.diff.identity.IdentityStrategy
 import spock.lang.Specification
 /**
  * @author Daniel Bechler
@@ -36,16 +39,61 @@ class CollectionItemElementSelectorTest extends Specification {
 		  !element.equals(null)
 	}
 
-	def 'should have constant hashCode'() {
-		// NOTE(@SQiShER): In this case the hashCode is only used to use the ElementSelector
-		// as key in a Map. With introduction of the IdentityStrategy this adds an unnecessary
-		// source of confusion and complexity when implementing custom IdentityStrategies. To
-		// avoid this, returning a constant hashCode seems like a small fee to pay. Yes, it may
-		// have a small performance impact, but we can still optimize when it turns out to
-		// actually be a problem.
+	def 'should use hashCode of identity strategy'() {
+		given:
+		  def identityStrategy = Stub(HashingIdentityStrategy) {
+			  hashCode('foo') >> 42
+		  }
 
 		expect:
-		  new CollectionItemElementSelector('foo').hashCode() == 31
+		  new CollectionItemElementSelector('foo', identityStrategy).hashCode() == 42
+	}
+
+	def 'should have same hashCode as item when using default identity strategy'() {
+		expect:
+		  new CollectionItemElementSelector('foo').hashCode() == 'foo'.hashCode()
+	}
+
+	def 'should have constant hashCode when identity strategy cannot compute hash codes'() {
+		// Without a HashingIdentityStrategy there is no way to know which items are considered equal,
+		// so returning a constant hashCode is the only safe option.
+
+		expect:
+		  new CollectionItemElementSelector('foo', Stub(IdentityStrategy)).hashCode() == 31
+	}
+
+	def 'should have constant hashCode when identity strategy overrides equals of the default strategy'() {
+		given:
+		  def identityStrategy = new EqualsIdentityStrategy() {
+			  @Override
+			  boolean equals(Object working, Object base) {
+				  return ((String) working).equalsIgnoreCase((String) base)
+			  }
+		  }
+
+		expect:
+		  new CollectionItemElementSelector('A', identityStrategy) == new CollectionItemElementSelector('a', identityStrategy)
+		  new CollectionItemElementSelector('A', identityStrategy).hashCode() == new CollectionItemElementSelector('a', identityStrategy).hashCode()
+	}
+
+	def 'should know whether its hash code is compatible with the default identity strategy'() {
+		expect:
+		  new CollectionItemElementSelector('foo').hashCompatibleWithDefault
+		  !new CollectionItemElementSelector('foo', Stub(IdentityStrategy)).hashCompatibleWithDefault
+	}
+
+	def 'should find values of selectors with custom identity strategies, even if the hash lookup fails'() {
+		given:
+		  def identityStrategy = new IdentityStrategy() {
+			  boolean equals(Object working, Object base) {
+				  return ((String) working).equalsIgnoreCase((String) base)
+			  }
+		  }
+		  def valuesBySelector = [(new CollectionItemElementSelector('a')): 'value']
+		expect:
+		  CollectionItemElementSelector.findValue(valuesBySelector, new CollectionItemElementSelector('A', identityStrategy)) == 'value'
+		  CollectionItemElementSelector.findValue(valuesBySelector, new CollectionItemElementSelector('b', identityStrategy)) == null
+		  CollectionItemElementSelector.findValue(valuesBySelector, new CollectionItemElementSelector('a')) == 'value'
 	}
 
 	def 'should provide accessor for item'() {
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.selector
+
+import spock.lang.Specification
+
+class ListItemElementSelectorTest extends Specification {
+
+	def 'should equal selectors of the same occurrence of the same item'() {
+		expect:
+		  new ListItemElementSelector(new CollectionItemElementSelector('a'), 1) == new ListItemElementSelector(new CollectionItemElementSelector('a'), 1)
+		  new ListItemElementSelector(new CollectionItemElementSelector('a'), 1).hashCode() == new ListItemElementSelector(new CollectionItemElementSelector('a'), 1).hashCode()
+	}
+
+	def 'should not equal selectors of other occurrences or items'() {
+		expect:
+		  new ListItemElementSelector(new CollectionItemElementSelector('a'), 0) != new ListItemElementSelector(new CollectionItemElementSelector('a'), 1)
+		  new ListItemElementSelector(new CollectionItemElementSelector('a'), 0) != new ListItemElementSelector(new CollectionItemElementSelector('b'), 0)
+		  new ListItemElementSelector(new CollectionItemElementSelector('a'), 0) != new CollectionItemElementSelector('a')
+	}
+
+	def 'should reject negative occurrences'() {
+		when:
+		  new ListItemElementSelector(new CollectionItemElementSelector('a'), -1)
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	def 'should be found via the values of its item selector'() {
+		given:
+		  def valuesBySelector = [(new CollectionItemElementSelector('a')): 'value']
+		expect:
+		  CollectionItemElementSelector.findValue(valuesBySelector, new ListItemElementSelector(new CollectionItemElementSelector('a'), 0)) == 'value'
+		  CollectionItemElementSelector.findValue(valuesBySelector, new ListItemElementSelector(new CollectionItemElementSelector('a'), 2)) == 'value'
+		  CollectionItemElementSelector.findValue(valuesBySelector, new ListItemElementSelector(new CollectionItemElementSelector('b'), 0)) == null
+	}
+
+	def 'should look like a collection item, unless it is a later occurrence'() {
+		expect:
+		  new ListItemElementSelector(new CollectionItemElementSelector('a'), 0).toString() == '[a]'
+		  new ListItemElementSelector(new CollectionItemElementSelector('a'), 2).toString() == '[a]#2'
+	}
+}